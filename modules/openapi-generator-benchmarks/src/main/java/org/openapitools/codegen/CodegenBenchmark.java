@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Schema;
+import org.openapitools.codegen.utils.ModelUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of every schema and operation of a normalized and flattened document into
+ * {@link CodegenModel} and {@link CodegenOperation} instances, for several generators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodegenBenchmark {
+    @Param({"java", "typescript-fetch", "python", "go"})
+    public String generator;
+
+    @Param({"100", "1000", "10000"})
+    public int schemaCount;
+
+    private OpenAPI openAPI;
+    private CodegenConfig config;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        openAPI = SyntheticSpec.parse(SyntheticSpec.json(schemaCount));
+        config = CodegenConfigLoader.forName(generator);
+        config.setOutputDir(Files.createTempDirectory("codegen-benchmark").toString());
+        config.processOpts();
+        new OpenAPINormalizer(openAPI, Collections.emptyMap()).normalize();
+        new InlineModelResolver().flatten(openAPI);
+        config.preprocessOpenAPI(openAPI);
+        config.setOpenAPI(openAPI);
+    }
+
+    @Benchmark
+    public void fromModel(Blackhole blackhole) {
+        for (Map.Entry<String, Schema> schema : ModelUtils.getSchemas(openAPI).entrySet()) {
+            blackhole.consume(config.fromModel(schema.getKey(), schema.getValue()));
+        }
+    }
+
+    @Benchmark
+    public void fromOperation(Blackhole blackhole) {
+        for (Map.Entry<String, PathItem> path : openAPI.getPaths().entrySet()) {
+            for (Map.Entry<PathItem.HttpMethod, Operation> operation : path.getValue().readOperationsMap().entrySet()) {
+                blackhole.consume(config.fromOperation(path.getKey(), operation.getKey().name().toLowerCase(Locale.ROOT),
+                        operation.getValue(), null));
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import org.apache.commons.io.FileUtils;
+import org.openapitools.codegen.config.CodegenConfigurator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full generator run, from parsing the document to writing all files into a temporary directory, for
+ * several generators.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenerateBenchmark {
+    @Param({"java", "typescript-fetch", "python", "go"})
+    public String generator;
+
+    @Param({"100", "1000", "10000"})
+    public int schemaCount;
+
+    private Path spec;
+    private Path outputDir;
+
+    @Setup(Level.Trial)
+    public void writeSpec() {
+        spec = SyntheticSpec.writeTemp(schemaCount);
+    }
+
+    @Setup(Level.Invocation)
+    public void createOutputDir() throws IOException {
+        outputDir = Files.createTempDirectory("generate-benchmark");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteOutputDir() throws IOException {
+        FileUtils.deleteDirectory(outputDir.toFile());
+    }
+
+    @Benchmark
+    public List<File> generate() {
+        CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName(generator)
+                .setInputSpec(spec.toString())
+                .setOutputDir(outputDir.toString());
+        return new DefaultGenerator().opts(configurator.toClientOptInput()).generate();
+    }
+}
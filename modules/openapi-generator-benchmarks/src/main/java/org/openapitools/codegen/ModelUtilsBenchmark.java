@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.codegen.utils.ModelUtils;
+import org.openapitools.codegen.utils.SchemaReferenceIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link ModelUtils} traversals of the whole document used to filter models before generation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelUtilsBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int schemaCount;
+
+    private OpenAPI openAPI;
+
+    @Setup(Level.Trial)
+    public void parseSpec() {
+        openAPI = SyntheticSpec.parse(SyntheticSpec.json(schemaCount));
+        new InlineModelResolver().flatten(openAPI);
+    }
+
+    @Benchmark
+    public SchemaReferenceIndex schemaReferenceIndex() {
+        return ModelUtils.getSchemaReferenceIndex(openAPI);
+    }
+
+    @Benchmark
+    public List<String> allUsedSchemas() {
+        return ModelUtils.getAllUsedSchemas(openAPI);
+    }
+
+    @Benchmark
+    public List<String> unusedSchemas() {
+        return ModelUtils.getUnusedSchemas(openAPI);
+    }
+
+    @Benchmark
+    public List<String> schemasUsedOnlyInFormParam() {
+        return ModelUtils.getSchemasUsedOnlyInFormParam(openAPI);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the pre-processing applied to every document before generation: normalization and flattening of inline
+ * schemas. Both mutate the document, so each invocation works on a freshly parsed copy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NormalizerBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int schemaCount;
+
+    private String json;
+    private OpenAPI openAPI;
+
+    @Setup(Level.Trial)
+    public void buildSpec() {
+        json = SyntheticSpec.json(schemaCount);
+    }
+
+    @Setup(Level.Invocation)
+    public void parseSpec() {
+        openAPI = SyntheticSpec.parse(json);
+    }
+
+    @Benchmark
+    public OpenAPI normalize() {
+        new OpenAPINormalizer(openAPI, Collections.emptyMap()).normalize();
+        return openAPI;
+    }
+
+    @Benchmark
+    public OpenAPI flatten() {
+        new InlineModelResolver().flatten(openAPI);
+        return openAPI;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.ParseOptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds synthetic OpenAPI documents of a given size, exercising the features which dominate generation time on
+ * large real-world specs: references between schemas, inheritance with a discriminator, enums, arrays and maps,
+ * inline schemas (flattened by the inline model resolver) and form, json and path parameters.
+ * <p>
+ * Documents are deterministic: the same schema count always produces the same document.
+ */
+public final class SyntheticSpec {
+    private static final String REF_PREFIX = "#/components/schemas/";
+    private static final int SCHEMAS_PER_PATH = 10;
+    private static final int TAGS = 20;
+
+    private SyntheticSpec() {
+    }
+
+    /**
+     * Builds a document with the given number of schemas, and one path per ten schemas.
+     *
+     * @param schemaCount The number of schemas in 'components/schemas'
+     * @return the document, as JSON
+     */
+    public static String json(int schemaCount) {
+        ObjectNode root = Json.mapper().createObjectNode();
+        root.put("openapi", "3.0.3");
+        root.putObject("info").put("title", "Synthetic " + schemaCount).put("version", "1.0.0");
+        root.putArray("servers").addObject().put("url", "http://localhost:8080/v1");
+
+        ObjectNode schemas = root.putObject("components").putObject("schemas");
+        for (int i = 0; i < schemaCount; i++) {
+            schemas.set(schemaName(i), schema(i));
+        }
+
+        ObjectNode paths = root.putObject("paths");
+        for (int p = 0; p * SCHEMAS_PER_PATH < schemaCount; p++) {
+            addPaths(paths, p, schemaCount);
+        }
+        return root.toString();
+    }
+
+    /**
+     * Parses a document built by {@link #json(int)}, without resolving it further.
+     *
+     * @param json The document
+     * @return the parsed document
+     */
+    public static OpenAPI parse(String json) {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        return new OpenAPIParser().readContents(json, null, options).getOpenAPI();
+    }
+
+    /**
+     * Writes a document built by {@link #json(int)} to a temporary file.
+     *
+     * @param schemaCount The number of schemas in 'components/schemas'
+     * @return the file
+     */
+    public static Path writeTemp(int schemaCount) {
+        try {
+            Path file = Files.createTempFile("synthetic-" + schemaCount + "-", ".json");
+            file.toFile().deleteOnExit();
+            Files.write(file, json(schemaCount).getBytes(StandardCharsets.UTF_8));
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String schemaName(int i) {
+        return "Schema" + i;
+    }
+
+    private static ObjectNode ref(int i) {
+        return Json.mapper().createObjectNode().put("$ref", REF_PREFIX + schemaName(i));
+    }
+
+    private static ObjectNode schema(int i) {
+        ObjectNode schema = Json.mapper().createObjectNode();
+        int group = i - i % SCHEMAS_PER_PATH;
+        switch (i % SCHEMAS_PER_PATH) {
+            case 0:
+                // base of an inheritance hierarchy
+                schema.put("type", "object");
+                schema.putObject("discriminator").put("propertyName", "kind");
+                schema.putArray("required").add("kind");
+                ObjectNode baseProperties = schema.putObject("properties");
+                baseProperties.putObject("kind").put("type", "string");
+                baseProperties.putObject("id").put("type", "integer").put("format", "int64");
+                return schema;
+            case 1:
+            case 2:
+            case 3:
+                // children of the base schema of their group
+                ArrayNode allOf = schema.putArray("allOf");
+                allOf.add(ref(group));
+                ObjectNode child = allOf.addObject().put("type", "object");
+                child.putObject("properties").putObject("value" + i % SCHEMAS_PER_PATH).put("type", "string");
+                return schema;
+            case 4:
+                schema.put("type", "string");
+                ArrayNode values = schema.putArray("enum");
+                for (int v = 0; v < 5; v++) {
+                    values.add("VALUE_" + v);
+                }
+                return schema;
+            default:
+                schema.put("type", "object");
+                schema.put("description", "Synthetic schema " + i);
+                schema.putArray("required").add("id").add("name");
+                ObjectNode properties = schema.putObject("properties");
+                properties.putObject("id").put("type", "integer").put("format", "int64");
+                properties.putObject("name").put("type", "string").put("maxLength", 64);
+                properties.putObject("created").put("type", "string").put("format", "date-time");
+                properties.set("status", ref(group + 4));
+                properties.set("owner", ref(group));
+                properties.putObject("related").put("type", "array").set("items", ref(group + 1));
+                properties.putObject("attributes").put("type", "object")
+                        .putObject("additionalProperties").put("type", "string");
+                ObjectNode details = properties.putObject("details").put("type", "object");
+                ObjectNode detailProperties = details.putObject("properties");
+                detailProperties.putObject("note").put("type", "string");
+                if (group > 0) {
+                    // link the groups as a binary tree, keeping reference chains (and generated examples) short
+                    detailProperties.set("parent", ref(group / SCHEMAS_PER_PATH / 2 * SCHEMAS_PER_PATH + 5));
+                }
+                return schema;
+        }
+    }
+
+    private static void addPaths(ObjectNode paths, int p, int schemaCount) {
+        int group = p * SCHEMAS_PER_PATH;
+        int model = Math.min(group + 5, schemaCount - 1);
+        String tag = "group" + p % TAGS;
+
+        ObjectNode collection = paths.putObject("/resources" + p);
+        ObjectNode list = operation(collection.putObject("get"), "list" + p, tag);
+        list.putArray("parameters").addObject()
+                .put("name", "limit").put("in", "query")
+                .putObject("schema").put("type", "integer").put("format", "int32");
+        ObjectNode listSchema = Json.mapper().createObjectNode().put("type", "array");
+        listSchema.set("items", ref(model));
+        response(list, listSchema);
+
+        ObjectNode create = operation(collection.putObject("post"), "create" + p, tag);
+        // inline request body schema, flattened into a model by the inline model resolver
+        ObjectNode createBody = create.putObject("requestBody").putObject("content")
+                .putObject("application/json").putObject("schema").put("type", "object");
+        ObjectNode createProperties = createBody.putObject("properties");
+        createProperties.set("item", ref(model));
+        createProperties.putObject("dryRun").put("type", "boolean");
+        response(create, ref(model));
+
+        ObjectNode item = paths.putObject("/resources" + p + "/{id}");
+        item.putArray("parameters").addObject()
+                .put("name", "id").put("in", "path").put("required", true)
+                .putObject("schema").put("type", "integer").put("format", "int64");
+        response(operation(item.putObject("get"), "get" + p, tag), ref(model));
+        ObjectNode update = operation(item.putObject("put"), "update" + p, tag);
+        update.putObject("requestBody").putObject("content")
+                .putObject("application/x-www-form-urlencoded").set("schema", ref(Math.min(group + 1, schemaCount - 1)));
+        response(update, ref(model));
+    }
+
+    private static ObjectNode operation(ObjectNode operation, String operationId, String tag) {
+        operation.put("operationId", operationId);
+        operation.putArray("tags").add(tag);
+        return operation;
+    }
+
+    private static void response(ObjectNode operation, ObjectNode schema) {
+        operation.putObject("responses").putObject("200").put("description", "OK")
+                .putObject("content").putObject("application/json").set("schema", schema);
+    }
+}
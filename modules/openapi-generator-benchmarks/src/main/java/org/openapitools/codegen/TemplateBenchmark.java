@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import org.openapitools.codegen.api.TemplatePathLocator;
+import org.openapitools.codegen.templating.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures compiling (and rendering with the generator's additional properties) the model and api templates of
+ * several generators, with and without the compiled template cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateBenchmark {
+    @Param({"java", "typescript-fetch", "python", "go"})
+    public String generator;
+
+    @Param({"true", "false"})
+    public boolean templateCache;
+
+    private MustacheEngineAdapter adapter;
+    private TemplateManager templateManager;
+    private Map<String, Object> bundle;
+    private List<String> templates;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        CodegenConfig config = CodegenConfigLoader.forName(generator);
+        config.processOpts();
+        adapter = new MustacheEngineAdapter();
+        adapter.setCompiler(config.processCompiler(adapter.getCompiler()));
+        if (templateCache) {
+            adapter.setTemplateCache(new MustacheTemplateCache(500));
+            adapter.setTemplateCacheScope(config.getClass().getName());
+        }
+        templateManager = new TemplateManager(new TemplateManagerOptions(false, false), adapter,
+                new TemplatePathLocator[]{new GeneratorTemplateContentLocator(config), new CommonTemplateContentLocator()});
+        bundle = new HashMap<>(config.additionalProperties());
+        templates = new ArrayList<>();
+        templates.addAll(config.modelTemplateFiles().keySet());
+        templates.addAll(config.apiTemplateFiles().keySet());
+    }
+
+    @Benchmark
+    public void compileTemplate(Blackhole blackhole) throws IOException {
+        for (String template : templates) {
+            blackhole.consume(adapter.compileTemplate(templateManager, bundle, template));
+        }
+    }
+}
@@ -35,6 +35,43 @@ import static org.openapitools.codegen.Constants.CLI_NAME;
 public class OpenAPIGenerator {
 
     public static void main(String[] args) {
+        if (DaemonClient.isDelegated(args)) {
+            // run by the daemon of the working directory, if one is running
+            Integer status = DaemonClient.forWorkingDirectory().run(args, System.out, System.err);
+            if (status != null) {
+                if (status != 0) {
+                    System.exit(status);
+                }
+                return;
+            }
+        }
+
+        try {
+            cli().parse(args).run();
+
+            // If CLI runs without a command, consider this an error. This exists after initial parse/run
+            // so we can present the configured "default command".
+            // We can check against empty args because unrecognized arguments/commands result in an exception.
+            // This is useful to exit with status 1, for example, so that misconfigured scripts fail fast.
+            // We don't want the default command to exit internally with status 1 because when the default command is something like "list",
+            // it would prevent scripting using the command directly. Example:
+            //     java -jar cli.jar list --short | tr ',' '\n' | xargs -I{} echo "Doing something with {}"
+            if (args.length == 0) {
+                System.exit(1);
+            }
+        } catch (ParseArgumentsUnexpectedException e) {
+            System.err.printf(Locale.ROOT, "[error] %s%n%nSee '%s help' for usage.%n", e.getMessage(), CLI_NAME);
+            System.exit(1);
+        } catch (ParseOptionMissingException | ParseOptionMissingValueException e) {
+            System.err.printf(Locale.ROOT, "[error] %s%n", e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return the command line interface, parsing the arguments of a command
+     */
+    public static Cli<OpenApiGeneratorCommand> cli() {
         BuildInfo buildInfo = new BuildInfo();
         Cli.CliBuilder<OpenApiGeneratorCommand> builder =
                 Cli.<OpenApiGeneratorCommand>builder(CLI_NAME)
@@ -54,7 +91,8 @@ public class OpenAPIGenerator {
                                 Validate.class,
                                 Version.class,
                                 CompletionCommand.class,
-                                GenerateBatch.class
+                                GenerateBatch.class,
+                                Daemon.class
                         );
 
         builder.withGroup("author")
@@ -62,25 +100,6 @@ public class OpenAPIGenerator {
                 .withDefaultCommand(HelpCommand.class)
                 .withCommands(AuthorTemplate.class);
 
-        try {
-            builder.build().parse(args).run();
-
-            // If CLI runs without a command, consider this an error. This exists after initial parse/run
-            // so we can present the configured "default command".
-            // We can check against empty args because unrecognized arguments/commands result in an exception.
-            // This is useful to exit with status 1, for example, so that misconfigured scripts fail fast.
-            // We don't want the default command to exit internally with status 1 because when the default command is something like "list",
-            // it would prevent scripting using the command directly. Example:
-            //     java -jar cli.jar list --short | tr ',' '\n' | xargs -I{} echo "Doing something with {}"
-            if (args.length == 0) {
-                System.exit(1);
-            }
-        } catch (ParseArgumentsUnexpectedException e) {
-            System.err.printf(Locale.ROOT, "[error] %s%n%nSee '%s help' for usage.%n", e.getMessage(), CLI_NAME);
-            System.exit(1);
-        } catch (ParseOptionMissingException | ParseOptionMissingValueException e) {
-            System.err.printf(Locale.ROOT, "[error] %s%n", e.getMessage());
-            System.exit(1);
-        }
+        return builder.build();
     }
 }
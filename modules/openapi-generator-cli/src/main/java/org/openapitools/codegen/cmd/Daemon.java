@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import io.airlift.airline.Command;
+import io.airlift.airline.Option;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+
+@SuppressWarnings({"unused", "java:S106"})
+@Command(name = "daemon", description = "Keep a warm generator running the generate and batch commands of the current directory.")
+public class Daemon extends OpenApiGeneratorCommand {
+
+    @Option(name = {"--idle-timeout"}, title = "minutes", description = "stop after this many minutes without requests (30 by default)")
+    private Integer idleTimeout;
+
+    @Option(name = {"--stop"}, description = "stop the daemon of the current directory")
+    private Boolean stop;
+
+    @Override
+    public void execute() {
+        Path workingDirectory = Paths.get(System.getProperty("user.dir"));
+        Path stateFile = DaemonClient.stateFile(workingDirectory);
+        DaemonClient client = new DaemonClient(stateFile);
+
+        if (Boolean.TRUE.equals(stop)) {
+            if (client.stop()) {
+                System.out.printf(Locale.ROOT, "Stopped the generator daemon of %s.%n", workingDirectory);
+            } else {
+                System.out.printf(Locale.ROOT, "No generator daemon is running in %s.%n", workingDirectory);
+            }
+            return;
+        }
+
+        if (client.isRunning()) {
+            System.err.printf(Locale.ROOT, "[error] A generator daemon is already running in %s.%n", workingDirectory);
+            exit(1);
+        }
+
+        Duration timeout = Duration.ofMinutes(idleTimeout != null ? Math.max(idleTimeout, 1) : 30);
+        DaemonServer server = new DaemonServer(stateFile, timeout);
+        try {
+            server.start();
+        } catch (IOException e) {
+            System.err.printf(Locale.ROOT, "[error] Failed to start the generator daemon: %s%n", e.getMessage());
+            exit(1);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+
+        System.out.printf(Locale.ROOT, "Generator daemon running the generate and batch commands of %s (stops after %d minutes without requests).%n",
+                workingDirectory, timeout.toMinutes());
+        server.serve();
+    }
+}
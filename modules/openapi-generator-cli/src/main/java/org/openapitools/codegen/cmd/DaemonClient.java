@@ -0,0 +1,325 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Connects to the {@link Daemon} of a working directory, to run commands in its warm JVM.
+ * <p>
+ * A daemon listens on the loopback interface, and describes itself in a state file readable by its user only (see
+ * {@link #stateFile(Path)}): its port, the secret expected from clients, its version and a digest of the environment
+ * variables read by generators (see {@link #environment(Map)}). Clients of another version don't use the daemon, nor
+ * do clients whose variables differ, as commands run with the environment of the daemon. A client sends the secret, the request, the arguments of the command and the system
+ * properties set on its command line; the daemon replies with frames of standard output and error, and the exit
+ * status of the command.
+ */
+@SuppressWarnings({"java:S106"})
+public final class DaemonClient {
+    static final String PORT = "port";
+    static final String SECRET = "secret";
+    static final String VERSION = "version";
+    static final String ENVIRONMENT = "environment";
+
+    static final String RUN = "run";
+    static final String STOP = "stop";
+    static final String PING = "ping";
+
+    static final byte STDOUT = 1;
+    static final byte STDERR = 2;
+    static final byte EXIT = 3;
+
+    // the commands delegated to a running daemon
+    private static final List<String> DELEGATED_COMMANDS = Arrays.asList("generate", "batch");
+
+    // generators read their post-processing command from <LANGUAGE>_POST_PROCESS_FILE, which is looked up on the PATH
+    private static final String POST_PROCESS_FILE_SUFFIX = "_POST_PROCESS_FILE";
+    private static final String PATH = "PATH";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private final Path stateFile;
+
+    /**
+     * @param stateFile The state file of the daemon
+     */
+    public DaemonClient(Path stateFile) {
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * @return a client of the daemon started in the current working directory
+     */
+    public static DaemonClient forWorkingDirectory() {
+        return new DaemonClient(stateFile(Paths.get(System.getProperty("user.dir"))));
+    }
+
+    /**
+     * Daemons are started per working directory, as the paths given to commands are relative to it.
+     *
+     * @param workingDirectory The working directory of the daemon
+     * @return the state file of the daemon, in the user's home directory
+     */
+    public static Path stateFile(Path workingDirectory) {
+        Path directory = workingDirectory.toAbsolutePath().normalize();
+        try {
+            directory = directory.toRealPath();
+        } catch (IOException ignored) {
+            // keep the absolute path
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(directory.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                name.append(String.format(Locale.ROOT, "%02x", hash[i]));
+            }
+            return Paths.get(System.getProperty("user.home"), ".openapi-generator", "daemon", name + ".properties");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param args The arguments of the command line
+     * @return whether the command is run by a daemon, when one is running
+     */
+    public static boolean isDelegated(String[] args) {
+        return args.length > 0 && DELEGATED_COMMANDS.contains(args[0]);
+    }
+
+    /**
+     * Runs a command in the daemon, writing its output to the given streams.
+     *
+     * @param args The arguments of the command line
+     * @param out  The standard output
+     * @param err  The standard error
+     * @return the exit status of the command, or null if no daemon of this version and environment is running
+     */
+    public Integer run(String[] args, PrintStream out, PrintStream err) {
+        try (Connection connection = connect(true)) {
+            if (connection == null) {
+                return null;
+            }
+            DataOutputStream output = connection.output;
+            output.writeUTF(RUN);
+            output.writeInt(args.length);
+            for (String arg : args) {
+                output.writeUTF(arg);
+            }
+            Map<String, String> properties = commandLineProperties();
+            output.writeInt(properties.size());
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                output.writeUTF(property.getKey());
+                output.writeUTF(property.getValue());
+            }
+            output.flush();
+
+            try {
+                return connection.readReply(out, err);
+            } catch (IOException e) {
+                err.printf(Locale.ROOT, "[error] Lost the connection to the generator daemon: %s%n", e.getMessage());
+                return 1;
+            }
+        } catch (IOException e) {
+            // the daemon is gone, or didn't accept the request
+            return null;
+        }
+    }
+
+    /**
+     * @return whether a daemon of this version is running
+     */
+    public boolean isRunning() {
+        return request(PING);
+    }
+
+    /**
+     * Stops the daemon, once it has run the commands it accepted.
+     *
+     * @return whether a daemon of this version was running
+     */
+    public boolean stop() {
+        return request(STOP);
+    }
+
+    private boolean request(String request) {
+        try (Connection connection = connect(false)) {
+            if (connection == null) {
+                return false;
+            }
+            connection.output.writeUTF(request);
+            connection.output.flush();
+            return connection.readReply(System.out, System.err) == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the version and commit of this build, which clients and daemons must share
+     */
+    static String version() {
+        BuildInfo buildInfo = new BuildInfo();
+        return buildInfo.getVersion() + " (" + buildInfo.getSha() + ")";
+    }
+
+    /**
+     * @return a digest of the environment variables of this process which generators read, or which affect the
+     * commands they run
+     */
+    static String environment() {
+        return environment(System.getenv());
+    }
+
+    /**
+     * @param environment Environment variables
+     * @return a digest of the variables named {@code <LANGUAGE>_POST_PROCESS_FILE}, and of the PATH
+     */
+    static String environment(Map<String, String> environment) {
+        Map<String, String> relevant = new TreeMap<>();
+        environment.forEach((name, value) -> {
+            if (name.endsWith(POST_PROCESS_FILE_SUFFIX) || PATH.equalsIgnoreCase(name)) {
+                relevant.put(name, value);
+            }
+        });
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            relevant.forEach((name, value) -> {
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            });
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format(Locale.ROOT, "%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param sameEnvironment whether the daemon must share the environment of this process, to run a command
+     */
+    private Connection connect(boolean sameEnvironment) throws IOException {
+        Properties state = new Properties();
+        try (InputStream in = Files.newInputStream(stateFile)) {
+            state.load(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!version().equals(state.getProperty(VERSION))) {
+            return null;
+        }
+        if (sameEnvironment && !environment().equals(state.getProperty(ENVIRONMENT))) {
+            return null;
+        }
+
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(state.getProperty(PORT))), CONNECT_TIMEOUT_MILLIS);
+            Connection connection = new Connection(socket);
+            connection.output.writeUTF(state.getProperty(SECRET, ""));
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+    }
+
+    /**
+     * @return the system properties set with -D on the command line of this JVM
+     */
+    private static Map<String, String> commandLineProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-D")) {
+                int separator = argument.indexOf('=');
+                String key = separator >= 0 ? argument.substring(2, separator) : argument.substring(2);
+                String value = System.getProperty(key);
+                if (!key.isEmpty() && value != null) {
+                    properties.put(key, value);
+                }
+            }
+        }
+        return properties;
+    }
+
+    private static final class Connection implements AutoCloseable {
+        private final Socket socket;
+        private final DataOutputStream output;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.output = new DataOutputStream(socket.getOutputStream());
+        }
+
+        int readReply(OutputStream out, OutputStream err) throws IOException {
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+            byte[] buffer = new byte[8192];
+            while (true) {
+                byte type = input.readByte();
+                int length = input.readInt();
+                if (type == EXIT) {
+                    out.flush();
+                    err.flush();
+                    return length;
+                }
+                OutputStream target = type == STDERR ? err : out;
+                while (length > 0) {
+                    int read = input.read(buffer, 0, Math.min(buffer.length, length));
+                    if (read < 0) {
+                        throw new IOException("Unexpected end of the reply");
+                    }
+                    target.write(buffer, 0, read);
+                    length -= read;
+                }
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.util.ContextInitializer;
+import ch.qos.logback.core.joran.spi.JoranException;
+import io.airlift.airline.ParseArgumentsUnexpectedException;
+import io.airlift.airline.ParseOptionMissingException;
+import io.airlift.airline.ParseOptionMissingValueException;
+import org.openapitools.codegen.OpenAPIGenerator;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.config.ParsedSpecCache;
+import org.openapitools.codegen.templating.MustacheTemplateCache;
+import org.openapitools.codegen.templating.TemplateIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.openapitools.codegen.Constants.CLI_NAME;
+
+/**
+ * Runs the commands sent by {@link DaemonClient}s, one at a time, until stopped or idle for too long.
+ * <p>
+ * Each command gets its own {@link GlobalSettings} (the daemon's system properties, along with the client's), and
+ * the logging configuration is reloaded after each command, as commands change it. The parsed specs and compiled
+ * templates are kept between commands. Commands run with the environment variables of the daemon, so the clients
+ * whose generator-related variables differ don't delegate their commands (see {@link DaemonClient#environment()}).
+ */
+final class DaemonServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DaemonServer.class);
+
+    private static final int REQUEST_TIMEOUT_MILLIS = 10_000;
+
+    // the daemon running the command of the current thread, inherited by the threads the command starts
+    private static final InheritableThreadLocal<DaemonServer> SERVING = new InheritableThreadLocal<>();
+
+    private final Path stateFile;
+    private final Duration idleTimeout;
+    private final String secret;
+    private final ParsedSpecCache parsedSpecCache = ParsedSpecCache.keyedByContent();
+    private ServerSocket serverSocket;
+
+    /**
+     * @param stateFile   The state file, describing the daemon to its clients
+     * @param idleTimeout The time without requests after which the daemon stops
+     */
+    DaemonServer(Path stateFile, Duration idleTimeout) {
+        this.stateFile = stateFile;
+        this.idleTimeout = idleTimeout;
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format(Locale.ROOT, "%02x", b));
+        }
+        this.secret = sb.toString();
+    }
+
+    /**
+     * @return whether the current command is run by a daemon
+     */
+    static boolean isServing() {
+        return SERVING.get() != null;
+    }
+
+    /**
+     * @return the parsed specs kept between the commands of the daemon running the current command, or null if the
+     * command isn't run by a daemon
+     */
+    static ParsedSpecCache parsedSpecCache() {
+        DaemonServer server = SERVING.get();
+        return server != null ? server.parsedSpecCache : null;
+    }
+
+    /**
+     * @return the parsed specs kept between the commands of this daemon
+     */
+    ParsedSpecCache getParsedSpecCache() {
+        return parsedSpecCache;
+    }
+
+    /**
+     * Listens on a loopback port, and writes the state file.
+     *
+     * @throws IOException if the daemon can't listen, or the state file can't be written
+     */
+    void start() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        serverSocket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, Math.max(1, idleTimeout.toMillis())));
+        if (System.getProperty(MustacheTemplateCache.SHARED_CACHE_PROPERTY) == null) {
+            System.setProperty(MustacheTemplateCache.SHARED_CACHE_PROPERTY, "true");
+        }
+        if (System.getProperty(TemplateIndex.SHARED_INDEX_PROPERTY) == null) {
+            System.setProperty(TemplateIndex.SHARED_INDEX_PROPERTY, "true");
+        }
+        try {
+            writeStateFile();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the port the daemon listens on
+     */
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Runs the commands of clients, until a client stops the daemon or no request is received within the idle timeout.
+     */
+    void serve() {
+        try {
+            while (true) {
+                Socket accepted;
+                try {
+                    accepted = serverSocket.accept();
+                } catch (SocketTimeoutException e) {
+                    LOGGER.info("Generator daemon stopped after {} minutes without requests.", idleTimeout.toMinutes());
+                    return;
+                } catch (IOException e) {
+                    LOGGER.warn("Generator daemon stopped: {}", e.getMessage());
+                    return;
+                }
+                try (Socket socket = accepted) {
+                    if (!handle(socket)) {
+                        LOGGER.info("Generator daemon stopped.");
+                        return;
+                    }
+                } catch (IOException e) {
+                    LOGGER.warn("Failed to serve a generator daemon request: {}", e.getMessage());
+                }
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Stops listening, and deletes the state file unless another daemon replaced it.
+     */
+    void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+        try {
+            Properties state = new Properties();
+            try (InputStream in = Files.newInputStream(stateFile)) {
+                state.load(in);
+            }
+            if (secret.equals(state.getProperty(DaemonClient.SECRET))) {
+                Files.delete(stateFile);
+            }
+        } catch (IOException ignored) {
+            // no state file left
+        }
+    }
+
+    /**
+     * @return false if the daemon has to stop
+     */
+    private boolean handle(Socket socket) throws IOException {
+        // a client which doesn't send its request would hold the following ones
+        socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+        DataInputStream input = new DataInputStream(socket.getInputStream());
+        DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+        if (!MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8), input.readUTF().getBytes(StandardCharsets.UTF_8))) {
+            LOGGER.warn("Ignoring a generator daemon request without the daemon's secret.");
+            return true;
+        }
+
+        String request = input.readUTF();
+        int status = 0;
+        if (DaemonClient.RUN.equals(request)) {
+            String[] args = new String[input.readInt()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = input.readUTF();
+            }
+            Properties properties = new Properties();
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                properties.setProperty(input.readUTF(), input.readUTF());
+            }
+            socket.setSoTimeout(0);
+            status = run(args, properties, output);
+        }
+        synchronized (output) {
+            output.writeByte(DaemonClient.EXIT);
+            output.writeInt(status);
+            output.flush();
+        }
+        return !DaemonClient.STOP.equals(request);
+    }
+
+    private int run(String[] args, Properties properties, DataOutputStream output) {
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        Charset charset = Charset.defaultCharset();
+        try (PrintStream commandOut = new PrintStream(new FrameOutputStream(output, DaemonClient.STDOUT), true, charset.name());
+             PrintStream commandErr = new PrintStream(new FrameOutputStream(output, DaemonClient.STDERR), true, charset.name())) {
+            System.setOut(commandOut);
+            System.setErr(commandErr);
+            GlobalSettings.reset();
+            SERVING.set(this);
+            properties.forEach((key, value) -> GlobalSettings.setProperty((String) key, (String) value));
+            try {
+                OpenAPIGenerator.cli().parse(args).run();
+                return 0;
+            } catch (OpenApiGeneratorCommand.ExitException e) {
+                return e.getStatus();
+            } catch (ParseArgumentsUnexpectedException e) {
+                commandErr.printf(Locale.ROOT, "[error] %s%n%nSee '%s help' for usage.%n", e.getMessage(), CLI_NAME);
+                return 1;
+            } catch (ParseOptionMissingException | ParseOptionMissingValueException e) {
+                commandErr.printf(Locale.ROOT, "[error] %s%n", e.getMessage());
+                return 1;
+            } catch (RuntimeException | Error e) {
+                // as reported for an uncaught exception of a command line run
+                commandErr.print("Exception in thread \"main\" ");
+                e.printStackTrace(commandErr);
+                return 1;
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+            SERVING.remove();
+            GlobalSettings.reset();
+            resetLogging();
+        }
+    }
+
+    private static void resetLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        try {
+            new ContextInitializer(context).autoConfig();
+        } catch (JoranException e) {
+            LOGGER.warn("Failed to reload the logging configuration: {}", e.getMessage());
+        }
+    }
+
+    private void writeStateFile() throws IOException {
+        Properties state = new Properties();
+        state.setProperty(DaemonClient.PORT, String.valueOf(getPort()));
+        state.setProperty(DaemonClient.SECRET, secret);
+        state.setProperty(DaemonClient.VERSION, DaemonClient.version());
+        state.setProperty(DaemonClient.ENVIRONMENT, DaemonClient.environment());
+
+        Path directory = stateFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary;
+        try {
+            // readable by the user only, as it holds the secret
+            temporary = Files.createTempFile(directory, "daemon", ".tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            temporary = Files.createTempFile(directory, "daemon", ".tmp");
+        }
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.ISO_8859_1)) {
+            state.store(writer, "OpenAPI Generator daemon");
+        }
+        try {
+            Files.move(temporary, stateFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, stateFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Sends the bytes written to standard output or error as frames of the reply.
+     */
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream output;
+        private final byte type;
+
+        FrameOutputStream(DataOutputStream output, byte type) {
+            this.output = output;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            synchronized (output) {
+                output.writeByte(type);
+                output.writeInt(len);
+                output.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (output) {
+                output.flush();
+            }
+        }
+    }
+}
@@ -357,7 +357,7 @@ public class Generate extends OpenApiGeneratorCommand {
             } else if (StringUtils.isEmpty(spec)) {
                 // if user doesn't pass configFile and does not pass spec, we can fail immediately because one of these two is required to run.
                 System.err.println("[error] Required option '-i' is missing");
-                System.exit(1);
+                exit(1);
             }
 
             // if a config file wasn't specified, or we were unable to read it
@@ -367,6 +367,10 @@ public class Generate extends OpenApiGeneratorCommand {
             }
         }
 
+        if (DaemonServer.isServing()) {
+            configurator.setParsedSpecCache(DaemonServer.parsedSpecCache());
+        }
+
         // now override with any specified parameters
         if (skipValidateSpec != null) {
             configurator.setValidateSpec(false);
@@ -384,7 +388,7 @@ public class Generate extends OpenApiGeneratorCommand {
             if (!spec.matches("^http(s)?://.*") && !new File(spec).exists()) {
                 System.err.println("[error] The spec file is not found: " + spec);
                 System.err.println("[error] Check the path of the OpenAPI spec and try again.");
-                System.exit(1);
+                exit(1);
             }
             configurator.setInputSpec(spec);
         }
@@ -536,7 +540,7 @@ public class Generate extends OpenApiGeneratorCommand {
         } catch (GeneratorNotFoundException e) {
             System.err.println(e.getMessage());
             System.err.println("[error] Check the spelling of the generator's name and try again.");
-            System.exit(1);
+            exit(1);
         }
     }
 }
@@ -32,12 +32,14 @@ import io.airlift.airline.Command;
 import io.airlift.airline.Option;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.openapitools.codegen.BatchScheduler;
 import org.openapitools.codegen.ClientOptInput;
 import org.openapitools.codegen.CodegenConfig;
 import org.openapitools.codegen.DefaultGenerator;
 import org.openapitools.codegen.config.CodegenConfigurator;
 import org.openapitools.codegen.config.DynamicSettings;
 import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.config.ParsedSpecCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,20 +49,17 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @SuppressWarnings({"unused", "MismatchedQueryAndUpdateOfCollection", "java:S106"})
 @Command(name = "batch", description = "Generate code in batch via external configs.")
 public class GenerateBatch extends OpenApiGeneratorCommand {
-    private static AtomicInteger failures = new AtomicInteger(0);
-    private static AtomicInteger successes = new AtomicInteger(0);
     private final Logger LOGGER = LoggerFactory.getLogger(GenerateBatch.class);
 
     @Option(name = {"-v", "--verbose"}, description = "verbose mode")
@@ -81,6 +80,12 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
     @Option(name = {"--timeout"}, description = "execution timeout (minutes)")
     private Integer timeout;
 
+    @Option(name = {"--heap-budget"}, title = "size", description = "estimated heap available to concurrent generators, e.g. 4g (defaults to 3/4 of the maximum heap)")
+    private String heapBudget;
+
+    @Option(name = {"--summary"}, title = "file", description = "write the status, wall time and memory usage of each generator to this JSON file")
+    private String summary;
+
     @Option(name = {"--includes-base-dir"}, description = "base directory used for includes")
     private String includes;
 
@@ -102,7 +107,7 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
     public void execute() {
         if (configs.size() < 1) {
             LOGGER.error("No configuration file inputs specified");
-            System.exit(1);
+            exit(1);
         }
 
         int cores = Runtime.getRuntime().availableProcessors();
@@ -133,7 +138,9 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
             }
         }
 
-        LOGGER.info(String.format(Locale.ROOT, "Batch generation using up to %d threads.\nIncludes: %s\nRoot: %s", numThreads, includesDir.getAbsolutePath(), rootDir.toAbsolutePath().toString()));
+        long budget = heapBudget != null ? BatchScheduler.parseSize(heapBudget) : BatchScheduler.defaultHeapBudget();
+
+        LOGGER.info(String.format(Locale.ROOT, "Batch generation using up to %d threads and %d MB of heap.\nIncludes: %s\nRoot: %s", numThreads, budget >> 20, includesDir.getAbsolutePath(), rootDir.toAbsolutePath().toString()));
 
         // Create a module which loads our config files, but supports a special "!include" key which can point to an existing config file.
         // This allows us to create a sort of meta-config which holds configs which are otherwise required at CLI time (via generate task).
@@ -141,35 +148,59 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
         SimpleModule module = getCustomDeserializationModel(includesDir);
         List<CodegenConfigurator> configurators = configs.stream().map(config -> CodegenConfigurator.fromFile(config, module)).collect(Collectors.toList());
 
+        // Configs sharing an input spec get a copy of a single parsed document, kept between batches by a daemon.
+        ParsedSpecCache parsedSpecCache = DaemonServer.isServing() ? DaemonServer.parsedSpecCache() : new ParsedSpecCache();
+        int previousParseCount = parsedSpecCache.getParseCount();
+        int previousReadCount = parsedSpecCache.getReadCount();
+        configurators.forEach(configurator -> configurator.setParsedSpecCache(parsedSpecCache));
+
         // it doesn't make sense to interleave INFO level logs, so limit these to only ERROR.
         LoggerContext lc = (LoggerContext) LoggerFactory.getILoggerFactory();
         Stream.of(Logger.ROOT_LOGGER_NAME, "io.swagger", "org.openapitools")
                 .map(lc::getLogger)
                 .forEach(logger -> logger.setLevel(Level.ERROR));
 
-        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
-
-        // Execute each configurator on a separate pooled thread.
-        configurators.forEach(configurator -> {
+        // Execute each configurator on a pooled thread, the largest specs first, within the heap budget.
+        List<BatchScheduler.Job> jobs = new ArrayList<>();
+        for (int i = 0; i < configurators.size(); i++) {
+            CodegenConfigurator configurator = configurators.get(i);
             GenerationRunner runner = new GenerationRunner(configurator, rootDir, Boolean.TRUE.equals(failFast), Boolean.TRUE.equals(clean));
-            executor.execute(runner);
-        });
-
-        executor.shutdown();
+            jobs.add(new BatchScheduler.Job(configs.get(i), BatchScheduler.estimateHeapBytes(configurator.getInputSpec()), runner));
+        }
+        BatchScheduler scheduler = new BatchScheduler(numThreads, budget);
 
         try {
-            // Allow the batch job to terminate, never running for more than 30 minutes (defaulted to max 10 minutes)
+            // Allow the batch job to terminate (defaulted to max 10 minutes)
             if (timeout == null) timeout = 10;
-            int awaitFor = Math.min(Math.max(timeout, 1), 30);
-
-            executor.awaitTermination(awaitFor, TimeUnit.MINUTES);
+            List<BatchScheduler.JobResult> results = scheduler.run(jobs, Math.max(timeout, 1), TimeUnit.MINUTES);
+            System.out.println(String.format(Locale.ROOT, "Parsed %d distinct input specs for %d generators.", parsedSpecCache.getParseCount() - previousParseCount, parsedSpecCache.getReadCount() - previousReadCount));
+
+            // the statuses are final: a job finishing after the timeout is still counted as timed out
+            int successes = 0;
+            int failures = 0;
+            for (BatchScheduler.JobResult result : results) {
+                if (result.getStatus() == BatchScheduler.Status.SUCCEEDED) {
+                    successes++;
+                } else {
+                    failures++;
+                }
+                if (result.getStatus() == BatchScheduler.Status.TIMED_OUT || result.getStatus() == BatchScheduler.Status.SKIPPED) {
+                    System.err.println(String.format(Locale.ROOT, "[%s] Generation of %s did not finish within %d minutes", result.getStatus().name().toLowerCase(Locale.ROOT), result.getName(), timeout));
+                }
+            }
+            if (summary != null) {
+                try {
+                    Files.write(Paths.get(summary), scheduler.toJson(results));
+                } catch (IOException e) {
+                    System.err.println(String.format(Locale.ROOT, "Failed to write the batch summary to %s: %s", summary, e.getMessage()));
+                }
+            }
 
-            int failCount = failures.intValue();
-            if (failCount > 0) {
-                System.err.println(String.format(Locale.ROOT, "[FAIL] Completed with %d failures, %d successes", failCount, successes.intValue()));
-                System.exit(1);
+            if (failures > 0) {
+                System.err.println(String.format(Locale.ROOT, "[FAIL] Completed with %d failures, %d successes", failures, successes));
+                exit(1);
             } else {
-                System.out.println(String.format(Locale.ROOT, "[SUCCESS] Batch generation finished %d generators successfully.", successes.intValue()));
+                System.out.println(String.format(Locale.ROOT, "[SUCCESS] Batch generation finished %d generators successfully.", successes));
             }
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -178,7 +209,7 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
         }
     }
 
-    private static class GenerationRunner implements Runnable {
+    private static class GenerationRunner implements Callable<Void> {
         private final CodegenConfigurator configurator;
         private final Path rootDir;
         private final boolean exitOnError;
@@ -192,18 +223,13 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
         }
 
         /**
-         * When an object implementing interface <code>Runnable</code> is used
-         * to create a thread, starting the thread causes the object's
-         * <code>run</code> method to be called in that separately executing
-         * thread.
-         * <p>
-         * The general contract of the method <code>run</code> is that it may
-         * take any action whatsoever.
+         * Generates for the configurator, logging the outcome. Failures are rethrown, for the scheduler to record them.
          *
-         * @see Thread#run()
+         * @return nothing
+         * @throws Exception if the generation failed
          */
         @Override
-        public void run() {
+        public Void call() throws Exception {
             String name = null;
             try {
                 GlobalSettings.reset();
@@ -228,9 +254,7 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
                 defaultGenerator.generate();
 
                 System.out.printf(Locale.ROOT, "[%s] Finished generating %s…%n", Thread.currentThread().getName(), name);
-                successes.incrementAndGet();
             } catch (Throwable e) {
-                failures.incrementAndGet();
                 String failedOn = name;
                 if (StringUtils.isEmpty(failedOn)) {
                     failedOn = "unspecified";
@@ -238,11 +262,13 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
                 System.err.printf(Locale.ROOT, "[%s] Generation failed for %s: (%s) %s%n", Thread.currentThread().getName(), failedOn, e.getClass().getSimpleName(), e.getMessage());
                 e.printStackTrace(System.err);
                 if (exitOnError) {
-                    System.exit(1);
+                    exit(1);
                 }
+                throw e;
             } finally {
                 GlobalSettings.reset();
             }
+            return null;
         }
 
         private void cleanPreviousFiles(final String name, Path outDir) throws IOException {
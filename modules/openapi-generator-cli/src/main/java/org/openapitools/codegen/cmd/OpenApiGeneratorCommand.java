@@ -36,4 +36,33 @@ public abstract class OpenApiGeneratorCommand implements Runnable {
      * Logic to be executed by implementing commands
      */
     abstract void execute();
+
+    /**
+     * Exits with the given status. A command run by the {@link Daemon} ends with an {@link ExitException} instead,
+     * since the daemon outlives its commands.
+     *
+     * @param status The exit status
+     */
+    static void exit(int status) {
+        if (DaemonServer.isServing()) {
+            throw new ExitException(status);
+        }
+        System.exit(status);
+    }
+
+    /**
+     * Ends a command run by the {@link Daemon}, with the status the command would have exited with.
+     */
+    static final class ExitException extends RuntimeException {
+        private final int status;
+
+        ExitException(int status) {
+            super("Exit status " + status, null, false, false);
+            this.status = status;
+        }
+
+        int getStatus() {
+            return status;
+        }
+    }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+public class DaemonTest {
+    private Path directory;
+    private Path stateFile;
+    private DaemonServer server;
+    private Thread serving;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("DaemonTest");
+        stateFile = directory.resolve("daemon").resolve("state.properties");
+    }
+
+    @AfterMethod
+    public void tearDown() throws InterruptedException {
+        if (serving != null) {
+            new DaemonClient(stateFile).stop();
+            serving.join(10_000);
+        }
+        directory.toFile().deleteOnExit();
+    }
+
+    @Test
+    public void testDelegatedCommands() {
+        assertTrue(DaemonClient.isDelegated(new String[]{"generate", "-g", "java"}));
+        assertTrue(DaemonClient.isDelegated(new String[]{"batch", "config.yaml"}));
+        assertFalse(DaemonClient.isDelegated(new String[]{"daemon"}));
+        assertFalse(DaemonClient.isDelegated(new String[]{"version"}));
+        assertFalse(DaemonClient.isDelegated(new String[0]));
+    }
+
+    @Test
+    public void testNoDaemonRunning() {
+        DaemonClient client = new DaemonClient(stateFile);
+
+        assertFalse(client.isRunning());
+        assertNull(client.run(new String[]{"generate"}, System.out, System.err));
+    }
+
+    @Test
+    public void testGenerateInDaemon() throws Exception {
+        startDaemon(Duration.ofMinutes(1));
+        DaemonClient client = new DaemonClient(stateFile);
+        assertTrue(client.isRunning());
+        String spec = Paths.get("src/test/resources/batch/specs/petstore.yaml").toAbsolutePath().toString();
+
+        for (String name : new String[]{"first", "second"}) {
+            Path output = directory.resolve(name);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Integer status = client.run(new String[]{"generate", "-g", "html", "-i", spec, "-o", output.toString()},
+                    new PrintStream(out, true, "UTF-8"), System.err);
+
+            assertEquals(status, Integer.valueOf(0));
+            assertTrue(Files.isRegularFile(output.resolve("index.html")), name);
+        }
+        assertEquals(server.getParsedSpecCache().getParseCount(), 1);
+
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        Integer status = client.run(new String[]{"generate", "-g", "unknown", "-i", spec, "-o", directory.resolve("unknown").toString()},
+                System.out, new PrintStream(err, true, "UTF-8"));
+        assertEquals(status, Integer.valueOf(1));
+        assertTrue(new String(err.toByteArray(), StandardCharsets.UTF_8).contains("Check the spelling of the generator's name"));
+
+        // still serving after the failed command
+        assertTrue(client.isRunning());
+        assertTrue(client.stop());
+        serving.join(10_000);
+        assertFalse(serving.isAlive());
+        assertFalse(Files.exists(stateFile));
+        serving = null;
+    }
+
+    @Test
+    public void testStopsWhenIdle() throws Exception {
+        startDaemon(Duration.ofMillis(200));
+
+        serving.join(10_000);
+
+        assertFalse(serving.isAlive());
+        assertFalse(Files.exists(stateFile));
+        assertFalse(new DaemonClient(stateFile).isRunning());
+        serving = null;
+    }
+
+    @Test
+    public void testRejectsOtherVersion() throws Exception {
+        startDaemon(Duration.ofMinutes(1));
+        String state = new String(Files.readAllBytes(stateFile), StandardCharsets.ISO_8859_1);
+        Path otherStateFile = directory.resolve("other.properties");
+        Files.write(otherStateFile, state.replaceAll("(?m)^version=.*$", "version=0.0.0").getBytes(StandardCharsets.ISO_8859_1));
+
+        assertFalse(new DaemonClient(otherStateFile).isRunning());
+        assertTrue(new DaemonClient(stateFile).isRunning());
+    }
+
+    @Test
+    public void testRejectsOtherEnvironmentForCommands() throws Exception {
+        startDaemon(Duration.ofMinutes(1));
+        String state = new String(Files.readAllBytes(stateFile), StandardCharsets.ISO_8859_1);
+        Path otherStateFile = directory.resolve("other.properties");
+        Files.write(otherStateFile, state.replaceAll("(?m)^environment=.*$", "environment=other").getBytes(StandardCharsets.ISO_8859_1));
+        DaemonClient other = new DaemonClient(otherStateFile);
+
+        // the command runs in the client instead, while the daemon can still be stopped
+        assertNull(other.run(new String[]{"generate"}, System.out, System.err));
+        assertTrue(other.isRunning());
+    }
+
+    @Test
+    public void testEnvironmentDigest() {
+        Map<String, String> environment = new HashMap<>();
+        environment.put("PATH", "/usr/bin");
+        environment.put("JAVA_POST_PROCESS_FILE", "google-java-format -i");
+        String digest = DaemonClient.environment(environment);
+
+        environment.put("TERM", "xterm");
+        assertEquals(DaemonClient.environment(environment), digest);
+        environment.put("JAVA_POST_PROCESS_FILE", "clang-format -i");
+        assertNotEquals(DaemonClient.environment(environment), digest);
+        environment.remove("JAVA_POST_PROCESS_FILE");
+        assertNotEquals(DaemonClient.environment(environment), digest);
+        environment.put("JAVA_POST_PROCESS_FILE", "google-java-format -i");
+        environment.put("PATH", "/usr/local/bin:/usr/bin");
+        assertNotEquals(DaemonClient.environment(environment), digest);
+    }
+
+    private void startDaemon(Duration idleTimeout) throws IOException {
+        server = new DaemonServer(stateFile, idleTimeout);
+        server.start();
+        serving = new Thread(server::serve, "DaemonTest");
+        serving.start();
+    }
+}
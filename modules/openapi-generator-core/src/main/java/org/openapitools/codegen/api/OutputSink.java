@@ -0,0 +1,41 @@
+package org.openapitools.codegen.api;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Interface for the destination of generated files, e.g. the file system, memory or a zip stream.
+ * <p>
+ * Paths are the ones computed by the generator, usually below the output directory; they do not have to exist on
+ * disk. Files may be written concurrently, so implementations must be thread-safe.
+ */
+public interface OutputSink {
+    /**
+     * Determines whether a file has been written to this sink (or already exists in it).
+     *
+     * @param path The path of the file
+     * @return true if the file exists
+     */
+    boolean exists(Path path);
+
+    /**
+     * Compares an existing file with the given contents, allowing unchanged files not to be written again.
+     *
+     * @param path     The path of the file
+     * @param contents The expected contents
+     * @param length   The number of bytes of {@code contents} to compare
+     * @return true if the file exists and holds exactly the given contents
+     * @throws IOException If the file cannot be read
+     */
+    boolean contentEquals(Path path, byte[] contents, int length) throws IOException;
+
+    /**
+     * Writes a file, replacing any previous contents.
+     *
+     * @param path     The path of the file
+     * @param contents The contents bytes. Typically, this is a UTF-8 formatted string.
+     * @param length   The number of bytes of {@code contents} to write
+     * @throws IOException If the file cannot be written
+     */
+    void write(Path path, byte[] contents, int length) throws IOException;
+}
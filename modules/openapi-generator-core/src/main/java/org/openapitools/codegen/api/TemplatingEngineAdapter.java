@@ -19,6 +19,7 @@ package org.openapitools.codegen.api;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Locale;
@@ -67,6 +68,23 @@ public interface TemplatingEngineAdapter {
     String compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle,
                            String templateFile) throws IOException;
 
+    /**
+     * Compiles a template, writing the result to the given writer rather than buffering it in a string.
+     * <p>
+     * Adapters should override this to render directly into the writer; the default implementation delegates to
+     * {@link #compileTemplate(TemplatingExecutor, Map, String)}.
+     *
+     * @param executor     From where we can fetch the templates content (e.g. an instance of DefaultGenerator)
+     * @param bundle       The map of values to pass to the template
+     * @param templateFile The name of the template (e.g. model.mustache )
+     * @param writer       The writer receiving the processed template result. It is not closed.
+     * @throws IOException an error occurred in the template processing, or while writing the result
+     */
+    default void compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle,
+                                 String templateFile, Writer writer) throws IOException {
+        writer.write(compileTemplate(executor, bundle, templateFile));
+    }
+
     /**
      * Determines whether the template file with supported extensions exists. This may be on the filesystem,
      * external filesystem, or classpath (implementation is up to TemplatingGenerator).
@@ -25,6 +25,7 @@ package org.openapitools.codegen.online.api;
 import io.swagger.annotations.*;
 import org.openapitools.codegen.CliOption;
 import org.openapitools.codegen.online.model.GeneratorInput;
+import org.openapitools.codegen.online.model.JobStatus;
 import org.openapitools.codegen.online.model.ResponseCode;
 import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
@@ -54,7 +55,9 @@ public interface GenApi {
 
     @ApiOperation(value = "Downloads a pre-generated file", nickname = "downloadFile", notes = "A valid `fileId` is generated by the `/clients/{language}` or `/servers/{language}` POST operations.  The fileId code can be used just once, after which a new `fileId` will need to be requested.", response = MultipartFile.class, tags={ "clients","servers", })
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "successful operation", response = MultipartFile.class) })
+            @ApiResponse(code = 200, message = "successful operation", response = MultipartFile.class),
+            @ApiResponse(code = 404, message = "unknown, already downloaded or expired file"),
+            @ApiResponse(code = 409, message = "file still being generated") })
     @RequestMapping(value = "/gen/download/{fileId}",
             produces = { "application/octet-stream" },
             method = RequestMethod.GET)
@@ -63,9 +66,23 @@ public interface GenApi {
     }
 
 
+    @ApiOperation(value = "Gets the status of a generation", nickname = "getStatus", notes = "A valid `fileId` is generated by the `/clients/{language}` or `/servers/{language}` POST operations.  The status is known until the generated file is downloaded, or expires.", response = JobStatus.class, tags={ "clients","servers", })
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "successful operation", response = JobStatus.class),
+            @ApiResponse(code = 404, message = "unknown, already downloaded or expired file") })
+    @RequestMapping(value = "/gen/status/{fileId}",
+            produces = { "application/json" },
+            method = RequestMethod.GET)
+    default ResponseEntity<JobStatus> getStatus(@ApiParam(value = "",required=true) @PathVariable("fileId") String fileId) {
+        return getDelegate().getStatus(fileId);
+    }
+
+
     @ApiOperation(value = "Generates a client library", nickname = "generateClient", notes = "Accepts a `GeneratorInput` options map for spec location and generation options", response = ResponseCode.class, tags={ "clients", })
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "successful operation", response = ResponseCode.class) })
+            @ApiResponse(code = 200, message = "successful operation", response = ResponseCode.class),
+            @ApiResponse(code = 202, message = "generation in progress, see the status operation", response = ResponseCode.class),
+            @ApiResponse(code = 503, message = "too many pending generations") })
     @RequestMapping(value = "/gen/clients/{language}",
             method = RequestMethod.POST)
     default ResponseEntity<ResponseCode> generateClient(@ApiParam(value = "The target language for the client library",required=true) @PathVariable("language") String language,@ApiParam(value = "Configuration for building the client library" ,required=true )  @Valid @RequestBody GeneratorInput generatorInput) {
@@ -75,7 +92,9 @@ public interface GenApi {
 
     @ApiOperation(value = "Generates a server library", nickname = "generateServerForLanguage", notes = "Accepts a `GeneratorInput` options map for spec location and generation options.", response = ResponseCode.class, tags={ "servers", })
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "successful operation", response = ResponseCode.class) })
+            @ApiResponse(code = 200, message = "successful operation", response = ResponseCode.class),
+            @ApiResponse(code = 202, message = "generation in progress, see the status operation", response = ResponseCode.class),
+            @ApiResponse(code = 503, message = "too many pending generations") })
     @RequestMapping(value = "/gen/servers/{framework}",
             method = RequestMethod.POST)
     default ResponseEntity<ResponseCode> generateServerForLanguage(@ApiParam(value = "framework",required=true) @PathVariable("framework") String framework,@ApiParam(value = "parameters" ,required=true )  @Valid @RequestBody GeneratorInput generatorInput) {
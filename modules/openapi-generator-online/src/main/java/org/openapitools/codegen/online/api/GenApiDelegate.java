@@ -19,6 +19,7 @@ package org.openapitools.codegen.online.api;
 
 import org.openapitools.codegen.CliOption;
 import org.openapitools.codegen.online.model.GeneratorInput;
+import org.openapitools.codegen.online.model.JobStatus;
 import org.openapitools.codegen.online.model.ResponseCode;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
@@ -68,6 +69,16 @@ public interface GenApiDelegate {
 
     }
 
+    /**
+     * @param fileId The unique id of the file, provided in a {@link ResponseCode} response.
+     * @see GenApi#getStatus
+     * @return A {@link ResponseEntity} of the {@link JobStatus} of the generation of the file.
+     */
+    default ResponseEntity<JobStatus> getStatus(String  fileId) {
+        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+
+    }
+
     /**
      * @param language The target generator (language is a misnomer here, but kept for API consistency).
      * @param generatorInput The configuration settings to be used during client generation.
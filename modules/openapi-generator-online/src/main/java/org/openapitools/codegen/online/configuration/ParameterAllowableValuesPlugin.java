@@ -1,8 +1,8 @@
 package org.openapitools.codegen.online.configuration;
 
-import org.openapitools.codegen.CodegenConfig;
 import org.openapitools.codegen.CodegenConfigLoader;
 import org.openapitools.codegen.CodegenType;
+import org.openapitools.codegen.GeneratorDescriptor;
 import org.springframework.stereotype.Component;
 import springfox.documentation.service.AllowableListValues;
 import springfox.documentation.spi.DocumentationType;
@@ -19,13 +19,13 @@ public class ParameterAllowableValuesPlugin implements ParameterBuilderPlugin {
     private static List<String> servers = new ArrayList<>();
 
     static {
-        List<CodegenConfig> extensions = CodegenConfigLoader.getAll();
-        for (CodegenConfig config : extensions) {
-            if (config.getTag().equals(CodegenType.CLIENT)
-                    || config.getTag().equals(CodegenType.DOCUMENTATION)) {
-                clients.add(config.getName());
-            } else if (config.getTag().equals(CodegenType.SERVER)) {
-                servers.add(config.getName());
+        List<GeneratorDescriptor> extensions = CodegenConfigLoader.getAllDescriptors();
+        for (GeneratorDescriptor generator : extensions) {
+            if (CodegenType.CLIENT.equals(generator.getTag())
+                    || CodegenType.DOCUMENTATION.equals(generator.getTag())) {
+                clients.add(generator.getName());
+            } else if (CodegenType.SERVER.equals(generator.getTag())) {
+                servers.add(generator.getName());
             }
         }
 
@@ -17,51 +17,52 @@
 
 package org.openapitools.codegen.online.service;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.openapitools.codegen.CliOption;
-import org.openapitools.codegen.CodegenConfig;
 import org.openapitools.codegen.CodegenConfigLoader;
 import org.openapitools.codegen.CodegenType;
+import org.openapitools.codegen.GeneratorDescriptor;
 import org.openapitools.codegen.online.api.GenApiDelegate;
-import org.openapitools.codegen.online.model.Generated;
 import org.openapitools.codegen.online.model.GeneratorInput;
+import org.openapitools.codegen.online.model.JobStatus;
 import org.openapitools.codegen.online.model.ResponseCode;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class GenApiService implements GenApiDelegate {
 
     private static List<String> clients = new ArrayList<>();
     private static List<String> servers = new ArrayList<>();
-    private static Map<String, Generated> fileMap = new HashMap<>();
 
     static {
-        List<CodegenConfig> extensions = CodegenConfigLoader.getAll();
-        for (CodegenConfig config : extensions) {
-            if (config.getTag().equals(CodegenType.CLIENT)
-                    || config.getTag().equals(CodegenType.DOCUMENTATION)) {
-                clients.add(config.getName());
-            } else if (config.getTag().equals(CodegenType.SERVER)) {
-                servers.add(config.getName());
+        List<GeneratorDescriptor> extensions = CodegenConfigLoader.getAllDescriptors();
+        for (GeneratorDescriptor generator : extensions) {
+            if (CodegenType.CLIENT.equals(generator.getTag())
+                    || CodegenType.DOCUMENTATION.equals(generator.getTag())) {
+                clients.add(generator.getName());
+            } else if (CodegenType.SERVER.equals(generator.getTag())) {
+                servers.add(generator.getName());
             }
         }
 
@@ -69,9 +70,19 @@ public class GenApiService implements GenApiDelegate {
         servers.sort(String.CASE_INSENSITIVE_ORDER);
     }
 
+    // the preference of clients polling the status of their generation rather than waiting for it, see RFC 7240
+    private static final String RESPOND_ASYNC = "respond-async";
+
     @Autowired
     private NativeWebRequest request;
 
+    @Autowired
+    private GenerationJobs jobs;
+
+    // the time a generation request waits for the generated zip, before answering with 202 (Accepted)
+    @Value("${generator.jobs.wait-timeout:5m}")
+    private Duration waitTimeout;
+
     @Override
     public Optional<NativeWebRequest> getRequest() {
         return Optional.ofNullable(request);
@@ -79,39 +90,48 @@ public class GenApiService implements GenApiDelegate {
 
     @Override
     public ResponseEntity<Resource> downloadFile(String fileId) {
-        Generated g = fileMap.get(fileId);
-        System.out.println("looking for fileId " + fileId);
-        System.out.println("got filename " + g.getFilename());
-
-        File file = new File(g.getFilename());
-        Path path = Paths.get(file.getAbsolutePath());
-        ByteArrayResource resource;
-        try {
-            resource = new ByteArrayResource(Files.readAllBytes(path));
-        } catch (FileNotFoundException e) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found", e);
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "I/O error while reading file", e);
+        GenerationJobs.Job job = findJob(fileId);
+        if (job.getStatus() == GenerationJobs.Status.FAILED) {
+            jobs.remove(fileId);
+            throw job.getFailure();
         }
-        try {
-            FileUtils.deleteDirectory(file.getParentFile());
-        } catch (IOException e) {
-            System.out.println("failed to delete file " + file.getAbsolutePath());
+        if (!job.isDone()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The file is being generated");
+        }
+        // the zip is downloaded once, and discarded once read
+        GenerationJobs.Job taken = jobs.take(fileId);
+        if (taken == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found");
+        }
+        SpillBuffer zip = taken.getZip();
+        // also discarded once the response completes without reading it, e.g. for a HEAD request or a client gone
+        // before the body is written
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.registerDestructionCallback(SpillBuffer.class.getName() + "." + fileId, zip::discard,
+                    RequestAttributes.SCOPE_REQUEST);
         }
         return ResponseEntity
                 .ok()
                 .contentType(MediaType.valueOf("application/zip"))
+                .contentLength(zip.size())
                 .header("Content-Disposition",
-                        "attachment; filename=\"" + g.getFriendlyName() + "-generated.zip\"")
-                .header("Accept-Range", "bytes")
-                //.header("Content-Length", bytes.length)
-                .body(resource);
+                        "attachment; filename=\"" + taken.getFriendlyName() + "-generated.zip\"")
+                .body(new ZipResource(zip, taken.getFriendlyName()));
+    }
+
+    @Override
+    public ResponseEntity<JobStatus> getStatus(String fileId) {
+        GenerationJobs.Job job = findJob(fileId);
+        GenerationJobs.Status status = job.getStatus();
+        String message = status == GenerationJobs.Status.FAILED ? job.getFailure().getReason() : null;
+        String link = status == GenerationJobs.Status.SUCCEEDED ? link("/api/gen/download/", fileId) : null;
+        return ResponseEntity.ok().body(new JobStatus(fileId, status.name().toLowerCase(Locale.ROOT), message, link));
     }
 
     @Override
     public ResponseEntity<ResponseCode> generateClient(String language, GeneratorInput generatorInput) {
-        String filename = Generator.generateClient(language, generatorInput);
-        return getResponse(filename, language + "-client");
+        return submit(language + "-client", zip -> Generator.generateClient(language, generatorInput, zip));
     }
 
     @Override
@@ -151,13 +171,55 @@ public class GenApiService implements GenApiDelegate {
         if (framework == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Framework is required");
         }
-        String filename = Generator.generateServer(framework, generatorInput);
-        System.out.println("generated name: " + filename);
+        return submit(framework + "-server", zip -> Generator.generateServer(framework, generatorInput, zip));
+    }
+
+    private ResponseEntity<ResponseCode> submit(String friendlyName, GenerationJobs.Task task) {
+        GenerationJobs.Job job;
+        try {
+            job = jobs.submit(friendlyName, task);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .build();
+        }
+        String code = job.getCode();
+        ResponseCode responseCode = new ResponseCode(code, link("/api/gen/download/", code));
+
+        if (!isAsyncPreferred() && job.await(waitTimeout)) {
+            if (job.getStatus() == GenerationJobs.Status.FAILED) {
+                jobs.remove(code);
+                throw job.getFailure();
+            }
+            return ResponseEntity.ok().body(responseCode);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create(link("/api/gen/status/", code)))
+                .body(responseCode);
+    }
+
+    private GenerationJobs.Job findJob(String fileId) {
+        GenerationJobs.Job job = jobs.get(fileId);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found");
+        }
+        return job;
+    }
 
-        return getResponse(filename, framework + "-server");
+    private boolean isAsyncPreferred() {
+        String prefer = request != null ? request.getHeader("Prefer") : null;
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            if (RESPOND_ASYNC.equalsIgnoreCase(preference.trim())) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private ResponseEntity<ResponseCode> getResponse(String filename, String friendlyName) {
+    private String link(String path, String code) {
         String host = System.getenv("GENERATOR_HOST");
 
         UriComponentsBuilder uriBuilder;
@@ -166,19 +228,44 @@ public class GenApiService implements GenApiDelegate {
         } else {
             uriBuilder = ServletUriComponentsBuilder.fromCurrentContextPath();
         }
+        return uriBuilder.path(path).path(code).toUriString();
+    }
 
-        if (filename != null) {
-            String code = UUID.randomUUID().toString();
-            Generated g = new Generated();
-            g.setFilename(filename);
-            g.setFriendlyName(friendlyName);
-            fileMap.put(code, g);
-            System.out.println(code + ", " + filename);
-            String link = uriBuilder.path("/api/gen/download/").path(code).toUriString();
-            return ResponseEntity.ok().body(new ResponseCode(code, link));
-        } else {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    /**
+     * A generated zip, streamed from its buffer once: the buffer is discarded once read.
+     */
+    private static class ZipResource extends AbstractResource {
+        private final SpillBuffer zip;
+        private final String friendlyName;
+
+        ZipResource(SpillBuffer zip, String friendlyName) {
+            this.zip = zip;
+            this.friendlyName = friendlyName;
         }
-    }
 
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return zip.size();
+        }
+
+        @Override
+        public String getFilename() {
+            return friendlyName + "-generated.zip";
+        }
+
+        @Override
+        public String getDescription() {
+            return "generated zip [" + friendlyName + "]";
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return zip.openInputStream();
+        }
+    }
 }
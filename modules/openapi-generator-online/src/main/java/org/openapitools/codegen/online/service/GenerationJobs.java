@@ -0,0 +1,257 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.online.service;
+
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Runs generations on a bounded pool of threads, with a bounded queue of pending generations: generations submitted
+ * once the queue is full are rejected.
+ * <p>
+ * Each generation streams its files into a zip held by a {@link SpillBuffer}. Generated zips are downloaded once, and
+ * discarded when not downloaded within their time to live.
+ */
+@Service
+public class GenerationJobs {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationJobs.class);
+
+    /**
+     * The generation of a zip, see {@link GenerationJobs#submit(String, Task)}.
+     */
+    public interface Task {
+        /**
+         * @param zip The stream receiving the generated files
+         * @throws Exception if the generation failed
+         */
+        void generate(ZipOutputStream zip) throws Exception;
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    /**
+     * A submitted generation, and its zip once generated.
+     */
+    public static class Job {
+        @Getter private final String code;
+        @Getter private final String friendlyName;
+        @Getter private volatile Status status = Status.QUEUED;
+        @Getter private volatile ResponseStatusException failure;
+        private final SpillBuffer zip;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        Job(String code, String friendlyName, SpillBuffer zip) {
+            this.code = code;
+            this.friendlyName = friendlyName;
+            this.zip = zip;
+        }
+
+        /**
+         * @return the generated zip, once the job succeeded
+         */
+        public SpillBuffer getZip() {
+            return status == Status.SUCCEEDED ? zip : null;
+        }
+
+        /**
+         * Waits for the job to finish.
+         *
+         * @param timeout The maximum time to wait
+         * @return whether the job finished
+         */
+        public boolean await(Duration timeout) {
+            try {
+                done.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception ignored) {
+                // the job either finished or is still running, see isDone()
+            }
+            return done.isDone();
+        }
+
+        /**
+         * @return whether the job succeeded or failed
+         */
+        public boolean isDone() {
+            return done.isDone();
+        }
+    }
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService expiry;
+    private final Duration resultTtl;
+    private final int memoryThreshold;
+
+    /**
+     * @param threads         The number of concurrent generations, 0 for the number of processors
+     * @param queueCapacity   The number of generations waiting for a thread, beyond which generations are rejected
+     * @param resultTtl       The time a generated zip is kept when not downloaded
+     * @param memoryThreshold The size of a generated zip kept in memory, beyond which it is written to a temporary file
+     */
+    public GenerationJobs(@Value("${generator.jobs.threads:0}") int threads,
+                          @Value("${generator.jobs.queue-capacity:100}") int queueCapacity,
+                          @Value("${generator.jobs.result-ttl:30m}") Duration resultTtl,
+                          @Value("${generator.jobs.memory-threshold:1048576}") int memoryThreshold) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+            Thread thread = new Thread(runnable, "generator-job-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.resultTtl = resultTtl;
+        this.memoryThreshold = memoryThreshold;
+        this.expiry = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "generator-job-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, Math.min(60_000, resultTtl.toMillis() / 4));
+        expiry.scheduleAtFixedRate(this::expire, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a generation.
+     *
+     * @param friendlyName The name of the generated zip
+     * @param task         The generation
+     * @return the queued job
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public Job submit(String friendlyName, Task task) {
+        Job job = new Job(UUID.randomUUID().toString(), friendlyName, new SpillBuffer(memoryThreshold));
+        jobs.put(job.code, job);
+        try {
+            executor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.code);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * @param code The code of a job
+     * @return the job, or null if unknown or expired
+     */
+    public Job get(String code) {
+        return code != null ? jobs.get(code) : null;
+    }
+
+    /**
+     * Removes a job, discarding its zip.
+     *
+     * @param code The code of a job
+     */
+    public void remove(String code) {
+        Job job = code != null ? jobs.remove(code) : null;
+        if (job != null) {
+            job.zip.discard();
+        }
+    }
+
+    /**
+     * Removes a succeeded job, to download its zip.
+     *
+     * @param code The code of a job
+     * @return the job, or null if unknown, expired or not succeeded
+     */
+    public Job take(String code) {
+        Job job = get(code);
+        if (job == null || job.status != Status.SUCCEEDED || !jobs.remove(code, job)) {
+            return null;
+        }
+        return job;
+    }
+
+    /**
+     * @return the time to live of a generated zip
+     */
+    public Duration getResultTtl() {
+        return resultTtl;
+    }
+
+    private void run(Job job, Task task) {
+        job.status = Status.RUNNING;
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(job.zip)) {
+                task.generate(zip);
+            }
+            job.status = Status.SUCCEEDED;
+        } catch (ResponseStatusException e) {
+            fail(job, e);
+        } catch (Exception | Error e) {
+            fail(job, new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to build target: " + e.getMessage(), e));
+        } finally {
+            job.expiresAt = System.currentTimeMillis() + resultTtl.toMillis();
+            job.done.complete(null);
+        }
+    }
+
+    private static void fail(Job job, ResponseStatusException failure) {
+        LOGGER.debug("Generation {} failed: {}", job.code, failure.getReason());
+        job.zip.discard();
+        job.failure = failure;
+        job.status = Status.FAILED;
+    }
+
+    private void expire() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> {
+            if (job.isDone() && job.expiresAt <= now) {
+                LOGGER.debug("Discarding generation {}, not downloaded within {}", job.code, resultTtl);
+                job.zip.discard();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        expiry.shutdownNow();
+        jobs.values().forEach(job -> job.zip.discard());
+        jobs.clear();
+    }
+}
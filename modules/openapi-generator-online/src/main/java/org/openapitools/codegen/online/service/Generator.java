@@ -22,12 +22,14 @@ import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.core.models.ParseOptions;
+import org.apache.commons.io.FileUtils;
 import org.openapitools.codegen.CliOption;
 import org.openapitools.codegen.ClientOptInput;
 import org.openapitools.codegen.CodegenConfig;
 import org.openapitools.codegen.CodegenConfigLoader;
 import org.openapitools.codegen.DefaultGenerator;
 import org.openapitools.codegen.online.model.GeneratorInput;
+import org.openapitools.codegen.templating.ZipOutputSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -40,6 +42,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.zip.ZipOutputStream;
 
 public class Generator {
     private static Logger LOGGER = LoggerFactory.getLogger(Generator.class);
@@ -73,15 +76,15 @@ public class Generator {
         }
     }
 
-    public static String generateClient(String language, GeneratorInput opts) {
-        return generate(language, opts, Type.CLIENT);
+    public static void generateClient(String language, GeneratorInput opts, ZipOutputStream zip) {
+        generate(language, opts, Type.CLIENT, zip);
     }
 
-    public static String generateServer(String language, GeneratorInput opts) {
-        return generate(language, opts, Type.SERVER);
+    public static void generateServer(String language, GeneratorInput opts, ZipOutputStream zip) {
+        generate(language, opts, Type.SERVER, zip);
     }
 
-    private static String generate(String language, GeneratorInput opts, Type type) {
+    private static void generate(String language, GeneratorInput opts, Type type, ZipOutputStream zip) {
         LOGGER.debug(String.format(Locale.ROOT,"generate %s for %s", type.getTypeName(), language));
         if (opts == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No options were supplied");
@@ -124,9 +127,6 @@ public class Generator {
         String destPath = language + "-" + type.getTypeName();
 
         ClientOptInput clientOptInput = new ClientOptInput();
-        String outputFolder = getTmpFolder().getAbsolutePath() + File.separator + destPath;
-        String outputFilename = outputFolder + "-bundle.zip";
-
         clientOptInput.openAPI(openapi);
 
         CodegenConfig codegenConfig;
@@ -151,38 +151,34 @@ public class Generator {
             }
         }
 
+        // the generated files are streamed into the zip, with the output folder as top-level folder; files written
+        // to the disk nonetheless are removed along with the temporary folder
+        File tmpFolder = getTmpFolder();
+        String outputFolder = tmpFolder.getAbsolutePath() + File.separator + destPath;
+        clientOptInput.outputSink(new ZipOutputSink(zip, tmpFolder.getAbsolutePath()));
+
         codegenConfig.setOutputDir(outputFolder);
 
         clientOptInput.config(codegenConfig);
 
         try {
             List<File> files = new DefaultGenerator().opts(clientOptInput).generate();
-            if (files.size() > 0) {
-                List<File> filesToAdd = new ArrayList<>();
-                LOGGER.debug("adding to {}", outputFolder);
-                filesToAdd.add(new File(outputFolder));
-                ZipUtil zip = new ZipUtil();
-                zip.compressFiles(filesToAdd, outputFilename);
-            } else {
+            if (files.isEmpty()) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                         "A target generation was attempted, but no files were created!");
             }
-            for (File file : files) {
-                try {
-                    file.delete();
-                } catch (Exception e) {
-                    LOGGER.error("unable to delete file " + file.getAbsolutePath(), e);
-                }
-            }
+            LOGGER.debug("added {} files of {} to the zip", files.size(), outputFolder);
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to build target: " + e.getMessage(), e);
+        } finally {
             try {
-                new File(outputFolder).delete();
+                FileUtils.deleteDirectory(tmpFolder);
             } catch (Exception e) {
                 LOGGER.error("unable to delete output folder " + outputFolder, e);
             }
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to build target: " + e.getMessage(), e);
         }
-        return outputFilename;
     }
 
     private static File getTmpFolder() {
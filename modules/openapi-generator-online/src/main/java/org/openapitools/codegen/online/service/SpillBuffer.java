@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.online.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An output stream kept in memory up to a threshold, and spilled to a temporary file beyond it. Once closed, the
+ * written bytes can be read back with {@link #openInputStream()}.
+ */
+public class SpillBuffer extends OutputStream {
+    private final int threshold;
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private Path file;
+    private OutputStream fileStream;
+    private long size;
+    private boolean closed;
+    private boolean discarded;
+
+    /**
+     * @param threshold The number of bytes kept in memory, beyond which the bytes are written to a temporary file
+     */
+    public SpillBuffer(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("The buffer is closed");
+        }
+        if (fileStream == null && memory.size() + len > threshold) {
+            file = Files.createTempFile("codegen-", ".zip");
+            fileStream = Files.newOutputStream(file);
+            memory.writeTo(fileStream);
+            memory = null;
+        }
+        if (fileStream != null) {
+            fileStream.write(b, off, len);
+        } else {
+            memory.write(b, off, len);
+        }
+        size += len;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (fileStream != null) {
+            fileStream.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (fileStream != null) {
+                fileStream.close();
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * @return whether the bytes were spilled to a temporary file
+     */
+    public synchronized boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * Reads the written bytes. The buffer is discarded once the stream is closed.
+     *
+     * @return the stream of the written bytes
+     * @throws IOException if the buffer isn't closed yet, or was discarded
+     */
+    public synchronized InputStream openInputStream() throws IOException {
+        if (!closed || discarded) {
+            throw new IOException("The buffer can't be read");
+        }
+        InputStream stream = file != null ? Files.newInputStream(file) : new ByteArrayInputStream(memory.toByteArray());
+        return new FilterInputStream(stream) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    discard();
+                }
+            }
+        };
+    }
+
+    /**
+     * Releases the written bytes, deleting the temporary file if any.
+     */
+    public synchronized void discard() {
+        discarded = true;
+        memory = null;
+        if (fileStream != null) {
+            try {
+                fileStream.close();
+            } catch (IOException ignored) {
+                // deleted below
+            }
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package org.openapitools.codegen.online.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.openapitools.codegen.online.model.ResponseCode;
+import org.openapitools.codegen.online.service.GenApiService;
+import org.openapitools.codegen.online.service.GenerationJobs;
+import org.openapitools.codegen.online.service.SpillBuffer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.util.Assert;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.not;
@@ -24,11 +42,19 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class GenApiControllerTest {
 
     private static final String OPENAPI_URL = "https://raw.githubusercontent.com/OpenAPITools/openapi-generator/v4.3.1/modules/openapi-generator/src/test/resources/petstore.json";
+    private static final String SPEC = "{\"openapi\": \"3.0.0\", \"info\": {\"title\": \"Ping\", \"version\": \"1.0.0\"}, "
+            + "\"paths\": {\"/ping\": {\"get\": {\"operationId\": \"ping\", \"responses\": {\"200\": {\"description\": \"pong\"}}}}}}";
     private static final String UUID_REGEX = "[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-4[a-fA-F0-9]{3}-[89aAbB][a-fA-F0-9]{3}-[a-fA-F0-9]{12}";
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private GenerationJobs jobs;
+
+    @Autowired
+    private GenApiService genApiService;
+
     @Test
     public void clientLanguages() throws Exception {
         getLanguages("clients", "java");
@@ -126,6 +152,117 @@ public class GenApiControllerTest {
                 .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, not(0)));
     }
 
+    @Test
+    public void generateFromSpecAndDownloadOnce() throws Exception {
+        String result = mockMvc.perform(post("http://test.com:1234/api/gen/clients/html")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"spec\": " + SPEC + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.link").value(matchesPattern("http\\:\\/\\/test.com\\:1234\\/api\\/gen\\/download\\/" + UUID_REGEX)))
+                .andReturn().getResponse().getContentAsString();
+
+        String code = new ObjectMapper().readValue(result, ResponseCode.class).getCode();
+
+        mockMvc.perform(get("http://test.com:1234/api/gen/status/" + code))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("succeeded"))
+                .andExpect(jsonPath("$.link").value(matchesPattern(".*\\/api\\/gen\\/download\\/" + code)));
+
+        MockHttpServletResponse download = mockMvc.perform(get("http://test.com:1234/api/gen/download/" + code))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andReturn().getResponse();
+        byte[] zip = download.getContentAsByteArray();
+        Assert.isTrue(zip.length > 0 && Long.parseLong(download.getHeader(HttpHeaders.CONTENT_LENGTH)) == zip.length,
+                "The Content-Length should be the size of the zip");
+        Assert.isTrue(entries(zip).contains("html-client/index.html"), "The zip should contain the generated files");
+
+        // single use
+        mockMvc.perform(get("http://test.com:1234/api/gen/download/" + code))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("http://test.com:1234/api/gen/status/" + code))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void downloadDiscardsUnreadZip() throws Exception {
+        GenerationJobs.Job job = jobs.submit("ping", zip -> {
+            zip.putNextEntry(new ZipEntry("ping.txt"));
+            zip.write('!');
+        });
+        Assert.isTrue(job.await(Duration.ofMinutes(1)) && job.getZip() != null, "The generation should succeed");
+        SpillBuffer zip = job.getZip();
+
+        // a response completing without reading the zip, e.g. for a HEAD request or a client gone
+        RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            Assert.notNull(genApiService.downloadFile(job.getCode()).getBody(), "The zip should be downloaded");
+        } finally {
+            RequestContextHolder.setRequestAttributes(previous);
+            attributes.requestCompleted();
+        }
+
+        Assertions.assertThrows(IOException.class, zip::openInputStream);
+        mockMvc.perform(get("http://test.com:1234/api/gen/download/" + job.getCode()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void generateAsynchronously() throws Exception {
+        String result = mockMvc.perform(post("http://test.com:1234/api/gen/clients/html")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Prefer", "respond-async")
+                .content("{\"spec\": " + SPEC + "}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, matchesPattern("http\\:\\/\\/test.com\\:1234\\/api\\/gen\\/status\\/" + UUID_REGEX)))
+                .andExpect(jsonPath("$.code").value(matchesPattern(UUID_REGEX)))
+                .andReturn().getResponse().getContentAsString();
+
+        String code = new ObjectMapper().readValue(result, ResponseCode.class).getCode();
+
+        String status;
+        long deadline = System.currentTimeMillis() + 60_000;
+        do {
+            Thread.sleep(50);
+            status = JsonPath.read(mockMvc.perform(get("http://test.com:1234/api/gen/status/" + code))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(), "$.status");
+        } while (!"succeeded".equals(status) && System.currentTimeMillis() < deadline);
+        Assert.isTrue("succeeded".equals(status), "The generation should succeed");
+
+        mockMvc.perform(get("http://test.com:1234/api/gen/download/" + code))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"));
+    }
+
+    @Test
+    public void generateUnknownTarget() throws Exception {
+        mockMvc.perform(post("http://test.com:1234/api/gen/clients/unknown")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"spec\": " + SPEC + "}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void downloadUnknownFile() throws Exception {
+        mockMvc.perform(get("http://test.com:1234/api/gen/download/unknown"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("http://test.com:1234/api/gen/status/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static List<String> entries(byte[] zip) throws IOException {
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream stream = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = stream.getNextEntry(); entry != null; entry = stream.getNextEntry()) {
+                entries.add(entry.getName());
+            }
+        }
+        return entries;
+    }
+
     @Test
     public void generateClientWithInvalidOpenAPIUrl() throws Exception {
         final String invalidOpenAPIUrl = "https://[::1]/invalid_openapi.json";
@@ -0,0 +1,458 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the jobs of a batch (e.g. one generation per config of the batch command) on a pool of threads, without
+ * exceeding a heap budget.
+ * <p>
+ * Each job has an estimated heap cost, see {@link #estimateHeapBytes(String)}. The largest jobs are started first, to
+ * shorten the batch; a job is started when a thread is free and its cost fits in the budget left by the running jobs,
+ * smaller jobs filling the remaining room. A job costing more than the whole budget runs alone.
+ * <p>
+ * The wall time, the peak heap usage of the JVM while the job ran and the bytes allocated by the job's thread are
+ * recorded for each job, see {@link #toJson(List)}.
+ */
+public class BatchScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchScheduler.class);
+
+    // rough heap cost of generating from a spec: the parsed document, the codegen models and the rendering
+    static final long BASE_BYTES = 32L << 20;
+    static final long BYTES_PER_SPEC_BYTE = 40;
+    static final long BYTES_PER_SCHEMA = 256L << 10;
+    // assumed size of specs which can't be read up front, e.g. remote specs
+    static final long UNKNOWN_SPEC_BYTES = 1L << 20;
+
+    private static final long SAMPLE_MILLIS = 50;
+
+    @Getter private final int threads;
+    @Getter private final long heapBudget;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition finished = lock.newCondition();
+    private boolean cancelled;
+
+    /**
+     * @param threads    The maximum number of jobs running at once
+     * @param heapBudget The maximum estimated heap cost of the jobs running at once, in bytes
+     */
+    public BatchScheduler(int threads, long heapBudget) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        if (heapBudget < 1) {
+            throw new IllegalArgumentException("heap budget must be positive: " + heapBudget);
+        }
+        this.threads = threads;
+        this.heapBudget = heapBudget;
+    }
+
+    /**
+     * @return three quarters of the maximum heap size of the JVM
+     */
+    public static long defaultHeapBudget() {
+        return Runtime.getRuntime().maxMemory() / 4 * 3;
+    }
+
+    /**
+     * Estimates the heap needed to generate from a spec, from the size of the spec and its number of schemas (counted
+     * without parsing the spec into models). References to other files are not followed.
+     *
+     * @param inputSpec The location of the spec
+     * @return the estimated heap cost, in bytes
+     */
+    public static long estimateHeapBytes(String inputSpec) {
+        long specBytes = UNKNOWN_SPEC_BYTES;
+        int schemas = 0;
+        if (inputSpec != null && !inputSpec.contains("://")) {
+            try {
+                Path spec = Paths.get(inputSpec);
+                if (Files.isRegularFile(spec)) {
+                    specBytes = Files.size(spec);
+                    schemas = countSchemas(spec);
+                }
+            } catch (IOException | InvalidPathException e) {
+                LOGGER.debug("Failed to read {} to estimate its size: {}", inputSpec, e.getMessage());
+            }
+        }
+        return estimateHeapBytes(specBytes, schemas);
+    }
+
+    static long estimateHeapBytes(long specBytes, int schemas) {
+        return BASE_BYTES + specBytes * BYTES_PER_SPEC_BYTE + schemas * BYTES_PER_SCHEMA;
+    }
+
+    /**
+     * Counts the schemas of components (or the definitions of a Swagger 2.0 spec), streaming through the spec.
+     */
+    static int countSchemas(Path spec) throws IOException {
+        JsonFactory factory = spec.toString().toLowerCase(Locale.ROOT).endsWith(".json")
+                ? Json.mapper().getFactory() : Yaml.mapper().getFactory();
+        try (JsonParser parser = factory.createParser(spec.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return 0;
+            }
+            int count = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("definitions".equals(name) && value == JsonToken.START_OBJECT) {
+                    count += countFields(parser);
+                } else if ("components".equals(name) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String component = parser.getCurrentName();
+                        if (parser.nextToken() == JsonToken.START_OBJECT && "schemas".equals(component)) {
+                            count += countFields(parser);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return count;
+        }
+    }
+
+    private static int countFields(JsonParser parser) throws IOException {
+        int count = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            count++;
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return count;
+    }
+
+    /**
+     * Parses a size such as "512m" or "4g" (case insensitive, with a k, m or g suffix), or a number of bytes.
+     *
+     * @param size The size
+     * @return the size in bytes
+     * @throws IllegalArgumentException if the size is invalid
+     */
+    public static long parseSize(String size) {
+        String value = size == null ? "" : size.trim().toLowerCase(Locale.ROOT);
+        int shift = 0;
+        if (value.endsWith("k")) {
+            shift = 10;
+        } else if (value.endsWith("m")) {
+            shift = 20;
+        } else if (value.endsWith("g")) {
+            shift = 30;
+        }
+        if (shift > 0) {
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            long bytes = Long.parseLong(value);
+            if (bytes > 0 && bytes <= (Long.MAX_VALUE >> shift)) {
+                return bytes << shift;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid size: " + size);
+    }
+
+    /**
+     * Runs the jobs, waiting at most until the timeout for all of them to finish. When the timeout elapses (or the run
+     * is cancelled), running jobs are interrupted and reported as {@link Status#TIMED_OUT}, and jobs not started as
+     * {@link Status#SKIPPED}. These statuses are final: a job finishing later doesn't change its result.
+     *
+     * @param jobs    The jobs
+     * @param timeout The maximum time to run the batch
+     * @param unit    The unit of the timeout
+     * @return the results of the jobs, in the order of the jobs
+     * @throws InterruptedException if interrupted while waiting for the jobs
+     */
+    public List<JobResult> run(List<Job> jobs, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<JobResult> results = jobs.stream().map(JobResult::new).collect(Collectors.toList());
+        // a stable sort: jobs of the same cost keep their order
+        List<JobResult> pending = new ArrayList<>(results);
+        pending.sort(Comparator.comparingLong(JobResult::getEstimatedBytes).reversed());
+
+        Set<JobResult> running = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, daemonThreads("batch"));
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(daemonThreads("batch-memory"));
+        sampler.scheduleAtFixedRate(() -> {
+            long used = heapUsed();
+            running.forEach(result -> result.recordHeapUsed(used));
+        }, SAMPLE_MILLIS, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+
+        long[] admittedBytes = {0};
+        lock.lock();
+        try {
+            cancelled = false;
+            while (!pending.isEmpty()) {
+                JobResult next = running.size() < threads ? nextAdmissible(pending, admittedBytes[0], running.isEmpty()) : null;
+                if (next != null) {
+                    pending.remove(next);
+                    admittedBytes[0] += next.getEstimatedBytes();
+                    next.status = Status.RUNNING;
+                    next.startNanos = System.nanoTime();
+                    running.add(next);
+                    executor.execute(() -> {
+                        execute(next);
+                        lock.lock();
+                        try {
+                            running.remove(next);
+                            admittedBytes[0] -= next.getEstimatedBytes();
+                            finished.signalAll();
+                        } finally {
+                            lock.unlock();
+                        }
+                    });
+                } else if (!awaitFinished(deadline)) {
+                    break;
+                }
+            }
+            while (!running.isEmpty() && awaitFinished(deadline)) {
+                // wait for the running jobs
+            }
+
+            long now = System.nanoTime();
+            for (JobResult result : results) {
+                if (result.status == Status.RUNNING) {
+                    result.status = Status.TIMED_OUT;
+                    result.wallNanos = now - result.startNanos;
+                } else if (result.status == Status.PENDING) {
+                    result.status = Status.SKIPPED;
+                }
+            }
+        } finally {
+            lock.unlock();
+            sampler.shutdownNow();
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Stops the current run as if its timeout elapsed, e.g. when the batch is aborted.
+     */
+    public void cancel() {
+        lock.lock();
+        try {
+            cancelled = true;
+            finished.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the largest pending job which fits in the budget, or the largest one if nothing runs
+     */
+    JobResult nextAdmissible(List<JobResult> pending, long admittedBytes, boolean idle) {
+        if (idle) {
+            return pending.get(0);
+        }
+        for (JobResult result : pending) {
+            if (admittedBytes + result.getEstimatedBytes() <= heapBudget) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return false if the deadline elapsed, or the run is cancelled
+     */
+    private boolean awaitFinished(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0 || cancelled) {
+            return false;
+        }
+        finished.awaitNanos(remaining);
+        return true;
+    }
+
+    private void execute(JobResult result) {
+        result.recordHeapUsed(heapUsed());
+        long allocatedBefore = GenerationProfiler.currentThreadAllocatedBytes();
+        Status status;
+        String error = null;
+        try {
+            result.job.task.call();
+            status = Status.SUCCEEDED;
+        } catch (Throwable e) {
+            status = Status.FAILED;
+            error = e.toString();
+        }
+        long allocatedAfter = GenerationProfiler.currentThreadAllocatedBytes();
+        result.recordHeapUsed(heapUsed());
+
+        lock.lock();
+        try {
+            // a job still running at the deadline was reported as timed out
+            if (result.status == Status.RUNNING) {
+                result.status = status;
+                result.error = error;
+                result.wallNanos = System.nanoTime() - result.startNanos;
+                result.allocatedBytes = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long heapUsed() {
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Serializes the results of {@link #run(List, long, TimeUnit)}. Sizes are in bytes, -1 when not measured.
+     *
+     * @param results The results of the jobs
+     * @return the summary, as JSON
+     * @throws IOException if the summary can not be serialized
+     */
+    public byte[] toJson(List<JobResult> results) throws IOException {
+        ObjectNode root = Json.mapper().createObjectNode();
+        root.put("threads", threads);
+        root.put("heapBudgetBytes", heapBudget);
+        ArrayNode jobNodes = root.putArray("jobs");
+        for (JobResult result : results) {
+            ObjectNode node = jobNodes.addObject()
+                    .put("name", result.getName())
+                    .put("status", result.getStatus().name().toLowerCase(Locale.ROOT))
+                    .put("estimatedBytes", result.getEstimatedBytes())
+                    .put("wallMillis", result.getWallMillis())
+                    .put("peakHeapBytes", result.getPeakHeapBytes())
+                    .put("allocatedBytes", result.getAllocatedBytes());
+            if (result.getError() != null) {
+                node.put("error", result.getError());
+            }
+        }
+        return Json.mapper().writerWithDefaultPrettyPrinter().writeValueAsBytes(root);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public enum Status {PENDING, RUNNING, SUCCEEDED, FAILED, TIMED_OUT, SKIPPED}
+
+    /**
+     * A job of the batch. The job fails if its task throws.
+     */
+    @Getter
+    public static final class Job {
+        private final String name;
+        private final long estimatedBytes;
+        private final Callable<?> task;
+
+        /**
+         * @param name           The name of the job, e.g. its config file
+         * @param estimatedBytes The estimated heap cost of the job
+         * @param task           The work of the job
+         */
+        public Job(String name, long estimatedBytes, Callable<?> task) {
+            this.name = name;
+            this.estimatedBytes = estimatedBytes;
+            this.task = task;
+        }
+    }
+
+    /**
+     * What a job did. The values are final once {@link #run(List, long, TimeUnit)} returned.
+     */
+    public static final class JobResult {
+        private final Job job;
+        private final AtomicLong peakHeapBytes = new AtomicLong(-1);
+        @Getter private Status status = Status.PENDING;
+        @Getter private String error;
+        @Getter private long allocatedBytes = -1;
+        private long startNanos;
+        private long wallNanos = -1;
+
+        JobResult(Job job) {
+            this.job = job;
+        }
+
+        public String getName() {
+            return job.name;
+        }
+
+        public long getEstimatedBytes() {
+            return job.estimatedBytes;
+        }
+
+        /**
+         * @return the wall time of the job, -1 if not started
+         */
+        public double getWallMillis() {
+            return wallNanos < 0 ? -1 : Math.round(wallNanos / 10_000.0) / 100.0;
+        }
+
+        /**
+         * @return the peak heap usage of the JVM while the job ran (including concurrent jobs), -1 if not started
+         */
+        public long getPeakHeapBytes() {
+            return peakHeapBytes.get();
+        }
+
+        private void recordHeapUsed(long used) {
+            peakHeapBytes.accumulateAndGet(used, Math::max);
+        }
+    }
+}
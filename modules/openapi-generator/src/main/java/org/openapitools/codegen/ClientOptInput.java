@@ -21,6 +21,7 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 
 import lombok.Getter;
+import org.openapitools.codegen.api.OutputSink;
 import org.openapitools.codegen.api.TemplateDefinition;
 import org.openapitools.codegen.auth.AuthParser;
 import org.openapitools.codegen.config.GeneratorSettings;
@@ -34,6 +35,10 @@ public class ClientOptInput {
     private List<AuthorizationValue> auths;
     // not deprecated as this is added to match other functionality, we need to move to Context<?> instead of ClientOptInput.
     @Getter private List<TemplateDefinition> userDefinedTemplates;
+    // the destination of generated files, e.g. memory or a zip stream; null for the file system
+    @Getter private OutputSink outputSink;
+    // the key of the spec's snapshots (see SpecSnapshotStore), null if not snapshotted
+    @Getter private String specSnapshotKey;
 
     public ClientOptInput openAPI(OpenAPI openAPI) {
         this.setOpenAPI(openAPI);
@@ -55,6 +60,16 @@ public class ClientOptInput {
         return this;
     }
 
+    public ClientOptInput outputSink(OutputSink outputSink) {
+        this.outputSink = outputSink;
+        return this;
+    }
+
+    public ClientOptInput specSnapshotKey(String specSnapshotKey) {
+        this.specSnapshotKey = specSnapshotKey;
+        return this;
+    }
+
     @Deprecated
     public ClientOptInput auth(String urlEncodedAuthString) {
         this.setAuth(urlEncodedAuthString);
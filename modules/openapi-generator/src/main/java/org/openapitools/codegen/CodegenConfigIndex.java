@@ -0,0 +1,194 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import org.openapitools.codegen.meta.Stability;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * The index of the generators registered as {@link CodegenConfig} services, which allows looking up a generator by
+ * name (and listing generators) without constructing every generator.
+ * <p>
+ * The index is written to {@value #RESOURCE} by {@link #main(String[])}, which the build runs once the classes are
+ * compiled (the process-classes phase), one generator per line: its name, class, type and stability, separated by
+ * tabs. Services registered by jars without an index (e.g. custom generators, or classes compiled without the build)
+ * are read from {@code META-INF/services} and constructed when needed.
+ */
+public final class CodegenConfigIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CodegenConfigIndex.class);
+
+    static final String RESOURCE = "META-INF/openapi-generator/generators.index";
+    private static final String SERVICES = "META-INF/services/" + CodegenConfig.class.getName();
+
+    private static volatile CodegenConfigIndex instance;
+
+    // indexed generators, keyed by name
+    private final Map<String, GeneratorDescriptor> generators;
+    // classes registered as services but not indexed
+    private final List<String> unindexedClassNames;
+
+    private CodegenConfigIndex(Map<String, GeneratorDescriptor> generators, List<String> unindexedClassNames) {
+        this.generators = generators;
+        this.unindexedClassNames = unindexedClassNames;
+    }
+
+    /**
+     * @return the index of the generators available to the class loader of {@link CodegenConfig}
+     */
+    static CodegenConfigIndex get() {
+        CodegenConfigIndex index = instance;
+        if (index == null) {
+            synchronized (CodegenConfigIndex.class) {
+                index = instance;
+                if (index == null) {
+                    index = load(CodegenConfig.class.getClassLoader());
+                    instance = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    static CodegenConfigIndex load(ClassLoader classLoader) {
+        Map<String, GeneratorDescriptor> generators = new LinkedHashMap<>();
+        for (String line : readLines(classLoader, RESOURCE)) {
+            // the type and stability may be empty
+            String[] fields = line.split("\t");
+            if (fields.length < 2 || fields.length > 4) {
+                LOGGER.warn("Ignoring invalid line of the generator index: {}", line);
+                continue;
+            }
+            GeneratorDescriptor descriptor = new GeneratorDescriptor(fields[0], fields[1],
+                    fields.length > 2 && !fields[2].isEmpty() ? CodegenType.forValue(fields[2]) : null,
+                    fields.length > 3 && !fields[3].isEmpty() ? Stability.forDescription(fields[3]) : null);
+            generators.putIfAbsent(descriptor.getName(), descriptor);
+        }
+
+        Set<String> indexedClassNames = new LinkedHashSet<>();
+        generators.values().forEach(descriptor -> indexedClassNames.add(descriptor.getClassName()));
+        Set<String> unindexedClassNames = new LinkedHashSet<>();
+        for (String className : readLines(classLoader, SERVICES)) {
+            if (!indexedClassNames.contains(className)) {
+                unindexedClassNames.add(className);
+            }
+        }
+        return new CodegenConfigIndex(generators, new ArrayList<>(unindexedClassNames));
+    }
+
+    /**
+     * @param name The name of a generator
+     * @return the indexed generator, or null
+     */
+    GeneratorDescriptor find(String name) {
+        return generators.get(name);
+    }
+
+    /**
+     * @return the indexed generators
+     */
+    Collection<GeneratorDescriptor> getGenerators() {
+        return Collections.unmodifiableCollection(generators.values());
+    }
+
+    /**
+     * @return the classes registered as {@link CodegenConfig} services which are not indexed
+     */
+    List<String> getUnindexedClassNames() {
+        return Collections.unmodifiableList(unindexedClassNames);
+    }
+
+    /**
+     * Reads the non-empty lines of all resources with the given name, without comments ('#' to the end of a line).
+     */
+    private static List<String> readLines(ClassLoader classLoader, String resourceName) {
+        List<String> lines = new ArrayList<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(resourceName);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        int comment = line.indexOf('#');
+                        if (comment >= 0) {
+                            line = line.substring(0, comment);
+                        }
+                        line = line.trim();
+                        if (!line.isEmpty()) {
+                            lines.add(line);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + resourceName, e);
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the index of the generators registered as {@link CodegenConfig} services, constructing each of them.
+     *
+     * @param args The classes directory to write the index to
+     * @throws IOException If the index can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: CodegenConfigIndex <output directory>");
+        }
+        List<GeneratorDescriptor> descriptors = new ArrayList<>();
+        for (CodegenConfig config : ServiceLoader.load(CodegenConfig.class, CodegenConfig.class.getClassLoader())) {
+            descriptors.add(GeneratorDescriptor.of(config));
+        }
+        descriptors.sort(Comparator.comparing(GeneratorDescriptor::getName));
+
+        Path index = Paths.get(args[0], RESOURCE);
+        Files.createDirectories(index.getParent());
+        try (Writer writer = Files.newBufferedWriter(index, StandardCharsets.UTF_8)) {
+            writer.write("# name, class, type and stability of the generators, generated by " + CodegenConfigIndex.class.getName() + "\n");
+            for (GeneratorDescriptor descriptor : descriptors) {
+                writer.write(descriptor.getName() + "\t" + descriptor.getClassName() + "\t"
+                        + (descriptor.getTag() != null ? descriptor.getTag().toValue() : "") + "\t"
+                        + (descriptor.getStability() != null ? descriptor.getStability().value() : "") + "\n");
+            }
+        }
+        LOGGER.info("Indexed {} generators in {}", descriptors.size(), index);
+    }
+}
@@ -17,18 +17,59 @@
 
 package org.openapitools.codegen;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
 
 public class CodegenConfigLoader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CodegenConfigLoader.class);
+
     /**
-     * Tries to load config class with SPI first, then with class name directly from classpath
+     * Tries to load config class with SPI first, then with class name directly from classpath.
+     * Generators listed in the generator index (see {@link CodegenConfigIndex}) are looked up without constructing
+     * any other generator.
      *
      * @param name name of config, or full qualified class name in classpath
      * @return config class
      */
     public static CodegenConfig forName(String name) {
+        CodegenConfigIndex index = CodegenConfigIndex.get();
+        GeneratorDescriptor descriptor = index.find(name);
+        if (descriptor != null) {
+            try {
+                return newInstance(descriptor.getClassName());
+            } catch (Exception e) {
+                // e.g. an outdated index, look for the generator among all services
+                LOGGER.debug("Failed to construct indexed generator {}", descriptor, e);
+                return forNameWithoutIndex(name);
+            }
+        }
+
+        StringBuilder availableConfigs = new StringBuilder();
+        for (GeneratorDescriptor indexed : index.getGenerators()) {
+            availableConfigs.append(indexed.getName()).append("\n");
+        }
+        for (String className : index.getUnindexedClassNames()) {
+            CodegenConfig config;
+            try {
+                config = newInstance(className);
+            } catch (Exception e) {
+                LOGGER.debug("Failed to construct generator {}", className, e);
+                continue;
+            }
+            if (config.getName().equals(name)) {
+                return config;
+            }
+            availableConfigs.append(config.getName()).append("\n");
+        }
+
+        return forClassName(name, availableConfigs);
+    }
+
+    private static CodegenConfig forNameWithoutIndex(String name) {
         ServiceLoader<CodegenConfig> loader = ServiceLoader.load(CodegenConfig.class, CodegenConfig.class.getClassLoader());
 
         StringBuilder availableConfigs = new StringBuilder();
@@ -41,6 +82,10 @@ public class CodegenConfigLoader {
             availableConfigs.append(config.getName()).append("\n");
         }
 
+        return forClassName(name, availableConfigs);
+    }
+
+    private static CodegenConfig forClassName(String name, StringBuilder availableConfigs) {
         // else try to load directly
         try {
             return (CodegenConfig) Class.forName(name).getDeclaredConstructor().newInstance();
@@ -49,6 +94,16 @@ public class CodegenConfigLoader {
         }
     }
 
+    private static CodegenConfig newInstance(String className) throws ReflectiveOperationException {
+        return (CodegenConfig) Class.forName(className, true, CodegenConfig.class.getClassLoader())
+                .getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Constructs all available generators. To list the generators, prefer {@link #getAllDescriptors()}.
+     *
+     * @return the generators
+     */
     public static List<CodegenConfig> getAll() {
         ServiceLoader<CodegenConfig> loader = ServiceLoader.load(CodegenConfig.class, CodegenConfig.class.getClassLoader());
         List<CodegenConfig> output = new ArrayList<CodegenConfig>();
@@ -57,4 +112,22 @@ public class CodegenConfigLoader {
         }
         return output;
     }
+
+    /**
+     * Describes all available generators. Only generators missing from the generator index are constructed.
+     *
+     * @return the descriptions of the generators
+     */
+    public static List<GeneratorDescriptor> getAllDescriptors() {
+        CodegenConfigIndex index = CodegenConfigIndex.get();
+        List<GeneratorDescriptor> output = new ArrayList<>(index.getGenerators());
+        for (String className : index.getUnindexedClassNames()) {
+            try {
+                output.add(GeneratorDescriptor.of(newInstance(className)));
+            } catch (Exception e) {
+                LOGGER.warn("Failed to construct generator {}: {}", className, e.getMessage());
+            }
+        }
+        return output;
+    }
 }
@@ -34,6 +34,10 @@ public class CodegenConstants {
     public static final String API_DOCS = "apiDocs";
 
     public static final String SKIP_FORM_MODEL = "skipFormModel";
+    public static final String RENDER_THREADS = "renderThreads";
+    public static final String INCREMENTAL = "incremental";
+    public static final String PROFILE_GENERATION = "profileGeneration";
+    public static final String SPEC_SNAPSHOT_DIR = "specSnapshotDir";
     /* /end System Properties */
 
     public static final String API_NAME = "apiName";
@@ -17,11 +17,10 @@
 
 package org.openapitools.codegen;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.google.common.base.CaseFormat;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
 import com.samskivert.mustache.Mustache;
 import com.samskivert.mustache.Mustache.Compiler;
 import com.samskivert.mustache.Mustache.Lambda;
@@ -66,7 +65,9 @@ import org.openapitools.codegen.serializer.SerializerUtils;
 import org.openapitools.codegen.templating.MustacheEngineAdapter;
 import org.openapitools.codegen.templating.mustache.*;
 import org.openapitools.codegen.utils.ModelUtils;
+import org.openapitools.codegen.utils.NameCaches;
 import org.openapitools.codegen.utils.OneOfImplementorAdditionalData;
+import org.openapitools.codegen.utils.SchemaStructure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -74,11 +75,11 @@ import java.io.File;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentSkipListSet;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -96,9 +97,6 @@ public class DefaultCodegen implements CodegenConfig {
 
     public static FeatureSet DefaultFeatureSet;
 
-    // A cache of sanitized words. The sanitizeName() method is invoked many times with the same
-    // arguments, this cache is used to optimized performance.
-    private static final Cache<SanitizeNameOptions, String> sanitizedNameCache;
     private static final String xSchemaTestExamplesKey = "x-schema-test-examples";
     private static final String xSchemaTestExamplesRefPrefix = "#/components/x-schema-test-examples/";
     protected static Schema falseSchema;
@@ -148,13 +146,6 @@ public class DefaultCodegen implements CodegenConfig {
                 )
                 .build();
 
-        int cacheSize = Integer.parseInt(GlobalSettings.getProperty(NAME_CACHE_SIZE_PROPERTY, "500"));
-        int cacheExpiry = Integer.parseInt(GlobalSettings.getProperty(NAME_CACHE_EXPIRY_PROPERTY, "10"));
-        sanitizedNameCache = Caffeine.newBuilder()
-                .maximumSize(cacheSize)
-                .expireAfterAccess(cacheExpiry, TimeUnit.SECONDS)
-                .ticker(Ticker.systemTicker())
-                .build();
         falseSchema = new Schema();
         falseSchema.setNot(new Schema());
     }
@@ -2581,16 +2572,23 @@ public class DefaultCodegen implements CodegenConfig {
         return camelizedName;
     }
 
+    /**
+     * The key of the property cache. Schemas are left unchanged once normalized, so they are compared by identity, or
+     * by structural hash when compared by value.
+     */
     private static class NamedSchema {
-        private NamedSchema(String name, Schema s, boolean required, boolean schemaIsFromAdditionalProperties) {
+        private NamedSchema(String name, Schema s, HashCode structure, boolean required, boolean schemaIsFromAdditionalProperties) {
             this.name = name;
             this.schema = s;
+            this.structure = structure;
             this.required = required;
             this.schemaIsFromAdditionalProperties = schemaIsFromAdditionalProperties;
         }
 
         private String name;
         private Schema schema;
+        // null to compare schemas by identity
+        private HashCode structure;
         private boolean required;
         private boolean schemaIsFromAdditionalProperties;
 
@@ -2599,19 +2597,68 @@ public class DefaultCodegen implements CodegenConfig {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             NamedSchema that = (NamedSchema) o;
-            return Objects.equals(required, that.required) &&
+            return required == that.required &&
+                    schemaIsFromAdditionalProperties == that.schemaIsFromAdditionalProperties &&
                     Objects.equals(name, that.name) &&
-                    Objects.equals(schema, that.schema) &&
-                    Objects.equals(schemaIsFromAdditionalProperties, that.schemaIsFromAdditionalProperties);
+                    (structure == null
+                            ? schema == that.schema
+                            : structure.equals(that.structure) && Objects.equals(schema, that.schema));
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(name, schema, required, schemaIsFromAdditionalProperties);
+            int schemaHash = structure == null ? System.identityHashCode(schema) : structure.hashCode();
+            return Objects.hash(name, schemaHash, required, schemaIsFromAdditionalProperties);
         }
     }
 
+    // properties by schema identity, and by schema value for the distinct but equal schemas (e.g. a '$ref' repeated
+    // across models), see fromProperty
     Map<NamedSchema, CodegenProperty> schemaCodegenPropertyCache = new HashMap<>();
+    private final Map<NamedSchema, CodegenProperty> schemaCodegenPropertyByValueCache = new HashMap<>();
+    private final SchemaStructure schemaStructure = new SchemaStructure();
+    private long propertyCacheHits;
+    private long propertyCacheMisses;
+
+    // the JSON of the OpenAPI objects serialized for the codegen objects (jsonSchema, modelJson), by identity, and the
+    // distinct JSON strings, so that the objects repeated across operations (e.g. a shared response or parameter) are
+    // serialized once and the repeated JSON (e.g. of a '$ref' or a plain string schema) is held once
+    private final Map<Object, String> jsonCache = new IdentityHashMap<>();
+    private final Map<Schema, String> sortedJsonCache = new IdentityHashMap<>();
+    private final Map<String, String> jsonStrings = new HashMap<>();
+
+    /**
+     * @param value an OpenAPI object, e.g. a schema, parameter or response
+     * @return the pretty-printed JSON of the object
+     */
+    private String toJson(Object value) {
+        String json = jsonCache.get(value);
+        if (json == null) {
+            json = jsonStrings.computeIfAbsent(Json.pretty(value), Function.identity());
+            jsonCache.put(value, json);
+        }
+        return json;
+    }
+
+    /**
+     * @param schema a schema
+     * @return the pretty-printed JSON of the schema, with its fields sorted by name
+     */
+    private String toSortedJson(Schema schema) {
+        String json = sortedJsonCache.get(schema);
+        if (json == null) {
+            json = jsonStrings.computeIfAbsent(Json.pretty(Json.mapper().convertValue(schema, TreeMap.class)), Function.identity());
+            sortedJsonCache.put(schema, json);
+        }
+        return json;
+    }
+
+    /**
+     * @return the hits and misses of the cache of {@link #fromProperty(String, Schema, boolean, boolean)}
+     */
+    public CacheStats getPropertyCacheStats() {
+        return CacheStats.of(propertyCacheHits, propertyCacheMisses, 0, 0, 0, 0, 0);
+    }
 
     protected void updateModelForComposedSchema(CodegenModel m, Schema schema, Map<String, Schema> allDefinitions) {
         final Schema composed = schema;
@@ -3011,7 +3058,7 @@ public class DefaultCodegen implements CodegenConfig {
         m.classname = toModelName(name);
         m.classVarName = toVarName(name);
         m.classFilename = toModelFilename(name);
-        m.modelJson = Json.pretty(schema);
+        m.modelJson = toJson(schema);
         m.externalDocumentation = schema.getExternalDocs();
         if (schema.getExtensions() != null && !schema.getExtensions().isEmpty()) {
             m.getVendorExtensions().putAll(schema.getExtensions());
@@ -3846,12 +3893,25 @@ public class DefaultCodegen implements CodegenConfig {
             return null;
         }
         LOGGER.debug("debugging fromProperty for {}: {}", name, p);
-        NamedSchema ns = new NamedSchema(name, p, required, schemaIsFromAdditionalProperties);
+        NamedSchema ns = new NamedSchema(name, p, null, required, schemaIsFromAdditionalProperties);
         CodegenProperty cpc = schemaCodegenPropertyCache.get(ns);
+        NamedSchema nsByValue = null;
+        if (cpc == null) {
+            HashCode structure = structureOf(p);
+            if (structure != null) {
+                nsByValue = new NamedSchema(name, p, structure, required, schemaIsFromAdditionalProperties);
+                cpc = schemaCodegenPropertyByValueCache.get(nsByValue);
+                if (cpc != null) {
+                    schemaCodegenPropertyCache.put(ns, cpc);
+                }
+            }
+        }
         if (cpc != null) {
+            propertyCacheHits++;
             LOGGER.debug("Cached fromProperty for {} : {} required={}", name, p.getName(), required);
             return cpc;
         }
+        propertyCacheMisses++;
 
         // if it's ref to schema's properties, get the actual schema defined in the properties
         Schema refToPropertiesSchema = ModelUtils.getSchemaFromRefToSchemaWithProperties(openAPI, p.get$ref());
@@ -3934,7 +3994,7 @@ public class DefaultCodegen implements CodegenConfig {
             property.example = "ERROR_TO_EXAMPLE_VALUE";
         }
 
-        property.jsonSchema = Json.pretty(Json.mapper().convertValue(p, TreeMap.class));
+        property.jsonSchema = toSortedJson(p);
 
         if (p.getDeprecated() != null) {
             property.deprecated = p.getDeprecated();
@@ -4164,9 +4224,21 @@ public class DefaultCodegen implements CodegenConfig {
 
         LOGGER.debug("debugging from property return: {}", property);
         schemaCodegenPropertyCache.put(ns, property);
+        if (nsByValue != null) {
+            schemaCodegenPropertyByValueCache.put(nsByValue, property);
+        }
         return property;
     }
 
+    private HashCode structureOf(Schema schema) {
+        try {
+            return schemaStructure.hash(schema);
+        } catch (UncheckedIOException e) {
+            LOGGER.debug("Unable to hash the structure of schema {}, cached by identity only", schema.getName(), e);
+            return null;
+        }
+    }
+
     /**
      * Update property for array(list) container
      *
@@ -4863,7 +4935,7 @@ public class DefaultCodegen implements CodegenConfig {
         // TODO need to revise and test examples in responses
         // ApiResponse does not support examples at the moment
         //r.examples = toExamples(response.getExamples());
-        r.jsonSchema = Json.pretty(response);
+        r.jsonSchema = toJson(response);
         if (response.getExtensions() != null && !response.getExtensions().isEmpty()) {
             r.vendorExtensions.putAll(response.getExtensions());
         }
@@ -5140,7 +5212,7 @@ public class DefaultCodegen implements CodegenConfig {
         if (parameter.getDeprecated() != null) {
             codegenParameter.isDeprecated = parameter.getDeprecated();
         }
-        codegenParameter.jsonSchema = Json.pretty(parameter);
+        codegenParameter.jsonSchema = toJson(parameter);
 
         if (GlobalSettings.getProperty("debugParser") != null) {
             LOGGER.info("working on Parameter {}", parameter.getName());
@@ -6500,7 +6572,10 @@ public class DefaultCodegen implements CodegenConfig {
 
         SanitizeNameOptions opts = new SanitizeNameOptions(name, removeCharRegEx, exceptionList);
 
-        return sanitizedNameCache.get(opts, sanitizeNameOptions -> {
+        // The sanitizeName() method is invoked many times with the same arguments, the names are cached to optimize
+        // performance.
+        return NameCaches.current().getSanitizedNames().get(opts, key -> {
+            SanitizeNameOptions sanitizeNameOptions = (SanitizeNameOptions) key;
             String modifiable = sanitizeNameOptions.getName();
             List<String> exceptions = sanitizeNameOptions.getExceptions();
             // input[] => input
@@ -7351,7 +7426,7 @@ public class DefaultCodegen implements CodegenConfig {
         codegenParameter.isFormParam = Boolean.TRUE;
         codegenParameter.description = escapeText(codegenProperty.description);
         codegenParameter.unescapedDescription = codegenProperty.getDescription();
-        codegenParameter.jsonSchema = Json.pretty(propertySchema);
+        codegenParameter.jsonSchema = toJson(propertySchema);
         codegenParameter.containerType = codegenProperty.containerType;
         codegenParameter.containerTypeMapped = codegenProperty.containerTypeMapped;
 
@@ -7999,7 +8074,7 @@ public class DefaultCodegen implements CodegenConfig {
 
     private void addJsonSchemaForBodyRequestInCaseItsNotPresent(CodegenParameter codegenParameter, RequestBody body) {
         if (codegenParameter.jsonSchema == null)
-            codegenParameter.jsonSchema = Json.pretty(body);
+            codegenParameter.jsonSchema = toJson(body);
     }
 
     protected void addOption(String key, String description, String defaultValue) {
@@ -17,6 +17,10 @@
 
 package org.openapitools.codegen;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
@@ -35,10 +39,12 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOCase;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.openapitools.codegen.api.OutputSink;
 import org.openapitools.codegen.api.TemplateDefinition;
 import org.openapitools.codegen.api.TemplatePathLocator;
 import org.openapitools.codegen.api.TemplateProcessor;
 import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.config.SpecSnapshotStore;
 import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.api.TemplateFileType;
 import org.openapitools.codegen.ignore.CodegenIgnoreProcessor;
@@ -47,11 +53,18 @@ import org.openapitools.codegen.meta.Stability;
 import org.openapitools.codegen.model.*;
 import org.openapitools.codegen.serializer.SerializerUtils;
 import org.openapitools.codegen.templating.CommonTemplateContentLocator;
+import org.openapitools.codegen.templating.FileSystemOutputSink;
 import org.openapitools.codegen.templating.GeneratorTemplateContentLocator;
+import org.openapitools.codegen.templating.HandlebarsEngineAdapter;
 import org.openapitools.codegen.templating.MustacheEngineAdapter;
+import org.openapitools.codegen.templating.MustacheTemplateCache;
+import org.openapitools.codegen.templating.TemplateIndex;
 import org.openapitools.codegen.templating.TemplateManagerOptions;
+import org.openapitools.codegen.templating.handlebars.HandlebarsTemplateCache;
+import org.openapitools.codegen.templating.mustache.CopyLambda;
 import org.openapitools.codegen.utils.ImplementationVersion;
 import org.openapitools.codegen.utils.ModelUtils;
+import org.openapitools.codegen.utils.NameCaches;
 import org.openapitools.codegen.utils.ProcessUtils;
 import org.openapitools.codegen.utils.URLPathUtils;
 import org.openapitools.codegen.utils.SemVer;
@@ -65,7 +78,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -92,6 +110,13 @@ public class DefaultGenerator implements Generator {
     private Boolean generateModelTests = null;
     private Boolean generateModelDocumentation = null;
     private Boolean generateMetadata = true;
+    private int renderThreads = 1;
+    private GenerationManifest manifest;
+    private GenerationProfiler profiler = GenerationProfiler.disabled();
+    /**
+     * The name caches of the last generation run, discarded at its end; their statistics remain available.
+     */
+    @Getter private NameCaches nameCaches;
     private String basePath;
     private String basePathWithoutHost;
     private String contextPath;
@@ -101,6 +126,8 @@ public class DefaultGenerator implements Generator {
      *  applied via 
      */
     @Getter protected TemplateProcessor templateProcessor = null;
+    // the destination of generated files, see ClientOptInput#outputSink
+    private OutputSink outputSink = FileSystemOutputSink.INSTANCE;
 
     private List<TemplateDefinition> userDefinedTemplates = new ArrayList<>();
     private String generatorCheck = "spring";
@@ -128,6 +155,10 @@ public class DefaultGenerator implements Generator {
             this.userDefinedTemplates = Collections.unmodifiableList(userFiles);
         }
 
+        if (opts.getOutputSink() != null) {
+            this.outputSink = opts.getOutputSink();
+        }
+
         TemplateManagerOptions templateManagerOptions = new TemplateManagerOptions(this.config.isEnableMinimalUpdate(), this.config.isSkipOverwrite());
 
         if (this.dryRun) {
@@ -138,14 +169,21 @@ public class DefaultGenerator implements Generator {
             if (templatingEngine instanceof MustacheEngineAdapter) {
                 MustacheEngineAdapter mustacheEngineAdapter = (MustacheEngineAdapter) templatingEngine;
                 mustacheEngineAdapter.setCompiler(this.config.processCompiler(mustacheEngineAdapter.getCompiler()));
+                // compiled templates are reused across models, apis and supporting files (and across runs, if shared)
+                mustacheEngineAdapter.setTemplateCache(MustacheTemplateCache.forCurrentSettings());
+                mustacheEngineAdapter.setTemplateCacheScope(this.config.getClass().getName());
             }
 
+            // templates are located and read once per run (and across runs, if shared)
+            TemplateIndex templateIndex = TemplateIndex.forCurrentSettings();
             TemplatePathLocator commonTemplateLocator = new CommonTemplateContentLocator();
-            TemplatePathLocator generatorTemplateLocator = new GeneratorTemplateContentLocator(this.config);
+            TemplatePathLocator generatorTemplateLocator = new GeneratorTemplateContentLocator(this.config, templateIndex);
             this.templateProcessor = new TemplateManager(
                     templateManagerOptions,
                     templatingEngine,
-                    new TemplatePathLocator[]{generatorTemplateLocator, commonTemplateLocator}
+                    new TemplatePathLocator[]{generatorTemplateLocator, commonTemplateLocator},
+                    this.outputSink,
+                    templateIndex
             );
         }
 
@@ -200,6 +238,44 @@ public class DefaultGenerator implements Generator {
         return defaultValue;
     }
 
+    private GenerationProfiler createProfiler() {
+        String value = GlobalSettings.getProperty(CodegenConstants.PROFILE_GENERATION);
+        if (value == null) {
+            value = this.generatorPropertyDefaults.get(CodegenConstants.PROFILE_GENERATION);
+        }
+        if (value == null || "false".equalsIgnoreCase(value)) {
+            return GenerationProfiler.disabled();
+        }
+        if (value.isEmpty() || "true".equalsIgnoreCase(value)) {
+            return GenerationProfiler.enabled(10);
+        }
+        try {
+            return GenerationProfiler.enabled(Math.max(1, Integer.parseInt(value)));
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid value for {}: {}, expected true, false or the number of slowest templates and models to report", CodegenConstants.PROFILE_GENERATION, value);
+            return GenerationProfiler.disabled();
+        }
+    }
+
+    private int getRenderThreads() {
+        String value = GlobalSettings.getProperty(CodegenConstants.RENDER_THREADS);
+        if (value == null) {
+            value = this.generatorPropertyDefaults.get(CodegenConstants.RENDER_THREADS);
+        }
+        if (value == null || "false".equalsIgnoreCase(value)) {
+            return 1;
+        }
+        if (value.isEmpty() || "true".equalsIgnoreCase(value)) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Invalid value '{}' for global property {}, rendering files sequentially.", value, CodegenConstants.RENDER_THREADS);
+            return 1;
+        }
+    }
+
     void configureGeneratorProperties() {
         // allows generating only models by specifying a CSV of models to generate, or empty for all
         // NOTE: Boolean.TRUE is required below rather than `true` because of JVM boxing constraints and type inference.
@@ -232,6 +308,7 @@ public class DefaultGenerator implements Generator {
         generateApiTests = GlobalSettings.getProperty(CodegenConstants.API_TESTS) != null ? Boolean.valueOf(GlobalSettings.getProperty(CodegenConstants.API_TESTS)) : getGeneratorPropertyDefaultSwitch(CodegenConstants.API_TESTS, true);
         generateApiDocumentation = GlobalSettings.getProperty(CodegenConstants.API_DOCS) != null ? Boolean.valueOf(GlobalSettings.getProperty(CodegenConstants.API_DOCS)) : getGeneratorPropertyDefaultSwitch(CodegenConstants.API_DOCS, true);
         generateRecursiveDependentModels = GlobalSettings.getProperty(CodegenConstants.GENERATE_RECURSIVE_DEPENDENT_MODELS) != null ? Boolean.valueOf(GlobalSettings.getProperty(CodegenConstants.GENERATE_RECURSIVE_DEPENDENT_MODELS)) : getGeneratorPropertyDefaultSwitch(CodegenConstants.GENERATE_RECURSIVE_DEPENDENT_MODELS, false);
+        renderThreads = getRenderThreads();
 
         // Additional properties added for tests to exclude references in project related files
         config.additionalProperties().put(CodegenConstants.GENERATE_API_TESTS, generateApiTests);
@@ -264,28 +341,48 @@ public class DefaultGenerator implements Generator {
             config.importMapping().putAll(opts.getGeneratorSettings().getImportMappings());
         }
 
-        // normalize the spec
+        boolean normalize = config.getUseOpenapiNormalizer();
         try {
-            if (config.getUseOpenapiNormalizer()) {
-                SemVer version = new SemVer(openAPI.getOpenapi());
-                if (version.atLeast("3.1.0")) {
-                    config.openapiNormalizer().put("NORMALIZE_31SPEC", "true");
-                }
-                OpenAPINormalizer openapiNormalizer = new OpenAPINormalizer(openAPI, config.openapiNormalizer());
-                openapiNormalizer.normalize();
+            if (normalize && new SemVer(openAPI.getOpenapi()).atLeast("3.1.0")) {
+                config.openapiNormalizer().put("NORMALIZE_31SPEC", "true");
             }
         } catch (Exception e) {
+            normalize = false;
             LOGGER.error("An exception occurred in OpenAPI Normalizer. Please report the issue via https://github.com/openapitools/openapi-generator/issues/new/: ");
             e.printStackTrace();
         }
 
-        // resolve inline models
-        if (config.getUseInlineModelResolver()) {
-            InlineModelResolver inlineModelResolver = new InlineModelResolver();
-            inlineModelResolver.setInlineSchemaNameMapping(config.inlineSchemaNameMapping());
-            inlineModelResolver.setInlineSchemaOptions(config.inlineSchemaOption());
+        // a snapshot of the spec, as normalized with the same settings, replaces normalizing it and resolving inline models
+        String specSnapshotKey = opts != null && normalize == config.getUseOpenapiNormalizer() ? opts.getSpecSnapshotKey() : null;
+        SpecSnapshotStore snapshots = specSnapshotKey != null ? SpecSnapshotStore.forCurrentSettings() : null;
+        String snapshotSettingsKey = snapshots != null ? SpecSnapshotStore.settingsKey(config) : null;
+        OpenAPI normalized = snapshots != null ? snapshots.readNormalized(specSnapshotKey, snapshotSettingsKey) : null;
+        if (normalized != null) {
+            openAPI = normalized;
+        } else {
+            // normalize the spec
+            try {
+                if (normalize) {
+                    OpenAPINormalizer openapiNormalizer = new OpenAPINormalizer(openAPI, config.openapiNormalizer());
+                    openapiNormalizer.normalize();
+                }
+            } catch (Exception e) {
+                LOGGER.error("An exception occurred in OpenAPI Normalizer. Please report the issue via https://github.com/openapitools/openapi-generator/issues/new/: ");
+                e.printStackTrace();
+            }
 
-            inlineModelResolver.flatten(openAPI);
+            // resolve inline models
+            if (config.getUseInlineModelResolver()) {
+                InlineModelResolver inlineModelResolver = new InlineModelResolver();
+                inlineModelResolver.setInlineSchemaNameMapping(config.inlineSchemaNameMapping());
+                inlineModelResolver.setInlineSchemaOptions(config.inlineSchemaOption());
+
+                inlineModelResolver.flatten(openAPI);
+            }
+
+            if (snapshots != null) {
+                snapshots.writeNormalized(specSnapshotKey, snapshotSettingsKey, openAPI);
+            }
         }
 
         config.preprocessOpenAPI(openAPI);
@@ -395,7 +492,7 @@ public class DefaultGenerator implements Generator {
             if (generateModelTests) {
                 // do not overwrite test file that already exists (regardless of config's skipOverwrite setting)
                 File modelTestFile = new File(filename);
-                if (modelTestFile.exists()) {
+                if (outputExists(modelTestFile)) {
                     this.templateProcessor.skip(modelTestFile.toPath(), "Test files never overwrite an existing file of the same name.");
                 } else {
                     File written = processTemplateToFile(models, templateName, filename, generateModelTests, CodegenConstants.MODEL_TESTS, config.modelTestFileFolder());
@@ -518,12 +615,14 @@ public class DefaultGenerator implements Generator {
                     }
                 }
 
+                GenerationProfiler.Sample modelStart = profiler.start();
                 Map<String, Schema> schemaMap = new HashMap<>();
                 schemaMap.put(name, schema);
                 ModelsMap models = processModels(config, schemaMap);
                 models.put("classname", config.toModelName(name));
                 models.putAll(config.additionalProperties());
                 allProcessedModels.put(name, models);
+                profiler.recordModelProcessing(name, modelStart);
             } catch (Exception e) {
                 throw new RuntimeException("Could not process model '" + name + "'" + ".Please make sure that your schema is correct!", e);
             }
@@ -554,6 +653,7 @@ public class DefaultGenerator implements Generator {
         }
         
         // generate files based on processed models
+        List<RenderTask> renderTasks = new ArrayList<>();
         for (String modelName : allProcessedModels.keySet()) {
             ModelsMap models = allProcessedModels.get(modelName);
             models.put("modelPackage", config.modelPackage());
@@ -579,19 +679,44 @@ public class DefaultGenerator implements Generator {
                     allModels.add(modelTemplate);
                 }
 
-                // to generate model files
-                generateModel(files, models, modelName);
-
-                // to generate model test files
-                generateModelTests(files, models, modelName);
-
-                // to generate model documentation files
-                generateModelDocumentation(files, models, modelName);
-
             } catch (Exception e) {
                 throw new RuntimeException("Could not generate model '" + modelName + "'", e);
             }
+
+            String unit = "model:" + modelName;
+            String fingerprint = manifest == null ? null : manifest.modelFingerprint(modelName);
+            List<File> unchangedFiles = manifest == null ? null : manifest.unchangedFiles(unit, fingerprint);
+            if (unchangedFiles != null) {
+                LOGGER.info("Skipping unchanged model {}", modelName);
+                manifest.record(unit, fingerprint, unchangedFiles);
+                renderTasks.add(modelFiles -> modelFiles.addAll(unchangedFiles));
+                continue;
+            }
+
+            renderTasks.add(modelFiles -> {
+                GenerationProfiler.Sample modelStart = profiler.start();
+                try {
+                    // to generate model files
+                    generateModel(modelFiles, models, modelName);
+
+                    // to generate model test files
+                    generateModelTests(modelFiles, models, modelName);
+
+                    // to generate model documentation files
+                    generateModelDocumentation(modelFiles, models, modelName);
+
+                } catch (Exception e) {
+                    throw new RuntimeException("Could not generate model '" + modelName + "'", e);
+                }
+                if (manifest != null) {
+                    manifest.record(unit, fingerprint, modelFiles);
+                }
+                profiler.recordModelRendering(modelName, modelStart);
+            });
         }
+        GenerationProfiler.Sample renderStart = profiler.start();
+        render(files, renderTasks);
+        profiler.record("generateModels." + GenerationProfiler.RENDERING, renderStart);
         if (GlobalSettings.getProperty("debugModels") != null) {
             LOGGER.info("############ Model info ############");
             Json.prettyPrint(allModels);
@@ -685,14 +810,16 @@ public class DefaultGenerator implements Generator {
             }
             paths = updatedPaths;
         }
+        List<RenderTask> renderTasks = new ArrayList<>();
         for (String tag : paths.keySet()) {
+            OperationsMap operation;
+            List<CodegenOperation> ops = paths.get(tag);
             try {
-                List<CodegenOperation> ops = paths.get(tag);
                 if(!this.config.isSkipSortingOperations()) {
                     // sort operations by operationId
                     ops.sort((one, another) -> ObjectUtils.compare(one.operationId, another.operationId));
                 }
-                OperationsMap operation = processOperations(config, tag, ops, allModels);
+                operation = processOperations(config, tag, ops, allModels);
                 URL url = URLPathUtils.getServerURL(openAPI, config.serverVariableOverrides());
                 operation.put("basePath", basePath);
                 operation.put("basePathWithoutHost", removeTrailingSlash(config.encodePath(url.getPath())));
@@ -761,68 +888,87 @@ public class DefaultGenerator implements Generator {
                 allOperations.add(operation);
 
                 addAuthenticationSwitches(operation);
+            } catch (Exception e) {
+                throw new RuntimeException("Could not generate api file for '" + tag + "'", e);
+            }
 
-                for (String templateName : config.apiTemplateFiles().keySet()) {
-                    File written = null;
-                    if (config.templateOutputDirs().containsKey(templateName)) {
-                        String outputDir = config.getOutputDir() + File.separator + config.templateOutputDirs().get(templateName);
-                        String filename = config.apiFilename(templateName, tag, outputDir);
-                        // do not overwrite apiController file for spring server
-                        if (apiFilePreCheck(filename, generatorCheck, templateName, templateCheck)) {
-                            written = processTemplateToFile(operation, templateName, filename, generateApis, CodegenConstants.APIS, outputDir);
+            String unit = "api:" + tag;
+            String fingerprint = manifest == null ? null : manifest.apiFingerprint(tag, ops);
+            List<File> unchangedFiles = manifest == null ? null : manifest.unchangedFiles(unit, fingerprint);
+            if (unchangedFiles != null) {
+                LOGGER.info("Skipping unchanged api {}", tag);
+                manifest.record(unit, fingerprint, unchangedFiles);
+                renderTasks.add(apiFiles -> apiFiles.addAll(unchangedFiles));
+                continue;
+            }
+
+            renderTasks.add(apiFiles -> {
+                try {
+                    for (String templateName : config.apiTemplateFiles().keySet()) {
+                        File written = null;
+                        if (config.templateOutputDirs().containsKey(templateName)) {
+                            String outputDir = config.getOutputDir() + File.separator + config.templateOutputDirs().get(templateName);
+                            String filename = config.apiFilename(templateName, tag, outputDir);
+                            // do not overwrite apiController file for spring server
+                            if (apiFilePreCheck(filename, generatorCheck, templateName, templateCheck)) {
+                                written = processTemplateToFile(operation, templateName, filename, generateApis, CodegenConstants.APIS, outputDir);
+                            } else {
+                                LOGGER.info("Implementation file {} is not overwritten", filename);
+                            }
                         } else {
-                            LOGGER.info("Implementation file {} is not overwritten", filename);
+                            String filename = config.apiFilename(templateName, tag);
+                            if (apiFilePreCheck(filename, generatorCheck, templateName, templateCheck)) {
+                                written = processTemplateToFile(operation, templateName, filename, generateApis, CodegenConstants.APIS);
+                            } else {
+                                LOGGER.info("Implementation file {} is not overwritten", filename);
+                            }
                         }
-                    } else {
-                        String filename = config.apiFilename(templateName, tag);
-                        if (apiFilePreCheck(filename, generatorCheck, templateName, templateCheck)) {
-                            written = processTemplateToFile(operation, templateName, filename, generateApis, CodegenConstants.APIS);
-                        } else {
-                            LOGGER.info("Implementation file {} is not overwritten", filename);
+                        if (written != null) {
+                            apiFiles.add(written);
+                            if (config.isEnablePostProcessFile() && !dryRun) {
+                                config.postProcessFile(written, "api");
+                            }
                         }
                     }
-                    if (written != null) {
-                        files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
-                            config.postProcessFile(written, "api");
+
+                    // to generate api test files
+                    for (String templateName : config.apiTestTemplateFiles().keySet()) {
+                        String filename = config.apiTestFilename(templateName, tag);
+                        File apiTestFile = new File(filename);
+                        // do not overwrite test file that already exists
+                        if (outputExists(apiTestFile)) {
+                            this.templateProcessor.skip(apiTestFile.toPath(), "Test files never overwrite an existing file of the same name.");
+                        } else {
+                            File written = processTemplateToFile(operation, templateName, filename, generateApiTests, CodegenConstants.API_TESTS, config.apiTestFileFolder());
+                            if (written != null) {
+                                apiFiles.add(written);
+                                if (config.isEnablePostProcessFile() && !dryRun) {
+                                    config.postProcessFile(written, "api-test");
+                                }
+                            }
                         }
                     }
-                }
 
-                // to generate api test files
-                for (String templateName : config.apiTestTemplateFiles().keySet()) {
-                    String filename = config.apiTestFilename(templateName, tag);
-                    File apiTestFile = new File(filename);
-                    // do not overwrite test file that already exists
-                    if (apiTestFile.exists()) {
-                        this.templateProcessor.skip(apiTestFile.toPath(), "Test files never overwrite an existing file of the same name.");
-                    } else {
-                        File written = processTemplateToFile(operation, templateName, filename, generateApiTests, CodegenConstants.API_TESTS, config.apiTestFileFolder());
+                    // to generate api documentation files
+                    for (String templateName : config.apiDocTemplateFiles().keySet()) {
+                        String filename = config.apiDocFilename(templateName, tag);
+                        File written = processTemplateToFile(operation, templateName, filename, generateApiDocumentation, CodegenConstants.API_DOCS);
                         if (written != null) {
-                            files.add(written);
+                            apiFiles.add(written);
                             if (config.isEnablePostProcessFile() && !dryRun) {
-                                config.postProcessFile(written, "api-test");
+                                config.postProcessFile(written, "api-doc");
                             }
                         }
                     }
+                } catch (Exception e) {
+                    throw new RuntimeException("Could not generate api file for '" + tag + "'", e);
                 }
-
-                // to generate api documentation files
-                for (String templateName : config.apiDocTemplateFiles().keySet()) {
-                    String filename = config.apiDocFilename(templateName, tag);
-                    File written = processTemplateToFile(operation, templateName, filename, generateApiDocumentation, CodegenConstants.API_DOCS);
-                    if (written != null) {
-                        files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
-                            config.postProcessFile(written, "api-doc");
-                        }
-                    }
+                if (manifest != null) {
+                    manifest.record(unit, fingerprint, apiFiles);
                 }
-
-            } catch (Exception e) {
-                throw new RuntimeException("Could not generate api file for '" + tag + "'", e);
-            }
+            });
         }
+        render(files, renderTasks);
         if (GlobalSettings.getProperty("debugOperations") != null) {
             LOGGER.info("############ Operation info ############");
             Json.prettyPrint(allOperations);
@@ -957,7 +1103,7 @@ public class DefaultGenerator implements Generator {
                     String filename = config.apiTestFilename(templateName, tag);
                     File apiTestFile = new File(filename);
                     // do not overwrite test file that already exists
-                    if (apiTestFile.exists()) {
+                    if (outputExists(apiTestFile)) {
                         this.templateProcessor.skip(apiTestFile.toPath(), "Test files never overwrite an existing file of the same name.");
                     } else {
                         File written = processTemplateToFile(operation, templateName, filename, generateApiTests, CodegenConstants.API_TESTS, config.apiTestFileFolder());
@@ -993,10 +1139,18 @@ public class DefaultGenerator implements Generator {
 
     }
 
+    private boolean writesToFileSystem() {
+        return outputSink instanceof FileSystemOutputSink;
+    }
+
+    private boolean outputExists(File file) {
+        return outputSink.exists(file.toPath());
+    }
+
     // checking if apiController file is already existed for spring generator
     private boolean apiFilePreCheck(String filename, String generator, String templateName, String apiControllerTemplate) {
         File apiFile = new File(filename);
-        return !(apiFile.exists() && config.getName().equals(generator) && templateName.equals(apiControllerTemplate));
+        return !(outputExists(apiFile) && config.getName().equals(generator) && templateName.equals(apiControllerTemplate));
     }
 
     /*
@@ -1013,11 +1167,6 @@ public class DefaultGenerator implements Generator {
         // use the entries provided by the users to pre-populate .openapi-generator-ignore
         try {
             LOGGER.info("Writing file " + ignoreFileNameTarget + " (which is always overwritten when the option `openapiGeneratorIgnoreFile` is enabled.)");
-            new File(config.outputFolder()).mkdirs();
-            if (!ignoreFile.createNewFile()) {
-                // file may already exist, do nothing
-            }
-
             String header = String.join("\n",
                     "# IMPORTANT: this file is generated with the option `openapiGeneratorIgnoreList` enabled",
                     "# (--openapi-generator-ignore-list in CLI for example) so the entries below are pre-populated based",
@@ -1052,14 +1201,22 @@ public class DefaultGenerator implements Generator {
                     "# The following entries are pre-populated based on the input obtained via",
                     "# the option `openapiGeneratorIgnoreList` (--openapi-generator-ignore-list in CLI for example).",
                     "");
-            Writer fileWriter = Files.newBufferedWriter(ignoreFile.toPath(), StandardCharsets.UTF_8);
-            fileWriter.write(header);
+            StringBuilder contents = new StringBuilder(header);
             // add entries provided by the users
             for (String entry : config.getOpenapiGeneratorIgnoreList()) {
-                fileWriter.write(entry);
-                fileWriter.write("\n");
+                contents.append(entry).append("\n");
             }
-            fileWriter.close();
+
+            byte[] bytes = contents.toString().getBytes(StandardCharsets.UTF_8);
+
+            if (!writesToFileSystem()) {
+                outputSink.write(ignoreFile.toPath(), bytes, bytes.length);
+                this.ignoreProcessor = new CodegenIgnoreProcessor(ignoreFile, contents.toString());
+                return;
+            }
+
+            new File(config.outputFolder()).mkdirs();
+            Files.write(ignoreFile.toPath(), bytes);
             // re-create ignore processor based on the newly-created .openapi-generator-ignore
             this.ignoreProcessor = new CodegenIgnoreProcessor(ignoreFile);
         } catch (IOException e) {
@@ -1093,7 +1250,7 @@ public class DefaultGenerator implements Generator {
 
                 if (!of.isDirectory()) {
                     // check that its not a dryrun and the files in the directory aren't ignored before we make the directory
-                    if (!dryRun && ignoreProcessor.allowsFile(new File(outputFilename)) && !of.mkdirs()) {
+                    if (!dryRun && writesToFileSystem() && ignoreProcessor.allowsFile(new File(outputFilename)) && !of.mkdirs()) {
                         once(LOGGER).debug("Output directory {} not created. It {}.", outputFolder, of.exists() ? "already exists." : "may not have appropriate permissions.");
                     }
                 }
@@ -1125,7 +1282,7 @@ public class DefaultGenerator implements Generator {
             File ignoreFile = new File(ignoreFileNameTarget);
             if (generateMetadata) {
                 try {
-                    boolean shouldGenerate = !ignoreFile.exists();
+                    boolean shouldGenerate = !outputExists(ignoreFile);
                     if (shouldGenerate && supportingFilesToGenerate != null && !supportingFilesToGenerate.isEmpty()) {
                         shouldGenerate = supportingFilesToGenerate.contains(openapiGeneratorIgnore);
                     }
@@ -1285,31 +1442,63 @@ public class DefaultGenerator implements Generator {
             }
         }
 
-        configureGeneratorProperties();
-        configureOpenAPIInfo();
-
-        config.processOpenAPI(openAPI);
+        profiler = createProfiler();
+        try {
+            nameCaches = NameCaches.open(openAPI);
+            GenerationProfiler.Sample phase = profiler.start();
+            configureGeneratorProperties();
+            configureOpenAPIInfo();
+            profiler.record("configureGeneratorProperties", phase);
+
+            phase = profiler.start();
+            config.processOpenAPI(openAPI);
+            profiler.record("processOpenAPI", phase);
+
+            ModelUtils.enableSchemaReferenceCache(openAPI);
+            return generateFiles();
+        } finally {
+            // also when the run fails, so that the running thread can be reused for another generator-run
+            ModelUtils.disableSchemaReferenceCache();
+            if (nameCaches != null) {
+                nameCaches.close();
+            }
+            GlobalSettings.reset();
+        }
+    }
 
+    private List<File> generateFiles() {
         processUserDefinedTemplates();
 
         // generate .openapi-generator-ignore if the option openapiGeneratorIgnoreFile is enabled
         generateOpenapiGeneratorIgnoreFile();
 
+        manifest = createGenerationManifest();
+
         List<File> files = new ArrayList<>();
         // models
         List<String> filteredSchemas = ModelUtils.getSchemasUsedOnlyInFormParam(openAPI);
         List<ModelMap> allModels = new ArrayList<>();
         List<ModelMap> aliasModels = new ArrayList<>();
+        GenerationProfiler.Sample phase = profiler.start();
         generateModels(files, allModels, filteredSchemas, aliasModels);
+        profiler.record("generateModels", phase);
         // apis
         List<OperationsMap> allOperations = new ArrayList<>();
+        phase = profiler.start();
         generateApis(files, allOperations, allModels);
+        profiler.record("generateApis", phase);
         // webhooks
         List<WebhooksMap> allWebhooks = new ArrayList<>();
+        phase = profiler.start();
         generateWebhooks(files, allWebhooks, allModels);
+        profiler.record("generateWebhooks", phase);
         // supporting files
+        phase = profiler.start();
         Map<String, Object> bundle = buildSupportFileBundle(allOperations, allModels, aliasModels, allWebhooks);
+        profiler.record("buildSupportFileBundle", phase);
+        phase = profiler.start();
         generateSupportingFiles(files, bundle);
+        profiler.record("generateSupportingFiles", phase);
 
         if (dryRun) {
             boolean verbose = Boolean.parseBoolean(GlobalSettings.getProperty("verbose"));
@@ -1353,17 +1542,109 @@ public class DefaultGenerator implements Generator {
             if (generateSupportingFiles) {
                 generateFilesMetadata(files);
             }
+            generateManifest(files);
         }
 
         // post-process
+        phase = profiler.start();
         config.postProcess();
+        profiler.record("postProcess", phase);
 
-        // reset GlobalSettings, so that the running thread can be reused for another generator-run
-        GlobalSettings.reset();
+        logTemplateCacheStatistics();
+        logPropertyCacheStatistics();
+        logNameCacheStatistics();
+        generateProfile();
 
         return files;
     }
 
+    /**
+     * Renders and writes the files of a single model or api. Files written are added to the given list, in order.
+     */
+    @FunctionalInterface
+    private interface RenderTask {
+        void render(List<File> files);
+    }
+
+    /**
+     * Runs the render tasks and adds the written files to {@code files} in task order. When the global property
+     * {@link CodegenConstants#RENDER_THREADS} is set, tasks run on a bounded thread pool; the resulting list of files
+     * (and the files themselves) are identical to a sequential run.
+     *
+     * @param files The list of generated files
+     * @param tasks The render tasks, in generation order
+     */
+    private void render(List<File> files, List<RenderTask> tasks) {
+        int threads = Math.min(renderThreads, tasks.size());
+        if (dryRun || threads <= 1) {
+            for (RenderTask task : tasks) {
+                task.render(files);
+            }
+            return;
+        }
+
+        // worker threads are created by the generating thread, so they inherit its GlobalSettings
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<File>>> results = new ArrayList<>(tasks.size());
+            for (RenderTask task : tasks) {
+                results.add(executor.submit(() -> {
+                    GenerationProfiler.Sample taskStart = profiler.start();
+                    List<File> written = new ArrayList<>();
+                    CopyLambda.beginRenderTask();
+                    try {
+                        task.render(written);
+                    } finally {
+                        CopyLambda.endRenderTask();
+                        profiler.recordWorker(taskStart);
+                    }
+                    return written;
+                }));
+            }
+            for (Future<List<File>> result : results) {
+                files.addAll(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while rendering files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void logTemplateCacheStatistics() {
+        TemplatingEngineAdapter templatingEngine = this.config.getTemplatingEngine();
+        if (!dryRun && templatingEngine instanceof MustacheEngineAdapter) {
+            MustacheTemplateCache cache = ((MustacheEngineAdapter) templatingEngine).getTemplateCache();
+            if (cache != null) {
+                LOGGER.debug("Template cache: {} hits, {} misses, {} compiled templates", cache.getHitCount(), cache.getMissCount(), cache.size());
+            }
+        } else if (!dryRun && templatingEngine instanceof HandlebarsEngineAdapter) {
+            HandlebarsTemplateCache cache = ((HandlebarsEngineAdapter) templatingEngine).getTemplateCache();
+            LOGGER.debug("Template cache: {} hits, {} misses, {} compiled templates", cache.getHitCount(), cache.getMissCount(), cache.size());
+        }
+    }
+
+    private void logPropertyCacheStatistics() {
+        if (config instanceof DefaultCodegen) {
+            CacheStats stats = ((DefaultCodegen) config).getPropertyCacheStats();
+            LOGGER.debug("Property cache: {} hits, {} misses", stats.hitCount(), stats.missCount());
+            profiler.recordPropertyCache(stats);
+        }
+    }
+
+    private void logNameCacheStatistics() {
+        Map<String, CacheStats> stats = nameCaches.stats();
+        stats.forEach((name, cacheStats) -> LOGGER.debug("Name cache '{}': {} hits, {} misses, {} evictions",
+                name, cacheStats.hitCount(), cacheStats.missCount(), cacheStats.evictionCount()));
+        profiler.recordNameCaches(stats);
+    }
+
     private void processUserDefinedTemplates() {
         // TODO: initial behavior is "merge" user defined with built-in templates. consider offering user a "replace" option.
         if (userDefinedTemplates != null && !userDefinedTemplates.isEmpty()) {
@@ -1441,7 +1722,8 @@ public class DefaultGenerator implements Generator {
         return processTemplateToFile(templateData, templateName, outputFilename, shouldGenerate, skippedByOption, this.config.getOutputDir());
     }
 
-    private final Set<String> seenFiles = new HashSet<>();
+    // lower-cased absolute paths of the files written so far, shared by parallel render tasks
+    private final Set<String> seenFiles = ConcurrentHashMap.newKeySet();
 
     private File processTemplateToFile(Map<String, Object> templateData, String templateName, String outputFilename, boolean shouldGenerate, String skippedByOption, String intendedOutputDir) throws IOException {
         String adjustedOutputFilename = outputFilename.replaceAll("//", "/").replace('/', File.separatorChar);
@@ -1454,11 +1736,13 @@ public class DefaultGenerator implements Generator {
                     throw new RuntimeException(String.format(Locale.ROOT, "Target files must be generated within the output directory; absoluteTarget=%s outDir=%s", absoluteTarget, outDir));
                 }
 
-                if (seenFiles.stream().filter(f -> f.toLowerCase(Locale.ROOT).equals(absoluteTarget.toString().toLowerCase(Locale.ROOT))).findAny().isPresent()) {
+                if (!seenFiles.add(absoluteTarget.toString().toLowerCase(Locale.ROOT))) {
                     LOGGER.warn("Duplicate file path detected. Not all operating systems can handle case sensitive file paths. path={}", absoluteTarget.toString());
                 }
-                seenFiles.add(absoluteTarget.toString());
-                return this.templateProcessor.write(templateData, templateName, target);
+                GenerationProfiler.Sample templateStart = profiler.start();
+                File written = this.templateProcessor.write(templateData, templateName, target);
+                profiler.recordTemplate(templateName, templateStart);
+                return written;
             } else {
                 this.templateProcessor.skip(target.toPath(), String.format(Locale.ROOT, "Skipped by %s options supplied by user.", skippedByOption));
                 return null;
@@ -2030,6 +2314,118 @@ public class DefaultGenerator implements Generator {
         }
     }
 
+    /**
+     * Creates the manifest used to skip rendering of unchanged models and apis, when the global property
+     * {@link CodegenConstants#INCREMENTAL} is enabled.
+     *
+     * @return the manifest, or null if incremental generation is disabled
+     */
+    private GenerationManifest createGenerationManifest() {
+        String incremental = GlobalSettings.getProperty(CodegenConstants.INCREMENTAL, this.generatorPropertyDefaults.get(CodegenConstants.INCREMENTAL));
+        if (dryRun || !generateMetadata || !(incremental != null && (incremental.isEmpty() || Boolean.parseBoolean(incremental)))) {
+            return null;
+        }
+        if (!writesToFileSystem()) {
+            LOGGER.warn("Incremental generation is only supported when writing to the file system, generating all models and apis.");
+            return null;
+        }
+
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(ImplementationVersion.read(), StandardCharsets.UTF_8);
+        hasher.putString(config.getClass().getName(), StandardCharsets.UTF_8);
+        hasher.putString(String.valueOf(config.getLibrary()), StandardCharsets.UTF_8);
+        hasher.putString(String.valueOf(config.templateDir()), StandardCharsets.UTF_8);
+        hasher.putString(GenerationManifest.directoryFingerprint(config.templateDir() == null ? null : java.nio.file.Paths.get(config.templateDir())), StandardCharsets.UTF_8);
+        // generatedDate changes on every run, so it is not part of the fingerprint
+        new TreeMap<>(config.additionalProperties()).forEach((key, value) -> {
+            if (!"generatedDate".equals(key)) {
+                hasher.putString(key, StandardCharsets.UTF_8).putString(fingerprintValue(value), StandardCharsets.UTF_8);
+            }
+        });
+        for (Map<String, String> mapping : Arrays.asList(config.typeMapping(), config.instantiationTypes(), config.importMapping(),
+                config.schemaMapping(), config.nameMapping(), config.parameterNameMapping(), config.modelNameMapping(),
+                config.enumNameMapping(), config.operationIdNameMapping(), config.reservedWordsMappings(),
+                config.templateOutputDirs(), config.modelTemplateFiles(), config.modelTestTemplateFiles(),
+                config.modelDocTemplateFiles(), config.apiTemplateFiles(), config.apiTestTemplateFiles(),
+                config.apiDocTemplateFiles())) {
+            hasher.putString(String.valueOf(new TreeMap<>(mapping)), StandardCharsets.UTF_8);
+        }
+        hasher.putString(String.valueOf(Arrays.asList(generateModelTests, generateModelDocumentation, generateApiTests,
+                generateApiDocumentation, config.isSkipOverwrite(), config.isEnablePostProcessFile())), StandardCharsets.UTF_8);
+
+        File ignoreFile = config.getIgnoreFilePathOverride() != null ? new File(config.getIgnoreFilePathOverride())
+                : new File(config.getOutputDir(), ".openapi-generator-ignore");
+        try {
+            // only rules matter, so that the commented-out default ignore file is equivalent to none
+            if (ignoreFile.isFile()) {
+                for (String line : Files.readAllLines(ignoreFile.toPath(), StandardCharsets.UTF_8)) {
+                    String rule = line.trim();
+                    if (!rule.isEmpty() && !rule.startsWith("#")) {
+                        hasher.putString(rule, StandardCharsets.UTF_8);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read {}, incremental generation is disabled.", ignoreFile);
+            return null;
+        }
+        JsonNode spec = GenerationManifest.toTree(openAPI);
+        hasher.putString(GenerationManifest.documentWithoutPathsAndSchemas(spec), StandardCharsets.UTF_8);
+
+        Path outputDir = absPath(new File(config.getOutputDir())).normalize();
+        Path manifestFile = outputDir.resolve(METADATA_DIR).resolve(GenerationManifest.FILENAME);
+        return new GenerationManifest(spec, hasher.hash().toString(), outputDir, manifestFile);
+    }
+
+    private static String fingerprintValue(Object value) {
+        if (value == null || value instanceof CharSequence || value instanceof Number || value instanceof Boolean || value instanceof Enum) {
+            return String.valueOf(value);
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).stream().map(DefaultGenerator::fingerprintValue).collect(Collectors.joining(",", "[", "]"));
+        }
+        if (value instanceof Map) {
+            return ((Map<?, ?>) value).entrySet().stream()
+                    .map(e -> fingerprintValue(e.getKey()) + "=" + fingerprintValue(e.getValue()))
+                    .sorted()
+                    .collect(Collectors.joining(",", "{", "}"));
+        }
+        // e.g. mustache lambdas, whose string representation differs between runs
+        return value.getClass().getName();
+    }
+
+    private void generateManifest(List<File> files) {
+        if (manifest == null) {
+            return;
+        }
+        String targetFile = config.outputFolder() + File.separator + METADATA_DIR + File.separator + GenerationManifest.FILENAME;
+        try {
+            File manifestFile = this.templateProcessor.writeToFile(targetFile, manifest.toBytes());
+            if (manifestFile != null) {
+                files.add(manifestFile);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write {} metadata to track generated files.", GenerationManifest.FILENAME);
+        }
+    }
+
+    /**
+     * Writes the report recorded when the global property {@link CodegenConstants#PROFILE_GENERATION} is enabled to
+     * .openapi-generator/PROFILE.json. The report is not listed in .openapi-generator/FILES.
+     */
+    private void generateProfile() {
+        if (!profiler.isEnabled() || dryRun) {
+            return;
+        }
+        String targetFile = config.outputFolder() + File.separator + METADATA_DIR + File.separator + GenerationProfiler.FILENAME;
+        try {
+            this.templateProcessor.writeToFile(targetFile, profiler.toBytes(config.getName()));
+            LOGGER.info("Generation profile written to {}", targetFile);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write {}: {}", GenerationProfiler.FILENAME, e.getMessage());
+        }
+    }
+
     private String removeTrailingSlash(String value) {
         return StringUtils.removeEnd(value, "/");
     }
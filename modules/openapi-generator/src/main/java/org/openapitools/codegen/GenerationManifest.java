@@ -0,0 +1,345 @@
+package org.openapitools.codegen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tracks, for each generated model and api, a fingerprint of the inputs which produced its files.
+ * <p>
+ * A fingerprint combines a global fingerprint (generator, templates, options and every part of the document other
+ * than paths and schemas) with the subtree of the document that the model or api was generated from: a schema and the
+ * schemas it transitively references, or the operations of a tag and the schemas they transitively reference. The
+ * fingerprint of a model also covers the schemas which transitively list it in allOf, oneOf, anyOf or a discriminator
+ * mapping, e.g. its subclasses and their subclasses, or the oneOf interfaces it implements, which affect its generated
+ * code.
+ * <p>
+ * When a fingerprint matches the one recorded by the previous run and all files recorded for it still exist,
+ * {@link DefaultGenerator} skips rendering those files.
+ */
+class GenerationManifest {
+    static final String FILENAME = "FINGERPRINTS";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationManifest.class);
+    private static final String SCHEMA_REF_PREFIX = "#/components/schemas/";
+    private static final ObjectMapper MAPPER = Json.mapper();
+
+    private final String globalFingerprint;
+    private final Path outputDir;
+    private final JsonNode spec;
+    private final Map<String, Unit> previous;
+    private final Map<String, Unit> current = new ConcurrentHashMap<>();
+    // schema name -> names of the schemas which list it in allOf, oneOf, anyOf or a discriminator mapping
+    private final Map<String, Set<String>> composedBy = new HashMap<>();
+
+    /**
+     * Constructs a new instance of {@link GenerationManifest}
+     *
+     * @param spec              The (normalized) document being generated, as converted by {@link #toTree(OpenAPI)}
+     * @param globalFingerprint A fingerprint of all inputs which affect every generated file
+     * @param outputDir         The output directory, which holds the manifest of the previous run
+     * @param manifestFile      The location of the manifest written by the previous run
+     */
+    GenerationManifest(JsonNode spec, String globalFingerprint, Path outputDir, Path manifestFile) {
+        this.globalFingerprint = globalFingerprint;
+        this.outputDir = outputDir;
+        this.spec = spec;
+        this.previous = read(manifestFile, globalFingerprint);
+
+        JsonNode schemas = spec.path("components").path("schemas");
+        schemas.fields().forEachRemaining(schema -> {
+            Set<String> composed = new HashSet<>();
+            for (String composition : Arrays.asList("allOf", "oneOf", "anyOf")) {
+                for (JsonNode item : schema.getValue().path(composition)) {
+                    composed.add(schemaName(item.path("$ref").asText("")));
+                }
+            }
+            schema.getValue().path("discriminator").path("mapping").elements()
+                    .forEachRemaining(ref -> composed.add(schemaName(ref.asText(""))));
+            composed.remove(null);
+            composed.forEach(name -> composedBy.computeIfAbsent(name, k -> new TreeSet<>()).add(schema.getKey()));
+        });
+    }
+
+    /**
+     * Converts the document being generated to the tree fingerprinted by the manifest.
+     *
+     * @param openAPI The (normalized) document being generated
+     * @return the document as a JSON tree
+     */
+    static JsonNode toTree(OpenAPI openAPI) {
+        return MAPPER.valueToTree(openAPI);
+    }
+
+    /**
+     * Computes the part of the global fingerprint contributed by the document itself: everything but the paths and
+     * schemas, which are fingerprinted per model and api.
+     *
+     * @param spec The (normalized) document being generated, as converted by {@link #toTree(OpenAPI)}
+     * @return a canonical string representation of the document, excluding paths and schemas
+     */
+    static String documentWithoutPathsAndSchemas(JsonNode spec) {
+        // a shallow copy, leaving the tree shared with the manifest unchanged
+        ObjectNode document = MAPPER.createObjectNode();
+        spec.fields().forEachRemaining(field -> {
+            if ("components".equals(field.getKey()) && field.getValue().isObject()) {
+                ObjectNode components = document.putObject("components");
+                field.getValue().fields().forEachRemaining(component -> {
+                    if (!"schemas".equals(component.getKey())) {
+                        components.set(component.getKey(), component.getValue());
+                    }
+                });
+            } else if (!"paths".equals(field.getKey())) {
+                document.set(field.getKey(), field.getValue());
+            }
+        });
+        return document.toString();
+    }
+
+    /**
+     * Computes the fingerprint of a model.
+     *
+     * @param schemaName The name of the schema the model is generated from
+     * @return the fingerprint, or null if the schema can not be found
+     */
+    String modelFingerprint(String schemaName) {
+        JsonNode schema = spec.path("components").path("schemas").get(schemaName);
+        if (schema == null) {
+            return null;
+        }
+        Hasher hasher = newHasher("model", schemaName);
+        Set<String> referenced = new TreeSet<>();
+        collectSchemaRefs(schema, referenced);
+        putNode(hasher, schema);
+        putSchemas(hasher, referenced);
+        Set<String> composing = new TreeSet<>();
+        Deque<String> pending = new ArrayDeque<>(composedBy.getOrDefault(schemaName, Collections.emptySet()));
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            if (composing.add(name)) {
+                pending.addAll(composedBy.getOrDefault(name, Collections.emptySet()));
+            }
+        }
+        hasher.putString(String.valueOf(composing), StandardCharsets.UTF_8);
+        putSchemas(hasher, composing);
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Computes the fingerprint of an api.
+     *
+     * @param tag        The tag the api is generated for
+     * @param operations The operations of the api
+     * @return the fingerprint, or null if an operation can not be found in the document
+     */
+    String apiFingerprint(String tag, List<CodegenOperation> operations) {
+        Hasher hasher = newHasher("api", tag);
+        Set<String> referenced = new TreeSet<>();
+        for (CodegenOperation operation : operations) {
+            if (operation.path == null || operation.httpMethod == null) {
+                return null;
+            }
+            JsonNode pathItem = spec.path("paths").get(operation.path);
+            JsonNode node = pathItem == null ? null : pathItem.get(operation.httpMethod.toLowerCase(Locale.ROOT));
+            if (node == null) {
+                return null;
+            }
+            hasher.putString(operation.path, StandardCharsets.UTF_8);
+            hasher.putString(operation.httpMethod, StandardCharsets.UTF_8);
+            putNode(hasher, node);
+            putNode(hasher, pathItem.path("parameters"));
+            collectSchemaRefs(node, referenced);
+            collectSchemaRefs(pathItem.path("parameters"), referenced);
+        }
+        putSchemas(hasher, referenced);
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Gets the files generated by the previous run for a model or api whose fingerprint is unchanged.
+     *
+     * @param unit        The model or api identifier
+     * @param fingerprint The fingerprint computed for this run
+     * @return the previously generated files, or null if the unit has to be generated
+     */
+    List<File> unchangedFiles(String unit, String fingerprint) {
+        Unit recorded = previous.get(unit);
+        if (fingerprint == null || recorded == null || !fingerprint.equals(recorded.fingerprint)) {
+            return null;
+        }
+        List<File> files = new ArrayList<>(recorded.files.size());
+        for (String relativePath : recorded.files) {
+            File file = outputDir.resolve(relativePath).toFile();
+            if (!file.exists()) {
+                return null;
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     * Records the files generated for a model or api.
+     *
+     * @param unit        The model or api identifier
+     * @param fingerprint The fingerprint computed for this run
+     * @param files       The generated files
+     */
+    void record(String unit, String fingerprint, List<File> files) {
+        if (fingerprint == null) {
+            return;
+        }
+        List<String> relativePaths = files.stream()
+                .map(f -> outputDir.relativize(f.toPath().toAbsolutePath().normalize()).toString().replace(File.separatorChar, '/'))
+                .collect(Collectors.toList());
+        current.put(unit, new Unit(fingerprint, relativePaths));
+    }
+
+    /**
+     * Serializes the fingerprints recorded during this run, along with those of the previous run for models and apis
+     * which were not generated.
+     *
+     * @return the manifest contents
+     * @throws IOException if the manifest can not be serialized
+     */
+    byte[] toBytes() throws IOException {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("global", globalFingerprint);
+        ObjectNode units = root.putObject("units");
+        // keep the entries of models and apis not generated by this run (e.g. when generating selected models only)
+        Map<String, Unit> merged = new TreeMap<>(previous);
+        merged.putAll(current);
+        merged.forEach((name, unit) -> {
+            ObjectNode node = units.putObject(name);
+            node.put("fingerprint", unit.fingerprint);
+            ArrayNode files = node.putArray("files");
+            unit.files.forEach(files::add);
+        });
+        return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(root);
+    }
+
+    private Hasher newHasher(String kind, String name) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(globalFingerprint, StandardCharsets.UTF_8);
+        hasher.putString(kind, StandardCharsets.UTF_8);
+        hasher.putString(name, StandardCharsets.UTF_8);
+        return hasher;
+    }
+
+    private void putNode(Hasher hasher, JsonNode node) {
+        hasher.putString(node == null ? "null" : node.toString(), StandardCharsets.UTF_8);
+    }
+
+    private void putSchemas(Hasher hasher, Set<String> names) {
+        JsonNode schemas = spec.path("components").path("schemas");
+        for (String name : names) {
+            hasher.putString(name, StandardCharsets.UTF_8);
+            putNode(hasher, schemas.get(name));
+        }
+    }
+
+    private void collectSchemaRefs(JsonNode node, Set<String> referenced) {
+        Deque<JsonNode> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            JsonNode current = pending.pop();
+            if (current.isObject()) {
+                List<String> refs = new ArrayList<>();
+                refs.add(schemaName(current.path("$ref").asText("")));
+                current.path("discriminator").path("mapping").elements()
+                        .forEachRemaining(ref -> refs.add(schemaName(ref.asText(""))));
+                for (String name : refs) {
+                    JsonNode target = name == null ? null : spec.path("components").path("schemas").get(name);
+                    if (name != null && referenced.add(name) && target != null) {
+                        pending.push(target);
+                    }
+                }
+                current.elements().forEachRemaining(pending::push);
+            } else if (current.isArray()) {
+                current.elements().forEachRemaining(pending::push);
+            }
+        }
+    }
+
+    // the name of the schema a $ref or discriminator mapping value points to, or null if not a local schema
+    private static String schemaName(String ref) {
+        if (ref.startsWith(SCHEMA_REF_PREFIX)) {
+            return ref.substring(SCHEMA_REF_PREFIX.length());
+        }
+        // a discriminator mapping value may also be the name of a schema
+        return ref.isEmpty() || ref.contains("/") || ref.contains("#") ? null : ref;
+    }
+
+    private static Map<String, Unit> read(Path manifestFile, String globalFingerprint) {
+        if (!Files.isRegularFile(manifestFile)) {
+            return Collections.emptyMap();
+        }
+        try {
+            JsonNode root = MAPPER.readTree(manifestFile.toFile());
+            if (!globalFingerprint.equals(root.path("global").asText())) {
+                LOGGER.info("Generator inputs changed since the previous run, regenerating all models and apis.");
+                return Collections.emptyMap();
+            }
+            Map<String, Unit> units = new HashMap<>();
+            root.path("units").fields().forEachRemaining(entry -> {
+                List<String> files = new ArrayList<>();
+                entry.getValue().path("files").forEach(f -> files.add(f.asText()));
+                units.put(entry.getKey(), new Unit(entry.getValue().path("fingerprint").asText(), files));
+            });
+            return units;
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read {}, regenerating all models and apis: {}", manifestFile, e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Computes a fingerprint of the files under a directory.
+     *
+     * @param directory A directory, e.g. a user-defined template directory
+     * @return a fingerprint of the relative paths and contents of all files, or an empty string if not a directory
+     */
+    static String directoryFingerprint(Path directory) {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return "";
+        }
+        Hasher hasher = Hashing.sha256().newHasher();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                hasher.putString(directory.relativize(path).toString(), StandardCharsets.UTF_8);
+                hasher.putBytes(Files.readAllBytes(path));
+            }
+        } catch (IOException e) {
+            // an unreadable directory can't be fingerprinted, so it never matches a previous run
+            return UUID.randomUUID().toString();
+        }
+        return hasher.hash().toString();
+    }
+
+    private static final class Unit {
+        private final String fingerprint;
+        private final List<String> files;
+
+        Unit(String fingerprint, List<String> files) {
+            this.fingerprint = fingerprint;
+            this.files = files;
+        }
+    }
+}
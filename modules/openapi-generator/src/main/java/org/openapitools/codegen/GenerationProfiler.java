@@ -0,0 +1,388 @@
+package org.openapitools.codegen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.swagger.v3.core.util.Json;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records wall time, CPU time and allocated bytes for each phase of {@link DefaultGenerator#generate()}, along with
+ * the time spent on each template and model.
+ * <p>
+ * CPU time and allocations are measured per thread with {@link ThreadMXBean}. Work done by render threads (see
+ * {@link CodegenConstants#RENDER_THREADS}) is added to the phase it runs in. Values are reported as -1 when the JVM
+ * does not support the measurement.
+ */
+class GenerationProfiler {
+    static final String FILENAME = "PROFILE.json";
+    static final String RENDERING = "rendering";
+    static final String PROCESSING = "processing";
+
+    private static final ObjectMapper MAPPER = Json.mapper();
+    // allocations are measured with com.sun.management.ThreadMXBean, which is not part of the Java SE API
+    private static final Class<?> THREAD_MX_BEAN_EXTENSION = threadMXBeanExtension();
+    private static final MethodHandle IS_ALLOCATION_SUPPORTED = threadMXBeanMethod("isThreadAllocatedMemorySupported", boolean.class);
+    private static final MethodHandle IS_ALLOCATION_ENABLED = threadMXBeanMethod("isThreadAllocatedMemoryEnabled", boolean.class);
+    private static final MethodHandle THREAD_ALLOCATED_BYTES = threadMXBeanMethod("getThreadAllocatedBytes", long.class, long.class);
+    private static final GenerationProfiler DISABLED = new GenerationProfiler(false, 0);
+
+    private final boolean enabled;
+    private final int top;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final boolean cpuSupported;
+    private final boolean allocationSupported;
+    private final long startNanos = System.nanoTime();
+
+    // usage of render threads, accumulated so that a phase includes the work it delegated
+    private final LongAdder workerCpuNanos = new LongAdder();
+    private final LongAdder workerAllocatedBytes = new LongAdder();
+
+    private final Map<String, Usage> phases = new LinkedHashMap<>();
+    private final Map<String, Timing> templates = new ConcurrentHashMap<>();
+    private final Map<String, Timing> modelProcessing = new ConcurrentHashMap<>();
+    private final Map<String, Timing> modelRendering = new ConcurrentHashMap<>();
+    private volatile Map<String, CacheStats> nameCaches = Collections.emptyMap();
+    private volatile CacheStats propertyCache;
+
+    private GenerationProfiler(boolean enabled, int top) {
+        this.enabled = enabled;
+        this.top = top;
+        this.cpuSupported = enabled && threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+        this.allocationSupported = enabled && isAllocationSupported(threads);
+    }
+
+    /**
+     * @param top The number of slowest templates and models to report
+     * @return a profiler recording a generator run
+     */
+    static GenerationProfiler enabled(int top) {
+        return new GenerationProfiler(true, top);
+    }
+
+    /**
+     * @return a profiler which records nothing
+     */
+    static GenerationProfiler disabled() {
+        return DISABLED;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Captures the current usage of the calling thread (and of render threads), to be passed to {@link #record}.
+     *
+     * @return the sample, or null if profiling is disabled
+     */
+    Sample start() {
+        if (!enabled) {
+            return null;
+        }
+        return new Sample(System.nanoTime(), cpuNanos(), allocatedBytes(), workerCpuNanos.sum(), workerAllocatedBytes.sum());
+    }
+
+    /**
+     * Adds the usage since {@code start} to a phase. Must be called on the thread which took the sample.
+     *
+     * @param phase The phase name, e.g. "generateModels", or "generateModels.rendering" for part of a phase
+     * @param start The sample taken when the phase started
+     */
+    void record(String phase, Sample start) {
+        if (start == null) {
+            return;
+        }
+        Usage usage = new Usage(System.nanoTime() - start.wallNanos,
+                cpuSupported ? cpuNanos() - start.cpuNanos + workerCpuNanos.sum() - start.workerCpuNanos : -1,
+                allocationSupported ? allocatedBytes() - start.allocatedBytes + workerAllocatedBytes.sum() - start.workerAllocatedBytes : -1);
+        synchronized (phases) {
+            phases.merge(phase, usage, Usage::plus);
+        }
+    }
+
+    /**
+     * Accounts the usage of a render thread since {@code start} to the phase running on the generating thread.
+     *
+     * @param start The sample taken by the render thread
+     */
+    void recordWorker(Sample start) {
+        if (start == null) {
+            return;
+        }
+        if (cpuSupported) {
+            workerCpuNanos.add(cpuNanos() - start.cpuNanos);
+        }
+        if (allocationSupported) {
+            workerAllocatedBytes.add(allocatedBytes() - start.allocatedBytes);
+        }
+    }
+
+    /**
+     * @param templateName The template rendered
+     * @param start        The sample taken before rendering
+     */
+    void recordTemplate(String templateName, Sample start) {
+        if (start != null) {
+            templates.computeIfAbsent(templateName, k -> new Timing()).add(System.nanoTime() - start.wallNanos);
+        }
+    }
+
+    /**
+     * @param modelName The model processed
+     * @param start     The sample taken before processing
+     */
+    void recordModelProcessing(String modelName, Sample start) {
+        if (start != null) {
+            modelProcessing.computeIfAbsent(modelName, k -> new Timing()).add(System.nanoTime() - start.wallNanos);
+        }
+    }
+
+    /**
+     * @param modelName The model whose files were rendered
+     * @param start     The sample taken before rendering
+     */
+    void recordModelRendering(String modelName, Sample start) {
+        if (start != null) {
+            modelRendering.computeIfAbsent(modelName, k -> new Timing()).add(System.nanoTime() - start.wallNanos);
+        }
+    }
+
+    /**
+     * @param stats The statistics of the name caches of the run, keyed by the conversion they cache
+     */
+    void recordNameCaches(Map<String, CacheStats> stats) {
+        if (enabled) {
+            nameCaches = stats;
+        }
+    }
+
+    /**
+     * @param stats The statistics of the cache of {@link DefaultCodegen#fromProperty(String, io.swagger.v3.oas.models.media.Schema, boolean, boolean)}
+     */
+    void recordPropertyCache(CacheStats stats) {
+        if (enabled) {
+            propertyCache = stats;
+        }
+    }
+
+    /**
+     * Serializes the report. For a phase split into "rendering", the remainder is reported as "processing".
+     *
+     * @param generatorName The name of the generator
+     * @return the report, as JSON
+     * @throws IOException if the report can not be serialized
+     */
+    byte[] toBytes(String generatorName) throws IOException {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("generator", generatorName);
+        root.put("wallMillis", millis(System.nanoTime() - startNanos));
+
+        Map<String, Usage> recorded;
+        synchronized (phases) {
+            recorded = new LinkedHashMap<>(phases);
+        }
+        ArrayNode phaseNodes = root.putArray("phases");
+        recorded.forEach((name, usage) -> {
+            if (name.contains(".")) {
+                return;
+            }
+            ObjectNode phase = phaseNodes.addObject();
+            phase.put("name", name);
+            usage.writeTo(phase);
+            Usage rendering = recorded.get(name + "." + RENDERING);
+            if (rendering != null) {
+                ArrayNode parts = phase.putArray("phases");
+                ObjectNode processingNode = parts.addObject().put("name", PROCESSING);
+                usage.minus(rendering).writeTo(processingNode);
+                rendering.writeTo(parts.addObject().put("name", RENDERING));
+            }
+        });
+
+        ArrayNode templateNodes = root.putArray("slowestTemplates");
+        slowest(templates).forEach(entry -> {
+            ObjectNode node = templateNodes.addObject().put("template", entry.getKey());
+            entry.getValue().writeTo(node);
+        });
+
+        Map<String, Long> modelTotals = new HashMap<>();
+        modelProcessing.forEach((name, timing) -> modelTotals.merge(name, timing.totalNanos.sum(), Long::sum));
+        modelRendering.forEach((name, timing) -> modelTotals.merge(name, timing.totalNanos.sum(), Long::sum));
+        ArrayNode modelNodes = root.putArray("slowestModels");
+        modelTotals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(top)
+                .forEach(entry -> {
+                    ObjectNode node = modelNodes.addObject().put("model", entry.getKey());
+                    node.put("wallMillis", millis(entry.getValue()));
+                    node.put("processingMillis", millis(totalNanos(modelProcessing.get(entry.getKey()))));
+                    node.put("renderingMillis", millis(totalNanos(modelRendering.get(entry.getKey()))));
+                });
+
+        ArrayNode nameCacheNodes = root.putArray("nameCaches");
+        nameCaches.forEach((name, stats) -> nameCacheNodes.addObject()
+                .put("name", name)
+                .put("hits", stats.hitCount())
+                .put("misses", stats.missCount())
+                .put("hitRate", stats.hitRate())
+                .put("evictions", stats.evictionCount()));
+
+        if (propertyCache != null) {
+            root.putObject("propertyCache")
+                    .put("hits", propertyCache.hitCount())
+                    .put("misses", propertyCache.missCount())
+                    .put("hitRate", propertyCache.hitRate());
+        }
+
+        return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(root);
+    }
+
+    private List<Map.Entry<String, Timing>> slowest(Map<String, Timing> timings) {
+        List<Map.Entry<String, Timing>> entries = new ArrayList<>(timings.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, Timing> e) -> e.getValue().totalNanos.sum()).reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        return entries.subList(0, Math.min(top, entries.size()));
+    }
+
+    private long cpuNanos() {
+        return cpuSupported ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long allocatedBytes() {
+        return allocationSupported ? Math.max(threadAllocatedBytes(threads, Thread.currentThread().getId()), 0) : 0;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or -1 if the JVM does not support the measurement
+     */
+    static long currentThreadAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return isAllocationSupported(threads) ? threadAllocatedBytes(threads, Thread.currentThread().getId()) : -1;
+    }
+
+    private static long threadAllocatedBytes(ThreadMXBean threads, long threadId) {
+        try {
+            return (long) THREAD_ALLOCATED_BYTES.invoke(threads, threadId);
+        } catch (Throwable e) {
+            return -1;
+        }
+    }
+
+    private static boolean isAllocationSupported(ThreadMXBean threads) {
+        if (THREAD_ALLOCATED_BYTES == null || !THREAD_MX_BEAN_EXTENSION.isInstance(threads)) {
+            return false;
+        }
+        try {
+            return (boolean) IS_ALLOCATION_SUPPORTED.invoke(threads) && (boolean) IS_ALLOCATION_ENABLED.invoke(threads);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the given method of {@link #THREAD_MX_BEAN_EXTENSION}, or null if not available
+     */
+    private static MethodHandle threadMXBeanMethod(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        if (THREAD_MX_BEAN_EXTENSION == null) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().findVirtual(THREAD_MX_BEAN_EXTENSION, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static Class<?> threadMXBeanExtension() {
+        try {
+            return Class.forName("com.sun.management.ThreadMXBean");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static long totalNanos(Timing timing) {
+        return timing == null ? 0 : timing.totalNanos.sum();
+    }
+
+    private static double millis(long nanos) {
+        return nanos < 0 ? -1 : Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    static final class Sample {
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+        private final long workerCpuNanos;
+        private final long workerAllocatedBytes;
+
+        private Sample(long wallNanos, long cpuNanos, long allocatedBytes, long workerCpuNanos, long workerAllocatedBytes) {
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.workerCpuNanos = workerCpuNanos;
+            this.workerAllocatedBytes = workerAllocatedBytes;
+        }
+    }
+
+    private static final class Usage {
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+
+        Usage(long wallNanos, long cpuNanos, long allocatedBytes) {
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        // CPU time and allocations are either supported for all usages, or -1 for all of them
+        Usage plus(Usage other) {
+            return new Usage(wallNanos + other.wallNanos,
+                    cpuNanos < 0 ? -1 : cpuNanos + other.cpuNanos,
+                    allocatedBytes < 0 ? -1 : allocatedBytes + other.allocatedBytes);
+        }
+
+        Usage minus(Usage other) {
+            return new Usage(wallNanos - other.wallNanos,
+                    cpuNanos < 0 ? -1 : cpuNanos - other.cpuNanos,
+                    allocatedBytes < 0 ? -1 : allocatedBytes - other.allocatedBytes);
+        }
+
+        void writeTo(ObjectNode node) {
+            node.put("wallMillis", millis(wallNanos));
+            node.put("cpuMillis", millis(cpuNanos));
+            node.put("allocatedBytes", allocatedBytes);
+        }
+    }
+
+    private static final class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private volatile long maxNanos;
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            synchronized (this) {
+                maxNanos = Math.max(maxNanos, nanos);
+            }
+        }
+
+        void writeTo(ObjectNode node) {
+            node.put("count", count.sum());
+            node.put("wallMillis", millis(totalNanos.sum()));
+            node.put("maxMillis", millis(maxNanos));
+        }
+    }
+}
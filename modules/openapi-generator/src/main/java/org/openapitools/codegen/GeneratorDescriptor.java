@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen;
+
+import lombok.Getter;
+import org.openapitools.codegen.meta.Stability;
+
+/**
+ * Describes an available generator, without constructing it.
+ */
+@Getter
+public class GeneratorDescriptor {
+    /**
+     * The name of the generator, see {@link CodegenConfig#getName()}.
+     */
+    private final String name;
+    /**
+     * The fully qualified name of the {@link CodegenConfig} class.
+     */
+    private final String className;
+    /**
+     * The type of the generator, see {@link CodegenConfig#getTag()}, or null.
+     */
+    private final CodegenType tag;
+    /**
+     * The stability of the generator, or null if the generator has no metadata.
+     */
+    private final Stability stability;
+
+    public GeneratorDescriptor(String name, String className, CodegenType tag, Stability stability) {
+        this.name = name;
+        this.className = className;
+        this.tag = tag;
+        this.stability = stability;
+    }
+
+    /**
+     * @param config A generator
+     * @return the description of the generator
+     */
+    public static GeneratorDescriptor of(CodegenConfig config) {
+        Stability stability = config.getGeneratorMetadata() != null ? config.getGeneratorMetadata().getStability() : null;
+        return new GeneratorDescriptor(config.getName(), config.getClass().getName(), config.getTag(), stability);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + className + ")";
+    }
+}
@@ -17,11 +17,7 @@
 
 package org.openapitools.codegen;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.swagger.v3.core.util.Json;
+import com.google.common.hash.HashCode;
 import io.swagger.v3.oas.models.*;
 import io.swagger.v3.oas.models.PathItem.HttpMethod;
 import io.swagger.v3.oas.models.callbacks.Callback;
@@ -32,15 +28,18 @@ import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.responses.ApiResponses;
 import org.apache.commons.lang3.StringUtils;
 import org.openapitools.codegen.utils.ModelUtils;
+import org.openapitools.codegen.utils.SchemaStructure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.UncheckedIOException;
 import java.util.*;
 
 public class InlineModelResolver {
     private OpenAPI openAPI;
     private Map<String, Schema> addedModels = new HashMap<>();
-    private Map<String, String> generatedSignature = new HashMap<>();
+    // the names of the generated schemas, by structural hash
+    private Map<HashCode, List<String>> generatedSignature = new HashMap<>();
     private Map<String, String> inlineSchemaNameMapping = new HashMap<>();
     private Map<String, String> inlineSchemaOptions = new HashMap<>();
     private Set<String> inlineSchemaNameMappingValues = new HashSet<>();
@@ -48,19 +47,12 @@ public class InlineModelResolver {
     public boolean skipSchemaReuse = false; // skip reusing inline schema if set to true
     public Boolean refactorAllOfInlineSchemas = null; // refactor allOf inline schemas into $ref
 
-    // structure mapper sorts properties alphabetically on write to ensure models are
-    // serialized consistently for lookup of existing models
-    private static ObjectMapper structureMapper;
+    // hashes the structure of schemas for lookup of existing models, see matchGenerated
+    private final SchemaStructure schemaStructure = new SchemaStructure();
 
     // a set to keep track of names generated for inline schemas
     private Set<String> uniqueNames = new HashSet<>();
 
-    static {
-        structureMapper = Json.mapper().copy();
-        structureMapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
-        structureMapper.writer(new DefaultPrettyPrinter());
-    }
-
     final Logger LOGGER = LoggerFactory.getLogger(InlineModelResolver.class);
 
     public InlineModelResolver() {
@@ -719,12 +711,17 @@ public class InlineModelResolver {
         }
 
         try {
-            String json = structureMapper.writeValueAsString(model);
-            if (generatedSignature.containsKey(json)) {
-                return generatedSignature.get(json);
+            List<String> names = generatedSignature.get(schemaStructure.hash(model));
+            if (names != null) {
+                // the latest schema of the same structure, confirmed in case of hash collision
+                for (int i = names.size() - 1; i >= 0; i--) {
+                    if (SchemaStructure.structurallyEqual(openAPI.getComponents().getSchemas().get(names.get(i)), model)) {
+                        return names.get(i);
+                    }
+                }
             }
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+        } catch (UncheckedIOException e) {
+            LOGGER.error("Unable to match the structure of an inline schema", e);
         }
 
         return null;
@@ -732,10 +729,9 @@ public class InlineModelResolver {
 
     private void addGenerated(String name, Schema model) {
         try {
-            String json = structureMapper.writeValueAsString(model);
-            generatedSignature.put(json, name);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+            generatedSignature.computeIfAbsent(schemaStructure.hash(model), hash -> new ArrayList<>(1)).add(name);
+        } catch (UncheckedIOException e) {
+            LOGGER.error("Unable to hash the structure of inline schema " + name, e);
         }
     }
 
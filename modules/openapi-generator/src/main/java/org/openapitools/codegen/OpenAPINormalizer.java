@@ -32,12 +32,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 public class OpenAPINormalizer {
     private OpenAPI openAPI;
     private Map<String, String> inputRules = new HashMap<>();
     private Map<String, Boolean> rules = new HashMap<>();
+    // the enabled rules only, each with the time spent applying it
+    private Map<String, RuleTiming> enabledRules = new LinkedHashMap<>();
 
     private TreeSet<String> anyTypeTreeSet = new TreeSet<>();
 
@@ -265,6 +268,60 @@ public class OpenAPINormalizer {
                 LOGGER.error("SET_PRIMITIVE_TYPES_TO_NULLABLE rule must be in the form of `string|integer|number|boolean`, e.g. `string`, `integer|number`: {}", inputRules.get(SET_PRIMITIVE_TYPES_TO_NULLABLE));
             }
         }
+
+        enabledRules = new LinkedHashMap<>();
+        for (String ruleName : ruleNames) {
+            if (getRule(ruleName)) {
+                enabledRules.put(ruleName, new RuleTiming(ruleName));
+            }
+        }
+    }
+
+    /**
+     * Get the enabled rules, with the number of times each was applied and the time spent applying it (including the
+     * time of the rules it applied to nested schemas, see {@link RuleTiming}).
+     *
+     * @return the timings of the enabled rules
+     */
+    Collection<RuleTiming> getRuleTimings() {
+        return Collections.unmodifiableCollection(enabledRules.values());
+    }
+
+    /**
+     * Applies a rule if it's enabled, timing it.
+     *
+     * @param ruleName the name of the rule
+     * @param target   the schema, operation, etc. to apply the rule to
+     * @param rule     the rule
+     * @return the result of the rule, or the target if the rule is not enabled
+     */
+    private <T> T apply(String ruleName, T target, UnaryOperator<T> rule) {
+        RuleTiming timing = enabledRules.get(ruleName);
+        if (timing == null) {
+            return target;
+        }
+
+        long start = System.nanoTime();
+        try {
+            return rule.apply(target);
+        } finally {
+            timing.invocations++;
+            timing.nanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Creates the set tracking the schemas visited while normalizing a schema. Schemas are compared by identity, as
+     * {@link Schema#hashCode()} and {@link Schema#equals(Object)} go through the whole schema tree.
+     * <p>
+     * As a result, sub-schemas which are equal but distinct instances (e.g. the same inline schema repeated in an
+     * allOf) are each normalized, whereas a set comparing them by value normalized only the first one and left the
+     * others as they were. The same instance reached twice is still normalized once.
+     *
+     * @return an empty set of schemas
+     */
+    private static Set<Schema> newVisitedSchemas() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
     }
 
     /**
@@ -287,6 +344,13 @@ public class OpenAPINormalizer {
         normalizeInfo();
         normalizePaths();
         normalizeComponentsSchemas();
+
+        if (LOGGER.isDebugEnabled()) {
+            for (RuleTiming timing : enabledRules.values()) {
+                LOGGER.debug("openapi-normalizer rule {} applied {} times in {} ms (including nested rules)", timing.getName(),
+                        timing.getInvocations(), timing.getNanos() / 1_000_000);
+            }
+        }
     }
 
     /**
@@ -330,15 +394,6 @@ public class OpenAPINormalizer {
             normalizeParameters(path.getParameters());
 
             for (Operation operation : operations) {
-                if (operationIdFilters.size() > 0) {
-                    if (operationIdFilters.contains(operation.getOperationId())) {
-                        operation.addExtension("x-internal", false);
-                    } else {
-                        LOGGER.info("operation `{}` marked as internal only (x-internal: true) by the FILTER", operation.getOperationId());
-                        operation.addExtension("x-internal", true);
-                    }
-                }
-
                 normalizeOperation(operation);
                 normalizeRequestBody(operation);
                 normalizeParameters(operation.getParameters());
@@ -353,13 +408,15 @@ public class OpenAPINormalizer {
      * @param operation Operation
      */
     private void normalizeOperation(Operation operation) {
-        processRemoveXInternalFromOperation(operation);
+        apply(FILTER, operation, this::processFilter);
+
+        apply(REMOVE_X_INTERNAL, operation, this::processRemoveXInternalFromOperation);
 
-        processKeepOnlyFirstTagInOperation(operation);
+        apply(KEEP_ONLY_FIRST_TAG_IN_OPERATION, operation, this::processKeepOnlyFirstTagInOperation);
 
-        processSetTagsForAllOperations(operation);
+        apply(SET_TAGS_FOR_ALL_OPERATIONS, operation, this::processSetTagsForAllOperations);
 
-        processSetTagsToOperationId(operation);
+        apply(SET_TAGS_TO_OPERATIONID, operation, this::processSetTagsToOperationId);
     }
 
     /**
@@ -379,7 +436,7 @@ public class OpenAPINormalizer {
             } else if (mediaType.getSchema() == null) {
                 continue;
             } else {
-                Schema newSchema = normalizeSchema(mediaType.getSchema(), new HashSet<>());
+                Schema newSchema = normalizeSchema(mediaType.getSchema(), newVisitedSchemas());
                 mediaType.setSchema(newSchema);
             }
         }
@@ -427,7 +484,7 @@ public class OpenAPINormalizer {
             }
 
             if (parameter.getSchema() != null) {
-                Schema newSchema = normalizeSchema(parameter.getSchema(), new HashSet<>());
+                Schema newSchema = normalizeSchema(parameter.getSchema(), newVisitedSchemas());
                 parameter.setSchema(newSchema);
             }
         }
@@ -466,7 +523,7 @@ public class OpenAPINormalizer {
 
         for (String headerKey : headers.keySet()) {
             Header h = headers.get(headerKey);
-            Schema updatedHeader = normalizeSchema(h.getSchema(), new HashSet<>());
+            Schema updatedHeader = normalizeSchema(h.getSchema(), newVisitedSchemas());
             h.setSchema(updatedHeader);
         }
     }
@@ -487,17 +544,13 @@ public class OpenAPINormalizer {
                 LOGGER.warn("{} not fount found in openapi/components/schemas.", schemaName);
             } else {
                 // remove x-internal if needed
-                if (schema.getExtensions() != null && getRule(REMOVE_X_INTERNAL)) {
-                    if (Boolean.parseBoolean(String.valueOf(schema.getExtensions().get(X_INTERNAL)))) {
-                        schema.getExtensions().remove(X_INTERNAL);
-                    }
-                }
+                apply(REMOVE_X_INTERNAL, schema, this::processRemoveXInternalFromSchema);
 
                 // auto fix self reference schema to avoid stack overflow
                 fixSelfReferenceSchema(schemaName, schema);
 
                 // normalize the schemas
-                schemas.put(schemaName, normalizeSchema(schema, new HashSet<>()));
+                schemas.put(schemaName, normalizeSchema(schema, newVisitedSchemas()));
             }
         }
     }
@@ -631,27 +684,40 @@ public class OpenAPINormalizer {
     }
 
     private Schema normalizeArraySchema(Schema schema) {
-        Schema result = processNormalize31Spec(schema, new HashSet<>());
-        return processSetArraytoNullable(result);
+        Set<Schema> itemsVisitedSchemas = newVisitedSchemas();
+        Schema result = apply(NORMALIZE_31SPEC, schema, s -> processNormalize31Spec(s, itemsVisitedSchemas));
+        return apply(SET_CONTAINER_TO_NULLABLE, result, this::processSetArraytoNullable);
     }
 
     private Schema normalizeMapSchema(Schema schema) {
-        return processSetMapToNullable(schema);
+        return apply(SET_CONTAINER_TO_NULLABLE, schema, this::processSetMapToNullable);
     }
 
     private Schema normalizeSimpleSchema(Schema schema, Set<Schema> visitedSchemas) {
-        Schema result = processNormalize31Spec(schema, visitedSchemas);
-        return processSetPrimitiveTypesToNullable(result);
+        Schema result = apply(NORMALIZE_31SPEC, schema, s -> processNormalize31Spec(s, visitedSchemas));
+        return apply(SET_PRIMITIVE_TYPES_TO_NULLABLE, result, this::processSetPrimitiveTypesToNullable);
     }
 
     private void normalizeBooleanSchema(Schema schema, Set<Schema> visitedSchemas) {
-        processSimplifyBooleanEnum(schema);
-        processSetPrimitiveTypesToNullable(schema);
+        apply(SIMPLIFY_BOOLEAN_ENUM, schema, this::processSimplifyBooleanEnum);
+        apply(SET_PRIMITIVE_TYPES_TO_NULLABLE, schema, this::processSetPrimitiveTypesToNullable);
     }
 
     private void normalizeIntegerSchema(Schema schema, Set<Schema> visitedSchemas) {
-        processAddUnsignedToIntegerWithInvalidMaxValue(schema);
-        processSetPrimitiveTypesToNullable(schema);
+        apply(ADD_UNSIGNED_TO_INTEGER_WITH_INVALID_MAX_VALUE, schema, this::processAddUnsignedToIntegerWithInvalidMaxValue);
+        apply(SET_PRIMITIVE_TYPES_TO_NULLABLE, schema, this::processSetPrimitiveTypesToNullable);
+    }
+
+    /**
+     * Normalizes a schema again once a rule has changed it into another kind of schema (e.g. removed its oneOf).
+     *
+     * @param schema         Schema, already visited
+     * @param visitedSchemas a set of visited schemas
+     * @return Schema
+     */
+    private Schema normalizeSchemaAgain(Schema schema, Set<Schema> visitedSchemas) {
+        visitedSchemas.remove(schema);
+        return normalizeSchema(schema, visitedSchemas);
     }
 
     private void normalizeProperties(Map<String, Schema> properties, Set<Schema> visitedSchemas) {
@@ -660,7 +726,7 @@ public class OpenAPINormalizer {
         }
         for (Map.Entry<String, Schema> propertiesEntry : properties.entrySet()) {
             Schema property = propertiesEntry.getValue();
-            Schema newProperty = normalizeSchema(property, new HashSet<>());
+            Schema newProperty = normalizeSchema(property, newVisitedSchemas());
             propertiesEntry.setValue(newProperty);
         }
     }
@@ -709,7 +775,7 @@ public class OpenAPINormalizer {
         }
 
         // process rules here
-        processUseAllOfRefAsParent(schema);
+        apply(REF_AS_PARENT_IN_ALLOF, schema, this::processUseAllOfRefAsParent);
 
         return schema;
     }
@@ -729,14 +795,15 @@ public class OpenAPINormalizer {
             normalizeSchema((Schema) item, visitedSchemas);
         }
         // process rules here
-        schema = processRefactorAllOfWithPropertiesOnly(schema);
+        schema = apply(REFACTOR_ALLOF_WITH_PROPERTIES_ONLY, schema, this::processRefactorAllOfWithPropertiesOnly);
 
         return schema;
     }
 
     private Schema normalizeOneOf(Schema schema, Set<Schema> visitedSchemas) {
         // simplify first as the schema may no longer be a oneOf after processing the rule below
-        schema = processSimplifyOneOf(schema);
+        Schema original = schema;
+        schema = apply(SIMPLIFY_ONEOF_ANYOF, schema, this::processSimplifyOneOf);
 
         // if it's still a oneOf, loop through the sub-schemas
         if (schema.getOneOf() != null) {
@@ -754,8 +821,11 @@ public class OpenAPINormalizer {
                 // update sub-schema with the updated schema
                 schema.getOneOf().set(i, normalizeSchema((Schema) item, visitedSchemas));
             }
-        } else {
+        } else if (schema == original) {
             // normalize it as it's no longer an oneOf
+            schema = normalizeSchemaAgain(schema, visitedSchemas);
+        } else {
+            // normalize the schema it was simplified to
             schema = normalizeSchema(schema, visitedSchemas);
         }
 
@@ -780,10 +850,18 @@ public class OpenAPINormalizer {
         }
 
         // process rules here
-        schema = processSimplifyAnyOf(schema);
+        Schema original = schema;
+        schema = apply(SIMPLIFY_ONEOF_ANYOF, schema, this::processSimplifyAnyOf);
 
         // last rule to process as the schema may become String schema (not "anyOf") after the completion
-        return normalizeSchema(processSimplifyAnyOfStringAndEnumString(schema), visitedSchemas);
+        schema = apply(SIMPLIFY_ANYOF_STRING_AND_ENUM_STRING, schema, this::processSimplifyAnyOfStringAndEnumString);
+        if (schema != original) {
+            return normalizeSchema(schema, visitedSchemas);
+        } else if (!ModelUtils.hasAnyOf(schema)) {
+            // normalize it as it's no longer an anyOf
+            return normalizeSchemaAgain(schema, visitedSchemas);
+        }
+        return schema;
     }
 
     private Schema normalizeComplexComposedSchema(Schema schema, Set<Schema> visitedSchemas) {
@@ -792,9 +870,13 @@ public class OpenAPINormalizer {
             normalizeProperties(schema.getProperties(), visitedSchemas);
         }
 
-        processRemoveAnyOfOneOfAndKeepPropertiesOnly(schema);
+        apply(REMOVE_ANYOF_ONEOF_AND_KEEP_PROPERTIES_ONLY, schema, this::processRemoveAnyOfOneOfAndKeepPropertiesOnly);
 
-        return normalizeSchema(schema, visitedSchemas);
+        if (ModelUtils.isComplexComposedSchema(schema)) {
+            return schema;
+        }
+        // normalize it as it's no longer a complex composed schema
+        return normalizeSchemaAgain(schema, visitedSchemas);
     }
 
     // ===================== a list of rules =====================
@@ -804,18 +886,15 @@ public class OpenAPINormalizer {
      * Child schemas in `allOf` is considered a parent if it's a `$ref` (instead of inline schema).
      *
      * @param schema Schema
+     * @return Schema
      */
-    private void processUseAllOfRefAsParent(Schema schema) {
-        if (!getRule(REF_AS_PARENT_IN_ALLOF)) {
-            return;
-        }
-
+    private Schema processUseAllOfRefAsParent(Schema schema) {
         if (schema.getAllOf() == null) {
-            return;
+            return schema;
         }
 
         if (schema.getAllOf().size() == 1) {
-            return;
+            return schema;
         }
 
         for (Object item : schema.getAllOf()) {
@@ -844,26 +923,66 @@ public class OpenAPINormalizer {
                 LOGGER.debug("processUseAllOfRefAsParent added `x-parent: true` to {}", refSchema);
             }
         }
+
+        return schema;
     }
 
     /**
-     * Keep only first tag in the operation if the operation has more than
-     * one tag.
+     * Mark the operation as internal (x-internal: true) unless its operationId is in the FILTER.
      *
      * @param operation Operation
+     * @return Operation
      */
-    private void processRemoveXInternalFromOperation(Operation operation) {
-        if (!getRule(REMOVE_X_INTERNAL)) {
-            return;
+    private Operation processFilter(Operation operation) {
+        if (operationIdFilters.isEmpty()) {
+            return operation;
         }
 
+        if (operationIdFilters.contains(operation.getOperationId())) {
+            operation.addExtension("x-internal", false);
+        } else {
+            LOGGER.info("operation `{}` marked as internal only (x-internal: true) by the FILTER", operation.getOperationId());
+            operation.addExtension("x-internal", true);
+        }
+
+        return operation;
+    }
+
+    /**
+     * Keep only first tag in the operation if the operation has more than
+     * one tag.
+     *
+     * @param operation Operation
+     * @return Operation
+     */
+    private Operation processRemoveXInternalFromOperation(Operation operation) {
         if (operation.getExtensions() == null) {
-            return;
+            return operation;
         }
 
         if (Boolean.parseBoolean(String.valueOf(operation.getExtensions().get("x-internal")))) {
             operation.getExtensions().remove(X_INTERNAL);
         }
+
+        return operation;
+    }
+
+    /**
+     * Remove x-internal: true from the schema.
+     *
+     * @param schema Schema
+     * @return Schema
+     */
+    private Schema processRemoveXInternalFromSchema(Schema schema) {
+        if (schema.getExtensions() == null) {
+            return schema;
+        }
+
+        if (Boolean.parseBoolean(String.valueOf(schema.getExtensions().get(X_INTERNAL)))) {
+            schema.getExtensions().remove(X_INTERNAL);
+        }
+
+        return schema;
     }
 
     /**
@@ -871,50 +990,51 @@ public class OpenAPINormalizer {
      * one tag.
      *
      * @param operation Operation
+     * @return Operation
      */
-    private void processKeepOnlyFirstTagInOperation(Operation operation) {
-        if (!getRule(KEEP_ONLY_FIRST_TAG_IN_OPERATION)) {
-            return;
-        }
-
+    private Operation processKeepOnlyFirstTagInOperation(Operation operation) {
         if (operation.getTags() != null && !operation.getTags().isEmpty() && operation.getTags().size() > 1) {
             // has more than 1 tag
             String firstTag = operation.getTags().get(0);
             operation.setTags(null);
             operation.addTagsItem(firstTag);
         }
+
+        return operation;
     }
 
     /**
      * Set the tag name for all operations
      *
      * @param operation Operation
+     * @return Operation
      */
-    private void processSetTagsForAllOperations(Operation operation) {
+    private Operation processSetTagsForAllOperations(Operation operation) {
         if (StringUtils.isEmpty(setTagsForAllOperations)) {
-            return;
+            return operation;
         }
 
         operation.setTags(null);
         operation.addTagsItem(setTagsForAllOperations);
+
+        return operation;
     }
 
     /**
      * Set the tag name to operationId (or "default" if operationId is empty)
      *
      * @param operation Operation
+     * @return Operation
      */
-    private void processSetTagsToOperationId(Operation operation) {
-        if (!getRule(SET_TAGS_TO_OPERATIONID)) {
-            return;
-        }
-
+    private Operation processSetTagsToOperationId(Operation operation) {
         operation.setTags(null);
         if (StringUtils.isNotEmpty(operation.getOperationId())) {
             operation.addTagsItem(operation.getOperationId());
         } else { // default to "default" if operationId is empty
             operation.addTagsItem("default");
         }
+
+        return operation;
     }
 
     /**
@@ -922,12 +1042,9 @@ public class OpenAPINormalizer {
      * ensure inter-dependency between properties. It's a workaround as such validation is not supported at the moment.
      *
      * @param schema Schema
+     * @return Schema
      */
-    private void processRemoveAnyOfOneOfAndKeepPropertiesOnly(Schema schema) {
-        if (!getRule(REMOVE_ANYOF_ONEOF_AND_KEEP_PROPERTIES_ONLY)) {
-            return;
-        }
-
+    private Schema processRemoveAnyOfOneOfAndKeepPropertiesOnly(Schema schema) {
         if (((schema.getOneOf() != null && !schema.getOneOf().isEmpty())
                 || (schema.getAnyOf() != null && !schema.getAnyOf().isEmpty())) // has anyOf or oneOf
                 && (schema.getProperties() != null && !schema.getProperties().isEmpty()) // has properties
@@ -936,6 +1053,8 @@ public class OpenAPINormalizer {
             schema.setOneOf(null);
             schema.setAnyOf(null);
         }
+
+        return schema;
     }
 
     /**
@@ -946,10 +1065,6 @@ public class OpenAPINormalizer {
      * @return Schema
      */
     private Schema processSimplifyAnyOfStringAndEnumString(Schema schema) {
-        if (!getRule(SIMPLIFY_ANYOF_STRING_AND_ENUM_STRING)) {
-            return schema;
-        }
-
         if (schema.getAnyOf() == null) {
             // ComposedSchema, Schema with `type: null`
             return schema;
@@ -1003,10 +1118,6 @@ public class OpenAPINormalizer {
      * @return Schema
      */
     private Schema processSimplifyOneOf(Schema schema) {
-        if (!getRule(SIMPLIFY_ONEOF_ANYOF)) {
-            return schema;
-        }
-
         List<Schema> oneOfSchemas = schema.getOneOf();
         if (oneOfSchemas != null) {
             // simplify any type with 6 sub-schemas (string, integer, etc) in oneOf
@@ -1064,10 +1175,6 @@ public class OpenAPINormalizer {
      * @return Schema
      */
     private Schema processSetArraytoNullable(Schema schema) {
-        if (!getRule(SET_CONTAINER_TO_NULLABLE)) {
-            return schema;
-        }
-
         if (Boolean.TRUE.equals(schema.getUniqueItems())) { // a set
             if (updateSetToNullable) {
                 return setNullable(schema);
@@ -1088,10 +1195,6 @@ public class OpenAPINormalizer {
      * @return Schema
      */
     private Schema processSetPrimitiveTypesToNullable(Schema schema) {
-        if (!getRule(SET_PRIMITIVE_TYPES_TO_NULLABLE)) {
-            return schema;
-        }
-
         if (updateStringToNullable && "string".equals(schema.getType())) {
             return setNullable(schema);
         } else if (updateIntegerToNullable && "integer".equals(schema.getType())) {
@@ -1120,10 +1223,6 @@ public class OpenAPINormalizer {
      * @return Schema
      */
     private Schema processSetMapToNullable(Schema schema) {
-        if (!getRule(SET_CONTAINER_TO_NULLABLE)) {
-            return schema;
-        }
-
         if (updateMapToNullable) {
             return setNullable(schema);
         }
@@ -1139,10 +1238,6 @@ public class OpenAPINormalizer {
      * @return Schema
      */
     private Schema processSimplifyAnyOf(Schema schema) {
-        if (!getRule(SIMPLIFY_ONEOF_ANYOF)) {
-            return schema;
-        }
-
         List<Schema> anyOfSchemas = schema.getAnyOf();
         if (anyOfSchemas != null) {
             // simplify any type with 6 sub-schemas (string, integer, etc) in anyOf
@@ -1195,17 +1290,15 @@ public class OpenAPINormalizer {
      * @param schema Schema
      * @return Schema
      */
-    private void processSimplifyBooleanEnum(Schema schema) {
-        if (!getRule(SIMPLIFY_BOOLEAN_ENUM)) {
-            return;
-        }
-
+    private Schema processSimplifyBooleanEnum(Schema schema) {
         if (schema instanceof BooleanSchema) {
             BooleanSchema bs = (BooleanSchema) schema;
             if (bs.getEnum() != null && !bs.getEnum().isEmpty()) { // enum defined
                 bs.setEnum(null);
             }
         }
+
+        return schema;
     }
 
     /**
@@ -1215,11 +1308,7 @@ public class OpenAPINormalizer {
      * @param schema Schema
      * @return Schema
      */
-    private void processAddUnsignedToIntegerWithInvalidMaxValue(Schema schema) {
-        if (!getRule(ADD_UNSIGNED_TO_INTEGER_WITH_INVALID_MAX_VALUE)) {
-            return;
-        }
-
+    private Schema processAddUnsignedToIntegerWithInvalidMaxValue(Schema schema) {
         if (schema instanceof IntegerSchema) {
             if (ModelUtils.isLongSchema(schema)) {
                 if ("18446744073709551615".equals(String.valueOf(schema.getMaximum())) &&
@@ -1233,6 +1322,8 @@ public class OpenAPINormalizer {
                 }
             }
         }
+
+        return schema;
     }
 
     /**
@@ -1243,10 +1334,6 @@ public class OpenAPINormalizer {
      * @return Schema
      */
     private Schema processRefactorAllOfWithPropertiesOnly(Schema schema) {
-        if (!getRule(REFACTOR_ALLOF_WITH_PROPERTIES_ONLY)) {
-            return schema;
-        }
-
         ObjectSchema os = new ObjectSchema();
         // set the properties, etc of the new schema to the properties of schema
         os.setProperties(schema.getProperties());
@@ -1284,10 +1371,6 @@ public class OpenAPINormalizer {
      * @return Schema
      */
     private Schema processNormalize31Spec(Schema schema, Set<Schema> visitedSchemas) {
-        if (!getRule(NORMALIZE_31SPEC)) {
-            return schema;
-        }
-
         if (schema == null) {
             return null;
         }
@@ -1386,4 +1469,32 @@ public class OpenAPINormalizer {
     }
 
     // ===================== end of rules =====================
+
+    /**
+     * An enabled rule, with the number of times it was applied and the time spent applying it.
+     * <p>
+     * The time is inclusive: a rule which normalizes nested schemas while it's applied (e.g. NORMALIZE_31SPEC) also
+     * counts the time of the rules applied to them, so the times of the rules overlap and don't add up to the total.
+     */
+    static final class RuleTiming {
+        private final String name;
+        private long invocations;
+        private long nanos;
+
+        RuleTiming(String name) {
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        long getInvocations() {
+            return invocations;
+        }
+
+        long getNanos() {
+            return nanos;
+        }
+    }
 }
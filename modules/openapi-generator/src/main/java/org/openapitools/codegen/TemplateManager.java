@@ -1,11 +1,15 @@
 package org.openapitools.codegen;
 
+import lombok.Getter;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.openapitools.codegen.api.OutputSink;
 import org.openapitools.codegen.api.TemplatePathLocator;
 import org.openapitools.codegen.api.TemplateProcessor;
 import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.templating.FileSystemOutputSink;
+import org.openapitools.codegen.templating.TemplateIndex;
 import org.openapitools.codegen.templating.TemplateManagerOptions;
 import org.openapitools.codegen.templating.TemplateNotFoundException;
 import org.slf4j.Logger;
@@ -24,6 +28,10 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
     private final TemplateManagerOptions options;
     private final TemplatingEngineAdapter engineAdapter;
     private final TemplatePathLocator[] templateLoaders;
+    @Getter private final OutputSink outputSink;
+    private final TemplateIndex templateIndex;
+
+    private static final ThreadLocal<RenderBuffer> RENDER_BUFFER = ThreadLocal.withInitial(RenderBuffer::new);
 
     private final Logger LOGGER = LoggerFactory.getLogger(TemplateManager.class);
 
@@ -38,9 +46,45 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
             TemplateManagerOptions options,
             TemplatingEngineAdapter engineAdapter,
             TemplatePathLocator[] templateLoaders) {
+        this(options, engineAdapter, templateLoaders, FileSystemOutputSink.INSTANCE);
+    }
+
+    /**
+     * Constructs a new instance of a {@link TemplateManager}
+     *
+     * @param options The {@link TemplateManagerOptions} for reading and writing templates
+     * @param engineAdapter The adaptor to underlying templating engine
+     * @param templateLoaders Loaders which define where we look for templates
+     * @param outputSink The destination of the written files
+     */
+    public TemplateManager(
+            TemplateManagerOptions options,
+            TemplatingEngineAdapter engineAdapter,
+            TemplatePathLocator[] templateLoaders,
+            OutputSink outputSink) {
+        this(options, engineAdapter, templateLoaders, outputSink, new TemplateIndex());
+    }
+
+    /**
+     * Constructs a new instance of a {@link TemplateManager}
+     *
+     * @param options The {@link TemplateManagerOptions} for reading and writing templates
+     * @param engineAdapter The adaptor to underlying templating engine
+     * @param templateLoaders Loaders which define where we look for templates
+     * @param outputSink The destination of the written files
+     * @param templateIndex The index holding the contents of the templates read
+     */
+    public TemplateManager(
+            TemplateManagerOptions options,
+            TemplatingEngineAdapter engineAdapter,
+            TemplatePathLocator[] templateLoaders,
+            OutputSink outputSink,
+            TemplateIndex templateIndex) {
         this.options = options;
         this.engineAdapter = engineAdapter;
         this.templateLoaders = templateLoaders;
+        this.outputSink = outputSink;
+        this.templateIndex = templateIndex;
     }
 
     private String getFullTemplateFile(String name) {
@@ -109,13 +153,12 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
         if (name == null || name.contains("..")) {
             throw new IllegalArgumentException("Template location must be constrained to template directory.");
         }
-        try (Reader reader = getTemplateReader(name)) {
-            if (reader == null) {
-                throw new RuntimeException("no file found");
-            }
-            try (Scanner s = new Scanner(reader).useDelimiter("\\A")) {
-                return s.hasNext() ? s.next() : "";
+        try {
+            String contents = templateIndex.read(name);
+            if (contents != null) {
+                return contents;
             }
+            LOGGER.error("can't load template {}", name);
         } catch (Exception e) {
             LOGGER.error("{}", e.getMessage(), e);
         }
@@ -160,8 +203,7 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
     public File write(Map<String, Object> data, String template, File target) throws IOException {
         if (this.engineAdapter.handlesFile(template)) {
             // Only pass files with valid endings through template engine
-            String templateContent = this.engineAdapter.compileTemplate(this, data, template);
-            return writeToFile(target.getPath(), templateContent);
+            return writeTemplate(data, template, target.getPath());
         } else {
             // Do a straight copy of the file if not listed as supported by the template engine.
             InputStream is;
@@ -176,6 +218,59 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
         }
     }
 
+    /**
+     * Renders a template into a temporary file moved over its output file once rendered, or into a reusable buffer
+     * when the result has to be compared with the existing file or is not written to the file system, rather than
+     * materializing the whole result as a string. A template failing to render leaves the existing file untouched.
+     *
+     * @param data     Input data
+     * @param template Input template location
+     * @param filename The name of file to write
+     * @return File representing the written file.
+     * @throws IOException If the template cannot be rendered, or the file cannot be written.
+     */
+    private File writeTemplate(Map<String, Object> data, String template, String filename) throws IOException {
+        // Use Paths.get here to normalize path (for Windows file separator, space escaping on Linux/Mac, etc)
+        File outputFile = Paths.get(filename).toFile();
+
+        if (this.options.isMinimalUpdate() || !(this.outputSink instanceof FileSystemOutputSink)) {
+            RenderBuffer buffer = RENDER_BUFFER.get();
+            try {
+                try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+                    this.engineAdapter.compileTemplate(this, data, template, writer);
+                }
+                return writeToFile(filename, buffer.bytes(), buffer.size());
+            } finally {
+                buffer.release();
+            }
+        }
+
+        FileSystemOutputSink fileSystem = (FileSystemOutputSink) this.outputSink;
+        if (this.options.isSkipOverwrite() && outputFile.exists()) {
+            // still render, templates may have side effects (e.g. lambdas collecting values)
+            this.engineAdapter.compileTemplate(this, data, template, Writer.nullWriter());
+            LOGGER.info("skip overwrite of file {}", filename);
+            return outputFile;
+        }
+
+        LOGGER.info("writing file {}", filename);
+        // render next to the file, which is only replaced once the template rendered completely
+        Path temporary = fileSystem.createSibling(outputFile.toPath());
+        boolean written = false;
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(temporary), StandardCharsets.UTF_8))) {
+                this.engineAdapter.compileTemplate(this, data, template, writer);
+            }
+            fileSystem.replace(temporary, outputFile.toPath());
+            written = true;
+        } finally {
+            if (!written) {
+                fileSystem.delete(temporary);
+            }
+        }
+        return outputFile;
+    }
+
     @Override
     public void ignore(Path path, String context) {
         LOGGER.info("Ignored {} ({})", path, context);
@@ -208,56 +303,55 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
      */
     @Override
     public File writeToFile(String filename, byte[] contents) throws IOException {
+        return writeToFile(filename, contents, contents.length);
+    }
+
+    private File writeToFile(String filename, byte[] contents, int length) throws IOException {
         // Use Paths.get here to normalize path (for Windows file separator, space escaping on Linux/Mac, etc)
         File outputFile = Paths.get(filename).toFile();
 
         if (this.options.isMinimalUpdate()) {
-            String tempFilename = filename + ".tmp";
-            File tempFile = null;
-            try {
-                tempFile = writeToFileRaw(tempFilename, contents);
-                if (!filesEqual(tempFile, outputFile)) {
-                    LOGGER.info("writing file {}", filename);
-                    Files.move(tempFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                    tempFile = null;
-                } else {
-                    LOGGER.info("skipping unchanged file {}", filename);
-                }
-            } finally {
-                if (tempFile != null && tempFile.exists()) {
-                    try {
-                        Files.delete(tempFile.toPath());
-                    } catch (Exception ex) {
-                        LOGGER.error("Error removing temporary file {}", tempFile, ex);
-                    }
-                }
+            // compare against the existing file without staging a temporary copy, so unchanged files are only read
+            if (this.outputSink.contentEquals(outputFile.toPath(), contents, length)) {
+                LOGGER.info("skipping unchanged file {}", filename);
+            } else {
+                LOGGER.info("writing file {}", filename);
+                this.outputSink.write(outputFile.toPath(), contents, length);
             }
         } else {
             LOGGER.info("writing file {}", filename);
-            outputFile = writeToFileRaw(filename, contents);
+            if (this.options.isSkipOverwrite() && this.outputSink.exists(outputFile.toPath())) {
+                LOGGER.info("skip overwrite of file {}", filename);
+            } else {
+                this.outputSink.write(outputFile.toPath(), contents, length);
+            }
         }
 
         return outputFile;
     }
 
-    private File writeToFileRaw(String filename, byte[] contents) throws IOException {
-        // Use Paths.get here to normalize path (for Windows file separator, space escaping on Linux/Mac, etc)
-        File output = Paths.get(filename).toFile();
-        if (this.options.isSkipOverwrite() && output.exists()) {
-            LOGGER.info("skip overwrite of file {}", filename);
-            return output;
-        }
+    /**
+     * A per-thread buffer receiving rendered templates which are compared with the existing file, or not written to
+     * the file system. Its backing array is reused across templates, unless a template grew it past
+     * {@link #MAX_RETAINED_SIZE}.
+     */
+    private static final class RenderBuffer extends ByteArrayOutputStream {
+        private static final int INITIAL_SIZE = 64 * 1024;
+        private static final int MAX_RETAINED_SIZE = 8 * 1024 * 1024;
 
-        if (output.getParent() != null && !new File(output.getParent()).exists()) {
-            File parent = Paths.get(output.getParent()).toFile();
-            parent.mkdirs();
+        RenderBuffer() {
+            super(INITIAL_SIZE);
         }
-        Files.write(output.toPath(), contents);
 
-        return output;
-    }
+        byte[] bytes() {
+            return buf;
+        }
 
-    private boolean filesEqual(File file1, File file2) throws IOException {
-        return file1.exists() && file2.exists() && Arrays.equals(Files.readAllBytes(file1.toPath()), Files.readAllBytes(file2.toPath()));
+        void release() {
+            if (buf.length > MAX_RETAINED_SIZE) {
+                buf = new byte[INITIAL_SIZE];
+            }
+            reset();
+        }
     }
 }
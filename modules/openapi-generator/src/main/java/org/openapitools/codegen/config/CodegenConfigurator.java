@@ -82,6 +82,9 @@ public class CodegenConfigurator {
     private Map<String, String> reservedWordsMappings = new HashMap<>();
     private Map<String, String> serverVariables = new HashMap<>();
     private String auth;
+    private ParsedSpecCache parsedSpecCache;
+    // the key of the snapshots of the spec read by toContext(), see SpecSnapshotStore
+    private String specSnapshotKey;
 
     private List<TemplateDefinition> userDefinedTemplates = new ArrayList<>();
 
@@ -352,6 +355,17 @@ public class CodegenConfigurator {
         return this;
     }
 
+    /**
+     * Shares the parsed input spec with other configurators using the same cache, instead of parsing it again.
+     *
+     * @param parsedSpecCache The cache, or null to always parse the input spec
+     * @return this configurator
+     */
+    public CodegenConfigurator setParsedSpecCache(ParsedSpecCache parsedSpecCache) {
+        this.parsedSpecCache = parsedSpecCache;
+        return this;
+    }
+
     public CodegenConfigurator setEnableMinimalUpdate(boolean enableMinimalUpdate) {
         workflowSettingsBuilder.withEnableMinimalUpdate(enableMinimalUpdate);
         return this;
@@ -488,6 +502,10 @@ public class CodegenConfigurator {
         return this;
     }
 
+    public String getInputSpec() {
+        return inputSpec;
+    }
+
     public CodegenConfigurator setInputSpec(String inputSpec) {
         this.inputSpec = inputSpec;
         workflowSettingsBuilder.withInputSpec(inputSpec);
@@ -680,10 +698,22 @@ public class CodegenConfigurator {
         ModelUtils.setGenerateAliasAsModel(workflowSettings.isGenerateAliasAsModel());
 
         // TODO: Support custom spec loader implementations (https://github.com/OpenAPITools/openapi-generator/issues/844)
-        final List<AuthorizationValue> authorizationValues = AuthParser.parse(this.auth);
         ParseOptions options = new ParseOptions();
         options.setResolve(true);
-        SwaggerParseResult result = new OpenAPIParser().readLocation(inputSpec, authorizationValues, options);
+        SpecSnapshotStore snapshots = SpecSnapshotStore.forCurrentSettings();
+        specSnapshotKey = snapshots != null && isEmpty(this.auth) ? snapshots.contentKey(inputSpec) : null;
+        SwaggerParseResult result = specSnapshotKey != null ? snapshots.readParsed(specSnapshotKey) : null;
+        if (result == null) {
+            if (parsedSpecCache != null) {
+                result = parsedSpecCache.read(inputSpec, this.auth, options);
+            } else {
+                final List<AuthorizationValue> authorizationValues = AuthParser.parse(this.auth);
+                result = new OpenAPIParser().readLocation(inputSpec, authorizationValues, options);
+            }
+            if (specSnapshotKey != null && result.getOpenAPI() != null) {
+                snapshots.writeParsed(specSnapshotKey, result);
+            }
+        }
 
         // TODO: Move custom validations to a separate type as part of a "Workflow"
         Set<String> validationMessages = new HashSet<>(null != result.getMessages() ? result.getMessages() : new ArrayList<>());
@@ -806,7 +836,8 @@ public class CodegenConfigurator {
         ClientOptInput input = new ClientOptInput()
                 .config(config)
                 .generatorSettings(generatorSettings)
-                .userDefinedTemplates(userDefinedTemplates);
+                .userDefinedTemplates(userDefinedTemplates)
+                .specSnapshotKey(specSnapshotKey);
 
         return input.openAPI((OpenAPI)context.getSpecDocument());
     }
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.models.OpenAPI;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Deep copies an {@link OpenAPI} document as parsed, without serializing it: the copy has the same model classes
+ * (e.g. {@link io.swagger.v3.oas.models.media.ComposedSchema}), collection types and example values as the original,
+ * and objects referenced several times (or cyclically) by the original are copied once.
+ * <p>
+ * The fields of the swagger models are copied field by field. Immutable values are shared, as are values of types
+ * which are neither swagger models, collections, arrays, dates nor JSON nodes.
+ */
+final class OpenAPICopier {
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+    private OpenAPICopier() {
+    }
+
+    /**
+     * @param openAPI the document to copy, may be null
+     * @return a deep copy of the document
+     * @throws IllegalStateException if the document holds a model which can not be copied
+     */
+    static OpenAPI copy(OpenAPI openAPI) {
+        return (OpenAPI) new OpenAPICopier().copyValue(openAPI);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object copyValue(Object value) {
+        if (value == null || isImmutable(value)) {
+            return value;
+        }
+        Object copy = copies.get(value);
+        if (copy != null) {
+            return copy;
+        }
+
+        Class<?> type = value.getClass();
+        if (SwaggerModelType.isModel(type)) {
+            SwaggerModelType modelType = SwaggerModelType.of(type);
+            copy = modelType.newInstance();
+            copies.put(value, copy);
+            // e.g. Paths or ApiResponses are maps, with extensions as fields
+            if (value instanceof Map) {
+                copyEntries((Map) value, (Map) copy);
+            } else if (value instanceof Collection) {
+                copyElements((Collection) value, (Collection) copy);
+            }
+            for (int field = 0; field < modelType.getFieldNames().size(); field++) {
+                modelType.set(copy, field, copyValue(modelType.get(value, field)));
+            }
+        } else if (value instanceof Map) {
+            copy = newMap((Map) value);
+            copies.put(value, copy);
+            copyEntries((Map) value, (Map) copy);
+            if (!isJavaUtilWithConstructor(type)) {
+                copy = Collections.unmodifiableMap((Map) copy);
+                copies.put(value, copy);
+            }
+        } else if (value instanceof Collection) {
+            copy = newCollection((Collection) value);
+            copies.put(value, copy);
+            copyElements((Collection) value, (Collection) copy);
+            if (!isJavaUtilWithConstructor(type)) {
+                copy = value instanceof List ? Collections.unmodifiableList((List) copy)
+                        : value instanceof Set ? Collections.unmodifiableSet((Set) copy)
+                        : Collections.unmodifiableCollection((Collection) copy);
+                copies.put(value, copy);
+            }
+        } else if (type.isArray()) {
+            int length = Array.getLength(value);
+            copy = Array.newInstance(type.getComponentType(), length);
+            copies.put(value, copy);
+            if (type.getComponentType().isPrimitive()) {
+                System.arraycopy(value, 0, copy, 0, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    Array.set(copy, i, copyValue(Array.get(value, i)));
+                }
+            }
+        } else if (value instanceof JsonNode) {
+            copy = ((JsonNode) value).deepCopy();
+            copies.put(value, copy);
+        } else if (value instanceof Date) {
+            copy = ((Date) value).clone();
+            copies.put(value, copy);
+        } else {
+            return value;
+        }
+        return copy;
+    }
+
+    private void copyEntries(Map<Object, Object> source, Map<Object, Object> target) {
+        for (Map.Entry<Object, Object> entry : source.entrySet()) {
+            target.put(copyValue(entry.getKey()), copyValue(entry.getValue()));
+        }
+    }
+
+    private void copyElements(Collection<Object> source, Collection<Object> target) {
+        for (Object element : source) {
+            target.add(copyValue(element));
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum || value instanceof UUID || value instanceof Class
+                || (value instanceof Number && value.getClass().getName().startsWith("java."))
+                || value.getClass().getName().startsWith("java.time.");
+    }
+
+    /**
+     * Whether the type is a collection of java.util which can be constructed, as opposed to e.g. an unmodifiable view.
+     */
+    private static boolean isJavaUtilWithConstructor(Class<?> type) {
+        if (!type.getName().startsWith("java.util.") || !Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            type.getConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<Object, Object> newMap(Map<?, ?> map) {
+        if (map instanceof SortedMap) {
+            return new TreeMap(((SortedMap) map).comparator());
+        }
+        if (isJavaUtilWithConstructor(map.getClass())) {
+            return (Map<Object, Object>) newJavaUtilInstance(map.getClass());
+        }
+        return new LinkedHashMap<>();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Collection<Object> newCollection(Collection<?> collection) {
+        if (collection instanceof SortedSet) {
+            return new TreeSet(((SortedSet) collection).comparator());
+        }
+        if (isJavaUtilWithConstructor(collection.getClass())) {
+            return (Collection<Object>) newJavaUtilInstance(collection.getClass());
+        }
+        return collection instanceof Set ? new LinkedHashSet<>() : new ArrayList<>();
+    }
+
+    private static Object newJavaUtilInstance(Class<?> type) {
+        try {
+            return type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to construct " + type.getName(), e);
+        }
+    }
+}
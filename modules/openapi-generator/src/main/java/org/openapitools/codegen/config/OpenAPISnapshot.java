@@ -0,0 +1,798 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * A compact binary form of an {@link io.swagger.v3.oas.models.OpenAPI} document (or any graph of swagger models and
+ * plain values), which is read back with the same model classes, collection types and example values as the
+ * original, and with objects referenced several times (or cyclically) read once.
+ * <p>
+ * Models are written field by field, each model class being described once by the names of its fields; strings are
+ * written once. Reading fails if a model class or field changed since the snapshot was written. Only swagger models,
+ * java.util collections and well-known value types are read, other classes are rejected.
+ */
+final class OpenAPISnapshot {
+    private static final int MAGIC = 0x4f415053;
+    private static final int VERSION = 1;
+
+    private static final int NULL = 0;
+    private static final int REF = 1;
+    private static final int STRING = 2;
+    private static final int STRING_REF = 3;
+    private static final int TRUE = 4;
+    private static final int FALSE = 5;
+    private static final int INT = 6;
+    private static final int LONG = 7;
+    private static final int DOUBLE = 8;
+    private static final int FLOAT = 9;
+    private static final int SHORT = 10;
+    private static final int BYTE = 11;
+    private static final int CHAR = 12;
+    private static final int BIG_DECIMAL = 13;
+    private static final int BIG_INTEGER = 14;
+    private static final int ENUM = 15;
+    private static final int UUID_VALUE = 16;
+    private static final int TEMPORAL = 17;
+    private static final int DATE = 18;
+    private static final int BYTES = 19;
+    private static final int MODEL = 20;
+    private static final int MAP = 21;
+    private static final int COLLECTION = 22;
+    private static final int ARRAY = 23;
+    private static final int JSON = 24;
+
+    // how a map or collection is constructed when read
+    private static final int JAVA_UTIL = 0;
+    private static final int UNMODIFIABLE_LIST = 1;
+    private static final int UNMODIFIABLE_SET = 2;
+    private static final int UNMODIFIABLE_COLLECTION = 3;
+    private static final int UNMODIFIABLE_MAP = 4;
+
+    private static final int JSON_OBJECT = 0;
+    private static final int JSON_ARRAY = 1;
+    private static final int JSON_TEXT = 2;
+    private static final int JSON_INT = 3;
+    private static final int JSON_LONG = 4;
+    private static final int JSON_DOUBLE = 5;
+    private static final int JSON_FLOAT = 6;
+    private static final int JSON_SHORT = 7;
+    private static final int JSON_DECIMAL = 8;
+    private static final int JSON_BIG_INTEGER = 9;
+    private static final int JSON_BOOLEAN = 10;
+    private static final int JSON_NULL = 11;
+    private static final int JSON_BINARY = 12;
+
+    private OpenAPISnapshot() {
+    }
+
+    /**
+     * @param value The document to write
+     * @param out   The output
+     * @throws IOException if the document holds a value which can not be written, or if writing fails
+     */
+    static void write(Object value, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        try {
+            new Writer(out).write(value);
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param in     The input, as written by {@link #write(Object, DataOutputStream)}
+     * @param length The length of the input, which bounds the lengths read from it
+     * @return the document
+     * @throws IOException if the input is not a snapshot, or does not match the model classes
+     */
+    static Object read(InputStream in, long length) throws IOException {
+        CountingInputStream counting = new CountingInputStream(in);
+        DataInputStream data = new DataInputStream(counting);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Not a snapshot of this version");
+        }
+        try {
+            return new Reader(data, () -> length - counting.count).read();
+        } catch (IllegalStateException | ClassCastException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static boolean isJavaUtilWithConstructor(Class<?> type) {
+        if (!type.getName().startsWith("java.util.") || !Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            type.getConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static final class Writer {
+        private final DataOutputStream out;
+        private final Map<Object, Integer> objects = new IdentityHashMap<>();
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final Map<Class<?>, Integer> modelTypes = new HashMap<>();
+
+        Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @SuppressWarnings("rawtypes")
+        void write(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+                return;
+            }
+            Integer id = objects.get(value);
+            if (id != null) {
+                out.writeByte(REF);
+                out.writeInt(id);
+                return;
+            }
+
+            Class<?> type = value.getClass();
+            if (value instanceof String) {
+                writeString((String) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (type == Integer.class) {
+                out.writeByte(INT);
+                out.writeInt((Integer) value);
+            } else if (type == Long.class) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (type == Double.class) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (type == Float.class) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (type == Short.class) {
+                out.writeByte(SHORT);
+                out.writeShort((Short) value);
+            } else if (type == Byte.class) {
+                out.writeByte(BYTE);
+                out.writeByte((Byte) value);
+            } else if (type == Character.class) {
+                out.writeByte(CHAR);
+                out.writeChar((Character) value);
+            } else if (type == BigDecimal.class) {
+                out.writeByte(BIG_DECIMAL);
+                writeString(value.toString());
+            } else if (type == BigInteger.class) {
+                out.writeByte(BIG_INTEGER);
+                writeString(value.toString());
+            } else if (value instanceof Enum) {
+                out.writeByte(ENUM);
+                writeString(((Enum) value).getDeclaringClass().getName());
+                writeString(((Enum) value).name());
+            } else if (type == UUID.class) {
+                out.writeByte(UUID_VALUE);
+                writeString(value.toString());
+            } else if (type.getName().startsWith("java.time.")) {
+                out.writeByte(TEMPORAL);
+                writeString(type.getName());
+                writeString(value.toString());
+            } else if (value instanceof JsonNode) {
+                out.writeByte(JSON);
+                writeJson((JsonNode) value);
+            } else if (type == byte[].class) {
+                out.writeByte(BYTES);
+                out.writeInt(((byte[]) value).length);
+                out.write((byte[]) value);
+            } else {
+                objects.put(value, objects.size());
+                writeObject(value, type);
+            }
+        }
+
+        @SuppressWarnings("rawtypes")
+        private void writeObject(Object value, Class<?> type) throws IOException {
+            if (SwaggerModelType.isModel(type)) {
+                out.writeByte(MODEL);
+                SwaggerModelType modelType = SwaggerModelType.of(type);
+                Integer index = modelTypes.get(type);
+                if (index == null) {
+                    out.writeInt(modelTypes.size());
+                    modelTypes.put(type, modelTypes.size());
+                    writeString(type.getName());
+                    out.writeInt(modelType.getFieldNames().size());
+                    for (String fieldName : modelType.getFieldNames()) {
+                        writeString(fieldName);
+                    }
+                } else {
+                    out.writeInt(index);
+                }
+                // e.g. Paths or ApiResponses are maps, with extensions as fields
+                if (value instanceof Map) {
+                    writeEntries((Map) value);
+                } else if (value instanceof Collection) {
+                    writeElements((Collection) value);
+                }
+                for (int field = 0; field < modelType.getFieldNames().size(); field++) {
+                    write(modelType.get(value, field));
+                }
+            } else if (value instanceof Map) {
+                if (value instanceof SortedMap && ((SortedMap) value).comparator() != null) {
+                    throw new IOException("Can't snapshot a sorted map with a comparator");
+                }
+                out.writeByte(MAP);
+                if (isJavaUtilWithConstructor(type)) {
+                    out.writeByte(JAVA_UTIL);
+                    writeString(type.getName());
+                } else {
+                    out.writeByte(UNMODIFIABLE_MAP);
+                }
+                writeEntries((Map) value);
+            } else if (value instanceof Collection) {
+                if (value instanceof SortedSet && ((SortedSet) value).comparator() != null) {
+                    throw new IOException("Can't snapshot a sorted set with a comparator");
+                }
+                out.writeByte(COLLECTION);
+                if (isJavaUtilWithConstructor(type)) {
+                    out.writeByte(JAVA_UTIL);
+                    writeString(type.getName());
+                } else {
+                    out.writeByte(value instanceof List ? UNMODIFIABLE_LIST
+                            : value instanceof Set ? UNMODIFIABLE_SET : UNMODIFIABLE_COLLECTION);
+                }
+                writeElements((Collection) value);
+            } else if (type.isArray() && !type.getComponentType().isPrimitive()) {
+                out.writeByte(ARRAY);
+                writeString(type.getComponentType().getName());
+                int length = Array.getLength(value);
+                out.writeInt(length);
+                for (int i = 0; i < length; i++) {
+                    write(Array.get(value, i));
+                }
+            } else if (type == Date.class) {
+                out.writeByte(DATE);
+                out.writeLong(((Date) value).getTime());
+            } else {
+                throw new IOException("Can't snapshot " + type.getName());
+            }
+        }
+
+        private void writeEntries(Map<?, ?> map) throws IOException {
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(entry.getKey());
+                write(entry.getValue());
+            }
+        }
+
+        private void writeElements(Collection<?> collection) throws IOException {
+            out.writeInt(collection.size());
+            for (Object element : collection) {
+                write(element);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            Integer index = strings.get(value);
+            if (index != null) {
+                out.writeByte(STRING_REF);
+                out.writeInt(index);
+                return;
+            }
+            strings.put(value, strings.size());
+            out.writeByte(STRING);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeJson(JsonNode node) throws IOException {
+            switch (node.getNodeType()) {
+                case OBJECT:
+                    out.writeByte(JSON_OBJECT);
+                    out.writeInt(node.size());
+                    for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                        Map.Entry<String, JsonNode> field = fields.next();
+                        writeString(field.getKey());
+                        writeJson(field.getValue());
+                    }
+                    break;
+                case ARRAY:
+                    out.writeByte(JSON_ARRAY);
+                    out.writeInt(node.size());
+                    for (JsonNode element : node) {
+                        writeJson(element);
+                    }
+                    break;
+                case STRING:
+                    out.writeByte(JSON_TEXT);
+                    writeString(node.textValue());
+                    break;
+                case NUMBER:
+                    writeJsonNumber(node);
+                    break;
+                case BOOLEAN:
+                    out.writeByte(JSON_BOOLEAN);
+                    out.writeBoolean(node.booleanValue());
+                    break;
+                case NULL:
+                    out.writeByte(JSON_NULL);
+                    break;
+                case BINARY:
+                    out.writeByte(JSON_BINARY);
+                    byte[] bytes = node.binaryValue();
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                    break;
+                default:
+                    throw new IOException("Can't snapshot JSON node " + node.getNodeType());
+            }
+        }
+
+        private void writeJsonNumber(JsonNode node) throws IOException {
+            switch (node.numberType()) {
+                case INT:
+                    if (node.isShort()) {
+                        out.writeByte(JSON_SHORT);
+                        out.writeShort(node.shortValue());
+                    } else {
+                        out.writeByte(JSON_INT);
+                        out.writeInt(node.intValue());
+                    }
+                    break;
+                case LONG:
+                    out.writeByte(JSON_LONG);
+                    out.writeLong(node.longValue());
+                    break;
+                case BIG_INTEGER:
+                    out.writeByte(JSON_BIG_INTEGER);
+                    writeString(node.bigIntegerValue().toString());
+                    break;
+                case FLOAT:
+                    out.writeByte(JSON_FLOAT);
+                    out.writeFloat(node.floatValue());
+                    break;
+                case DOUBLE:
+                    out.writeByte(JSON_DOUBLE);
+                    out.writeDouble(node.doubleValue());
+                    break;
+                default:
+                    out.writeByte(JSON_DECIMAL);
+                    writeString(node.decimalValue().toString());
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final DataInputStream in;
+        private final LongSupplier remaining;
+        private final List<Object> objects = new ArrayList<>();
+        private final List<String> strings = new ArrayList<>();
+        private final List<ModelLayout> modelTypes = new ArrayList<>();
+
+        Reader(DataInputStream in, LongSupplier remaining) {
+            this.in = in;
+            this.remaining = remaining;
+        }
+
+        Object read() throws IOException {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case REF:
+                    return element(objects, in.readInt());
+                case STRING:
+                case STRING_REF:
+                    return readString(tag);
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case INT:
+                    return in.readInt();
+                case LONG:
+                    return in.readLong();
+                case DOUBLE:
+                    return in.readDouble();
+                case FLOAT:
+                    return in.readFloat();
+                case SHORT:
+                    return in.readShort();
+                case BYTE:
+                    return in.readByte();
+                case CHAR:
+                    return in.readChar();
+                case BIG_DECIMAL:
+                    return new BigDecimal(readString());
+                case BIG_INTEGER:
+                    return new BigInteger(readString());
+                case ENUM:
+                    return readEnum();
+                case UUID_VALUE:
+                    return UUID.fromString(readString());
+                case TEMPORAL:
+                    return readTemporal(readString(), readString());
+                case JSON:
+                    return readJson();
+                case BYTES:
+                    return readBytes();
+                case MODEL:
+                    return readModel();
+                case MAP:
+                    return readMap();
+                case COLLECTION:
+                    return readCollection();
+                case ARRAY:
+                    return readArray();
+                case DATE: {
+                    Date date = new Date(in.readLong());
+                    objects.add(date);
+                    return date;
+                }
+                default:
+                    throw new IOException("Invalid tag " + tag);
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readModel() throws IOException {
+            int index = in.readInt();
+            ModelLayout layout;
+            if (index == modelTypes.size()) {
+                Class<?> type = loadClass(readString());
+                if (!SwaggerModelType.isModel(type)) {
+                    throw new IOException("Not a model class: " + type.getName());
+                }
+                layout = new ModelLayout(SwaggerModelType.of(type), readFieldNames());
+                modelTypes.add(layout);
+            } else {
+                layout = element(modelTypes, index);
+            }
+
+            Object model = layout.type.newInstance();
+            objects.add(model);
+            if (model instanceof Map) {
+                readEntries((Map) model);
+            } else if (model instanceof Collection) {
+                readElements((Collection) model);
+            }
+            for (int field : layout.fields) {
+                layout.type.set(model, field, read());
+            }
+            return model;
+        }
+
+        private List<String> readFieldNames() throws IOException {
+            int count = readLength();
+            List<String> names = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                names.add(readString());
+            }
+            return names;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readMap() throws IOException {
+            int kind = in.readUnsignedByte();
+            Map map = kind == JAVA_UTIL ? (Map) newJavaUtilInstance(readString(), Map.class) : new LinkedHashMap<>();
+            int id = objects.size();
+            objects.add(map);
+            readEntries(map);
+            if (kind == UNMODIFIABLE_MAP) {
+                map = Collections.unmodifiableMap(map);
+                objects.set(id, map);
+            } else if (kind != JAVA_UTIL) {
+                throw new IOException("Invalid map kind " + kind);
+            }
+            return map;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readCollection() throws IOException {
+            int kind = in.readUnsignedByte();
+            Collection collection;
+            if (kind == JAVA_UTIL) {
+                collection = (Collection) newJavaUtilInstance(readString(), Collection.class);
+            } else if (kind == UNMODIFIABLE_SET) {
+                collection = new LinkedHashSet<>();
+            } else {
+                collection = new ArrayList<>();
+            }
+            int id = objects.size();
+            objects.add(collection);
+            readElements(collection);
+            switch (kind) {
+                case JAVA_UTIL:
+                    return collection;
+                case UNMODIFIABLE_LIST:
+                    collection = Collections.unmodifiableList((List) collection);
+                    break;
+                case UNMODIFIABLE_SET:
+                    collection = Collections.unmodifiableSet((Set) collection);
+                    break;
+                case UNMODIFIABLE_COLLECTION:
+                    collection = Collections.unmodifiableCollection(collection);
+                    break;
+                default:
+                    throw new IOException("Invalid collection kind " + kind);
+            }
+            objects.set(id, collection);
+            return collection;
+        }
+
+        private Object readArray() throws IOException {
+            Class<?> componentType = loadClass(readString());
+            int length = readLength();
+            Object array = Array.newInstance(componentType, length);
+            objects.add(array);
+            for (int i = 0; i < length; i++) {
+                Array.set(array, i, read());
+            }
+            return array;
+        }
+
+        private void readEntries(Map<Object, Object> map) throws IOException {
+            int size = readLength();
+            for (int i = 0; i < size; i++) {
+                Object key = read();
+                map.put(key, read());
+            }
+        }
+
+        private void readElements(Collection<Object> collection) throws IOException {
+            int size = readLength();
+            for (int i = 0; i < size; i++) {
+                collection.add(read());
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object readEnum() throws IOException {
+            Class<?> type = loadClass(readString());
+            if (!type.isEnum()) {
+                throw new IOException("Not an enum: " + type.getName());
+            }
+            return Enum.valueOf((Class) type, readString());
+        }
+
+        private Object readTemporal(String type, String value) throws IOException {
+            switch (type) {
+                case "java.time.OffsetDateTime":
+                    return OffsetDateTime.parse(value);
+                case "java.time.ZonedDateTime":
+                    return ZonedDateTime.parse(value);
+                case "java.time.LocalDateTime":
+                    return LocalDateTime.parse(value);
+                case "java.time.LocalDate":
+                    return LocalDate.parse(value);
+                case "java.time.LocalTime":
+                    return LocalTime.parse(value);
+                case "java.time.OffsetTime":
+                    return OffsetTime.parse(value);
+                case "java.time.Instant":
+                    return Instant.parse(value);
+                default:
+                    throw new IOException("Can't read " + type);
+            }
+        }
+
+        private JsonNode readJson() throws IOException {
+            JsonNodeFactory factory = JsonNodeFactory.instance;
+            int kind = in.readUnsignedByte();
+            switch (kind) {
+                case JSON_OBJECT: {
+                    ObjectNode node = factory.objectNode();
+                    int size = readLength();
+                    for (int i = 0; i < size; i++) {
+                        String name = readString();
+                        node.set(name, readJson());
+                    }
+                    return node;
+                }
+                case JSON_ARRAY: {
+                    ArrayNode node = factory.arrayNode();
+                    int size = readLength();
+                    for (int i = 0; i < size; i++) {
+                        node.add(readJson());
+                    }
+                    return node;
+                }
+                case JSON_TEXT:
+                    return factory.textNode(readString());
+                case JSON_INT:
+                    return factory.numberNode(in.readInt());
+                case JSON_LONG:
+                    return factory.numberNode(in.readLong());
+                case JSON_DOUBLE:
+                    return factory.numberNode(in.readDouble());
+                case JSON_FLOAT:
+                    return factory.numberNode(in.readFloat());
+                case JSON_SHORT:
+                    return factory.numberNode(in.readShort());
+                case JSON_DECIMAL:
+                    return factory.numberNode(new BigDecimal(readString()));
+                case JSON_BIG_INTEGER:
+                    return factory.numberNode(new BigInteger(readString()));
+                case JSON_BOOLEAN:
+                    return factory.booleanNode(in.readBoolean());
+                case JSON_NULL:
+                    return factory.nullNode();
+                case JSON_BINARY:
+                    return factory.binaryNode(readBytes());
+                default:
+                    throw new IOException("Invalid JSON node kind " + kind);
+            }
+        }
+
+        private byte[] readBytes() throws IOException {
+            byte[] bytes = new byte[readLength()];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        // a length read from a corrupt snapshot could be negative, or large enough to run out of memory; each element
+        // (or byte) takes at least a byte of the input, which bounds the valid lengths
+        private int readLength() throws IOException {
+            int length = in.readInt();
+            if (length < 0 || length > remaining.getAsLong()) {
+                throw new IOException("Invalid length " + length);
+            }
+            return length;
+        }
+
+        private String readString() throws IOException {
+            return readString(in.readUnsignedByte());
+        }
+
+        private String readString(int tag) throws IOException {
+            if (tag == STRING_REF) {
+                return element(strings, in.readInt());
+            }
+            if (tag != STRING) {
+                throw new IOException("Expected a string, got tag " + tag);
+            }
+            String value = new String(readBytes(), StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        private static <T> T element(List<T> list, int index) throws IOException {
+            if (index < 0 || index >= list.size()) {
+                throw new IOException("Invalid reference " + index);
+            }
+            return list.get(index);
+        }
+
+        private static Object newJavaUtilInstance(String className, Class<?> expectedType) throws IOException {
+            Class<?> type = loadClass(className);
+            if (!expectedType.isAssignableFrom(type) || !isJavaUtilWithConstructor(type)) {
+                throw new IOException("Can't construct " + className);
+            }
+            try {
+                return type.getConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IOException("Failed to construct " + className, e);
+            }
+        }
+
+        private static Class<?> loadClass(String className) throws IOException {
+            try {
+                return Class.forName(className, false, OpenAPISnapshot.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Unknown class " + className, e);
+            }
+        }
+    }
+
+    /**
+     * The fields of a model class, in the order written to a snapshot.
+     */
+    private static final class ModelLayout {
+        private final SwaggerModelType type;
+        private final int[] fields;
+
+        ModelLayout(SwaggerModelType type, List<String> fieldNames) throws IOException {
+            if (fieldNames.size() != type.getFieldNames().size()) {
+                throw new IOException("The fields of " + type.getType().getName() + " changed");
+            }
+            this.type = type;
+            this.fields = new int[fieldNames.size()];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = type.getFieldNames().indexOf(fieldNames.get(i));
+                if (fields[i] < 0) {
+                    throw new IOException("Unknown field " + fieldNames.get(i) + " of " + type.getType().getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes read from a snapshot.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
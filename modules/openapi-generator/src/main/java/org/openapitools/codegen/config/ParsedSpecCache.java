@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.config;
+
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.apache.commons.lang3.StringUtils;
+import org.openapitools.codegen.auth.AuthParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses each distinct input spec once, for configurators sharing this cache (e.g. the configs of a batch), see
+ * {@link CodegenConfigurator#setParsedSpecCache(ParsedSpecCache)}.
+ * <p>
+ * Specs are keyed by location, authorization and parse options. The parsed documents are kept unmodified: every
+ * read returns a deep copy, since generation modifies the document (e.g. when normalizing it or flattening inline
+ * models). Concurrent reads of a spec not parsed yet wait for a single parse.
+ * <p>
+ * A cache outliving the spec files it reads (e.g. in a long-running process) should be created with
+ * {@link #keyedByContent()}, so that a spec is parsed again once it, or a file it references, changes.
+ */
+public class ParsedSpecCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParsedSpecCache.class);
+
+    private final Map<List<Object>, CompletableFuture<SwaggerParseResult>> results = new ConcurrentHashMap<>();
+    private final AtomicInteger parseCount = new AtomicInteger();
+    private final AtomicInteger readCount = new AtomicInteger();
+    private final boolean keyedByContent;
+
+    /**
+     * Constructs a cache keeping each spec as parsed the first time it is read.
+     */
+    public ParsedSpecCache() {
+        this(false);
+    }
+
+    private ParsedSpecCache(boolean keyedByContent) {
+        this.keyedByContent = keyedByContent;
+    }
+
+    /**
+     * Constructs a cache keying local specs by a hash of their content and of the local files they reference, see
+     * {@link SpecSnapshotStore#contentKey(String)}. Specs which can't be hashed (e.g. remote specs) are not cached.
+     *
+     * @return the new cache
+     */
+    public static ParsedSpecCache keyedByContent() {
+        return new ParsedSpecCache(true);
+    }
+
+    /**
+     * Reads an input spec, parsing it only if it was not parsed by this cache before.
+     *
+     * @param inputSpec The location of the spec
+     * @param auth      The authorization for remote specs, see {@link AuthParser}
+     * @param options   The parse options
+     * @return the parse result, with a document which can be modified by the caller
+     */
+    public SwaggerParseResult read(String inputSpec, String auth, ParseOptions options) {
+        readCount.incrementAndGet();
+        String contentHash = null;
+        if (keyedByContent) {
+            contentHash = StringUtils.isEmpty(auth) ? SpecSnapshotStore.contentHash(inputSpec) : null;
+            if (contentHash == null) {
+                parseCount.incrementAndGet();
+                return new OpenAPIParser().readLocation(inputSpec, AuthParser.parse(auth), options);
+            }
+            // drop the spec as parsed before it changed
+            String hash = contentHash;
+            results.keySet().removeIf(key -> inputSpec.equals(key.get(0)) && !hash.equals(key.get(1)));
+        }
+        CompletableFuture<SwaggerParseResult> result = new CompletableFuture<>();
+        CompletableFuture<SwaggerParseResult> existing = results.putIfAbsent(key(inputSpec, contentHash, auth, options), result);
+        if (existing == null) {
+            try {
+                parseCount.incrementAndGet();
+                List<AuthorizationValue> authorizationValues = AuthParser.parse(auth);
+                result.complete(new OpenAPIParser().readLocation(inputSpec, authorizationValues, options));
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+                throw e;
+            }
+        } else {
+            result = existing;
+        }
+
+        SwaggerParseResult parsed;
+        try {
+            parsed = result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return copy(parsed, inputSpec, auth, options);
+    }
+
+    /**
+     * @return the number of specs parsed
+     */
+    public int getParseCount() {
+        return parseCount.get();
+    }
+
+    /**
+     * @return the number of specs read, parsed or not
+     */
+    public int getReadCount() {
+        return readCount.get();
+    }
+
+    /**
+     * Discards the parsed specs.
+     */
+    public void clear() {
+        results.clear();
+    }
+
+    private static SwaggerParseResult copy(SwaggerParseResult parsed, String inputSpec, String auth, ParseOptions options) {
+        OpenAPI openAPI;
+        try {
+            openAPI = OpenAPICopier.copy(parsed.getOpenAPI());
+        } catch (IllegalStateException e) {
+            LOGGER.warn("Failed to copy the parsed spec {}, parsing it again: {}", inputSpec, e.getMessage());
+            return new OpenAPIParser().readLocation(inputSpec, AuthParser.parse(auth), options);
+        }
+        SwaggerParseResult copy = new SwaggerParseResult();
+        copy.setOpenAPI(openAPI);
+        copy.setMessages(parsed.getMessages() != null ? new ArrayList<>(parsed.getMessages()) : null);
+        copy.openapi31(parsed.isOpenapi31());
+        return copy;
+    }
+
+    private static List<Object> key(String inputSpec, String contentHash, String auth, ParseOptions options) {
+        return Arrays.asList(inputSpec, contentHash, auth, options.isResolve(), options.isResolveFully(),
+                options.isResolveCombinators(), options.isResolveRequestBody(), options.isFlatten(),
+                options.isFlattenComposedSchemas(), options.isCamelCaseFlattenNaming(), options.isSkipMatches(),
+                options.isAllowEmptyString(), options.isValidateExternalRefs(), options.isValidateInternalRefs(),
+                options.isLegacyYamlDeserialization(), options.isInferSchemaType(), options.isSafelyResolveURL(),
+                options.getRemoteRefAllowList(), options.getRemoteRefBlockList());
+    }
+}
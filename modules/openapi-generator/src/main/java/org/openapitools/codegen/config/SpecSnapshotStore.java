@@ -0,0 +1,304 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.apache.commons.lang3.StringUtils;
+import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.utils.ImplementationVersion;
+import org.openapitools.codegen.utils.ModelUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stores binary snapshots of parsed specs, and of the same specs once normalized and with inline models resolved, so
+ * that generating again from an unchanged spec skips parsing and normalizing it. Enabled by setting the global
+ * property {@link CodegenConstants#SPEC_SNAPSHOT_DIR} to the directory of the snapshots.
+ * <p>
+ * Snapshots of a spec are keyed by a hash of the content of the spec and of the local files it references (see
+ * {@link #contentKey(String)}); the snapshots of the normalized spec are keyed further by the normalizer rules and the
+ * inline model resolver settings (see {@link #settingsKey(CodegenConfig)}). Specs with remote references are not
+ * snapshotted. Snapshots which can't be read are ignored.
+ */
+public final class SpecSnapshotStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpecSnapshotStore.class);
+
+    private static final String PARSED = "parsed";
+    private static final String EXTENSION = ".snapshot";
+
+    private final Path directory;
+
+    public SpecSnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the store of the directory set by {@link CodegenConstants#SPEC_SNAPSHOT_DIR}, or null if not set
+     */
+    public static SpecSnapshotStore forCurrentSettings() {
+        String directory = GlobalSettings.getProperty(CodegenConstants.SPEC_SNAPSHOT_DIR);
+        return StringUtils.isBlank(directory) ? null : new SpecSnapshotStore(Paths.get(directory));
+    }
+
+    /**
+     * Hashes a local spec along with the files it references, and the versions of the generator and the models.
+     *
+     * @param inputSpec The location of the spec
+     * @return the key of the spec's snapshots, or null if the spec (or a file it references) is not a local file
+     */
+    public String contentKey(String inputSpec) {
+        return contentHash(inputSpec);
+    }
+
+    /**
+     * @param inputSpec The location of the spec
+     * @return the hash of {@link #contentKey(String)}, or null if the spec can't be hashed
+     */
+    static String contentHash(String inputSpec) {
+        if (inputSpec == null || inputSpec.contains("://")) {
+            return null;
+        }
+        try {
+            Path root = Paths.get(inputSpec).toAbsolutePath().normalize();
+            if (!Files.isRegularFile(root)) {
+                return null;
+            }
+            MessageDigest digest = sha256();
+            update(digest, ImplementationVersion.read());
+            update(digest, String.valueOf(OpenAPI.class.getPackage().getImplementationVersion()));
+
+            // each file is read once, its own hash kept until all files are known, so that the key doesn't depend
+            // on the order in which they are discovered
+            TreeMap<Path, byte[]> files = new TreeMap<>();
+            Deque<Path> pending = new ArrayDeque<>();
+            pending.add(root);
+            while (!pending.isEmpty()) {
+                Path file = pending.poll();
+                if (files.containsKey(file)) {
+                    continue;
+                }
+                byte[] content = Files.readAllBytes(file);
+                files.put(file, sha256().digest(content));
+                for (String ref : externalRefs(file, content)) {
+                    if (ref.contains("://")) {
+                        LOGGER.debug("Not hashing {}, which references {}", inputSpec, ref);
+                        return null;
+                    }
+                    Path referenced = file.resolveSibling(ref).normalize();
+                    if (!Files.isRegularFile(referenced)) {
+                        return null;
+                    }
+                    if (!files.containsKey(referenced)) {
+                        pending.add(referenced);
+                    }
+                }
+            }
+            for (Map.Entry<Path, byte[]> file : files.entrySet()) {
+                update(digest, root.getParent().relativize(file.getKey()).toString());
+                update(digest, file.getValue());
+            }
+            return hex(digest.digest());
+        } catch (IOException | InvalidPathException e) {
+            LOGGER.debug("Not hashing {}: {}", inputSpec, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param config The generator, once its options are processed
+     * @return the key of the normalizer rules and inline model resolver settings of the generator
+     */
+    public static String settingsKey(CodegenConfig config) {
+        MessageDigest digest = sha256();
+        update(digest, "normalizer=" + config.getUseOpenapiNormalizer());
+        if (config.getUseOpenapiNormalizer()) {
+            update(digest, config.openapiNormalizer());
+        }
+        update(digest, "inlineModelResolver=" + config.getUseInlineModelResolver());
+        if (config.getUseInlineModelResolver()) {
+            update(digest, config.inlineSchemaNameMapping());
+            update(digest, config.inlineSchemaOption());
+        }
+        update(digest, "generateAliasAsModel=" + ModelUtils.isGenerateAliasAsModel());
+        update(digest, "disallowAdditionalPropertiesIfNotPresent=" + ModelUtils.isDisallowAdditionalPropertiesIfNotPresent());
+        return hex(digest.digest());
+    }
+
+    /**
+     * @return the parsed spec, or null if not snapshotted
+     */
+    public SwaggerParseResult readParsed(String contentKey) {
+        Object[] snapshot = read(contentKey, PARSED, Object[].class);
+        if (snapshot == null) {
+            return null;
+        }
+        SwaggerParseResult result = new SwaggerParseResult();
+        result.setOpenAPI((OpenAPI) snapshot[0]);
+        @SuppressWarnings("unchecked")
+        List<String> messages = (List<String>) snapshot[1];
+        result.setMessages(messages);
+        result.openapi31(Boolean.TRUE.equals(snapshot[2]));
+        return result;
+    }
+
+    public void writeParsed(String contentKey, SwaggerParseResult result) {
+        List<String> messages = result.getMessages() != null ? new ArrayList<>(result.getMessages()) : null;
+        write(contentKey, PARSED, new Object[]{result.getOpenAPI(), messages, result.isOpenapi31()});
+    }
+
+    /**
+     * @return the normalized spec, or null if not snapshotted
+     */
+    public OpenAPI readNormalized(String contentKey, String settingsKey) {
+        return read(contentKey, settingsKey, OpenAPI.class);
+    }
+
+    public void writeNormalized(String contentKey, String settingsKey, OpenAPI openAPI) {
+        write(contentKey, settingsKey, openAPI);
+    }
+
+    private <T> T read(String contentKey, String name, Class<T> type) {
+        Path file = directory.resolve(contentKey).resolve(name + EXTENSION);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            long start = System.nanoTime();
+            T snapshot = type.cast(OpenAPISnapshot.read(in, Files.size(file)));
+            LOGGER.info("Read spec snapshot {} in {} ms", file, (System.nanoTime() - start) / 1_000_000);
+            return snapshot;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // e.g. a corrupt or truncated snapshot: the spec is parsed instead
+            LOGGER.warn("Ignoring spec snapshot {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String contentKey, String name, Object snapshot) {
+        Path file = directory.resolve(contentKey).resolve(name + EXTENSION);
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), name, ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+                DataOutputStream data = new DataOutputStream(out);
+                OpenAPISnapshot.write(snapshot, data);
+                data.flush();
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.debug("Wrote spec snapshot {}", file);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write spec snapshot {}: {}", file, e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // the temporary file is left behind
+                }
+            }
+        }
+    }
+
+    /**
+     * Lists the values of the "$ref" fields of a spec which point to other files, without their fragment.
+     */
+    private static List<String> externalRefs(Path file, byte[] content) throws IOException {
+        JsonFactory factory = file.toString().toLowerCase(Locale.ROOT).endsWith(".json")
+                ? Json.mapper().getFactory() : Yaml.mapper().getFactory();
+        List<String> refs = new ArrayList<>();
+        try (JsonParser parser = factory.createParser(content)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME && "$ref".equals(parser.getCurrentName())
+                        && parser.nextToken() == JsonToken.VALUE_STRING) {
+                    String ref = parser.getText();
+                    int fragment = ref.indexOf('#');
+                    String location = fragment >= 0 ? ref.substring(0, fragment) : ref;
+                    if (!location.isEmpty()) {
+                        refs.add(location);
+                    }
+                }
+            }
+        }
+        return refs;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, Map<String, String> map) {
+        new TreeMap<>(map).forEach((key, value) -> update(digest, key + "=" + value));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        update(digest, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void update(MessageDigest digest, byte[] value) {
+        // length-prefixed, so that distinct sequences of values can't hash the same
+        digest.update(Integer.toString(value.length).getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) ':');
+        digest.update(value);
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
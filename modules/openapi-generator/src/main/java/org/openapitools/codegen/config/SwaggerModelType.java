@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The constructor and instance fields of a swagger model class (e.g. {@link io.swagger.v3.oas.models.media.Schema}),
+ * used to copy or snapshot documents field by field.
+ */
+final class SwaggerModelType {
+    private static final String MODELS_PACKAGE = "io.swagger.v3.oas.models.";
+    private static final Map<Class<?>, SwaggerModelType> TYPES = new ConcurrentHashMap<>();
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    // the fields of the class and its superclasses, named "DeclaringClass.field"
+    private final List<String> fieldNames = new ArrayList<>();
+    private final List<VarHandle> fields = new ArrayList<>();
+
+    private SwaggerModelType(Class<?> type) {
+        this.type = type;
+        try {
+            constructor = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class));
+            for (Class<?> c = type; c != null && isModel(c); c = c.getSuperclass()) {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(c, MethodHandles.lookup());
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers)) {
+                        continue;
+                    }
+                    if (Modifier.isFinal(modifiers)) {
+                        throw new IllegalStateException("Can't copy final field " + field);
+                    }
+                    fieldNames.add(c.getSimpleName() + "." + field.getName());
+                    fields.add(lookup.unreflectVarHandle(field));
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't copy instances of " + type.getName(), e);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if instances of the class can not be constructed or their fields accessed
+     */
+    static SwaggerModelType of(Class<?> type) {
+        return TYPES.computeIfAbsent(type, SwaggerModelType::new);
+    }
+
+    static boolean isModel(Class<?> type) {
+        return type.getName().startsWith(MODELS_PACKAGE);
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    List<String> getFieldNames() {
+        return Collections.unmodifiableList(fieldNames);
+    }
+
+    Object newInstance() {
+        try {
+            return constructor.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to construct " + type.getName(), e);
+        }
+    }
+
+    Object get(Object model, int field) {
+        return fields.get(field).get(model);
+    }
+
+    void set(Object model, int field, Object value) {
+        fields.get(field).set(model, value);
+    }
+}
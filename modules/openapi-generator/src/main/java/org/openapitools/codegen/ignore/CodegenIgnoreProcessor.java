@@ -17,12 +17,13 @@
 
 package org.openapitools.codegen.ignore;
 
-import org.openapitools.codegen.ignore.rules.DirectoryRule;
 import org.openapitools.codegen.ignore.rules.Rule;
+import org.openapitools.codegen.ignore.rules.RuleMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.*;
@@ -40,6 +41,8 @@ public class CodegenIgnoreProcessor {
 
     private List<Rule> exclusionRules = new ArrayList<>();
     private List<Rule> inclusionRules = new ArrayList<>();
+    private RuleMatcher ruleMatcher = new RuleMatcher(exclusionRules, inclusionRules);
+    private volatile URI baseDirectoryUri = null;
 
     /**
      * Loads the default ignore file (.openapi-generator-ignore) from the specified path.
@@ -76,6 +79,22 @@ public class CodegenIgnoreProcessor {
         loadFromFile(targetIgnoreFile);
     }
 
+    /**
+     * Constructs an instance of {@link CodegenIgnoreProcessor} from the contents of an ignore file, which does not
+     * have to exist on disk (e.g. when generating in memory).
+     *
+     * @param targetIgnoreFile The ignore file location, relative to which files are evaluated.
+     * @param contents         The contents of the ignore file.
+     */
+    public CodegenIgnoreProcessor(final File targetIgnoreFile, final String contents) {
+        try (BufferedReader reader = new BufferedReader(new StringReader(contents))) {
+            loadCodegenRules(reader);
+            this.ignoreFile = targetIgnoreFile;
+        } catch (IOException e) {
+            LOGGER.error(String.format(Locale.ROOT, "Could not process %s.", targetIgnoreFile.getName()), e.getMessage());
+        }
+    }
+
     private void loadFromFile(File targetIgnoreFile) {
         if (targetIgnoreFile.exists() && targetIgnoreFile.isFile()) {
             try {
@@ -108,28 +127,34 @@ public class CodegenIgnoreProcessor {
         try (FileInputStream fileInputStream = new FileInputStream(codegenIgnore);
              InputStreamReader inputStreamReader = new InputStreamReader(fileInputStream, StandardCharsets.UTF_8);
              BufferedReader reader = new BufferedReader(inputStreamReader)) {
-            String line;
-
-            // NOTE: Comments that start with a : (e.g. //:) are pulled from git documentation for .gitignore
-            // see: https://github.com/git/git/blob/90f7b16b3adc78d4bbabbd426fb69aa78c714f71/Documentation/gitignore.txt
-            while ((line = reader.readLine()) != null) {
-                if(
-                    //: A blank line matches no files, so it can serve as a separator for readability.
-                    line.length() == 0
-                ) continue;
-
-                Rule rule = Rule.create(line);
-
-                // rule could be null here if it's a COMMENT, for example
-                if(rule != null) {
-                    if (Boolean.TRUE.equals(rule.getNegated())) {
-                        inclusionRules.add(rule);
-                    } else {
-                        exclusionRules.add(rule);
-                    }
+            loadCodegenRules(reader);
+        }
+    }
+
+    private void loadCodegenRules(final BufferedReader reader) throws IOException {
+        String line;
+
+        // NOTE: Comments that start with a : (e.g. //:) are pulled from git documentation for .gitignore
+        // see: https://github.com/git/git/blob/90f7b16b3adc78d4bbabbd426fb69aa78c714f71/Documentation/gitignore.txt
+        while ((line = reader.readLine()) != null) {
+            if(
+                //: A blank line matches no files, so it can serve as a separator for readability.
+                line.length() == 0
+            ) continue;
+
+            Rule rule = Rule.create(line);
+
+            // rule could be null here if it's a COMMENT, for example
+            if(rule != null) {
+                if (Boolean.TRUE.equals(rule.getNegated())) {
+                    inclusionRules.add(rule);
+                } else {
+                    exclusionRules.add(rule);
                 }
             }
         }
+
+        ruleMatcher = new RuleMatcher(exclusionRules, inclusionRules);
     }
 
     /**
@@ -142,66 +167,29 @@ public class CodegenIgnoreProcessor {
     public boolean allowsFile(final File targetFile) {
         if(this.ignoreFile == null) return true;
 
-        File file = new File(this.ignoreFile.getAbsoluteFile().getParentFile().toURI().relativize(targetFile.toURI()).getPath());
-        boolean directoryExcluded = false;
-        boolean exclude = false;
+        File file = new File(getBaseDirectoryUri().relativize(targetFile.toURI()).getPath());
         if(exclusionRules.size() == 0 && inclusionRules.size() == 0) {
             return true;
         }
 
-        // NOTE: We *must* process all exclusion rules
-        for (int i = 0; i < exclusionRules.size(); i++) {
-            Rule current = exclusionRules.get(i);
-            Rule.Operation op = current.evaluate(file.getPath());
-
-            switch (op){
-                case EXCLUDE:
-                    exclude = true;
-
-                    // Include rule can't override rules that exclude a file by some parent directory.
-                    if(current instanceof DirectoryRule) {
-                        directoryExcluded = true;
-                    }
-                    break;
-                case INCLUDE:
-                    // This won't happen here.
-                    break;
-                case NOOP:
-                    break;
-                case EXCLUDE_AND_TERMINATE:
-                    i = exclusionRules.size();
-                    break;
-            }
-        }
+        // NOTE: Include rule can't override rules that exclude a file by some parent directory, unless it's a directory
+        // rule too, e.g.
+        // baz/
+        // !foo/bar/baz/
+        return ruleMatcher.allows(file.getPath());
+    }
 
-        if(exclude) {
-            // Only need to process inclusion rules if we've been excluded
-            for (int i = 0; exclude && i < inclusionRules.size(); i++) {
-                Rule current = inclusionRules.get(i);
-                Rule.Operation op = current.evaluate(file.getPath());
-
-                // At this point exclude=true means the file should be ignored.
-                // op == INCLUDE means we have to flip that flag.
-                if(op.equals(Rule.Operation.INCLUDE)) {
-                    if(current instanceof DirectoryRule && directoryExcluded) {
-                        // e.g
-                        // baz/
-                        // !foo/bar/baz/
-                        // NOTE: Possibly surprising side effect:
-                        // foo/bar/baz/
-                        // !bar/
-                        exclude = false;
-                    } else if (!directoryExcluded) {
-                        // e.g.
-                        // **/*.log
-                        // !ISSUE_1234.log
-                        exclude = false;
-                    }
-                }
+    private URI getBaseDirectoryUri() {
+        URI uri = baseDirectoryUri;
+        if (uri == null) {
+            File directory = this.ignoreFile.getAbsoluteFile().getParentFile();
+            uri = directory.toURI();
+            // the URI of a directory ends with a slash only once the directory exists
+            if (directory.isDirectory()) {
+                baseDirectoryUri = uri;
             }
         }
-
-        return Boolean.FALSE.equals(exclude);
+        return uri;
     }
 
     /**
@@ -30,6 +30,10 @@ public class FileRule extends Rule {
         matcher = FileSystems.getDefault().getPathMatcher("glob:"+this.getPattern());
     }
 
+    PathMatcher getMatcher() {
+        return matcher;
+    }
+
     @Override
     public Boolean matches(String relativePath) {
         return matcher.matches(FileSystems.getDefault().getPath(relativePath));
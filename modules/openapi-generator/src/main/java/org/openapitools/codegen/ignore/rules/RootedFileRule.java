@@ -27,6 +27,7 @@ import java.util.regex.Pattern;
 public class RootedFileRule extends Rule {
     private String definedFilename = null;
     private String definedExtension = null;
+    private volatile Pattern filenamePattern = null;
 
     RootedFileRule(List<Part> syntax, String definition) {
         super(syntax, definition);
@@ -58,12 +59,16 @@ public class RootedFileRule extends Rule {
             boolean extensionMatches = definedExtension.equals(extension) || definedExtension.equals(IgnoreLineParser.Token.MATCH_ANY.getPattern());
 
             if(extensionMatches && definedFilename.contains(IgnoreLineParser.Token.MATCH_ANY.getPattern())) {
-                // TODO: Evaluate any other escape requirements here.
-                Pattern regex = Pattern.compile(
-                        definedFilename
-                                .replaceAll(Pattern.quote("."), "\\\\Q.\\\\E")
-                                .replaceAll(Pattern.quote("*"), ".*?") // non-greedy match on 0+ any character
-                );
+                Pattern regex = filenamePattern;
+                if (regex == null) {
+                    // TODO: Evaluate any other escape requirements here.
+                    regex = Pattern.compile(
+                            definedFilename
+                                    .replaceAll(Pattern.quote("."), "\\\\Q.\\\\E")
+                                    .replaceAll(Pattern.quote("*"), ".*?") // non-greedy match on 0+ any character
+                    );
+                    filenamePattern = regex;
+                }
                 return regex.matcher(filename).matches();
             }
 
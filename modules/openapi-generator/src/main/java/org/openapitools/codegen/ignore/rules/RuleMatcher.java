@@ -0,0 +1,246 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ * Copyright 2018 SmartBear Software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.ignore.rules;
+
+import java.io.File;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Evaluates the exclusion and inclusion rules of an ignore file against many paths, with the same outcome as
+ * evaluating the rules one by one.
+ * <p>
+ * Rules without wildcards are looked up in hash sets, and only the rules with wildcards are matched. Directory rules
+ * exclude (or include) every path under a matching directory, so they are evaluated once per directory, along with the
+ * outcome for its parent directory, and the outcome is kept for the following paths of the same directory.
+ */
+public final class RuleMatcher {
+    private static final int EXCLUDED = 1;
+    private static final int INCLUDED = 2;
+
+    // glob patterns without wildcards match a path equal to the pattern, unless paths are case-insensitive
+    private static final boolean CASE_SENSITIVE_GLOBS =
+            !FileSystems.getDefault().getPathMatcher("glob:a").matches(FileSystems.getDefault().getPath("A"));
+
+    private final Rules exclusions;
+    private final Rules inclusions;
+    private final char separator;
+    private final Map<String, Integer> directories = new ConcurrentHashMap<>();
+
+    /**
+     * @param exclusionRules The rules excluding files
+     * @param inclusionRules The negated rules, including files excluded by exclusion rules
+     */
+    public RuleMatcher(List<Rule> exclusionRules, List<Rule> inclusionRules) {
+        this(exclusionRules, inclusionRules, File.separatorChar);
+    }
+
+    RuleMatcher(List<Rule> exclusionRules, List<Rule> inclusionRules, char separator) {
+        this.exclusions = new Rules(exclusionRules);
+        this.inclusions = new Rules(inclusionRules);
+        this.separator = separator;
+    }
+
+    /**
+     * @param relativePath The path of a file, relative to the ignore file, with '/' or system-dependent separators
+     * @return {@code false} if the file is excluded by the rules, otherwise {@code true}
+     */
+    public boolean allows(String relativePath) {
+        // rules are written with '/' separators, e.g. a path from File#getPath uses '\' on Windows
+        relativePath = relativePath.replace(separator, '/');
+        int separator = relativePath.lastIndexOf('/');
+        int directory = separator >= 0 ? evaluateDirectory(relativePath.substring(0, separator)) : 0;
+        PathHolder path = new PathHolder(relativePath);
+        if (exclusions.matchesUnsplitDirectoryRules(path)) {
+            directory |= EXCLUDED;
+        }
+        if (inclusions.matchesUnsplitDirectoryRules(path)) {
+            directory |= INCLUDED;
+        }
+
+        if ((directory & EXCLUDED) != 0) {
+            // only a directory rule can include a file excluded by a directory rule
+            return (directory & INCLUDED) != 0;
+        }
+        if (!exclusions.matchesFile(path)) {
+            return true;
+        }
+        return (directory & INCLUDED) != 0 || inclusions.matchesFile(path);
+    }
+
+    /**
+     * @return whether directory rules exclude ({@link #EXCLUDED}) and include ({@link #INCLUDED}) the files under a directory
+     */
+    private int evaluateDirectory(String directory) {
+        Integer outcome = directories.get(directory);
+        if (outcome == null) {
+            int separator = directory.lastIndexOf('/');
+            int result = separator >= 0 ? evaluateDirectory(directory.substring(0, separator)) : 0;
+            PathHolder path = new PathHolder(directory);
+            if ((result & EXCLUDED) == 0 && exclusions.matchesDirectory(path)) {
+                result |= EXCLUDED;
+            }
+            if ((result & INCLUDED) == 0 && inclusions.matchesDirectory(path)) {
+                result |= INCLUDED;
+            }
+            outcome = result;
+            directories.put(directory, outcome);
+        }
+        return outcome;
+    }
+
+    /**
+     * A path, converted to a {@link Path} only if a glob pattern is matched against it.
+     */
+    private static final class PathHolder {
+        private final String path;
+        private Path converted;
+
+        PathHolder(String path) {
+            this.path = path;
+        }
+
+        Path get() {
+            if (converted == null) {
+                converted = FileSystems.getDefault().getPath(path);
+            }
+            return converted;
+        }
+    }
+
+    /**
+     * The exclusion or inclusion rules of an ignore file, by kind.
+     */
+    private static final class Rules {
+        private final Set<String> files = new HashSet<>();
+        private final List<PathMatcher> fileMatchers = new ArrayList<>();
+        private final List<Rule> otherRules = new ArrayList<>();
+        private final Set<String> directories = new HashSet<>();
+        private final List<PathMatcher> directoryMatchers = new ArrayList<>();
+        // directory rules matched against whole paths, as their pattern can't be split into directories
+        private final List<Rule> unsplitDirectoryRules = new ArrayList<>();
+
+        Rules(List<Rule> rules) {
+            for (Rule rule : rules) {
+                if (rule instanceof InvalidRule) {
+                    continue;
+                } else if (rule instanceof DirectoryRule) {
+                    addDirectoryRule((DirectoryRule) rule);
+                } else if (rule instanceof FileRule) {
+                    String pattern = rule.getPattern();
+                    if (isLiteral(pattern)) {
+                        files.add(pattern);
+                    } else {
+                        fileMatchers.add(((FileRule) rule).getMatcher());
+                    }
+                } else {
+                    otherRules.add(rule);
+                }
+            }
+        }
+
+        private void addDirectoryRule(DirectoryRule rule) {
+            // `dir/**` matches a path if `dir` matches one of its parent directories
+            String pattern = rule.getPattern();
+            String directory = pattern.endsWith("/") ? pattern.substring(0, pattern.length() - 1) : pattern;
+            int escapes = 0;
+            while (escapes < directory.length() && directory.charAt(directory.length() - 1 - escapes) == '\\') {
+                escapes++;
+            }
+            if (escapes % 2 == 1) {
+                // the trailing slash is escaped
+                directory = directory.substring(0, directory.length() - 1);
+            }
+            if (isLiteral(directory)) {
+                directories.add(directory);
+                return;
+            }
+            try {
+                directoryMatchers.add(FileSystems.getDefault().getPathMatcher("glob:" + directory));
+            } catch (PatternSyntaxException e) {
+                unsplitDirectoryRules.add(rule);
+            }
+        }
+
+        boolean matchesFile(PathHolder path) {
+            if (files.contains(path.path)) {
+                return true;
+            }
+            for (PathMatcher matcher : fileMatchers) {
+                if (matcher.matches(path.get())) {
+                    return true;
+                }
+            }
+            for (Rule rule : otherRules) {
+                if (Boolean.TRUE.equals(rule.matches(path.path))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean matchesUnsplitDirectoryRules(PathHolder path) {
+            for (Rule rule : unsplitDirectoryRules) {
+                if (Boolean.TRUE.equals(rule.matches(path.path))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean matchesDirectory(PathHolder directory) {
+            if (directories.contains(directory.path)) {
+                return true;
+            }
+            for (PathMatcher matcher : directoryMatchers) {
+                if (matcher.matches(directory.get())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isLiteral(String pattern) {
+            if (!CASE_SENSITIVE_GLOBS || pattern.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                switch (pattern.charAt(i)) {
+                    case '*':
+                    case '?':
+                    case '[':
+                    case ']':
+                    case '{':
+                    case '}':
+                    case '\\':
+                        return false;
+                    default:
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package org.openapitools.codegen.templating;
 
 import org.apache.commons.lang3.StringUtils;
-import org.openapitools.codegen.TemplateManager;
 import org.openapitools.codegen.api.TemplatePathLocator;
 
 import java.io.File;
-import java.net.URL;
 
 /**
  * Locates generator-agnostic templates from a common built-in location.
@@ -40,8 +38,7 @@ public class CommonTemplateContentLocator implements TemplatePathLocator {
         if (StringUtils.isNotEmpty(relativeTemplateFile)) {
             String loc = this.resourceLocation + File.separator + relativeTemplateFile;
 
-            URL url = this.getClass().getClassLoader().getResource(TemplateManager.getCPResourcePath(loc));
-            if (url != null) {
+            if (TemplateIndex.resourceExists(loc)) {
                 return loc;
             }
         }
@@ -0,0 +1,154 @@
+package org.openapitools.codegen.templating;
+
+import org.openapitools.codegen.api.OutputSink;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes generated files to the file system. This is the default {@link OutputSink}.
+ */
+public class FileSystemOutputSink implements OutputSink {
+    public static final FileSystemOutputSink INSTANCE = new FileSystemOutputSink();
+
+    private static final int COMPARE_BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public boolean exists(Path path) {
+        return path.toFile().exists();
+    }
+
+    /**
+     * Compares a file with the given contents, reading the file in chunks and stopping at the first difference.
+     */
+    @Override
+    public boolean contentEquals(Path path, byte[] contents, int length) throws IOException {
+        File file = path.toFile();
+        if (!file.isFile() || file.length() != length) {
+            return false;
+        }
+        byte[] buffer = new byte[Math.min(COMPARE_BUFFER_SIZE, Math.max(length, 1))];
+        try (InputStream is = Files.newInputStream(path)) {
+            int offset = 0;
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                if (offset + read > length
+                        || !Arrays.equals(buffer, 0, read, contents, offset, offset + read)) {
+                    return false;
+                }
+                offset += read;
+            }
+            return offset == length;
+        }
+    }
+
+    @Override
+    public void write(Path path, byte[] contents, int length) throws IOException {
+        try (OutputStream os = newOutputStream(path)) {
+            os.write(contents, 0, length);
+        }
+    }
+
+    /**
+     * Opens a file for writing, creating its parent directories as needed.
+     *
+     * @param path The path of the file
+     * @return a stream replacing the contents of the file
+     * @throws IOException If the file cannot be opened
+     */
+    public OutputStream newOutputStream(Path path) throws IOException {
+        createParentDirectories(path);
+        return Files.newOutputStream(path);
+    }
+
+    /**
+     * Creates an empty temporary file next to a file, to be written and then moved over the file with
+     * {@link #replace(Path, Path)}. Unlike {@link Files#createTempFile}, which restricts the file to its owner, the
+     * file is created as {@link #newOutputStream(Path)} creates files, i.e. with the permissions of the umask.
+     *
+     * @param path The path of the file
+     * @return the path of the temporary file
+     * @throws IOException If the temporary file cannot be created
+     */
+    public Path createSibling(Path path) throws IOException {
+        createParentDirectories(path);
+        Path parent = path.toAbsolutePath().getParent();
+        while (true) {
+            Path sibling = parent.resolve("." + path.getFileName() + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                Files.newOutputStream(sibling, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+                return sibling;
+            } catch (FileAlreadyExistsException e) {
+                // try another name
+            }
+        }
+    }
+
+    /**
+     * Moves a completely written temporary file over a file, atomically where the file system allows it, so that the
+     * file is either left untouched or holds the new contents. An existing file keeps its permissions, owner and
+     * group (where they can be set), as when it is written in place.
+     *
+     * @param source The temporary file, see {@link #createSibling(Path)}
+     * @param path   The path of the file
+     * @throws IOException If the file cannot be replaced
+     */
+    public void replace(Path source, Path path) throws IOException {
+        if (Files.exists(path)) {
+            copyAttributes(path, source);
+        }
+        try {
+            Files.move(source, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Removes a file, e.g. when it could not be written completely.
+     *
+     * @param path The path of the file
+     * @throws IOException If the file cannot be deleted
+     */
+    public void delete(Path path) throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private static void copyAttributes(Path from, Path to) throws IOException {
+        PosixFileAttributeView target = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        if (target == null) {
+            return;
+        }
+        PosixFileAttributes attributes = Files.readAttributes(from, PosixFileAttributes.class);
+        try {
+            target.setOwner(attributes.owner());
+        } catch (IOException e) {
+            // e.g. not permitted to give away the file: it keeps the current user
+        }
+        try {
+            target.setGroup(attributes.group());
+        } catch (IOException e) {
+            // e.g. not a member of the group: it keeps the current group
+        }
+        target.setPermissions(attributes.permissions());
+    }
+
+    private void createParentDirectories(Path path) {
+        File parent = path.toFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+    }
+}
@@ -2,17 +2,24 @@ package org.openapitools.codegen.templating;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openapitools.codegen.CodegenConfig;
-import org.openapitools.codegen.TemplateManager;
 import org.openapitools.codegen.api.TemplatePathLocator;
 
 import java.io.File;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Locates templates according to {@link CodegenConfig} settings.
+ * <p>
+ * The location of each template is resolved once for the search path of the generator (its template directory,
+ * embedded template directory and library), locations being looked up through a {@link TemplateIndex}.
  */
 public class GeneratorTemplateContentLocator implements TemplatePathLocator {
     private final CodegenConfig codegenConfig;
+    private final TemplateIndex templateIndex;
+    private volatile ResolvedPaths resolvedPaths;
 
     /**
      * Constructs a new instance of {@link GeneratorTemplateContentLocator} for the provided {@link CodegenConfig}
@@ -20,7 +27,18 @@ public class GeneratorTemplateContentLocator implements TemplatePathLocator {
      * @param codegenConfig A generator's configuration used for determining template file location.
      */
     public GeneratorTemplateContentLocator(CodegenConfig codegenConfig) {
+        this(codegenConfig, new TemplateIndex());
+    }
+
+    /**
+     * Constructs a new instance of {@link GeneratorTemplateContentLocator} for the provided {@link CodegenConfig}
+     *
+     * @param codegenConfig A generator's configuration used for determining template file location.
+     * @param templateIndex The index used to look up template locations.
+     */
+    public GeneratorTemplateContentLocator(CodegenConfig codegenConfig, TemplateIndex templateIndex) {
         this.codegenConfig = codegenConfig;
+        this.templateIndex = templateIndex;
     }
 
     private String buildLibraryFilePath(String dir, String library, String file) {
@@ -35,12 +53,9 @@ public class GeneratorTemplateContentLocator implements TemplatePathLocator {
      * @return true if file is an embedded resource, false if it does not exist
      */
     public boolean embeddedTemplateExists(String name) {
-        return classpathTemplateExists(name);
+        return TemplateIndex.resourceExists(name);
     }
 
-    private boolean classpathTemplateExists(String name) {
-        return this.getClass().getClassLoader().getResource(TemplateManager.getCPResourcePath(name)) != null;
-    }
 
     /**
      * Get the template file path with template dir prepended, and use the library template if exists.
@@ -59,6 +74,25 @@ public class GeneratorTemplateContentLocator implements TemplatePathLocator {
     @Override
     public String getFullTemplatePath(String relativeTemplateFile) {
         CodegenConfig config = this.codegenConfig;
+        if (relativeTemplateFile == null) {
+            return locate(config, null);
+        }
+        // the search path may still change until the generator options are processed
+        String searchPath = String.join(File.pathSeparator, config.templateDir(), config.embeddedTemplateDir(),
+                StringUtils.defaultString(config.getLibrary()));
+        ResolvedPaths paths = resolvedPaths;
+        if (paths == null || !paths.searchPath.equals(searchPath)) {
+            paths = new ResolvedPaths(searchPath);
+            resolvedPaths = paths;
+            if (config.templateDir() != null) {
+                templateIndex.watch(new File(config.templateDir()).toPath());
+            }
+        }
+        return paths.locations.computeIfAbsent(relativeTemplateFile, file -> Optional.ofNullable(locate(config, file)))
+                .orElse(null);
+    }
+
+    private String locate(CodegenConfig config, String relativeTemplateFile) {
 
         //check the supplied template library folder for the file
         final String library = config.getLibrary();
@@ -67,7 +101,7 @@ public class GeneratorTemplateContentLocator implements TemplatePathLocator {
             final String libTemplateFile = buildLibraryFilePath(config.templateDir(), library, relativeTemplateFile);
             // looks for user-defined file or classpath
             // supports template dir which refers to local file system or custom path in classpath as defined by templateDir
-            if (new File(libTemplateFile).exists() || classpathTemplateExists(libTemplateFile)) {
+            if (templateIndex.exists(libTemplateFile)) {
                 return libTemplateFile;
             }
         }
@@ -77,7 +111,7 @@ public class GeneratorTemplateContentLocator implements TemplatePathLocator {
         final String template = config.templateDir() + File.separator + relativeTemplateFile;
         // looks for user-defined file or classpath
         // supports template dir which refers to local file system or custom path in classpath as defined by templateDir
-        if (new File(template).exists() || classpathTemplateExists(template)) {
+        if (templateIndex.exists(template)) {
             return template;
         }
 
@@ -100,4 +134,13 @@ public class GeneratorTemplateContentLocator implements TemplatePathLocator {
 
         return null;
     }
+
+    private static final class ResolvedPaths {
+        private final String searchPath;
+        private final Map<String, Optional<String>> locations = new ConcurrentHashMap<>();
+
+        ResolvedPaths(String searchPath) {
+            this.searchPath = searchPath;
+        }
+    }
 }
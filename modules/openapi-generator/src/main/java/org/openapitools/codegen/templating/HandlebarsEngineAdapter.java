@@ -20,7 +20,6 @@ import com.github.jknack.handlebars.Context;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Jackson2Helper;
 import com.github.jknack.handlebars.Template;
-import com.github.jknack.handlebars.context.FieldValueResolver;
 import com.github.jknack.handlebars.context.JavaBeanValueResolver;
 import com.github.jknack.handlebars.context.MapValueResolver;
 import com.github.jknack.handlebars.context.MethodValueResolver;
@@ -30,20 +29,21 @@ import com.github.jknack.handlebars.io.AbstractTemplateLoader;
 import com.github.jknack.handlebars.io.StringTemplateSource;
 import com.github.jknack.handlebars.io.TemplateLoader;
 import com.github.jknack.handlebars.io.TemplateSource;
-import lombok.Setter;
+import lombok.Getter;
 import org.openapitools.codegen.api.AbstractTemplatingEngineAdapter;
 import org.openapitools.codegen.api.TemplatingExecutor;
 import org.openapitools.codegen.templating.handlebars.AccessAwareFieldValueResolver;
+import org.openapitools.codegen.templating.handlebars.CodegenValueResolver;
+import org.openapitools.codegen.templating.handlebars.HandlebarsTemplateCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.lang.reflect.AccessibleObject;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public class HandlebarsEngineAdapter extends AbstractTemplatingEngineAdapter {
     final Logger LOGGER = LoggerFactory.getLogger(HandlebarsEngineAdapter.class);
@@ -51,8 +51,12 @@ public class HandlebarsEngineAdapter extends AbstractTemplatingEngineAdapter {
 
     // We use this as a simple lookup for valid file name extensions. This adapter will inspect .mustache (built-in) and infer the relevant handlebars filename
     private final String[] canCompileFromExtensions = {".handlebars",".hbs",".mustache"};
+    private static final ThreadLocal<TemplatingExecutor> CURRENT_EXECUTOR = new ThreadLocal<>();
+
     private boolean infiniteLoops = false;
-    @Setter private boolean prettyPrint = false;
+    private boolean prettyPrint = false;
+    private Handlebars handlebars;
+    @Getter private final HandlebarsTemplateCache templateCache = new HandlebarsTemplateCache();
 
     /**
      * Provides an identifier used to load the adapter. This could be a name, uuid, or any other string.
@@ -67,35 +71,69 @@ public class HandlebarsEngineAdapter extends AbstractTemplatingEngineAdapter {
     @Override
     public String compileTemplate(TemplatingExecutor executor,
                                   Map<String, Object> bundle, String templateFile) throws IOException {
-        TemplateLoader loader = new AbstractTemplateLoader() {
-            @Override
-            public TemplateSource sourceAt(String location) {
-                return findTemplate(executor, location);
-            }
-        };
+        StringWriter out = new StringWriter();
+        compileTemplate(executor, bundle, templateFile, out);
+        return out.toString();
+    }
 
+    @Override
+    public void compileTemplate(TemplatingExecutor executor,
+                                Map<String, Object> bundle, String templateFile, Writer out) throws IOException {
         Context context = Context
                 .newBuilder(bundle)
                 .resolver(
                         MapValueResolver.INSTANCE,
+                        CodegenValueResolver.INSTANCE,
                         JavaBeanValueResolver.INSTANCE,
                         MethodValueResolver.INSTANCE,
                         AccessAwareFieldValueResolver.INSTANCE)
                 .build();
 
-        Handlebars handlebars = new Handlebars(loader);
-        handlebars.registerHelperMissing((obj, options) -> {
-            LOGGER.warn(String.format(Locale.ROOT, "Unregistered helper name '%s', processing template:%n%s", options.helperName, options.fn.text()));
-            return "";
-        });
-        handlebars.registerHelper("json", Jackson2Helper.INSTANCE);
-        StringHelpers.register(handlebars);
-        handlebars.registerHelpers(ConditionalHelpers.class);
-        handlebars.registerHelpers(org.openapitools.codegen.templating.handlebars.StringHelpers.class);
-        handlebars.setInfiniteLoops(infiniteLoops);
-        handlebars.setPrettyPrint(prettyPrint);
-        Template tmpl = handlebars.compile(templateFile);
-        return tmpl.apply(context);
+        // the engine outlives the executor, so templates and partials are resolved through the thread's current one
+        TemplatingExecutor previous = CURRENT_EXECUTOR.get();
+        CURRENT_EXECUTOR.set(executor);
+        try {
+            Template tmpl = getHandlebars().compile(templateFile);
+            tmpl.apply(context, out);
+        } finally {
+            if (previous == null) {
+                CURRENT_EXECUTOR.remove();
+            } else {
+                CURRENT_EXECUTOR.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return the engine, configured on first use and reused for every template until the configuration changes
+     */
+    private synchronized Handlebars getHandlebars() {
+        if (handlebars == null) {
+            TemplateLoader loader = new AbstractTemplateLoader() {
+                @Override
+                public TemplateSource sourceAt(String location) {
+                    TemplatingExecutor executor = CURRENT_EXECUTOR.get();
+                    if (executor == null) {
+                        throw new TemplateNotFoundException(location);
+                    }
+                    return findTemplate(executor, location);
+                }
+            };
+
+            Handlebars engine = new Handlebars(loader).with(templateCache);
+            engine.registerHelperMissing((obj, options) -> {
+                LOGGER.warn(String.format(Locale.ROOT, "Unregistered helper name '%s', processing template:%n%s", options.helperName, options.fn.text()));
+                return "";
+            });
+            engine.registerHelper("json", Jackson2Helper.INSTANCE);
+            StringHelpers.register(engine);
+            engine.registerHelpers(ConditionalHelpers.class);
+            engine.registerHelpers(org.openapitools.codegen.templating.handlebars.StringHelpers.class);
+            engine.setInfiniteLoops(infiniteLoops);
+            engine.setPrettyPrint(prettyPrint);
+            handlebars = engine;
+        }
+        return handlebars;
     }
 
     @SuppressWarnings("java:S108")
@@ -140,10 +178,21 @@ public class HandlebarsEngineAdapter extends AbstractTemplatingEngineAdapter {
      * @param infiniteLoops Whether to enable (true) or disable (false)
      * @return this object
      */
-    public HandlebarsEngineAdapter infiniteLoops(boolean infiniteLoops) {
+    public synchronized HandlebarsEngineAdapter infiniteLoops(boolean infiniteLoops) {
         this.infiniteLoops = infiniteLoops;
+        this.handlebars = null;
         return this;
     }
 
+    /**
+     * Enable/disable prettyPrint setting for the Handlebars engine, removing the blank lines left by block helpers.
+     *
+     * @param prettyPrint Whether to enable (true) or disable (false)
+     */
+    public synchronized void setPrettyPrint(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
+        this.handlebars = null;
+    }
+
 }
 
@@ -0,0 +1,66 @@
+package org.openapitools.codegen.templating;
+
+import org.openapitools.codegen.api.OutputSink;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps generated files in memory, keyed by their path relative to a base directory (usually the output directory),
+ * using '/' as separator.
+ */
+public class InMemoryOutputSink implements OutputSink {
+    private final Path baseDirectory;
+    private final ConcurrentSkipListMap<String, byte[]> files = new ConcurrentSkipListMap<>();
+
+    /**
+     * Constructs a new instance of {@link InMemoryOutputSink}
+     *
+     * @param baseDirectory The directory the keys of the generated files are relative to
+     */
+    public InMemoryOutputSink(String baseDirectory) {
+        this.baseDirectory = Paths.get(baseDirectory).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public boolean exists(Path path) {
+        return files.containsKey(relativePath(path));
+    }
+
+    @Override
+    public boolean contentEquals(Path path, byte[] contents, int length) {
+        byte[] existing = files.get(relativePath(path));
+        return existing != null && Arrays.equals(existing, 0, existing.length, contents, 0, length);
+    }
+
+    @Override
+    public void write(Path path, byte[] contents, int length) {
+        files.put(relativePath(path), Arrays.copyOf(contents, length));
+    }
+
+    /**
+     * @return the generated files, sorted by relative path
+     */
+    public NavigableMap<String, byte[]> getFiles() {
+        return Collections.unmodifiableNavigableMap(files);
+    }
+
+    /**
+     * @param relativePath The path of a generated file, relative to the base directory and using '/' as separator
+     * @return the contents of the file, or null if it was not generated
+     */
+    public byte[] getFile(String relativePath) {
+        return files.get(relativePath);
+    }
+
+    private String relativePath(Path path) {
+        Path absolute = path.toAbsolutePath().normalize();
+        Path relative = absolute.startsWith(baseDirectory) ? baseDirectory.relativize(absolute) : absolute;
+        return relative.toString().replace(File.separatorChar, '/');
+    }
+}
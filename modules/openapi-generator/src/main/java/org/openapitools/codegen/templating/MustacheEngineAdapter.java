@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Map;
 
 
@@ -47,10 +48,26 @@ public class MustacheEngineAdapter implements TemplatingEngineAdapter {
         return "mustache";
     }
 
+    // the executor and cache entry of the template being rendered on the current thread, used to resolve partials
+    private static final ThreadLocal<RenderContext> CURRENT_RENDER = new ThreadLocal<>();
+
     private final String[] extensions = {"mustache"};
     @Getter @Setter
     Mustache.Compiler compiler = Mustache.compiler();
 
+    /**
+     * Cache of compiled templates. When null, every template is compiled from source on each call.
+     */
+    @Getter @Setter
+    MustacheTemplateCache templateCache;
+
+    /**
+     * Identifies the compiler configuration of this adapter, so that templates compiled with a different
+     * {@link #compiler} are never served from a shared {@link #templateCache}.
+     */
+    @Getter @Setter
+    String templateCacheScope = "";
+
     /**
      * Compiles a template into a string
      *
@@ -62,12 +79,22 @@ public class MustacheEngineAdapter implements TemplatingEngineAdapter {
      */
     @Override
     public String compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle, String templateFile) throws IOException {
-        Template tmpl = compiler
-                .withLoader(name -> findTemplate(executor, name))
-                .defaultValue("")
-                .compile(executor.getFullTemplateContents(templateFile));
         StringWriter out = new StringWriter();
+        compileTemplate(executor, bundle, templateFile, out);
+        return out.toString();
+    }
 
+    /**
+     * Compiles a template, rendering it directly into the given writer
+     *
+     * @param executor     From where we can fetch the templates content (e.g. an instance of DefaultGenerator)
+     * @param bundle       The map of values to pass to the template
+     * @param templateFile The name of the template (e.g. model.mustache )
+     * @param out          The writer receiving the processed template result
+     * @throws IOException an error occurred in the template processing
+     */
+    @Override
+    public void compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle, String templateFile, Writer out) throws IOException {
         // the value of bundle[MUSTACHE_PARENT_CONTEXT] is used a parent content in mustache.
         // See description in https://mustache.github.io/mustache.5.html#Variables
         // See DefaultCodegen.processOpts() and DefaultCodegen.useCodegenAsMustacheParentContext
@@ -77,8 +104,54 @@ public class MustacheEngineAdapter implements TemplatingEngineAdapter {
             // avoid NPE
             parent = new Object();
         }
-        tmpl.execute(bundle, parent, out);
-        return out.toString();
+
+        MustacheTemplateCache cache = templateCache;
+        if (cache == null) {
+            Template tmpl = compiler
+                    .withLoader(name -> findTemplate(executor, name))
+                    .defaultValue("")
+                    .compile(executor.getFullTemplateContents(templateFile));
+            tmpl.execute(bundle, parent, out);
+            return;
+        }
+
+        MustacheTemplateCache.CachedTemplate cached = cache.get(executor, templateCacheScope, templateFile,
+                executor.getFullTemplateContents(templateFile),
+                contents -> compiler
+                        .withLoader(this::findCurrentTemplate)
+                        .defaultValue("")
+                        .compile(contents));
+        // cached templates may outlive the executor, so partials are resolved through the thread's current render
+        RenderContext previous = CURRENT_RENDER.get();
+        CURRENT_RENDER.set(new RenderContext(executor, cached));
+        try {
+            cached.getTemplate().execute(bundle, parent, out);
+        } finally {
+            if (previous == null) {
+                CURRENT_RENDER.remove();
+            } else {
+                CURRENT_RENDER.set(previous);
+            }
+        }
+    }
+
+    private Reader findCurrentTemplate(String name) {
+        RenderContext context = CURRENT_RENDER.get();
+        if (context == null) {
+            throw new TemplateNotFoundException(name);
+        }
+        for (String extension : extensions) {
+            final String templateName = name + "." + extension;
+            try {
+                String contents = context.executor.getFullTemplateContents(templateName);
+                context.template.recordPartial(templateName, contents);
+                return new StringReader(contents);
+            } catch (Exception exception) {
+                LOGGER.error("Failed to read full template {}, {}", templateName, exception.getMessage());
+            }
+        }
+
+        throw new TemplateNotFoundException(name);
     }
 
     @SuppressWarnings("java:S108") // catch-all is expected, and is later thrown
@@ -99,4 +172,14 @@ public class MustacheEngineAdapter implements TemplatingEngineAdapter {
     public String[] getFileExtensions() {
         return extensions;
     }
+
+    private static final class RenderContext {
+        private final TemplatingExecutor executor;
+        private final MustacheTemplateCache.CachedTemplate template;
+
+        RenderContext(TemplatingExecutor executor, MustacheTemplateCache.CachedTemplate template) {
+            this.executor = executor;
+            this.template = template;
+        }
+    }
 }
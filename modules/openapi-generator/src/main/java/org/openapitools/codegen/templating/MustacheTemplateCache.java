@@ -0,0 +1,248 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.templating;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hashing;
+import com.samskivert.mustache.Template;
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.config.GlobalSettings;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of compiled mustache {@link Template} instances.
+ * <p>
+ * Entries are keyed by a scope (identifying the compiler configuration), the resolved template path and a hash of
+ * the template contents. Partials are compiled lazily by jmustache and memoized inside the owning template, so each
+ * entry also records the hash of every partial it has loaded. When an entry is requested by a different
+ * {@link TemplatingExecutor} than the one which last used it (e.g. another generator run in the same JVM), those
+ * partials are re-resolved through the new executor and the entry is recompiled if any of them changed.
+ */
+public class MustacheTemplateCache {
+    /**
+     * Set the maximum number of compiled templates held by a template cache.
+     */
+    public static final String CACHE_SIZE_PROPERTY = "org.openapitools.codegen.templating.mustache.cachesize";
+    /**
+     * When "true", compiled templates are kept in a JVM-wide cache and reused across generator runs
+     * (e.g. batch generation, or repeated Maven and Gradle invocations in a daemon).
+     */
+    public static final String SHARED_CACHE_PROPERTY = "org.openapitools.codegen.templating.mustache.sharedcache";
+
+    private static final Object SHARED_LOCK = new Object();
+    private static volatile MustacheTemplateCache sharedCache;
+
+    private final Cache<Key, CachedTemplate> templates;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a new instance of {@link MustacheTemplateCache}
+     *
+     * @param maximumSize The maximum number of compiled templates to retain
+     */
+    public MustacheTemplateCache(long maximumSize) {
+        this.templates = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Returns the template cache to use for a generator run, according to the current {@link GlobalSettings}.
+     *
+     * @return the JVM-wide cache if {@link #SHARED_CACHE_PROPERTY} is enabled, else a new cache scoped to the run
+     */
+    public static MustacheTemplateCache forCurrentSettings() {
+        if (Boolean.parseBoolean(GlobalSettings.getProperty(SHARED_CACHE_PROPERTY, "false"))) {
+            return shared();
+        }
+        return new MustacheTemplateCache(configuredSize());
+    }
+
+    /**
+     * Returns the JVM-wide template cache, creating it on first use.
+     *
+     * @return the shared template cache
+     */
+    public static MustacheTemplateCache shared() {
+        MustacheTemplateCache cache = sharedCache;
+        if (cache == null) {
+            synchronized (SHARED_LOCK) {
+                cache = sharedCache;
+                if (cache == null) {
+                    cache = new MustacheTemplateCache(configuredSize());
+                    sharedCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    private static long configuredSize() {
+        return Long.parseLong(GlobalSettings.getProperty(CACHE_SIZE_PROPERTY, "500"));
+    }
+
+    /**
+     * Gets the compiled template for the given contents, compiling it on a miss.
+     *
+     * @param executor     The executor the template is being rendered for
+     * @param scope        Identifies the compiler configuration; templates are never shared across scopes
+     * @param templateFile The name of the template (e.g. model.mustache)
+     * @param contents     The raw template contents
+     * @param compiler     Compiles raw template contents
+     * @return the cached template entry
+     */
+    public CachedTemplate get(TemplatingExecutor executor, String scope, String templateFile, String contents,
+                              Function<String, Template> compiler) {
+        Key key = new Key(scope, resolvePath(executor, templateFile), hash(contents));
+        CachedTemplate cached = templates.getIfPresent(key);
+        if (cached != null && cached.isValidFor(executor)) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        cached = new CachedTemplate(compiler.apply(contents), executor);
+        templates.put(key, cached);
+        return cached;
+    }
+
+    /**
+     * @return the number of lookups served from the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups which required compiling the template
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the approximate number of compiled templates currently held
+     */
+    public long size() {
+        return templates.estimatedSize();
+    }
+
+    /**
+     * Discards all compiled templates and resets the hit/miss counters.
+     */
+    public void clear() {
+        templates.invalidateAll();
+        hits.reset();
+        misses.reset();
+    }
+
+    private static String resolvePath(TemplatingExecutor executor, String templateFile) {
+        Path path = null;
+        try {
+            path = executor.getFullTemplatePath(templateFile);
+        } catch (TemplateNotFoundException e) {
+            // fall back to the template name, the contents hash still identifies the template
+        }
+        return path == null ? templateFile : path.toString();
+    }
+
+    static String hash(String contents) {
+        return Hashing.sha256().hashString(contents, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * A compiled template along with the partials it has loaded so far.
+     */
+    public static class CachedTemplate {
+        private final Template template;
+        private final Map<String, String> partials = new ConcurrentHashMap<>();
+        private volatile WeakReference<TemplatingExecutor> validatedFor;
+
+        CachedTemplate(Template template, TemplatingExecutor executor) {
+            this.template = template;
+            this.validatedFor = new WeakReference<>(executor);
+        }
+
+        public Template getTemplate() {
+            return template;
+        }
+
+        /**
+         * Records a partial loaded while rendering this template.
+         *
+         * @param templateName The full name of the partial (e.g. modelEnum.mustache)
+         * @param contents     The raw partial contents
+         */
+        public void recordPartial(String templateName, String contents) {
+            partials.put(templateName, hash(contents));
+        }
+
+        private boolean isValidFor(TemplatingExecutor executor) {
+            if (validatedFor.get() == executor) {
+                return true;
+            }
+            for (Map.Entry<String, String> partial : partials.entrySet()) {
+                String contents;
+                try {
+                    contents = executor.getFullTemplateContents(partial.getKey());
+                } catch (RuntimeException e) {
+                    return false;
+                }
+                if (contents == null || !partial.getValue().equals(hash(contents))) {
+                    return false;
+                }
+            }
+            validatedFor = new WeakReference<>(executor);
+            return true;
+        }
+    }
+
+    private static final class Key {
+        private final String scope;
+        private final String path;
+        private final String contentHash;
+
+        Key(String scope, String path, String contentHash) {
+            this.scope = scope;
+            this.path = path;
+            this.contentHash = contentHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(scope, key.scope) && Objects.equals(path, key.path) && Objects.equals(contentHash, key.contentHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, path, contentHash);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.templating;
+
+import org.openapitools.codegen.TemplateManager;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * An index of template locations, holding whether a location exists and the raw contents of the templates read, so
+ * that each template is looked up on the file system or the classpath once, however many models, apis and partials
+ * include it.
+ * <p>
+ * Locations are resolved as by the template locators and {@link TemplateManager}: a location exists when it is a file
+ * or a classpath resource, and is read from the classpath first. Embedded templates don't change while the JVM runs,
+ * so their existence is indexed once for all indexes. Files are indexed for the lifetime of the index, that is a
+ * generator run, unless the index is shared (see {@link #SHARED_INDEX_PROPERTY}): the shared index compares the size,
+ * modification time and key of an indexed file to those it was read with on its first access in each
+ * {@link #startRun() run}, and reads it again if they differ. The template directories it {@link #watch(Path) watches}
+ * are watched for changes, so that changed files are forgotten early, but a run doesn't rely on the watcher, whose
+ * events may arrive late.
+ */
+public class TemplateIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TemplateIndex.class);
+
+    /**
+     * When "true", indexed templates are kept in a JVM-wide index and reused across generator runs (e.g. in a
+     * daemon), custom template directories being watched for changes.
+     */
+    public static final String SHARED_INDEX_PROPERTY = "org.openapitools.codegen.templating.sharedindex";
+
+    private static final Object SHARED_LOCK = new Object();
+    private static volatile TemplateIndex sharedIndex;
+
+    private static final Map<String, Boolean> RESOURCES = new ConcurrentHashMap<>();
+    private static final Object ABSENT = new Object();
+
+    private final boolean shared;
+    private final Map<String, Indexed<Boolean>> files = new ConcurrentHashMap<>();
+    private final Map<String, Indexed<Optional<String>>> contents = new ConcurrentHashMap<>();
+    // incremented on each change of a watched directory, so that lookups racing with the change aren't indexed
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong run = new AtomicLong();
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+    private WatchService watchService;
+
+    /**
+     * Constructs a new instance of {@link TemplateIndex} scoped to a generator run, which doesn't watch template
+     * directories.
+     */
+    public TemplateIndex() {
+        this(false);
+    }
+
+    /**
+     * Constructs a new instance of {@link TemplateIndex}
+     *
+     * @param shared Whether the index is used by several generator runs, indexed files being checked for changes in
+     *               each run, and template directories being watched
+     */
+    public TemplateIndex(boolean shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * Returns the template index to use for a generator run, according to the current {@link GlobalSettings}.
+     *
+     * @return the JVM-wide index if {@link #SHARED_INDEX_PROPERTY} is enabled, else a new index scoped to the run
+     */
+    public static TemplateIndex forCurrentSettings() {
+        if (Boolean.parseBoolean(GlobalSettings.getProperty(SHARED_INDEX_PROPERTY, "false"))) {
+            TemplateIndex index = shared();
+            index.startRun();
+            return index;
+        }
+        return new TemplateIndex();
+    }
+
+    /**
+     * Returns the JVM-wide template index, creating it on first use.
+     *
+     * @return the shared template index
+     */
+    public static TemplateIndex shared() {
+        TemplateIndex index = sharedIndex;
+        if (index == null) {
+            synchronized (SHARED_LOCK) {
+                index = sharedIndex;
+                if (index == null) {
+                    index = new TemplateIndex(true);
+                    sharedIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Starts a generator run: the files indexed by a shared index are checked for changes on their next access.
+     */
+    public void startRun() {
+        run.incrementAndGet();
+    }
+
+    /**
+     * Determines whether a classpath resource exists.
+     *
+     * @param location The location of the resource (i.e. relative to resource root)
+     * @return true if the resource exists
+     */
+    public static boolean resourceExists(String location) {
+        return RESOURCES.computeIfAbsent(location,
+                l -> TemplateIndex.class.getClassLoader().getResource(TemplateManager.getCPResourcePath(l)) != null);
+    }
+
+    /**
+     * Determines whether a template location exists, either as a file or as a classpath resource.
+     *
+     * @param location The location of the template
+     * @return true if the location exists
+     */
+    public boolean exists(String location) {
+        return fileExists(location) || resourceExists(location);
+    }
+
+    /**
+     * Reads the raw contents of a template, from the classpath first, then from the file system.
+     *
+     * @param location The location of the template
+     * @return the contents of the template, or null if the location doesn't exist
+     * @throws IOException if the template can't be read
+     */
+    public String read(String location) throws IOException {
+        Indexed<Optional<String>> indexed = contents.get(location);
+        if (indexed != null && isFresh(indexed, location)) {
+            return indexed.value.orElse(null);
+        }
+
+        long current = version.get();
+        String read;
+        Object stamp;
+        try (InputStream is = TemplateIndex.class.getClassLoader().getResourceAsStream(TemplateManager.getCPResourcePath(location))) {
+            if (is != null) {
+                // resources don't change while the JVM runs
+                stamp = null;
+                read = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+            } else {
+                // taken before reading, so that a change while reading is detected in the next run
+                stamp = stamp(location);
+                read = readFile(location);
+            }
+        }
+        if (version.get() == current) {
+            contents.put(location, new Indexed<>(Optional.ofNullable(read), stamp, run.get()));
+        }
+        return read;
+    }
+
+    /**
+     * Watches a template directory, forgetting the indexed files within it once it changes. Only shared indexes
+     * watch directories, other indexes being scoped to a generator run.
+     *
+     * @param directory The template directory
+     */
+    public void watch(Path directory) {
+        if (!shared || !Files.isDirectory(directory)) {
+            return;
+        }
+        Path root = directory.toAbsolutePath().normalize();
+        if (isWatched(root)) {
+            return;
+        }
+        try {
+            register(root);
+            LOGGER.debug("Watching template directory {}", root);
+        } catch (IOException e) {
+            // changed files of the directory are then only detected by the next run
+            LOGGER.warn("Unable to watch template directory {}: {}", root, e.getMessage());
+        }
+    }
+
+    private boolean fileExists(String location) {
+        Indexed<Boolean> indexed = files.get(location);
+        if (indexed != null && isFresh(indexed, location)) {
+            return indexed.value;
+        }
+        long current = version.get();
+        Object stamp = stamp(location);
+        boolean exists = new File(location).exists();
+        if (version.get() == current) {
+            files.put(location, new Indexed<>(exists, stamp, run.get()));
+        }
+        return exists;
+    }
+
+    // whether an indexed value may be used in the current run, the file it was computed from being unchanged
+    private boolean isFresh(Indexed<?> indexed, String location) {
+        long current = run.get();
+        if (!shared || indexed.stamp == null || indexed.run == current) {
+            return true;
+        }
+        if (!indexed.stamp.equals(stamp(location))) {
+            return false;
+        }
+        indexed.run = current;
+        return true;
+    }
+
+    // the size, modification time and key (e.g. inode) of a file, or ABSENT; null for indexes scoped to a run
+    private Object stamp(String location) {
+        if (!shared) {
+            return null;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Paths.get(location), BasicFileAttributes.class);
+            return Arrays.asList(attributes.size(), attributes.lastModifiedTime(), attributes.fileKey(), attributes.isDirectory());
+        } catch (IOException | InvalidPathException e) {
+            return ABSENT;
+        }
+    }
+
+    private static String readFile(String location) throws IOException {
+        Path path = Paths.get(location);
+        return Files.isRegularFile(path) ? new String(Files.readAllBytes(path), StandardCharsets.UTF_8) : null;
+    }
+
+    private boolean isWatched(Path path) {
+        for (Path directory : watchedDirectories) {
+            if (path.startsWith(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Path absolutePath(String location) {
+        try {
+            return Paths.get(location).toAbsolutePath().normalize();
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private synchronized void register(Path root) throws IOException {
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+            Thread watcher = new Thread(this::processEvents, "template-index-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        try (Stream<Path> directories = Files.walk(root)) {
+            for (Path directory : (Iterable<Path>) directories.filter(Files::isDirectory)::iterator) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+        watchedDirectories.add(root);
+    }
+
+    private void processEvents() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    Path created = directory.resolve((Path) event.context());
+                    if (Files.isDirectory(created)) {
+                        try {
+                            register(created);
+                        } catch (IOException e) {
+                            LOGGER.warn("Unable to watch template directory {}: {}", created, e.getMessage());
+                        }
+                    }
+                }
+            }
+            forget(directory);
+            key.reset();
+        }
+    }
+
+    // forgets the files indexed within a directory, along with those not existing yet
+    private void forget(Path directory) {
+        version.incrementAndGet();
+        files.keySet().removeIf(location -> isWithin(location, directory));
+        contents.keySet().removeIf(location -> isWithin(location, directory));
+        LOGGER.debug("Template directory {} changed", directory);
+    }
+
+    private static boolean isWithin(String location, Path directory) {
+        Path path = absolutePath(location);
+        return path != null && path.startsWith(directory);
+    }
+
+    /**
+     * An indexed value, along with the stamp of the file it was computed from and the last run it was checked in.
+     */
+    private static final class Indexed<T> {
+        private final T value;
+        private final Object stamp;
+        private volatile long run;
+
+        Indexed(T value, Object stamp, long run) {
+            this.value = value;
+            this.stamp = stamp;
+            this.run = run;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.openapitools.codegen.templating;
+
+import org.openapitools.codegen.api.OutputSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams generated files into a {@link ZipOutputStream} as they are written. Entries are named after the path of
+ * the files relative to a base directory; the stream is neither finished nor closed by this sink.
+ * <p>
+ * An entry can not be replaced once written: when a file is written twice, the first version is kept.
+ */
+public class ZipOutputSink implements OutputSink {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZipOutputSink.class);
+
+    private final ZipOutputStream zip;
+    private final Path baseDirectory;
+    private final Set<String> entries = new HashSet<>();
+
+    /**
+     * Constructs a new instance of {@link ZipOutputSink}
+     *
+     * @param zip           The stream receiving the generated files
+     * @param baseDirectory The directory the entry names are relative to, e.g. the parent of the output directory to
+     *                      have the output directory as top-level folder of the zip
+     */
+    public ZipOutputSink(ZipOutputStream zip, String baseDirectory) {
+        this.zip = zip;
+        this.baseDirectory = Paths.get(baseDirectory).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public synchronized boolean exists(Path path) {
+        return entries.contains(entryName(path));
+    }
+
+    @Override
+    public boolean contentEquals(Path path, byte[] contents, int length) {
+        // entries can't be read back, nor replaced
+        return false;
+    }
+
+    @Override
+    public synchronized void write(Path path, byte[] contents, int length) throws IOException {
+        String name = entryName(path);
+        if (!entries.add(name)) {
+            LOGGER.warn("{} was already written to the zip stream, keeping the first version.", name);
+            return;
+        }
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(contents, 0, length);
+        zip.closeEntry();
+    }
+
+    private String entryName(Path path) {
+        Path absolute = path.toAbsolutePath().normalize();
+        if (!absolute.startsWith(baseDirectory)) {
+            throw new IllegalArgumentException("Zip entries must be located within " + baseDirectory + ": " + path);
+        }
+        return baseDirectory.relativize(absolute).toString().replace(File.separatorChar, '/');
+    }
+}
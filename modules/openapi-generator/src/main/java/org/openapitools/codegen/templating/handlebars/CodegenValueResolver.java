@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.templating.handlebars;
+
+import com.github.jknack.handlebars.ValueResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the values of the {@code Codegen*} model classes (and their subclasses) through method handles computed
+ * once per class, rather than looking up and invoking members reflectively on each access.
+ * <p>
+ * Names resolve as they do through {@code JavaBeanValueResolver}, {@code MethodValueResolver} and
+ * {@link AccessAwareFieldValueResolver}, in that order: a public getter first, then a public method without
+ * parameters, then a field. Values of other classes, and unknown names, are left to those resolvers.
+ */
+public class CodegenValueResolver implements ValueResolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CodegenValueResolver.class);
+
+    public static final CodegenValueResolver INSTANCE = new CodegenValueResolver();
+
+    private static final String CODEGEN_PACKAGE = "org.openapitools.codegen";
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Map<String, MethodHandle>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return isCodegenClass(type) ? accessors(type) : Collections.emptyMap();
+        }
+    };
+
+    @Override
+    public Object resolve(Object context, String name) {
+        MethodHandle accessor = ACCESSORS.get(context.getClass()).get(name);
+        if (accessor == null) {
+            return UNRESOLVED;
+        }
+        try {
+            return (Object) accessor.invokeExact(context);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Execution of '" + name + "' failed", e);
+        }
+    }
+
+    @Override
+    public Object resolve(Object context) {
+        return UNRESOLVED;
+    }
+
+    /**
+     * The properties of a value are left to the reflective resolvers, which list them in the same way.
+     */
+    @Override
+    public Set<Map.Entry<String, Object>> propertySet(Object context) {
+        return Collections.emptySet();
+    }
+
+    private static boolean isCodegenClass(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            if (CODEGEN_PACKAGE.equals(current.getPackageName()) && current.getSimpleName().startsWith("Codegen")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, MethodHandle> accessors(Class<?> type) {
+        Map<String, MethodHandle> accessors = new HashMap<>();
+        try {
+            // lowest precedence first, each kind of member replacing the names resolved by the previous one
+            for (Field field : fields(type)) {
+                accessors.put(field.getName(), lookup(field.getDeclaringClass()).unreflectGetter(field).asType(ACCESSOR_TYPE));
+            }
+            Set<Method> methods = methods(type, new LinkedHashSet<>());
+            for (Method method : methods) {
+                accessors.put(method.getName(), accessor(method));
+            }
+            for (Method method : methods) {
+                String property = propertyName(method);
+                if (property != null && !Modifier.isStatic(method.getModifiers())) {
+                    accessors.put(property, accessor(method));
+                }
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            // e.g. members not open to this module: left to the reflective resolvers
+            LOGGER.debug("Unable to precompute the accessors of {}: {}", type.getName(), e.getMessage());
+            return Collections.emptyMap();
+        }
+        return accessors;
+    }
+
+    // the non-static fields of the type and its superclasses; as with FieldValueResolver, superclass fields replace
+    // the subclass fields they hide
+    private static Set<Field> fields(Class<?> type) {
+        Set<Field> fields = new LinkedHashSet<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    // the public methods without parameters of the type, its superclasses and interfaces
+    private static Set<Method> methods(Class<?> type, Set<Method> methods) {
+        if (type == Object.class) {
+            return methods;
+        }
+        for (Method method : type.getDeclaredMethods()) {
+            if (Modifier.isPublic(method.getModifiers()) && method.getParameterCount() == 0) {
+                methods.add(method);
+            }
+        }
+        if (type.getSuperclass() != null) {
+            methods(type.getSuperclass(), methods);
+        }
+        for (Class<?> anInterface : type.getInterfaces()) {
+            methods(anInterface, methods);
+        }
+        return methods;
+    }
+
+    // the property read by a getter, e.g. "name" for getName() or isName()
+    private static String propertyName(Method method) {
+        String name = method.getName();
+        String prefix = name.startsWith("get") ? "get" : name.startsWith("is") ? "is" : null;
+        if (prefix == null || name.length() == prefix.length()) {
+            return null;
+        }
+        String property = name.substring(prefix.length());
+        property = property.substring(0, 1).toLowerCase(Locale.ROOT) + property.substring(1);
+        // the getter of "uRL" is getURL(), but "URL" has no getter
+        String getter = prefix + property.substring(0, 1).toUpperCase(Locale.ROOT) + property.substring(1);
+        return getter.equals(name) ? property : null;
+    }
+
+    private static MethodHandle accessor(Method method) throws IllegalAccessException {
+        MethodHandle handle = lookup(method.getDeclaringClass()).unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(ACCESSOR_TYPE);
+    }
+
+    // a lookup with private access to the members of the type, as the reflective resolvers have, unless its package
+    // isn't open to this module (e.g. JDK interfaces), whose public members are then accessed publicly
+    private static MethodHandles.Lookup lookup(Class<?> type) throws IllegalAccessException {
+        if (type.getModule().isOpen(type.getPackageName(), CodegenValueResolver.class.getModule())) {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        }
+        return MethodHandles.publicLookup();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.templating.handlebars;
+
+import com.github.jknack.handlebars.Parser;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.cache.TemplateCache;
+import com.github.jknack.handlebars.io.TemplateSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of compiled handlebars {@link Template} instances, templates and partials alike.
+ * <p>
+ * Entries are keyed by the template name and contents: handlebars template sources are equal when their names are,
+ * whatever their contents, so the built-in caches would reuse a template after its contents changed.
+ */
+public class HandlebarsTemplateCache implements TemplateCache {
+    private final Map<Key, Template> templates = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Override
+    public Template get(TemplateSource source, Parser parser) throws IOException {
+        Key key = new Key(source.filename(), source.content(StandardCharsets.UTF_8));
+        Template template = templates.get(key);
+        if (template != null) {
+            hits.increment();
+            return template;
+        }
+        misses.increment();
+        // not computeIfAbsent, parsing a template may compile its partials through this cache
+        template = parser.parse(source);
+        Template previous = templates.putIfAbsent(key, template);
+        return previous != null ? previous : template;
+    }
+
+    @Override
+    public void evict(TemplateSource source) {
+        templates.keySet().removeIf(key -> key.name.equals(source.filename()));
+    }
+
+    @Override
+    public void clear() {
+        templates.clear();
+    }
+
+    /**
+     * Entries are keyed by the template contents, so they are never stale.
+     *
+     * @param reload ignored
+     * @return this cache
+     */
+    @Override
+    public TemplateCache setReload(boolean reload) {
+        return this;
+    }
+
+    /**
+     * @return the number of templates found in the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of templates compiled
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of compiled templates held by the cache
+     */
+    public long size() {
+        return templates.size();
+    }
+
+    private static final class Key {
+        private final String name;
+        private final String contents;
+
+        Key(String name, String contents) {
+            this.name = name;
+            this.contents = contents;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return name.equals(key.name) && contents.equals(key.contents);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, contents);
+        }
+    }
+}
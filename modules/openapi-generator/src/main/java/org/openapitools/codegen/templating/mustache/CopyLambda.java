@@ -18,9 +18,12 @@ package org.openapitools.codegen.templating.mustache;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import com.samskivert.mustache.Mustache;
 import com.samskivert.mustache.Template.Fragment;
+import org.openapitools.codegen.CodegenConstants;
 
 /**
  * Saves template text to be used later.
@@ -36,13 +39,55 @@ import com.samskivert.mustache.Template.Fragment;
  * </pre>
  */
 public class CopyLambda implements Mustache.Lambda {
+    // the contents copied by the render task running on the current thread, when files are rendered in parallel
+    private static final ThreadLocal<Map<CopyLambda, String>> TASK_CONTENTS = new ThreadLocal<>();
+
+    /**
+     * The copied content, when files are rendered sequentially.
+     *
+     * @deprecated use {@link #getSavedContent()} and {@link #setSavedContent(String)}, which also support files
+     * rendered in parallel (see {@link CodegenConstants#RENDER_THREADS})
+     */
+    @Deprecated
     public String savedContent;
 
     public CopyLambda() {
     }
 
+    public String getSavedContent() {
+        Map<CopyLambda, String> contents = TASK_CONTENTS.get();
+        return contents != null ? contents.get(this) : savedContent;
+    }
+
+    public void setSavedContent(String content) {
+        Map<CopyLambda, String> contents = TASK_CONTENTS.get();
+        if (contents == null) {
+            savedContent = content;
+        } else if (content == null) {
+            contents.remove(this);
+        } else {
+            contents.put(this, content);
+        }
+    }
+
+    /**
+     * Keeps the contents copied on the current thread from the other threads, until {@link #endRenderTask()}. Used
+     * around each task rendering the files of a model or api in parallel: content copied in a file can then only be
+     * pasted in the files of the same task.
+     */
+    public static void beginRenderTask() {
+        TASK_CONTENTS.set(new IdentityHashMap<>());
+    }
+
+    /**
+     * Discards the contents copied on the current thread since {@link #beginRenderTask()}.
+     */
+    public static void endRenderTask() {
+        TASK_CONTENTS.remove();
+    }
+
     @Override
     public void execute(Fragment fragment, Writer writer) throws IOException {
-        savedContent = fragment.execute().stripTrailing();
+        setSavedContent(fragment.execute().stripTrailing());
     }
 }
@@ -52,7 +52,7 @@ public class PasteLambda implements Mustache.Lambda {
 
     @Override
     public void execute(Fragment fragment, Writer writer) throws IOException {
-        String content = this.copyLambda.savedContent;
+        String content = this.copyLambda.getSavedContent();
 
         if (content == null) {
             return;
@@ -70,7 +70,7 @@ public class PasteLambda implements Mustache.Lambda {
         writer.write(content);
 
         if (this.clear) {
-            this.copyLambda.savedContent = null;
+            this.copyLambda.setSavedContent(null);
         }
     }
 }
@@ -0,0 +1,219 @@
+package org.openapitools.codegen.utils;
+
+/**
+ * Regex-free implementations of {@link StringUtils#camelize(String, CamelizeOption)} and
+ * {@link StringUtils#underscore(String)}, working on a char buffer.
+ * <p>
+ * They produce the same output as the regex-based implementations for ASCII words without line terminators or
+ * backslashes, and return null for any other word (or when the regex-based implementation fails), which must then be
+ * converted by the regex-based implementation.
+ */
+final class Casing {
+    private Casing() {
+    }
+
+    /**
+     * @param word   The word
+     * @param option option for the camelize result
+     * @return the camelized word, or null if the word must be camelized by the regex-based implementation
+     */
+    static String camelize(String word, CamelizeOption option) {
+        int length = word.length();
+        if (length == 0) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            if (c >= 0x80 || c == '\n' || c == '\r' || c == '\\') {
+                return null;
+            }
+            if (c == '/' && i + 1 < length && word.charAt(i + 1) == '$') {
+                // "$" is an invalid replacement for the regex-based slash replacement
+                return null;
+            }
+        }
+
+        char[] buf = new char[length];
+        int n = 0;
+
+        // slashes and dots separate parts, each starting with an upper case char
+        boolean startOfPart = true;
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            if (c == '/' || c == '.') {
+                startOfPart = true;
+            } else {
+                buf[n++] = startOfPart ? toUpperCase(c) : c;
+                startOfPart = false;
+            }
+        }
+
+        // upper case the first word char (the first char may be e.g. '$')
+        for (int i = 0; i < n; i++) {
+            if (isWordChar(buf[i])) {
+                buf[i] = toUpperCase(buf[i]);
+                break;
+            }
+        }
+
+        // an underscore followed by a lower case letter becomes the upper case letter, other underscores followed by
+        // a char are removed
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            char c = buf[i];
+            if (c == '_' && i + 1 < n) {
+                char next = buf[i + 1];
+                if (isLowerCase(next)) {
+                    buf[m++] = toUpperCase(next);
+                    i++;
+                }
+            } else {
+                buf[m++] = c;
+            }
+        }
+        n = m;
+
+        // hyphens followed by a char are removed, and that char upper cased
+        m = 0;
+        for (int i = 0; i < n; i++) {
+            char c = buf[i];
+            if (c == '-' && i + 1 < n) {
+                char next = buf[i + 1];
+                if (next == '-') {
+                    // the next hyphen is combined with the char following it
+                    continue;
+                }
+                if (next == '$') {
+                    return null;
+                }
+                buf[m++] = toUpperCase(next);
+                i++;
+            } else {
+                buf[m++] = c;
+            }
+        }
+        n = m;
+
+        switch (option) {
+            case LOWERCASE_FIRST_LETTER:
+                if (n > 0) {
+                    int i = 0;
+                    while (i + 1 < n && !isLetter(buf[i])) {
+                        i++;
+                    }
+                    buf[i] = toLowerCase(buf[i]);
+                }
+                break;
+            case LOWERCASE_FIRST_CHAR:
+                if (n == 0) {
+                    return null;
+                }
+                buf[0] = toLowerCase(buf[0]);
+                break;
+        }
+
+        m = 0;
+        for (int i = 0; i < n; i++) {
+            if (buf[i] != '_') {
+                buf[m++] = buf[i];
+            }
+        }
+        return new String(buf, 0, m);
+    }
+
+    /**
+     * @param word The word
+     * @return the underscored word, or null if the word must be underscored by the regex-based implementation
+     */
+    static String underscore(String word) {
+        int length = word.length();
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) >= 0x80) {
+                return null;
+            }
+        }
+
+        // each char results in at most two chars
+        char[] buf = new char[length * 2];
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            if (c == '.') {
+                buf[n++] = '/';
+            } else if (c == '$') {
+                buf[n++] = '_';
+                buf[n++] = '_';
+            } else if (c == '-' || c == ' ') {
+                buf[n++] = '_';
+            } else if (isUpperCase(c)) {
+                if (i > 0) {
+                    char previous = word.charAt(i - 1);
+                    if (isLowerCase(previous) || isDigit(previous)) {
+                        // "aB" -> "a_b"
+                        buf[n++] = '_';
+                    } else if (isUpperCase(previous) && i + 2 < length
+                            && isLowerCase(word.charAt(i + 1)) && isLowerCase(word.charAt(i + 2))) {
+                        // "ABCde" -> "ab_cde"
+                        buf[n++] = '_';
+                    }
+                }
+                buf[n++] = toLowerCase(c);
+            } else {
+                buf[n++] = c;
+            }
+        }
+        return new String(buf, 0, n);
+    }
+
+    /**
+     * @param underscored An underscored word
+     * @return the word with runs of underscores and spaces replaced by a hyphen
+     */
+    static String dashize(String underscored) {
+        int length = underscored.length();
+        char[] buf = new char[length];
+        int n = 0;
+        boolean inSeparatorRun = false;
+        for (int i = 0; i < length; i++) {
+            char c = underscored.charAt(i);
+            if (c == '_' || c == ' ') {
+                if (!inSeparatorRun) {
+                    buf[n++] = '-';
+                    inSeparatorRun = true;
+                }
+            } else {
+                buf[n++] = c;
+                inSeparatorRun = false;
+            }
+        }
+        return new String(buf, 0, n);
+    }
+
+    private static boolean isWordChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '_';
+    }
+
+    private static boolean isLetter(char c) {
+        return isLowerCase(c) || isUpperCase(c);
+    }
+
+    private static boolean isLowerCase(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isUpperCase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static char toUpperCase(char c) {
+        return isLowerCase(c) ? (char) (c - ('a' - 'A')) : c;
+    }
+
+    private static char toLowerCase(char c) {
+        return isUpperCase(c) ? (char) (c + ('a' - 'A')) : c;
+    }
+}
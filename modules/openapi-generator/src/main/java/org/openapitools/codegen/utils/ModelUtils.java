@@ -104,6 +104,24 @@ public class ModelUtils {
         return isGenerateAliasAsModel() || (schema.getExtensions() != null && schema.getExtensions().getOrDefault("x-generate-alias-as-model", false).equals(true));
     }
 
+    /**
+     * Memoize, on the current thread, the targets resolved by getReferencedSchema for the given document, and its
+     * {@link #getSchemaReferenceIndex(OpenAPI) reference index}, until {@link #disableSchemaReferenceCache()} is
+     * called, e.g. in a finally block. The index is built once, so it doesn't reflect schemas added meanwhile.
+     *
+     * @param openAPI the OpenAPI document
+     */
+    public static void enableSchemaReferenceCache(OpenAPI openAPI) {
+        SchemaReferences.enable(openAPI);
+    }
+
+    /**
+     * Stop memoizing the targets of references on the current thread.
+     */
+    public static void disableSchemaReferenceCache() {
+        SchemaReferences.disable();
+    }
+
     /**
      * Searches for the model by name in the map of models and returns it
      *
@@ -134,24 +152,7 @@ public class ModelUtils {
      * @return schemas a list of used schemas
      */
     public static List<String> getAllUsedSchemas(OpenAPI openAPI) {
-        Map<String, List<String>> childrenMap = getChildrenMap(openAPI);
-        List<String> allUsedSchemas = new ArrayList<String>();
-        visitOpenAPI(openAPI, (s, t) -> {
-            if (s.get$ref() != null) {
-                String ref = getSimpleRef(s.get$ref());
-                if (!allUsedSchemas.contains(ref)) {
-                    allUsedSchemas.add(ref);
-                }
-                if (childrenMap.containsKey(ref)) {
-                    for (String child : childrenMap.get(ref)) {
-                        if (!allUsedSchemas.contains(child)) {
-                            allUsedSchemas.add(child);
-                        }
-                    }
-                }
-            }
-        });
-        return allUsedSchemas;
+        return getSchemaReferenceIndex(openAPI).getAllUsedSchemas();
     }
 
     /**
@@ -161,59 +162,67 @@ public class ModelUtils {
      * @return schemas a list of unused schemas
      */
     public static List<String> getUnusedSchemas(OpenAPI openAPI) {
-        final Map<String, List<String>> childrenMap;
-        Map<String, List<String>> tmpChildrenMap;
+        return getSchemaReferenceIndex(openAPI).getUnusedSchemas();
+    }
+
+    /**
+     * Return the list of schemas in the 'components/schemas' used only in a 'application/x-www-form-urlencoded' or 'multipart/form-data' mime time
+     *
+     * @param openAPI specification
+     * @return schemas a list of schemas
+     */
+    public static List<String> getSchemasUsedOnlyInFormParam(OpenAPI openAPI) {
+        return getSchemaReferenceIndex(openAPI).getSchemasUsedOnlyInFormParam();
+    }
+
+    /**
+     * Build an index of the references between the schemas in the 'components/schemas' section, and of the schemas
+     * used by the paths of an openAPI specification. The index reflects the specification at the time it is built,
+     * or, while {@link #enableSchemaReferenceCache(OpenAPI) references are memoized} for the specification, at the
+     * time it was first requested.
+     *
+     * @param openAPI specification
+     * @return the schema reference index
+     */
+    public static SchemaReferenceIndex getSchemaReferenceIndex(OpenAPI openAPI) {
+        SchemaReferences references = SchemaReferences.current(openAPI);
+        return references == null ? buildSchemaReferenceIndex(openAPI) : references.index(ModelUtils::buildSchemaReferenceIndex);
+    }
+
+    private static SchemaReferenceIndex buildSchemaReferenceIndex(OpenAPI openAPI) {
+        Map<String, Schema> schemas = getSchemas(openAPI);
+
+        Map<String, List<String>> references = new HashMap<>();
+        schemas.forEach((name, schema) -> {
+            List<String> refs = new ArrayList<>();
+            visitSchema(openAPI, schema, null, null, (s, t) -> {
+                if (s.get$ref() != null) {
+                    refs.add(getSimpleRef(s.get$ref()));
+                }
+            });
+            references.put(name, refs);
+        });
+
+        Map<String, List<String>> childrenMap;
         try {
-            tmpChildrenMap = getChildrenMap(openAPI);
+            childrenMap = getChildrenMap(openAPI);
         } catch (NullPointerException npe) {
             // in rare cases, such as a spec document with only one top-level oneOf schema and multiple referenced schemas,
-            // the stream used in getChildrenMap will raise an NPE. Rather than modify getChildrenMap which is used by getAllUsedSchemas,
+            // the stream used in getChildrenMap will raise an NPE. Rather than modify getChildrenMap,
             // we'll catch here as a workaround for this edge case.
-            tmpChildrenMap = new HashMap<>();
+            childrenMap = new HashMap<>();
         }
 
-        childrenMap = tmpChildrenMap;
-        List<String> unusedSchemas = new ArrayList<String>();
-
+        Map<String, Set<String>> uses = new LinkedHashMap<>();
         if (openAPI != null) {
-            Map<String, Schema> schemas = getSchemas(openAPI);
-            unusedSchemas.addAll(schemas.keySet());
-
             visitOpenAPI(openAPI, (s, t) -> {
-                if (s.get$ref() != null) {
-                    String ref = getSimpleRef(s.get$ref());
-                    unusedSchemas.remove(ref);
-                    if (childrenMap.containsKey(ref)) {
-                        unusedSchemas.removeAll(childrenMap.get(ref));
-                    }
+                if (s != null && s.get$ref() != null) {
+                    uses.computeIfAbsent(getSimpleRef(s.get$ref()), k -> new HashSet<>()).add(t);
                 }
             });
         }
-        return unusedSchemas;
-    }
 
-    /**
-     * Return the list of schemas in the 'components/schemas' used only in a 'application/x-www-form-urlencoded' or 'multipart/form-data' mime time
-     *
-     * @param openAPI specification
-     * @return schemas a list of schemas
-     */
-    public static List<String> getSchemasUsedOnlyInFormParam(OpenAPI openAPI) {
-        List<String> schemasUsedInFormParam = new ArrayList<String>();
-        List<String> schemasUsedInOtherCases = new ArrayList<String>();
-
-        visitOpenAPI(openAPI, (s, t) -> {
-            if (s != null && s.get$ref() != null) {
-                String ref = getSimpleRef(s.get$ref());
-                if ("application/x-www-form-urlencoded".equalsIgnoreCase(t) ||
-                        "multipart/form-data".equalsIgnoreCase(t)) {
-                    schemasUsedInFormParam.add(ref);
-                } else {
-                    schemasUsedInOtherCases.add(ref);
-                }
-            }
-        });
-        return schemasUsedInFormParam.stream().filter(n -> !schemasUsedInOtherCases.contains(n)).collect(Collectors.toList());
+        return new SchemaReferenceIndex(new ArrayList<>(schemas.keySet()), references, childrenMap, uses);
     }
 
     /**
@@ -227,7 +236,7 @@ public class ModelUtils {
      */
     private static void visitOpenAPI(OpenAPI openAPI, OpenAPISchemaVisitor visitor) {
         Map<String, PathItem> paths = openAPI.getPaths();
-        List<String> visitedSchemas = new ArrayList<>();
+        Set<String> visitedSchemas = new HashSet<>();
 
         if (paths != null) {
             for (PathItem path : paths.values()) {
@@ -236,7 +245,7 @@ public class ModelUtils {
         }
     }
 
-    private static void visitPathItem(PathItem pathItem, OpenAPI openAPI, OpenAPISchemaVisitor visitor, List<String> visitedSchemas) {
+    private static void visitPathItem(PathItem pathItem, OpenAPI openAPI, OpenAPISchemaVisitor visitor, Set<String> visitedSchemas) {
         List<Operation> allOperations = pathItem.readOperations();
         if (allOperations != null) {
             for (Operation operation : allOperations) {
@@ -286,7 +295,7 @@ public class ModelUtils {
     }
 
     private static void visitParameters(OpenAPI openAPI, List<Parameter> parameters, OpenAPISchemaVisitor visitor,
-                                        List<String> visitedSchemas) {
+                                        Set<String> visitedSchemas) {
         if (parameters != null) {
             for (Parameter p : parameters) {
                 Parameter parameter = getReferencedParameter(openAPI, p);
@@ -302,7 +311,7 @@ public class ModelUtils {
         }
     }
 
-    private static void visitContent(OpenAPI openAPI, Content content, OpenAPISchemaVisitor visitor, List<String> visitedSchemas) {
+    private static void visitContent(OpenAPI openAPI, Content content, OpenAPISchemaVisitor visitor, Set<String> visitedSchemas) {
         if (content != null) {
             for (Entry<String, MediaType> e : content.entrySet()) {
                 if (e.getValue().getSchema() != null) {
@@ -316,24 +325,23 @@ public class ModelUtils {
      * Invoke the specified visitor function for every schema that matches mimeType in the OpenAPI document.
      * <p>
      * To avoid infinite recursion, referenced schemas are visited only once. When a referenced schema is visited,
-     * it is added to visitedSchemas.
+     * it is added to visitedSchemas. When visitedSchemas is null, referenced schemas are not visited at all.
      *
      * @param openAPI        the OpenAPI document that contains schema objects.
      * @param schema         the root schema object to be visited.
      * @param mimeType       the mime type. TODO: does not seem to be used in a meaningful way.
-     * @param visitedSchemas the list of referenced schemas that have been visited.
+     * @param visitedSchemas the set of referenced schemas that have been visited, or null to not follow references.
      * @param visitor        the visitor function which is invoked for every visited schema.
      */
-    private static void visitSchema(OpenAPI openAPI, Schema schema, String mimeType, List<String> visitedSchemas, OpenAPISchemaVisitor visitor) {
+    private static void visitSchema(OpenAPI openAPI, Schema schema, String mimeType, Set<String> visitedSchemas, OpenAPISchemaVisitor visitor) {
         if (schema == null) {
             return;
         }
 
         visitor.visit(schema, mimeType);
-        if (schema.get$ref() != null) {
+        if (schema.get$ref() != null && visitedSchemas != null) {
             String ref = getSimpleRef(schema.get$ref());
-            if (!visitedSchemas.contains(ref)) {
-                visitedSchemas.add(ref);
+            if (visitedSchemas.add(ref)) {
                 Schema referencedSchema = getSchemas(openAPI).get(ref);
                 if (referencedSchema != null) {
                     visitSchema(openAPI, referencedSchema, mimeType, visitedSchemas, visitor);
@@ -975,7 +983,12 @@ public class ModelUtils {
         if (StringUtils.isEmpty(schema.get$ref())) {
             return schema;
         }
+        SchemaReferences references = SchemaReferences.current(openAPI);
+        return references == null ? resolveReferencedSchema(openAPI, schema)
+                : references.referencedSchema(schema, s -> resolveReferencedSchema(openAPI, s));
+    }
 
+    private static Schema<?> resolveReferencedSchema(OpenAPI openAPI, Schema schema) {
         try {
             Schema refSchema = getSchemaFromRefToSchemaWithProperties(openAPI, schema.get$ref());
             if (refSchema != null) {
@@ -1070,7 +1083,7 @@ public class ModelUtils {
      */
     public static List<Schema> getAllSchemas(OpenAPI openAPI) {
         List<Schema> allSchemas = new ArrayList<Schema>();
-        List<String> refSchemas = new ArrayList<String>();
+        Set<String> refSchemas = new HashSet<>();
         getSchemas(openAPI).forEach((key, schema) -> {
             // Invoke visitSchema to recursively visit all schema objects, included inlined and composed schemas.
             // Use the OpenAPISchemaVisitor visitor function
@@ -1244,7 +1257,9 @@ public class ModelUtils {
     }
 
     /**
-     * Has self reference?
+     * Has self reference? That is, does following the references of the schema (and of its inline schemas) lead to a
+     * schema which references itself, directly or through other schemas. A schema referenced several times, or
+     * reached along several paths, isn't a self reference.
      *
      * @param openAPI OpenAPI spec.
      * @param schema  Schema
@@ -1260,77 +1275,21 @@ public class ModelUtils {
      *
      * @param openAPI            OpenAPI spec.
      * @param schema             Schema
-     * @param visitedSchemaNames A set of visited schema names
-     * @return boolean true if it has at least one self reference
+     * @param visitedSchemaNames The names of the schemas referencing the schema, directly or not, also counted as
+     *                           self references when reached from the schema; may be null
+     * @return boolean true if it has at least one self reference, as per {@link #hasSelfReference(OpenAPI, Schema)}
      */
     public static boolean hasSelfReference(OpenAPI openAPI,
                                            Schema schema,
                                            Set<String> visitedSchemaNames) {
-        if (visitedSchemaNames == null) {
-            visitedSchemaNames = new HashSet<String>();
-        }
-
-        if (schema.get$ref() != null) {
-            String ref = getSimpleRef(schema.get$ref());
-            if (!visitedSchemaNames.contains(ref)) {
-                visitedSchemaNames.add(ref);
-                Schema referencedSchema = getSchemas(openAPI).get(ref);
-                if (referencedSchema != null) {
-                    return hasSelfReference(openAPI, referencedSchema, visitedSchemaNames);
-                } else {
-                    LOGGER.error("Failed to obtain schema from `{}` in self reference check", ref);
-                    return false;
-                }
-            } else {
-                return true;
-            }
-        }
-        if (isComposedSchema(schema)) {
-            List<Schema> oneOf = schema.getOneOf();
-            if (oneOf != null) {
-                for (Schema s : oneOf) {
-                    if (hasSelfReference(openAPI, s, visitedSchemaNames)) {
-                        return true;
-                    }
-                }
-            }
-            List<Schema> allOf = schema.getAllOf();
-            if (allOf != null) {
-                for (Schema s : allOf) {
-                    if (hasSelfReference(openAPI, s, visitedSchemaNames)) {
-                        return true;
-                    }
-                }
-            }
-            List<Schema> anyOf = schema.getAnyOf();
-            if (anyOf != null) {
-                for (Schema s : anyOf) {
-                    if (hasSelfReference(openAPI, s, visitedSchemaNames)) {
-                        return true;
-                    }
-                }
-            }
-        } else if (isArraySchema(schema)) {
-            Schema itemsSchema = ModelUtils.getSchemaItems(schema);
-            if (itemsSchema != null) {
-                return hasSelfReference(openAPI, itemsSchema, visitedSchemaNames);
-            }
-        } else if (isMapSchema(schema)) {
-            Object additionalProperties = schema.getAdditionalProperties();
-            if (additionalProperties instanceof Schema) {
-                return hasSelfReference(openAPI, (Schema) additionalProperties, visitedSchemaNames);
-            }
-        } else if (schema.getNot() != null) {
-            return hasSelfReference(openAPI, schema.getNot(), visitedSchemaNames);
-        } else if (schema.getProperties() != null && !schema.getProperties().isEmpty()) {
-            // go through properties to see if there's any self-reference
-            for (Schema property : ((Map<String, Schema>) schema.getProperties()).values()) {
-                if (hasSelfReference(openAPI, property, visitedSchemaNames)) {
-                    return true;
-                }
+        List<String> refs = new ArrayList<>();
+        visitSchema(openAPI, schema, null, null, (s, t) -> {
+            if (s.get$ref() != null) {
+                refs.add(getSimpleRef(s.get$ref()));
             }
-        }
-        return false;
+        });
+        return getSchemaReferenceIndex(openAPI).hasSelfReference(refs,
+                visitedSchemaNames == null ? Collections.emptySet() : visitedSchemaNames);
     }
 
     /**
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Schema;
+import lombok.Getter;
+import org.openapitools.codegen.config.GlobalSettings;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.openapitools.codegen.utils.StringUtils.NAME_CACHE_EXPIRY_PROPERTY;
+import static org.openapitools.codegen.utils.StringUtils.NAME_CACHE_SIZE_PROPERTY;
+
+/**
+ * The caches of sanitized, camelized, underscored and escaped names.
+ * <p>
+ * A generation run opens its own caches with {@link #open(OpenAPI)}, sized from the number of schemas, properties,
+ * operations and parameters of the document, and closes them when done. They are used by the thread opening them
+ * and the threads it creates, so that concurrent runs (e.g. of a batch) don't evict each other's names. Names
+ * converted outside a run are cached in small JVM-wide caches, sized and expired according to
+ * {@link StringUtils#NAME_CACHE_SIZE_PROPERTY} and {@link StringUtils#NAME_CACHE_EXPIRY_PROPERTY}.
+ */
+public final class NameCaches {
+    // each schema, property, operation or parameter name gets converted a few ways, e.g. camelized and underscored
+    private static final int ENTRIES_PER_ELEMENT = 4;
+    private static final int MIN_SIZE = 256;
+    private static final int MAX_SIZE = 200_000;
+
+    private static final InheritableThreadLocal<NameCaches> CURRENT = new InheritableThreadLocal<>();
+
+    private static final NameCaches GLOBAL = new NameCaches(
+            Integer.parseInt(GlobalSettings.getProperty(NAME_CACHE_SIZE_PROPERTY, "500")),
+            Integer.parseInt(GlobalSettings.getProperty(NAME_CACHE_EXPIRY_PROPERTY, "10")));
+
+    @Getter private final Cache<Object, String> sanitizedNames;
+    @Getter private final Cache<Object, String> camelizedWords;
+    @Getter private final Cache<Object, String> underscoredWords;
+    @Getter private final Cache<Object, String> escapedWords;
+
+    /**
+     * @param maximumSize   the maximum number of entries of each cache
+     * @param expirySeconds the number of seconds entries are kept after their last access, or 0 to keep them
+     */
+    private NameCaches(long maximumSize, int expirySeconds) {
+        sanitizedNames = newCache(maximumSize, expirySeconds);
+        camelizedWords = newCache(maximumSize, expirySeconds);
+        underscoredWords = newCache(maximumSize, expirySeconds);
+        escapedWords = newCache(maximumSize, expirySeconds);
+    }
+
+    private static Cache<Object, String> newCache(long maximumSize, int expirySeconds) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maximumSize).recordStats();
+        if (expirySeconds > 0) {
+            builder.expireAfterAccess(expirySeconds, TimeUnit.SECONDS).ticker(Ticker.systemTicker());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the caches of the generation run on the current thread, or the JVM-wide caches outside a run
+     */
+    public static NameCaches current() {
+        NameCaches current = CURRENT.get();
+        return current != null ? current : GLOBAL;
+    }
+
+    /**
+     * Opens the caches of a generation run on the current thread, replacing any caches opened before.
+     * {@link StringUtils#NAME_CACHE_SIZE_PROPERTY}, when set, takes precedence over the size computed from the
+     * document.
+     *
+     * @param openAPI the document being generated
+     * @return the caches, to be closed at the end of the run
+     */
+    public static NameCaches open(OpenAPI openAPI) {
+        String size = GlobalSettings.getProperty(NAME_CACHE_SIZE_PROPERTY);
+        NameCaches caches = new NameCaches(size != null ? Long.parseLong(size) : sizeFor(openAPI), 0);
+        CURRENT.set(caches);
+        return caches;
+    }
+
+    /**
+     * Discards the cached names, and stops using these caches on the current thread. The statistics remain available.
+     */
+    public void close() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        sanitizedNames.invalidateAll();
+        camelizedWords.invalidateAll();
+        underscoredWords.invalidateAll();
+        escapedWords.invalidateAll();
+    }
+
+    /**
+     * @return the statistics of each cache, keyed by the conversion it caches
+     */
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("sanitizeName", sanitizedNames.stats());
+        stats.put("camelize", camelizedWords.stats());
+        stats.put("underscore", underscoredWords.stats());
+        stats.put("escape", escapedWords.stats());
+        return stats;
+    }
+
+    /**
+     * @param openAPI the document being generated
+     * @return the number of entries for each cache of a run generating the document
+     */
+    static long sizeFor(OpenAPI openAPI) {
+        long elements = 0;
+        if (openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null) {
+            for (Schema<?> schema : openAPI.getComponents().getSchemas().values()) {
+                elements++;
+                if (schema != null && schema.getProperties() != null) {
+                    elements += schema.getProperties().size();
+                }
+            }
+        }
+        if (openAPI.getPaths() != null) {
+            for (PathItem pathItem : openAPI.getPaths().values()) {
+                for (Operation operation : pathItem.readOperations()) {
+                    elements++;
+                    if (operation.getParameters() != null) {
+                        elements += operation.getParameters().size();
+                    }
+                }
+                if (pathItem.getParameters() != null) {
+                    elements += pathItem.getParameters().size();
+                }
+            }
+        }
+        return Math.max(MIN_SIZE, Math.min(MAX_SIZE, elements * ENTRIES_PER_ELEMENT));
+    }
+}
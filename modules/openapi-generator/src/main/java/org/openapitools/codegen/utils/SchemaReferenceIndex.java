@@ -0,0 +1,259 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.utils;
+
+import java.util.*;
+
+/**
+ * An immutable index of the references between the schemas in the 'components/schemas' section of an OpenAPI
+ * document, and of the schemas used by its paths.
+ * <p>
+ * The index is a snapshot: it must be rebuilt (see {@link ModelUtils#getSchemaReferenceIndex}) after the document
+ * has been modified, e.g. by the normalizer or the inline model resolver. Callers asking several questions about
+ * the same document should build the index once and reuse it; during generation, the index of the document is built
+ * once (see {@link ModelUtils#enableSchemaReferenceCache}).
+ */
+public final class SchemaReferenceIndex {
+    private static final String FORM_URLENCODED = "application/x-www-form-urlencoded";
+    private static final String MULTIPART_FORM_DATA = "multipart/form-data";
+
+    private final List<String> schemaNames;
+    // schema name -> every $ref within the schema (not following references), in document order, with duplicates
+    private final Map<String, List<String>> references;
+    private final Map<String, Set<String>> incoming;
+    private final Map<String, String> parents;
+    private final Map<String, List<String>> children;
+    // schema name -> media types of its uses, for the schemas reachable from the paths, in first-use order
+    private final Map<String, Set<String>> uses;
+    // the schemas from which a cycle of references is reachable, computed on first use
+    private volatile Set<String> selfReferencing;
+
+    SchemaReferenceIndex(List<String> schemaNames, Map<String, List<String>> references,
+                         Map<String, List<String>> children, Map<String, Set<String>> uses) {
+        this.schemaNames = Collections.unmodifiableList(new ArrayList<>(schemaNames));
+        this.references = references;
+        this.children = children;
+        this.uses = uses;
+
+        Map<String, Set<String>> incoming = new HashMap<>();
+        references.forEach((name, refs) -> {
+            for (String ref : refs) {
+                incoming.computeIfAbsent(ref, k -> new LinkedHashSet<>()).add(name);
+            }
+        });
+        this.incoming = incoming;
+
+        Map<String, String> parents = new HashMap<>();
+        children.forEach((parent, names) -> names.forEach(child -> parents.put(child, parent)));
+        this.parents = parents;
+    }
+
+    /**
+     * @return the names of all schemas in the 'components/schemas' section, in document order
+     */
+    public List<String> getSchemaNames() {
+        return schemaNames;
+    }
+
+    /**
+     * @param schemaName the name of a schema
+     * @return the names of the schemas referenced directly by the schema (including by inline subschemas)
+     */
+    public Set<String> getOutgoingReferences(String schemaName) {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(references.getOrDefault(schemaName, Collections.emptyList())));
+    }
+
+    /**
+     * @param schemaName the name of a schema
+     * @return the names of the schemas which reference the schema directly
+     */
+    public Set<String> getIncomingReferences(String schemaName) {
+        return Collections.unmodifiableSet(incoming.getOrDefault(schemaName, Collections.emptySet()));
+    }
+
+    /**
+     * @param schemaName the name of a schema
+     * @return the name of the parent of the (composed) schema, as per {@link ModelUtils#getParentName}, or null
+     */
+    public String getParent(String schemaName) {
+        return parents.get(schemaName);
+    }
+
+    /**
+     * @param schemaName the name of a schema
+     * @return the names of the composed schemas whose parent is the schema
+     */
+    public List<String> getChildren(String schemaName) {
+        return Collections.unmodifiableList(children.getOrDefault(schemaName, Collections.emptyList()));
+    }
+
+    /**
+     * @param schemaName the name of a schema
+     * @return the media types the schema is used with by the paths (null for parameters and properties), or an
+     * empty set if the schema is not used by the paths
+     */
+    public Set<String> getMediaTypes(String schemaName) {
+        return Collections.unmodifiableSet(uses.getOrDefault(schemaName, Collections.emptySet()));
+    }
+
+    /**
+     * @return the schemas used by the paths and the children of those schemas, see {@link ModelUtils#getAllUsedSchemas}
+     */
+    public List<String> getAllUsedSchemas() {
+        Set<String> used = new LinkedHashSet<>();
+        for (String ref : uses.keySet()) {
+            used.add(ref);
+            used.addAll(children.getOrDefault(ref, Collections.emptyList()));
+        }
+        return new ArrayList<>(used);
+    }
+
+    /**
+     * @return the schemas not returned by {@link #getAllUsedSchemas()}, in document order
+     */
+    public List<String> getUnusedSchemas() {
+        Set<String> used = new HashSet<>(getAllUsedSchemas());
+        List<String> unused = new ArrayList<>();
+        for (String name : schemaNames) {
+            if (!used.contains(name)) {
+                unused.add(name);
+            }
+        }
+        return unused;
+    }
+
+    /**
+     * @return the schemas used by the paths only with a 'application/x-www-form-urlencoded' or 'multipart/form-data'
+     * media type
+     */
+    public List<String> getSchemasUsedOnlyInFormParam() {
+        List<String> formOnly = new ArrayList<>();
+        uses.forEach((ref, mediaTypes) -> {
+            if (mediaTypes.stream().allMatch(SchemaReferenceIndex::isFormMediaType)) {
+                formOnly.add(ref);
+            }
+        });
+        return formOnly;
+    }
+
+    /**
+     * @param schemaName the name of a schema
+     * @return true if following the references of the schema leads to a schema referencing itself, directly or
+     * through other schemas, see {@link ModelUtils#hasSelfReference(io.swagger.v3.oas.models.OpenAPI, io.swagger.v3.oas.models.media.Schema)}
+     */
+    public boolean hasSelfReference(String schemaName) {
+        return hasSelfReference(references.getOrDefault(schemaName, Collections.emptyList()), Collections.emptySet());
+    }
+
+    /**
+     * @param rootReferences the references within the root schema
+     * @param path           the names of the schemas referencing the root schema, directly or not
+     * @return true if following the references leads to a schema of the path, or to a cycle of references. A schema
+     * reached along several paths (e.g. a diamond), or referenced several times, isn't a self reference.
+     */
+    boolean hasSelfReference(Collection<String> rootReferences, Set<String> path) {
+        Set<String> selfReferencing = getSelfReferencing();
+        Set<String> reached = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        for (String ref : rootReferences) {
+            if (ref != null && reached.add(ref)) {
+                pending.add(ref);
+            }
+        }
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            if (selfReferencing.contains(name) || path.contains(name)) {
+                return true;
+            }
+            if (path.isEmpty()) {
+                // the schemas reachable from this one are known not to be self referencing
+                continue;
+            }
+            for (String ref : references.getOrDefault(name, Collections.emptyList())) {
+                if (ref != null && reached.add(ref)) {
+                    pending.add(ref);
+                }
+            }
+        }
+        return false;
+    }
+
+    private Set<String> getSelfReferencing() {
+        Set<String> result = selfReferencing;
+        if (result == null) {
+            result = computeSelfReferencing();
+            selfReferencing = result;
+        }
+        return result;
+    }
+
+    /**
+     * Walks the references depth-first, without recursion as chains of references may be long. A reference to a
+     * schema on the current path closes a cycle, reachable from every schema of the path; a schema also reaches a
+     * cycle if one of the schemas it references does.
+     */
+    private Set<String> computeSelfReferencing() {
+        Set<String> result = new HashSet<>();
+        Set<String> done = new HashSet<>();
+        Set<String> onPath = new HashSet<>();
+        Deque<String> path = new ArrayDeque<>();
+        Deque<Iterator<String>> iterators = new ArrayDeque<>();
+        for (String root : references.keySet()) {
+            if (done.contains(root)) {
+                continue;
+            }
+            path.push(root);
+            onPath.add(root);
+            iterators.push(references.getOrDefault(root, Collections.emptyList()).iterator());
+            while (!path.isEmpty()) {
+                String name = path.peek();
+                Iterator<String> refs = iterators.peek();
+                if (refs.hasNext()) {
+                    String ref = refs.next();
+                    if (ref == null) {
+                        continue;
+                    }
+                    if (onPath.contains(ref)) {
+                        result.addAll(path);
+                    } else if (done.contains(ref)) {
+                        if (result.contains(ref)) {
+                            result.add(name);
+                        }
+                    } else {
+                        path.push(ref);
+                        onPath.add(ref);
+                        iterators.push(references.getOrDefault(ref, Collections.emptyList()).iterator());
+                    }
+                } else {
+                    path.pop();
+                    iterators.pop();
+                    onPath.remove(name);
+                    done.add(name);
+                    String parent = path.peek();
+                    if (parent != null && result.contains(name)) {
+                        result.add(parent);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isFormMediaType(String mediaType) {
+        return FORM_URLENCODED.equalsIgnoreCase(mediaType) || MULTIPART_FORM_DATA.equalsIgnoreCase(mediaType);
+    }
+}
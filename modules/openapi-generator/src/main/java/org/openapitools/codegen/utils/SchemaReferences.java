@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.utils;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Memoizes the targets of the '$ref' of the schemas of one OpenAPI document, and its {@link SchemaReferenceIndex},
+ * on the thread that enabled it.
+ * <p>
+ * Targets are keyed by the reference itself, e.g. '#/components/schemas/Pet', and record where they were found
+ * in the document. A target is only returned while the document still holds it at that location: replacing a
+ * schema of the 'components/schemas' section, or one of its properties, is picked up without invalidation.
+ */
+final class SchemaReferences {
+    private static final ThreadLocal<SchemaReferences> CURRENT = new ThreadLocal<>();
+
+    private final OpenAPI openAPI;
+    private final Map<String, Target> targets = new HashMap<>();
+    private SchemaReferenceIndex index;
+
+    private SchemaReferences(OpenAPI openAPI) {
+        this.openAPI = openAPI;
+    }
+
+    /**
+     * @param openAPI the document whose references get resolved
+     * @return the references memoized on the current thread if they belong to the given document, or null
+     */
+    static SchemaReferences current(OpenAPI openAPI) {
+        SchemaReferences current = CURRENT.get();
+        return current != null && current.openAPI == openAPI ? current : null;
+    }
+
+    static void enable(OpenAPI openAPI) {
+        CURRENT.set(new SchemaReferences(openAPI));
+    }
+
+    static void disable() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @param schema   a schema with a '$ref', not null
+     * @param resolver resolves the reference, returning the schema itself when it can not be resolved
+     * @return the referenced schema
+     */
+    Schema<?> referencedSchema(Schema<?> schema, Function<Schema<?>, Schema<?>> resolver) {
+        String ref = schema.get$ref();
+        Map<String, Schema> schemas = ModelUtils.getSchemas(openAPI);
+        Target target = targets.get(ref);
+        if (target != null && target.isCurrent(schemas)) {
+            return target.schema;
+        }
+        Schema<?> referenced = resolver.apply(schema);
+        // unresolved references are not kept, the schema may still be added to the document
+        target = referenced == schema ? null : Target.of(ref, schemas, referenced);
+        if (target != null) {
+            targets.put(ref, target);
+        } else {
+            targets.remove(ref);
+        }
+        return referenced;
+    }
+
+    /**
+     * @param builder builds the index of the document, if not built yet
+     * @return the reference index of the document
+     */
+    SchemaReferenceIndex index(Function<OpenAPI, SchemaReferenceIndex> builder) {
+        if (index == null) {
+            index = builder.apply(openAPI);
+        }
+        return index;
+    }
+
+    /**
+     * A schema of the 'components/schemas' section, or a property of one of them.
+     */
+    private static final class Target {
+        private final Map<String, Schema> schemas;
+        private final String name;
+        private final Schema<?> component;
+        private final String property;
+        private final Schema<?> schema;
+
+        private Target(Map<String, Schema> schemas, String name, Schema<?> component, String property, Schema<?> schema) {
+            this.schemas = schemas;
+            this.name = name;
+            this.component = component;
+            this.property = property;
+            this.schema = schema;
+        }
+
+        /**
+         * @return the location of the resolved schema, or null if it isn't found where the reference points to
+         */
+        static Target of(String ref, Map<String, Schema> schemas, Schema<?> resolved) {
+            // as in ModelUtils.getSchemaFromRefToSchemaWithProperties, e.g. #/components/schemas/Pet/properties/category
+            String[] parts = ref.split("/");
+            Target target;
+            if (parts.length == 6 && "properties".equals(parts[4])) {
+                target = new Target(schemas, parts[3], schemas.get(parts[3]), parts[5], resolved);
+            } else {
+                String name = ModelUtils.getSimpleRef(ref);
+                target = new Target(schemas, name, name == null ? null : schemas.get(name), null, resolved);
+            }
+            return target.component != null && target.isCurrent(schemas) ? target : null;
+        }
+
+        boolean isCurrent(Map<String, Schema> currentSchemas) {
+            if (currentSchemas != schemas || schemas.get(name) != component) {
+                return false;
+            }
+            if (property == null) {
+                return component == schema;
+            }
+            Map<String, Schema> properties = component.getProperties();
+            return properties != null && properties.get(property) == schema;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Structural hashes of schemas: schemas serializing to the same JSON, properties sorted alphabetically, have the same
+ * hash.
+ * <p>
+ * Hashes are computed bottom-up: the hash of a schema is computed from its JSON where each nested schema is replaced
+ * by its own hash. Hashes are memoized by identity, so that a schema is serialized once however many schemas nest it;
+ * memoized hashes don't reflect later changes to the schemas, which are expected to be left unchanged once hashed.
+ * Equal hashes are confirmed with {@link #structurallyEqual(Schema, Schema)}.
+ */
+public final class SchemaStructure {
+    // sorts properties alphabetically on write to ensure schemas are serialized consistently
+    private static final ObjectMapper STRUCTURE_MAPPER = Json.mapper().copy()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+
+    // same as above, serializing nested schemas as their hash
+    private static final ObjectMapper HASH_MAPPER = STRUCTURE_MAPPER.copy()
+            .registerModule(new SimpleModule("SchemaStructure").setSerializerModifier(new BeanSerializerModifier() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription description, JsonSerializer<?> serializer) {
+                    if (Schema.class.isAssignableFrom(description.getBeanClass())) {
+                        return new NestedSchemaSerializer((JsonSerializer<Object>) serializer);
+                    }
+                    return serializer;
+                }
+            }));
+
+    // the attribute holding the schema being hashed, serialized in full unlike the schemas it nests
+    private static final Object ROOT = new Object();
+
+    // weak keys are compared by identity, and don't retain schemas dropped from the document
+    private final Cache<Schema<?>, HashCode> hashes = Caffeine.newBuilder().weakKeys().build();
+    private final ObjectWriter writer = HASH_MAPPER.writer().withAttribute(SchemaStructure.class, this);
+
+    /**
+     * @param schema the schema to hash
+     * @return the structural hash of the schema
+     * @throws UncheckedIOException if the schema can't be serialized
+     */
+    public HashCode hash(Schema<?> schema) {
+        HashCode hash = hashes.getIfPresent(schema);
+        if (hash == null) {
+            // not Cache#get, the computation being recursive
+            Hasher hasher = Hashing.murmur3_128().newHasher();
+            try (OutputStream stream = Funnels.asOutputStream(hasher)) {
+                writer.withAttribute(ROOT, schema).writeValue(stream, schema);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to hash schema", e);
+            }
+            hash = hasher.hash();
+            hashes.put(schema, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * @param left  a schema
+     * @param right another schema
+     * @return whether the schemas serialize to the same JSON, properties sorted alphabetically
+     * @throws UncheckedIOException if a schema can't be serialized
+     */
+    public static boolean structurallyEqual(Schema<?> left, Schema<?> right) {
+        if (left == right) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        try {
+            return STRUCTURE_MAPPER.writeValueAsString(left).equals(STRUCTURE_MAPPER.writeValueAsString(right));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compare schemas", e);
+        }
+    }
+
+    /**
+     * Serializes the schema being hashed in full, and the schemas it nests as their hash.
+     */
+    private static final class NestedSchemaSerializer extends JsonSerializer<Object> implements ContextualSerializer, ResolvableSerializer {
+        private final JsonSerializer<Object> delegate;
+
+        NestedSchemaSerializer(JsonSerializer<Object> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (isNested(value, provider)) {
+                writeHash(value, generator, provider);
+            } else {
+                delegate.serialize(value, generator, provider);
+            }
+        }
+
+        @Override
+        public void serializeWithType(Object value, JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer) throws IOException {
+            if (isNested(value, provider)) {
+                writeHash(value, generator, provider);
+            } else {
+                delegate.serializeWithType(value, generator, provider, typeSerializer);
+            }
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, Object value) {
+            return delegate.isEmpty(provider, value);
+        }
+
+        @Override
+        public Class<Object> handledType() {
+            return delegate.handledType();
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+            if (delegate instanceof ContextualSerializer) {
+                @SuppressWarnings("unchecked")
+                JsonSerializer<Object> contextual = (JsonSerializer<Object>) ((ContextualSerializer) delegate).createContextual(provider, property);
+                return contextual == delegate ? this : new NestedSchemaSerializer(contextual);
+            }
+            return this;
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer) {
+                ((ResolvableSerializer) delegate).resolve(provider);
+            }
+        }
+
+        private static boolean isNested(Object value, SerializerProvider provider) {
+            return provider.getAttribute(SchemaStructure.class) != null && provider.getAttribute(ROOT) != value;
+        }
+
+        private static void writeHash(Object value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            SchemaStructure structure = (SchemaStructure) provider.getAttribute(SchemaStructure.class);
+            try {
+                generator.writeBinary(structure.hash((Schema<?>) value).asBytes());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,11 +1,7 @@
 package org.openapitools.codegen.utils;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.Ticker;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
-import org.openapitools.codegen.config.GlobalSettings;
 
 import java.util.Collections;
 import java.util.List;
@@ -13,7 +9,6 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -21,46 +16,15 @@ import static org.openapitools.codegen.utils.CamelizeOption.UPPERCASE_FIRST_CHAR
 
 public class StringUtils {
     /**
-     * Set the cache size (entry count) of the sanitizedNameCache, camelizedWordsCache and underscoreWordsCache.
+     * Set the cache size (entry count) of the name caches used outside a generation run, or of the name caches of each
+     * generation run (instead of a size computed from the document), see {@link NameCaches}.
      */
     public static final String NAME_CACHE_SIZE_PROPERTY = "org.openapitools.codegen.utils.namecache.cachesize";
     /**
-     * Set the cache expiry (in seconds) of the sanitizedNameCache, camelizedWordsCache and underscoreWordsCache.
+     * Set the cache expiry (in seconds) of the name caches used outside a generation run, see {@link NameCaches}.
      */
     public static final String NAME_CACHE_EXPIRY_PROPERTY = "org.openapitools.codegen.utils.namecache.expireafter.seconds";
 
-    // A cache of camelized words. The camelize() method is invoked many times with the same
-    // arguments, this cache is used to optimized performance.
-    private static Cache<Pair<String, CamelizeOption>, String> camelizedWordsCache;
-
-    // A cache of underscored words, used to optimize the performance of the underscore() method.
-    private static Cache<String, String> underscoreWordsCache;
-
-    // A cache of escaped words, used to optimize the performance of the escape() method.
-    private static Cache<EscapedNameOptions, String> escapedWordsCache;
-
-    static {
-        int cacheSize = Integer.parseInt(GlobalSettings.getProperty(NAME_CACHE_SIZE_PROPERTY, "200"));
-        int cacheExpiry = Integer.parseInt(GlobalSettings.getProperty(NAME_CACHE_EXPIRY_PROPERTY, "5"));
-        camelizedWordsCache = Caffeine.newBuilder()
-                .maximumSize(cacheSize)
-                .expireAfterAccess(cacheExpiry, TimeUnit.SECONDS)
-                .ticker(Ticker.systemTicker())
-                .build();
-
-        escapedWordsCache = Caffeine.newBuilder()
-                .maximumSize(cacheSize)
-                .expireAfterAccess(cacheExpiry, TimeUnit.SECONDS)
-                .ticker(Ticker.systemTicker())
-                .build();
-
-        underscoreWordsCache = Caffeine.newBuilder()
-                .maximumSize(cacheSize)
-                .expireAfterAccess(cacheExpiry, TimeUnit.SECONDS)
-                .ticker(Ticker.systemTicker())
-                .build();
-    }
-
     private static Pattern capitalLetterPattern = Pattern.compile("([A-Z]+)([A-Z][a-z][a-z]+)");
     private static Pattern lowercasePattern = Pattern.compile("([a-z\\d])([A-Z])");
     private static Pattern pkgSeparatorPattern = Pattern.compile("\\.");
@@ -75,11 +39,22 @@ public class StringUtils {
      * @return The underscored version of the word
      */
     public static String underscore(final String word) {
-        return underscoreWordsCache.get(word, wordToUnderscore -> {
+        String result = Casing.underscore(word);
+        return result != null ? result : underscoreWithRegex(word);
+    }
+
+    /**
+     * Underscore the given word using regular expressions, for words not handled by {@link Casing#underscore(String)}.
+     *
+     * @param word The word
+     * @return The underscored version of the word
+     */
+    static String underscoreWithRegex(final String word) {
+        return NameCaches.current().getUnderscoredWords().get(word, wordToUnderscore -> {
             String result;
             String replacementPattern = "$1_$2";
             // Replace package separator with slash.
-            result = pkgSeparatorPattern.matcher(wordToUnderscore).replaceAll("/");
+            result = pkgSeparatorPattern.matcher(word).replaceAll("/");
             // Replace $ with two underscores for inner classes.
             result = dollarPattern.matcher(result).replaceAll("__");
             // Replace capital letter with _ plus lowercase letter.
@@ -100,7 +75,7 @@ public class StringUtils {
      * @return The dashized version of the word, e.g. "my-name"
      */
     public static String dashize(String word) {
-        return underscore(word).replaceAll("[_ ]+", "-");
+        return Casing.dashize(underscore(word));
     }
 
     /**
@@ -130,11 +105,24 @@ public class StringUtils {
      * @return camelized string
      */
     public static String camelize(final String inputWord, CamelizeOption camelizeOption) {
+        String result = Casing.camelize(inputWord, camelizeOption);
+        return result != null ? result : camelizeWithRegex(inputWord, camelizeOption);
+    }
+
+    /**
+     * Camelize name using regular expressions, for names not handled by
+     * {@link Casing#camelize(String, CamelizeOption)}.
+     *
+     * @param inputWord string to be camelize
+     * @param camelizeOption option for the camelize result
+     * @return camelized string
+     */
+    static String camelizeWithRegex(final String inputWord, CamelizeOption camelizeOption) {
         Pair<String, CamelizeOption> key = new ImmutablePair<>(inputWord, camelizeOption);
 
-        return camelizedWordsCache.get(key, pair -> {
-            String word = pair.getKey();
-            CamelizeOption option = pair.getValue();
+        return NameCaches.current().getCamelizedWords().get(key, pair -> {
+            String word = inputWord;
+            CamelizeOption option = camelizeOption;
             // Replace all slashes with dots (package separator)
             Matcher m = camelizeSlashPattern.matcher(word);
             while (m.find()) {
@@ -267,7 +255,7 @@ public class StringUtils {
     public static String escape(final String name, final Map<String, String> replacementMap,
                                 final List<String> charactersToAllow, final String appendToReplacement) {
         EscapedNameOptions ns = new EscapedNameOptions(name, replacementMap.keySet(), charactersToAllow, appendToReplacement);
-        return escapedWordsCache.get(ns, wordToEscape -> {
+        return NameCaches.current().getEscapedWords().get(ns, wordToEscape -> {
             String result = name.chars().mapToObj(c -> {
                 String character = String.valueOf((char) c);
                 if (charactersToAllow != null && charactersToAllow.contains(character)) {
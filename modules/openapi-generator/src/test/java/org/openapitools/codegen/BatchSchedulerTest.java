@@ -0,0 +1,198 @@
+package org.openapitools.codegen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.codegen.BatchScheduler.Job;
+import org.openapitools.codegen.BatchScheduler.JobResult;
+import org.openapitools.codegen.BatchScheduler.Status;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+public class BatchSchedulerTest {
+    private static final long MB = 1L << 20;
+
+    @Test
+    public void testLargestJobsStartFirst() throws InterruptedException {
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        List<Job> jobs = Arrays.asList(
+                new Job("small", 1, () -> started.add("small")),
+                new Job("large", 3, () -> started.add("large")),
+                new Job("medium", 2, () -> started.add("medium")),
+                new Job("other-medium", 2, () -> started.add("other-medium")));
+
+        List<JobResult> results = new BatchScheduler(1, 10).run(jobs, 1, TimeUnit.MINUTES);
+
+        Assert.assertEquals(started, Arrays.asList("large", "medium", "other-medium", "small"));
+        Assert.assertEquals(results.stream().map(JobResult::getName).collect(Collectors.toList()),
+                Arrays.asList("small", "large", "medium", "other-medium"));
+        results.forEach(result -> {
+            Assert.assertEquals(result.getStatus(), Status.SUCCEEDED);
+            Assert.assertTrue(result.getWallMillis() >= 0);
+            Assert.assertTrue(result.getPeakHeapBytes() > 0);
+        });
+    }
+
+    @Test
+    public void testRunningJobsFitInHeapBudget() throws InterruptedException {
+        AtomicLong admitted = new AtomicLong();
+        AtomicLong maxAdmitted = new AtomicLong();
+        // the largest job runs until a smaller one runs next to it
+        CountDownLatch largestStarted = new CountDownLatch(1);
+        CountDownLatch filled = new CountDownLatch(1);
+        List<Job> jobs = new ArrayList<>();
+        long[] costs = {60, 50, 40, 30, 30, 20, 10, 10, 10};
+        for (int i = 0; i < costs.length; i++) {
+            long cost = costs[i] * MB;
+            boolean largest = i == 0;
+            jobs.add(new Job("job" + i, cost, () -> {
+                if (largest) {
+                    maxAdmitted.accumulateAndGet(admitted.addAndGet(cost), Math::max);
+                    largestStarted.countDown();
+                    filled.await(1, TimeUnit.MINUTES);
+                } else {
+                    largestStarted.await(1, TimeUnit.MINUTES);
+                    maxAdmitted.accumulateAndGet(admitted.addAndGet(cost), Math::max);
+                    filled.countDown();
+                }
+                admitted.addAndGet(-cost);
+                return null;
+            }));
+        }
+
+        List<JobResult> results = new BatchScheduler(4, 100 * MB).run(jobs, 1, TimeUnit.MINUTES);
+
+        results.forEach(result -> Assert.assertEquals(result.getStatus(), Status.SUCCEEDED));
+        Assert.assertTrue(maxAdmitted.get() <= 100 * MB, "admitted " + maxAdmitted.get());
+        // smaller jobs fill the budget next to the largest ones
+        Assert.assertTrue(maxAdmitted.get() > 60 * MB, "admitted " + maxAdmitted.get());
+    }
+
+    @Test
+    public void testJobLargerThanBudgetRunsAlone() throws InterruptedException {
+        AtomicBoolean hugeFinished = new AtomicBoolean();
+        AtomicBoolean smallAfterHuge = new AtomicBoolean();
+        Job huge = new Job("huge", 500 * MB, () -> {
+            hugeFinished.set(true);
+            return null;
+        });
+        Job small = new Job("small", MB, () -> {
+            smallAfterHuge.set(hugeFinished.get());
+            return null;
+        });
+        BatchScheduler scheduler = new BatchScheduler(2, 100 * MB);
+
+        List<JobResult> results = scheduler.run(Arrays.asList(huge, small), 1, TimeUnit.MINUTES);
+
+        Assert.assertEquals(results.get(0).getStatus(), Status.SUCCEEDED);
+        Assert.assertEquals(results.get(1).getStatus(), Status.SUCCEEDED);
+        Assert.assertTrue(smallAfterHuge.get());
+
+        List<JobResult> pending = Collections.singletonList(new JobResult(small));
+        Assert.assertNull(scheduler.nextAdmissible(pending, huge.getEstimatedBytes(), false));
+        Assert.assertSame(scheduler.nextAdmissible(pending, 0, false), pending.get(0));
+        JobResult alone = new JobResult(huge);
+        Assert.assertNull(scheduler.nextAdmissible(Collections.singletonList(alone), MB, false));
+        Assert.assertSame(scheduler.nextAdmissible(Collections.singletonList(alone), 0, true), alone);
+    }
+
+    @Test
+    public void testFailuresAndTimeout() throws Exception {
+        BatchScheduler scheduler = new BatchScheduler(1, 10);
+        CountDownLatch stuckFinished = new CountDownLatch(1);
+        List<Job> jobs = Arrays.asList(
+                new Job("failing", 3, () -> {
+                    throw new IllegalStateException("broken spec");
+                }),
+                new Job("stuck", 2, () -> {
+                    // stops the batch as its timeout would, then runs until interrupted
+                    scheduler.cancel();
+                    try {
+                        new CountDownLatch(1).await();
+                        return null;
+                    } finally {
+                        stuckFinished.countDown();
+                    }
+                }),
+                new Job("not-started", 1, () -> null));
+
+        List<JobResult> results = scheduler.run(jobs, 1, TimeUnit.MINUTES);
+        Assert.assertTrue(stuckFinished.await(1, TimeUnit.MINUTES));
+
+        Assert.assertEquals(results.get(0).getStatus(), Status.FAILED);
+        Assert.assertEquals(results.get(0).getError(), "java.lang.IllegalStateException: broken spec");
+        // not changed by the job ending after the timeout
+        Assert.assertEquals(results.get(1).getStatus(), Status.TIMED_OUT);
+        Assert.assertNull(results.get(1).getError());
+        Assert.assertTrue(results.get(1).getWallMillis() >= 0);
+        Assert.assertEquals(results.get(2).getStatus(), Status.SKIPPED);
+        Assert.assertEquals(results.get(2).getWallMillis(), -1.0);
+
+        JsonNode summary = Json.mapper().readTree(scheduler.toJson(results));
+        Assert.assertEquals(summary.get("threads").asInt(), 1);
+        Assert.assertEquals(summary.get("heapBudgetBytes").asLong(), 10);
+        JsonNode failing = summary.get("jobs").get(0);
+        Assert.assertEquals(failing.get("name").asText(), "failing");
+        Assert.assertEquals(failing.get("status").asText(), "failed");
+        Assert.assertEquals(failing.get("estimatedBytes").asLong(), 3);
+        Assert.assertEquals(failing.get("error").asText(), "java.lang.IllegalStateException: broken spec");
+        Assert.assertTrue(failing.has("wallMillis"));
+        Assert.assertTrue(failing.has("peakHeapBytes"));
+        Assert.assertTrue(failing.has("allocatedBytes"));
+        Assert.assertEquals(summary.get("jobs").get(2).get("status").asText(), "skipped");
+    }
+
+    @DataProvider(name = "specs")
+    public Object[][] specs() {
+        return new Object[][]{
+                {"src/test/resources/2_0/petstore.yaml"},
+                {"src/test/resources/3_0/petstore.yaml"},
+                {"src/test/resources/3_0/petstore-with-fake-endpoints-models-for-testing.yaml"},
+                {"src/test/resources/3_0/issue12545.json"},
+        };
+    }
+
+    @Test(dataProvider = "specs")
+    public void testCountSchemas(String inputSpec) throws Exception {
+        OpenAPI openAPI = new OpenAPIParser().readLocation(inputSpec, null, null).getOpenAPI();
+        int expected = openAPI.getComponents() == null || openAPI.getComponents().getSchemas() == null
+                ? 0 : openAPI.getComponents().getSchemas().size();
+
+        Assert.assertEquals(BatchScheduler.countSchemas(Paths.get(inputSpec)), expected);
+    }
+
+    @Test
+    public void testEstimateHeapBytes() {
+        String small = "src/test/resources/3_0/petstore.yaml";
+        String large = "src/test/resources/3_0/petstore-with-fake-endpoints-models-for-testing.yaml";
+        Assert.assertTrue(BatchScheduler.estimateHeapBytes(large) > BatchScheduler.estimateHeapBytes(small));
+        Assert.assertEquals(BatchScheduler.estimateHeapBytes("https://example.com/openapi.yaml"),
+                BatchScheduler.estimateHeapBytes(BatchScheduler.UNKNOWN_SPEC_BYTES, 0));
+        Assert.assertEquals(BatchScheduler.estimateHeapBytes("no-such-spec.yaml"),
+                BatchScheduler.estimateHeapBytes(BatchScheduler.UNKNOWN_SPEC_BYTES, 0));
+    }
+
+    @Test
+    public void testParseSize() {
+        Assert.assertEquals(BatchScheduler.parseSize("1024"), 1024);
+        Assert.assertEquals(BatchScheduler.parseSize("512k"), 512L << 10);
+        Assert.assertEquals(BatchScheduler.parseSize("512M"), 512L << 20);
+        Assert.assertEquals(BatchScheduler.parseSize(" 4g "), 4L << 30);
+        for (String invalid : Arrays.asList("", "g", "-1m", "0", "1.5g", "1t")) {
+            Assert.expectThrows(IllegalArgumentException.class, () -> BatchScheduler.parseSize(invalid));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.openapitools.codegen;
+
+import org.openapitools.codegen.languages.JavaClientCodegen;
+import org.openapitools.codegen.meta.Stability;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CodegenConfigIndexTest {
+    @Test
+    public void testIndexIsUpToDate() {
+        CodegenConfigIndex index = CodegenConfigIndex.get();
+        List<CodegenConfig> configs = CodegenConfigLoader.getAll();
+        String hint = "The generator index is outdated, build the module again (mvn process-classes)";
+        for (CodegenConfig config : configs) {
+            GeneratorDescriptor descriptor = index.find(config.getName());
+            Assert.assertNotNull(descriptor, hint + " (missing " + config.getName() + ")");
+            Assert.assertEquals(descriptor.getClassName(), config.getClass().getName(), hint);
+            Assert.assertEquals(descriptor.getTag(), config.getTag(), hint);
+            Assert.assertEquals(descriptor.getStability(), GeneratorDescriptor.of(config).getStability(), hint);
+        }
+        Assert.assertEquals(index.getGenerators().size(), configs.size(), hint);
+        Assert.assertEquals(index.getUnindexedClassNames(), Collections.emptyList());
+    }
+
+    @Test
+    public void testForName() {
+        Assert.assertTrue(CodegenConfigLoader.forName("java") instanceof JavaClientCodegen);
+        Assert.assertTrue(CodegenConfigLoader.forName(JavaClientCodegen.class.getName()) instanceof JavaClientCodegen);
+
+        GeneratorNotFoundException e = Assert.expectThrows(GeneratorNotFoundException.class,
+                () -> CodegenConfigLoader.forName("no-such-generator"));
+        Assert.assertTrue(e.getMessage().contains("\njava\n"), e.getMessage());
+    }
+
+    @Test
+    public void testGetAllDescriptors() {
+        List<String> names = CodegenConfigLoader.getAllDescriptors().stream()
+                .map(GeneratorDescriptor::getName)
+                .collect(Collectors.toList());
+        Assert.assertEquals(names, CodegenConfigLoader.getAll().stream()
+                .map(CodegenConfig::getName)
+                .sorted()
+                .collect(Collectors.toList()));
+
+        GeneratorDescriptor java = CodegenConfigIndex.get().find("java");
+        Assert.assertEquals(java.getTag(), CodegenType.CLIENT);
+        Assert.assertEquals(java.getStability(), Stability.STABLE);
+    }
+
+    @Test
+    public void testServicesMissingFromIndex() throws IOException {
+        Path resources = Files.createTempDirectory("generator-index");
+        try {
+            Path index = resources.resolve(CodegenConfigIndex.RESOURCE);
+            Files.createDirectories(index.getParent());
+            Files.write(index, Arrays.asList(
+                    "# comment",
+                    "java\torg.openapitools.codegen.languages.JavaClientCodegen\tclient\tstable",
+                    "custom\tcom.example.CustomCodegen\t\t",
+                    "invalid"), StandardCharsets.UTF_8);
+            Path services = resources.resolve("META-INF/services/" + CodegenConfig.class.getName());
+            Files.createDirectories(services.getParent());
+            Files.write(services, Arrays.asList(
+                    "org.openapitools.codegen.languages.JavaClientCodegen",
+                    "com.example.OtherCodegen # not indexed"), StandardCharsets.UTF_8);
+
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{resources.toUri().toURL()}, null)) {
+                CodegenConfigIndex loaded = CodegenConfigIndex.load(classLoader);
+                Assert.assertEquals(loaded.getGenerators().size(), 2);
+                GeneratorDescriptor custom = loaded.find("custom");
+                Assert.assertEquals(custom.getClassName(), "com.example.CustomCodegen");
+                Assert.assertNull(custom.getTag());
+                Assert.assertNull(custom.getStability());
+                Assert.assertEquals(loaded.getUnindexedClassNames(), Collections.singletonList("com.example.OtherCodegen"));
+            }
+        } finally {
+            resources.toFile().deleteOnExit();
+        }
+    }
+}
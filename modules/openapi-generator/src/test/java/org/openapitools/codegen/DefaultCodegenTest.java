@@ -23,6 +23,7 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import com.google.common.collect.Sets;
+import com.samskivert.mustache.Mustache;
 import com.samskivert.mustache.Mustache.Lambda;
 import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.oas.models.Components;
@@ -125,6 +126,50 @@ public class DefaultCodegenTest {
         Assertions.assertTrue(codegen.hasBodyParameter(createOperation));
     }
 
+    @Test
+    public void testFromPropertyCache() {
+        OpenAPI openAPI = new OpenAPI();
+        openAPI.setComponents(new Components());
+        openAPI.getComponents().addSchemas("Pet", new ObjectSchema().addProperty("name", new StringSchema()));
+        final DefaultCodegen codegen = new DefaultCodegen();
+        codegen.setOpenAPI(openAPI);
+        Schema<?> pet = new Schema<>().$ref("#/components/schemas/Pet");
+
+        CodegenProperty property = codegen.fromProperty("pet", pet, false);
+        // same schema
+        Assertions.assertSame(codegen.fromProperty("pet", pet, false), property);
+        // distinct but equal schema
+        Assertions.assertSame(codegen.fromProperty("pet", new Schema<>().$ref("#/components/schemas/Pet"), false), property);
+        Assertions.assertEquals(codegen.getPropertyCacheStats().hitCount(), 2);
+        Assertions.assertEquals(codegen.getPropertyCacheStats().missCount(), 1);
+
+        Assertions.assertNotSame(codegen.fromProperty("pet", pet, true), property);
+        Assertions.assertNotSame(codegen.fromProperty("otherPet", pet, false), property);
+        Assertions.assertNotSame(codegen.fromProperty("pet", new Schema<>().$ref("#/components/schemas/Pet").description("a pet"), false), property);
+        Assertions.assertEquals(codegen.getPropertyCacheStats().missCount(), 4);
+    }
+
+    @Test
+    public void testJsonSchemaSharedAcrossEqualSchemas() {
+        final DefaultCodegen codegen = new DefaultCodegen();
+        codegen.setOpenAPI(new OpenAPI().components(new Components()));
+        Schema<?> pet = new ObjectSchema().addProperty("name", new StringSchema().maxLength(10));
+        Schema<?> otherPet = new ObjectSchema().addProperty("name", new StringSchema().maxLength(10));
+
+        CodegenModel model = codegen.fromModel("Pet", pet);
+        CodegenModel otherModel = codegen.fromModel("OtherPet", otherPet);
+        CodegenProperty property = codegen.fromProperty("pet", pet, false);
+
+        Assertions.assertTrue(model.modelJson.contains("\"maxLength\" : 10"));
+        Assertions.assertSame(otherModel.modelJson, model.modelJson);
+        Assertions.assertTrue(property.jsonSchema.contains("\"maxLength\" : 10"));
+
+        // the JSON is that of the schema when the model was created
+        otherPet.setDescription("changed");
+        Assertions.assertFalse(otherModel.modelJson.contains("changed"));
+        Assertions.assertEquals(Mustache.compiler().escapeHTML(false).compile("{{modelJson}}").execute(otherModel), model.modelJson);
+    }
+
     @Test(expectedExceptions = RuntimeException.class)
     public void testParameterEmptyDescription() {
         DefaultCodegen codegen = new DefaultCodegen();
@@ -1,10 +1,16 @@
 package org.openapitools.codegen;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Discriminator;
 import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.media.StringSchema;
 import io.swagger.v3.oas.models.parameters.QueryParameter;
@@ -15,10 +21,15 @@ import org.openapitools.codegen.config.CodegenConfigurator;
 import org.openapitools.codegen.config.GlobalSettings;
 import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.OperationsMap;
+import org.openapitools.codegen.templating.InMemoryOutputSink;
+import org.openapitools.codegen.templating.ZipOutputSink;
 import org.openapitools.codegen.utils.ModelUtils;
+import org.openapitools.codegen.utils.NameCaches;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -26,6 +37,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 public class DefaultGeneratorTest {
 
@@ -970,4 +984,251 @@ public class DefaultGeneratorTest {
         }
     }
 
+    @Test
+    public void testParallelRenderingMatchesSequential() throws IOException {
+        Path sequentialTarget = Files.createTempDirectory("test-sequential");
+        Path parallelTarget = Files.createTempDirectory("test-parallel");
+        try {
+            List<File> sequentialFiles = generatePetstore(sequentialTarget, "1");
+            List<File> parallelFiles = generatePetstore(parallelTarget, "4");
+
+            Assert.assertEquals(parallelFiles.size(), sequentialFiles.size());
+            for (int i = 0; i < sequentialFiles.size(); i++) {
+                Path sequentialFile = sequentialFiles.get(i).toPath();
+                Path parallelFile = parallelFiles.get(i).toPath();
+                Assert.assertEquals(parallelTarget.relativize(parallelFile.toAbsolutePath()),
+                        sequentialTarget.relativize(sequentialFile.toAbsolutePath()));
+                if (Files.isRegularFile(sequentialFile)) {
+                    Assert.assertEquals(Files.readAllBytes(parallelFile), Files.readAllBytes(sequentialFile), parallelFile.toString());
+                }
+            }
+        } finally {
+            sequentialTarget.toFile().deleteOnExit();
+            parallelTarget.toFile().deleteOnExit();
+        }
+    }
+
+    private List<File> generatePetstore(Path target, String renderThreads) {
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("java")
+                .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                .addAdditionalProperty(CodegenConstants.HIDE_GENERATION_TIMESTAMP, true)
+                .setOutputDir(target.toAbsolutePath().toString());
+
+        DefaultGenerator generator = new DefaultGenerator(false);
+        generator.setGeneratorPropertyDefault(CodegenConstants.RENDER_THREADS, renderThreads);
+        generator.setGenerateMetadata(false);
+        return generator.opts(configurator.toClientOptInput()).generate();
+    }
+
+    @Test
+    public void testIncrementalGenerationSkipsUnchangedModelsAndApis() throws IOException {
+        Path target = Files.createTempDirectory("test-incremental");
+        try {
+            OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+            generateIncrementally(openAPI, target);
+            Assert.assertTrue(Files.exists(target.resolve(".openapi-generator/FINGERPRINTS")));
+
+            Path category = target.resolve("src/main/java/org/openapitools/client/model/Category.java");
+            Path pet = target.resolve("src/main/java/org/openapitools/client/model/Pet.java");
+            Path petApi = target.resolve("src/main/java/org/openapitools/client/api/PetApi.java");
+            for (Path path : Arrays.asList(category, pet, petApi)) {
+                Files.write(path, "// unchanged".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            }
+
+            // only Pet (and the apis using it) change
+            openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+            openAPI.getComponents().getSchemas().get("Pet").addProperty("nickname", new StringSchema());
+            List<File> secondRun = generateIncrementally(openAPI, target);
+
+            Assert.assertTrue(Files.readString(category).endsWith("// unchanged"));
+            Assert.assertFalse(Files.readString(pet).endsWith("// unchanged"));
+            Assert.assertTrue(Files.readString(pet).contains("nickname"));
+            Assert.assertFalse(Files.readString(petApi).endsWith("// unchanged"));
+            // skipped files are still listed as generated
+            TestUtils.ensureContainsFile(secondRun, target.toFile(), "src/main/java/org/openapitools/client/model/Category.java");
+            TestUtils.ensureContainsFile(secondRun, target.toFile(), "docs/Category.md");
+        } finally {
+            target.toFile().deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testModelFingerprintCoversTransitiveComposition() {
+        Map<String, String> fingerprints = modelFingerprints(compositionSpec());
+
+        // a grandchild changes: the model and its subclass list the subclasses
+        OpenAPI openAPI = compositionSpec();
+        openAPI.getComponents().getSchemas().get("Puppy").addProperty("age", new IntegerSchema());
+        Map<String, String> changed = modelFingerprints(openAPI);
+        Assert.assertNotEquals(changed.get("Animal"), fingerprints.get("Animal"));
+        Assert.assertNotEquals(changed.get("Dog"), fingerprints.get("Dog"));
+        Assert.assertNotEquals(changed.get("Puppy"), fingerprints.get("Puppy"));
+        Assert.assertEquals(changed.get("Cat"), fingerprints.get("Cat"));
+
+        // a oneOf parent changes: its members implement it
+        openAPI = compositionSpec();
+        openAPI.getComponents().getSchemas().get("Pet").setDescription("A pet");
+        changed = modelFingerprints(openAPI);
+        Assert.assertNotEquals(changed.get("Cat"), fingerprints.get("Cat"));
+        Assert.assertNotEquals(changed.get("Dog"), fingerprints.get("Dog"));
+        Assert.assertEquals(changed.get("Puppy"), fingerprints.get("Puppy"));
+
+        // a discriminator maps to a schema which doesn't compose it
+        openAPI = compositionSpec();
+        openAPI.getComponents().getSchemas().get("Owner").setDescription("An owner");
+        changed = modelFingerprints(openAPI);
+        Assert.assertNotEquals(changed.get("Cat"), fingerprints.get("Cat"));
+        Assert.assertNotEquals(changed.get("Owner"), fingerprints.get("Owner"));
+        Assert.assertEquals(changed.get("Dog"), fingerprints.get("Dog"));
+    }
+
+    private static OpenAPI compositionSpec() {
+        Schema<?> animal = new ObjectSchema().addProperty("type", new StringSchema())
+                .discriminator(new Discriminator().propertyName("type").mapping("dog", "#/components/schemas/Dog"));
+        Schema<?> dog = new ComposedSchema().addAllOfItem(new Schema<>().$ref("#/components/schemas/Animal"));
+        Schema<?> puppy = new ComposedSchema().addAllOfItem(new Schema<>().$ref("#/components/schemas/Dog"));
+        Schema<?> cat = new ObjectSchema().addProperty("type", new StringSchema())
+                .discriminator(new Discriminator().propertyName("type").mapping("owner", "Owner"));
+        Schema<?> pet = new ComposedSchema().addOneOfItem(new Schema<>().$ref("#/components/schemas/Cat"))
+                .addOneOfItem(new Schema<>().$ref("#/components/schemas/Dog"));
+        Schema<?> owner = new ObjectSchema().addProperty("name", new StringSchema());
+        return new OpenAPI().components(new Components().addSchemas("Animal", animal).addSchemas("Dog", dog)
+                .addSchemas("Puppy", puppy).addSchemas("Cat", cat).addSchemas("Pet", pet).addSchemas("Owner", owner));
+    }
+
+    private static Map<String, String> modelFingerprints(OpenAPI openAPI) {
+        GenerationManifest manifest = new GenerationManifest(GenerationManifest.toTree(openAPI), "global",
+                Path.of("target"), Path.of("target", "missing"));
+        Map<String, String> fingerprints = new HashMap<>();
+        for (String name : openAPI.getComponents().getSchemas().keySet()) {
+            fingerprints.put(name, manifest.modelFingerprint(name));
+        }
+        return fingerprints;
+    }
+
+    private List<File> generateIncrementally(OpenAPI openAPI, Path target) {
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("java")
+                .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                .setOutputDir(target.toAbsolutePath().toString());
+        ClientOptInput input = configurator.toClientOptInput();
+        input.openAPI(openAPI);
+
+        DefaultGenerator generator = new DefaultGenerator(false);
+        generator.setGeneratorPropertyDefault(CodegenConstants.INCREMENTAL, "true");
+        return generator.opts(input).generate();
+    }
+
+
+    @Test
+    public void testProfileGenerationWritesReport() throws IOException {
+        Path target = Files.createTempDirectory("test-profile");
+        try {
+            final CodegenConfigurator configurator = new CodegenConfigurator()
+                    .setGeneratorName("java")
+                    .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                    .setOutputDir(target.toAbsolutePath().toString());
+
+            DefaultGenerator generator = new DefaultGenerator(false);
+            generator.setGeneratorPropertyDefault(CodegenConstants.PROFILE_GENERATION, "3");
+            generator.setGeneratorPropertyDefault(CodegenConstants.RENDER_THREADS, "2");
+            List<File> files = generator.opts(configurator.toClientOptInput()).generate();
+
+            Path report = target.resolve(".openapi-generator/PROFILE.json");
+            Assert.assertTrue(Files.exists(report));
+            Assert.assertTrue(files.stream().noneMatch(f -> f.getName().equals("PROFILE.json")));
+            Assert.assertFalse(Files.readString(target.resolve(".openapi-generator/FILES")).contains("PROFILE.json"));
+
+            JsonNode profile = new ObjectMapper().readTree(report.toFile());
+            List<String> phases = new ArrayList<>();
+            profile.get("phases").forEach(phase -> phases.add(phase.get("name").asText()));
+            Assert.assertEquals(phases, Arrays.asList("configureGeneratorProperties", "processOpenAPI", "generateModels",
+                    "generateApis", "generateWebhooks", "buildSupportFileBundle", "generateSupportingFiles", "postProcess"));
+
+            JsonNode models = profile.get("phases").get(2);
+            Assert.assertEquals(models.get("phases").get(0).get("name").asText(), "processing");
+            Assert.assertEquals(models.get("phases").get(1).get("name").asText(), "rendering");
+            Assert.assertTrue(models.get("wallMillis").asDouble() >= models.get("phases").get(1).get("wallMillis").asDouble());
+            Assert.assertEquals(profile.get("slowestTemplates").size(), 3);
+            Assert.assertEquals(profile.get("slowestModels").size(), 3);
+            Assert.assertTrue(profile.get("slowestModels").get(0).has("renderingMillis"));
+
+            List<String> nameCaches = new ArrayList<>();
+            profile.get("nameCaches").forEach(cache -> nameCaches.add(cache.get("name").asText()));
+            Assert.assertEquals(nameCaches, Arrays.asList("sanitizeName", "camelize", "underscore", "escape"));
+            Assert.assertTrue(profile.get("nameCaches").get(0).get("hits").asLong() > 0);
+            Assert.assertEquals(generator.getNameCaches().stats().get("sanitizeName").hitCount(),
+                    profile.get("nameCaches").get(0).get("hits").asLong());
+            Assert.assertNotSame(NameCaches.current(), generator.getNameCaches());
+            Assert.assertTrue(profile.get("propertyCache").get("hits").asLong() > 0);
+            Assert.assertTrue(profile.get("propertyCache").get("misses").asLong() > 0);
+        } finally {
+            target.toFile().deleteOnExit();
+        }
+    }
+
+    @Test
+    public void testFailedGenerationReleasesThreadState() {
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("java")
+                .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                .setOutputDir("out");
+        InMemoryOutputSink failing = new InMemoryOutputSink("out") {
+            @Override
+            public void write(Path path, byte[] contents, int length) {
+                throw new IllegalStateException("disk full");
+            }
+        };
+        NameCaches outsideRun = NameCaches.current();
+        GlobalSettings.setProperty("testFailedGeneration", "true");
+        DefaultGenerator generator = new DefaultGenerator(false);
+
+        Assert.assertThrows(RuntimeException.class,
+                () -> generator.opts(configurator.toClientOptInput().outputSink(failing)).generate());
+
+        Assert.assertNotSame(generator.getNameCaches(), outsideRun);
+        Assert.assertSame(NameCaches.current(), outsideRun);
+        Assert.assertNull(GlobalSettings.getProperty("testFailedGeneration"));
+    }
+
+    @Test
+    public void testGenerateToOutputSinks() throws IOException {
+        Path target = Files.createTempDirectory("test-sink").resolve("out");
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("java")
+                .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                .setOutputDir(target.toAbsolutePath().toString());
+
+        InMemoryOutputSink memory = new InMemoryOutputSink(target.toString());
+        List<File> files = new DefaultGenerator(false)
+                .opts(configurator.toClientOptInput().outputSink(memory))
+                .generate();
+
+        Assert.assertFalse(Files.exists(target));
+        Assert.assertEquals(memory.getFiles().size(), files.size());
+        Assert.assertTrue(new String(memory.getFile(".openapi-generator/FILES"), StandardCharsets.UTF_8)
+                .contains("src/main/java/org/openapitools/client/model/Pet.java"));
+        Assert.assertTrue(new String(memory.getFile("src/main/java/org/openapitools/client/model/Pet.java"), StandardCharsets.UTF_8)
+                .contains("public class Pet"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            new DefaultGenerator(false)
+                    .opts(configurator.toClientOptInput().outputSink(new ZipOutputSink(zip, target.getParent().toString())))
+                    .generate();
+        }
+
+        Assert.assertFalse(Files.exists(target));
+        Map<String, byte[]> entries = new TreeMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+        Assert.assertEquals(entries.size(), memory.getFiles().size());
+        Assert.assertEquals(entries.get("out/docs/Pet.md"),
+                memory.getFile("docs/Pet.md"));
+    }
+
 }
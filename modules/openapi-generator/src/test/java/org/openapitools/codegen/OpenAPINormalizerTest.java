@@ -16,6 +16,7 @@
 
 package org.openapitools.codegen;
 
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.media.*;
@@ -23,6 +24,7 @@ import io.swagger.v3.oas.models.media.*;
 import org.openapitools.codegen.utils.ModelUtils;
 import org.testng.annotations.Test;
 
+import java.math.BigDecimal;
 import java.util.*;
 
 import static org.testng.Assert.*;
@@ -794,4 +796,59 @@ public class OpenAPINormalizerTest {
         assertEquals(((Schema) schema2.getProperties().get("property2")).getAllOf(), null);
         assertEquals(((Schema) schema2.getProperties().get("property2")).getAllOf(), null);
     }
+
+    @Test
+    public void testOpenAPINormalizerTimesEnabledRulesOnly() {
+        OpenAPI openAPI = TestUtils.parseSpec("src/test/resources/3_0/addUnsignedToIntegerWithInvalidMaxValue_test.yaml");
+
+        Map<String, String> inputRules = Map.of("ADD_UNSIGNED_TO_INTEGER_WITH_INVALID_MAX_VALUE", "true", "SIMPLIFY_BOOLEAN_ENUM", "false");
+        OpenAPINormalizer openAPINormalizer = new OpenAPINormalizer(openAPI, inputRules);
+        openAPINormalizer.normalize();
+
+        Map<String, Long> invocations = new TreeMap<>();
+        for (OpenAPINormalizer.RuleTiming timing : openAPINormalizer.getRuleTimings()) {
+            invocations.put(timing.getName(), timing.getInvocations());
+        }
+        assertEquals(invocations.keySet(), Set.of("ADD_UNSIGNED_TO_INTEGER_WITH_INVALID_MAX_VALUE", "SIMPLIFY_ONEOF_ANYOF"));
+        assertTrue(invocations.get("ADD_UNSIGNED_TO_INTEGER_WITH_INVALID_MAX_VALUE") > 0);
+    }
+
+    @Test
+    public void testOpenAPINormalizerNormalizesEqualSchemasEach() {
+        // visited schemas are tracked by identity: equal sub-schemas are each normalized, the same one once
+        IntegerSchema integer = new IntegerSchema();
+        ComposedSchema schema = new ComposedSchema();
+        schema.addAllOfItem(integer);
+        schema.addAllOfItem(new IntegerSchema());
+        schema.addAllOfItem(integer);
+        OpenAPI openAPI = new OpenAPI().components(new Components().addSchemas("Integers", schema));
+
+        Map<String, String> inputRules = Map.of("ADD_UNSIGNED_TO_INTEGER_WITH_INVALID_MAX_VALUE", "true");
+        OpenAPINormalizer openAPINormalizer = new OpenAPINormalizer(openAPI, inputRules);
+        openAPINormalizer.normalize();
+
+        Map<String, Long> invocations = new TreeMap<>();
+        for (OpenAPINormalizer.RuleTiming timing : openAPINormalizer.getRuleTimings()) {
+            invocations.put(timing.getName(), timing.getInvocations());
+        }
+        assertEquals(invocations.get("ADD_UNSIGNED_TO_INTEGER_WITH_INVALID_MAX_VALUE"), Long.valueOf(2));
+    }
+
+    @Test
+    public void testOpenAPINormalizerNormalizesSchemaSimplifiedInPlace() {
+        // the oneOf of an integer schema is removed, then the schema is normalized as an integer
+        IntegerSchema schema = new IntegerSchema();
+        schema.setMinimum(BigDecimal.ZERO);
+        schema.setMaximum(new BigDecimal("4294967295"));
+        schema.addOneOfItem(new IntegerSchema());
+        schema.addOneOfItem(new IntegerSchema());
+        OpenAPI openAPI = new OpenAPI().components(new Components().addSchemas("Unsigned", schema));
+
+        Map<String, String> inputRules = Map.of("ADD_UNSIGNED_TO_INTEGER_WITH_INVALID_MAX_VALUE", "true");
+        new OpenAPINormalizer(openAPI, inputRules).normalize();
+
+        Schema normalized = openAPI.getComponents().getSchemas().get("Unsigned");
+        assertNull(normalized.getOneOf());
+        assertEquals(normalized.getExtensions().get("x-unsigned"), true);
+    }
 }
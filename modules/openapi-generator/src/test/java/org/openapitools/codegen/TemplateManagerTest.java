@@ -1,21 +1,29 @@
 package org.openapitools.codegen;
 
+import org.apache.commons.io.FileUtils;
 import org.openapitools.codegen.api.TemplatePathLocator;
+import org.openapitools.codegen.api.TemplatingExecutor;
 import org.openapitools.codegen.templating.HandlebarsEngineAdapter;
 import org.openapitools.codegen.templating.MustacheEngineAdapter;
 import org.openapitools.codegen.templating.TemplateManagerOptions;
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import static org.testng.Assert.*;
 
@@ -186,6 +194,98 @@ public class TemplateManagerTest {
         }
     }
 
+    @Test
+    public void minimalUpdateDetectsChangesOfSameLength() throws IOException {
+        TemplateManagerOptions opts = new TemplateManagerOptions(true,false);
+        TemplateManager manager = new TemplateManager(opts, mustacheEngineAdapter, new TemplatePathLocator[]{ locator });
+
+        Path target = Files.createTempDirectory("test-templatemanager");
+        try {
+            File output = new File(target.toFile(), "simple.txt");
+            Files.write(output.toPath(), "Teddy and 4".getBytes(StandardCharsets.UTF_8));
+
+            File written = manager.writeToFile(output.getPath(), "Teddy and 3");
+
+            assertEquals(Files.readAllLines(written.toPath()).get(0), "Teddy and 3");
+            assertFalse(new File(target.toFile(), "simple.txt.tmp").exists());
+        } finally {
+            target.toFile().delete();
+        }
+    }
+
+    @Test
+    public void writeStreamsSameContentsAsCompiledTemplate() throws IOException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name","Teddy");
+        data.put("age", "3");
+
+        Path target = Files.createTempDirectory("test-templatemanager");
+        try {
+            for (boolean minimalUpdate : new boolean[]{false, true}) {
+                TemplateManagerOptions opts = new TemplateManagerOptions(minimalUpdate,false);
+                TemplateManager manager = new TemplateManager(opts, mustacheEngineAdapter, new TemplatePathLocator[]{ locator });
+                String expected = mustacheEngineAdapter.compileTemplate(manager, data, "simple.mustache");
+
+                File output = new File(target.toFile(), "nested/" + minimalUpdate + "/simple.txt");
+                File written = manager.write(data, "simple.mustache", output);
+
+                assertEquals(new String(Files.readAllBytes(written.toPath()), StandardCharsets.UTF_8), expected);
+            }
+        } finally {
+            target.toFile().delete();
+        }
+    }
+
+    @Test
+    public void writeRemovesPartiallyRenderedFile() throws IOException {
+        TemplateManagerOptions opts = new TemplateManagerOptions(false,false);
+        MustacheEngineAdapter failingAdapter = new MustacheEngineAdapter() {
+            @Override
+            public void compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle, String templateFile, Writer out) throws IOException {
+                out.write("partial");
+                out.flush();
+                throw new IOException("rendering failed");
+            }
+        };
+        TemplateManager manager = new TemplateManager(opts, failingAdapter, new TemplatePathLocator[]{ locator });
+
+        Path target = Files.createTempDirectory("test-templatemanager");
+        try {
+            File output = new File(target.toFile(), "simple.txt");
+
+            assertThrows(IOException.class, () -> manager.write(new HashMap<>(), "simple.mustache", output));
+            assertFalse(output.exists());
+        } finally {
+            target.toFile().delete();
+        }
+    }
+
+    @Test
+    public void writeKeepsExistingFileWhenRenderingFails() throws IOException {
+        TemplateManagerOptions opts = new TemplateManagerOptions(false,false);
+        MustacheEngineAdapter failingAdapter = new MustacheEngineAdapter() {
+            @Override
+            public void compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle, String templateFile, Writer out) throws IOException {
+                out.write("partial");
+                out.flush();
+                throw new IOException("rendering failed");
+            }
+        };
+        TemplateManager manager = new TemplateManager(opts, failingAdapter, new TemplatePathLocator[]{ locator });
+
+        Path target = Files.createTempDirectory("test-templatemanager");
+        try {
+            File output = new File(target.toFile(), "simple.txt");
+            Files.write(output.toPath(), "hand-edited data".getBytes(StandardCharsets.UTF_8));
+
+            assertThrows(IOException.class, () -> manager.write(new HashMap<>(), "simple.mustache", output));
+            assertEquals(Files.readAllLines(output.toPath()).get(0), "hand-edited data");
+            assertEquals(target.toFile().list(), new String[]{"simple.txt"});
+        } finally {
+            FileUtils.deleteDirectory(target.toFile());
+        }
+    }
+
     @Test
     public void overwritesWhenSkipOverwriteFalse() throws IOException {
         TemplateManagerOptions opts = new TemplateManagerOptions(false,false);
@@ -248,4 +348,34 @@ public class TemplateManagerTest {
             target.toFile().delete();
         }
     }
+
+    @Test
+    public void writeKeepsFilePermissions() throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            throw new SkipException("POSIX permissions not supported");
+        }
+        TemplateManagerOptions opts = new TemplateManagerOptions(false,false);
+        TemplateManager manager = new TemplateManager(opts, mustacheEngineAdapter, new TemplatePathLocator[]{ locator });
+        Map<String, Object> data = new HashMap<>();
+        data.put("name","Teddy");
+        data.put("age", "3");
+
+        Path target = Files.createTempDirectory("test-templatemanager");
+        try {
+            // a file created as the generator creates files in place, i.e. with the permissions of the umask
+            Path reference = Files.write(target.resolve("reference.txt"), new byte[0]);
+            File created = manager.write(data, "simple.mustache", new File(target.toFile(), "simple.txt"));
+            assertEquals(Files.getPosixFilePermissions(created.toPath()), Files.getPosixFilePermissions(reference));
+
+            File executable = new File(target.toFile(), "git_push.sh");
+            Files.write(executable.toPath(), "original data".getBytes(StandardCharsets.UTF_8));
+            Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-x---");
+            Files.setPosixFilePermissions(executable.toPath(), permissions);
+            File replaced = manager.write(data, "simple.mustache", executable);
+            assertEquals(Files.readAllLines(replaced.toPath()).get(0), "Teddy and 3");
+            assertEquals(Files.getPosixFilePermissions(replaced.toPath()), permissions);
+        } finally {
+            FileUtils.deleteDirectory(target.toFile());
+        }
+    }
 }
@@ -0,0 +1,179 @@
+package org.openapitools.codegen.config;
+
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.apache.commons.io.FileUtils;
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.DefaultGenerator;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ParsedSpecCacheTest {
+    @DataProvider(name = "specs")
+    public Object[][] specs() {
+        return new Object[][]{
+                {"src/test/resources/2_0/petstore.yaml"},
+                {"src/test/resources/3_0/petstore-with-fake-endpoints-models-for-testing.yaml"},
+                {"src/test/resources/3_0/composed-oneof.yaml"},
+                {"src/test/resources/3_1/petstore.yaml"},
+                {"src/test/resources/3_1/composed-schema.yaml"},
+        };
+    }
+
+    @Test(dataProvider = "specs")
+    public void testCopyMatchesParsedSpec(String inputSpec) {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        SwaggerParseResult parsed = new OpenAPIParser().readLocation(inputSpec, null, options);
+
+        SwaggerParseResult copy = new ParsedSpecCache().read(inputSpec, null, options);
+
+        Assert.assertNotSame(copy.getOpenAPI(), parsed.getOpenAPI());
+        Assert.assertEquals(copy.getMessages(), parsed.getMessages());
+        Assert.assertEquals(copy.isOpenapi31(), parsed.isOpenapi31());
+        Assert.assertEquals(Json.pretty(copy.getOpenAPI()), Json.pretty(parsed.getOpenAPI()));
+        Map<String, Schema> schemas = parsed.getOpenAPI().getComponents().getSchemas();
+        schemas.forEach((name, schema) -> Assert.assertEquals(
+                copy.getOpenAPI().getComponents().getSchemas().get(name).getClass(), schema.getClass(), name));
+    }
+
+    @Test
+    public void testCopyPreservesSharedAndCyclicModels() {
+        Schema<?> shared = new StringSchema();
+        ObjectSchema node = new ObjectSchema();
+        node.addProperty("self", node);
+        node.addProperty("first", shared);
+        node.addProperty("second", shared);
+        ComposedSchema composed = new ComposedSchema();
+        composed.addAllOfItem(node);
+        OpenAPI openAPI = new OpenAPI().components(new Components()
+                .addSchemas("Node", node)
+                .addSchemas("Composed", composed));
+
+        OpenAPI copy = OpenAPICopier.copy(openAPI);
+
+        Schema<?> nodeCopy = copy.getComponents().getSchemas().get("Node");
+        Assert.assertNotSame(nodeCopy, node);
+        Assert.assertSame(nodeCopy.getProperties().get("self"), nodeCopy);
+        Assert.assertSame(nodeCopy.getProperties().get("first"), nodeCopy.getProperties().get("second"));
+        Assert.assertTrue(nodeCopy.getProperties().get("first") instanceof StringSchema);
+        Schema<?> composedCopy = copy.getComponents().getSchemas().get("Composed");
+        Assert.assertTrue(composedCopy instanceof ComposedSchema);
+        Assert.assertSame(composedCopy.getAllOf().get(0), nodeCopy);
+
+        nodeCopy.addProperty("added", new StringSchema());
+        Assert.assertFalse(node.getProperties().containsKey("added"));
+    }
+
+    @Test
+    public void testSpecParsedOnceForConfigurators() {
+        ParsedSpecCache cache = new ParsedSpecCache();
+        String inputSpec = "src/test/resources/3_0/petstore.yaml";
+        OpenAPI first = (OpenAPI) configurator("java", inputSpec, "target/parsed-spec-cache/java").setParsedSpecCache(cache)
+                .toContext().getSpecDocument();
+        OpenAPI second = (OpenAPI) configurator("python", inputSpec, "target/parsed-spec-cache/python").setParsedSpecCache(cache)
+                .toContext().getSpecDocument();
+
+        Assert.assertEquals(cache.getParseCount(), 1);
+        Assert.assertEquals(cache.getReadCount(), 2);
+        Assert.assertNotSame(first, second);
+        first.getComponents().getSchemas().remove("Pet");
+        Assert.assertTrue(second.getComponents().getSchemas().containsKey("Pet"));
+
+        configurator("java", "src/test/resources/3_0/petstore-echo.yaml", "target/parsed-spec-cache/echo")
+                .setParsedSpecCache(cache).toContext();
+        Assert.assertEquals(cache.getParseCount(), 2);
+    }
+
+    @Test
+    public void testSpecKeyedByContentParsedAgainOnceChanged() throws IOException {
+        Path directory = Files.createTempDirectory("parsed-spec-cache");
+        try {
+            Path spec = directory.resolve("petstore.yaml");
+            Files.copy(new File("src/test/resources/3_0/petstore.yaml").toPath(), spec);
+            ParseOptions options = new ParseOptions();
+            options.setResolve(true);
+            ParsedSpecCache cache = ParsedSpecCache.keyedByContent();
+
+            cache.read(spec.toString(), null, options);
+            cache.read(spec.toString(), null, options);
+            Assert.assertEquals(cache.getParseCount(), 1);
+
+            String changed = new String(Files.readAllBytes(spec), StandardCharsets.UTF_8)
+                    .replace("title: OpenAPI Petstore", "title: Changed Petstore");
+            Files.write(spec, changed.getBytes(StandardCharsets.UTF_8));
+            SwaggerParseResult result = cache.read(spec.toString(), null, options);
+            Assert.assertEquals(cache.getParseCount(), 2);
+            Assert.assertEquals(result.getOpenAPI().getInfo().getTitle(), "Changed Petstore");
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void testGenerateFromCachedSpec() throws IOException {
+        String inputSpec = "src/test/resources/3_0/petstore-with-fake-endpoints-models-for-testing.yaml";
+        Path output = Files.createTempDirectory("parsed-spec-cache");
+        try {
+            ParsedSpecCache cache = new ParsedSpecCache();
+            // the first generation modifies its copy of the spec
+            generate(configurator("java", inputSpec, output.resolve("first").toString()).setParsedSpecCache(cache));
+            generate(configurator("java", inputSpec, output.resolve("cached").toString()).setParsedSpecCache(cache));
+            generate(configurator("java", inputSpec, output.resolve("parsed").toString()));
+
+            Assert.assertEquals(cache.getParseCount(), 1);
+            Map<String, String> cached = contents(output.resolve("cached"));
+            Assert.assertFalse(cached.isEmpty());
+            Assert.assertEquals(cached, contents(output.resolve("parsed")));
+        } finally {
+            FileUtils.deleteDirectory(output.toFile());
+        }
+    }
+
+    private static CodegenConfigurator configurator(String generatorName, String inputSpec, String outputDir) {
+        return new CodegenConfigurator()
+                .setGeneratorName(generatorName)
+                .setInputSpec(inputSpec)
+                .setOutputDir(outputDir)
+                .addAdditionalProperty(CodegenConstants.HIDE_GENERATION_TIMESTAMP, true);
+    }
+
+    private static void generate(CodegenConfigurator configurator) {
+        ClientOptInput input = configurator.toClientOptInput();
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.setGenerateMetadata(false);
+        generator.opts(input).generate();
+    }
+
+    private static Map<String, String> contents(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<Path> regularFiles = files.filter(Files::isRegularFile).collect(Collectors.toList());
+            Map<String, String> contents = new TreeMap<>();
+            for (Path file : regularFiles) {
+                contents.put(directory.relativize(file).toString().replace(File.separatorChar, '/'), new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1));
+            }
+            return contents;
+        }
+    }
+}
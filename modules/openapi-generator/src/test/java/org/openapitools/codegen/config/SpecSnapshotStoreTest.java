@@ -0,0 +1,257 @@
+package org.openapitools.codegen.config;
+
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.apache.commons.io.FileUtils;
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.DefaultGenerator;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class SpecSnapshotStoreTest {
+    @AfterMethod
+    public void tearDown() {
+        GlobalSettings.reset();
+    }
+
+    @DataProvider(name = "specs")
+    public Object[][] specs() {
+        return new Object[][]{
+                {"src/test/resources/2_0/petstore.yaml"},
+                {"src/test/resources/3_0/petstore-with-fake-endpoints-models-for-testing.yaml"},
+                {"src/test/resources/3_0/composed-oneof.yaml"},
+                {"src/test/resources/3_0/issue_16223.yaml"},
+                {"src/test/resources/3_1/petstore.yaml"},
+                {"src/test/resources/3_1/composed-schema.yaml"},
+        };
+    }
+
+    @Test(dataProvider = "specs")
+    public void testSnapshotMatchesParsedSpec(String inputSpec) throws IOException {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        SwaggerParseResult parsed = new OpenAPIParser().readLocation(inputSpec, null, options);
+
+        OpenAPI snapshot = (OpenAPI) roundTrip(parsed.getOpenAPI());
+
+        Assert.assertEquals(Json.pretty(snapshot), Json.pretty(parsed.getOpenAPI()));
+        Map<String, Schema> schemas = parsed.getOpenAPI().getComponents().getSchemas();
+        schemas.forEach((name, schema) -> Assert.assertEquals(
+                snapshot.getComponents().getSchemas().get(name).getClass(), schema.getClass(), name));
+    }
+
+    @Test
+    public void testSnapshotPreservesSharedAndCyclicModels() throws IOException {
+        Schema<?> shared = new StringSchema();
+        ObjectSchema node = new ObjectSchema();
+        node.addProperty("self", node);
+        node.addProperty("first", shared);
+        node.addProperty("second", shared);
+        node.setExample(OffsetDateTime.parse("2024-01-02T03:04:05Z"));
+        node.addExtension("x-values", Collections.unmodifiableList(Arrays.asList(1, 2L, "three")));
+        ComposedSchema composed = new ComposedSchema();
+        composed.addAllOfItem(node);
+        OpenAPI openAPI = new OpenAPI().components(new Components()
+                .addSchemas("Node", node)
+                .addSchemas("Composed", composed));
+
+        OpenAPI snapshot = (OpenAPI) roundTrip(openAPI);
+
+        Schema<?> nodeCopy = snapshot.getComponents().getSchemas().get("Node");
+        Assert.assertSame(nodeCopy.getProperties().get("self"), nodeCopy);
+        Assert.assertSame(nodeCopy.getProperties().get("first"), nodeCopy.getProperties().get("second"));
+        Assert.assertTrue(nodeCopy.getProperties().get("first") instanceof StringSchema);
+        Assert.assertEquals(nodeCopy.getExample(), node.getExample());
+        Assert.assertEquals(nodeCopy.getExtensions().get("x-values"), Arrays.asList(1, 2L, "three"));
+        Schema<?> composedCopy = snapshot.getComponents().getSchemas().get("Composed");
+        Assert.assertTrue(composedCopy instanceof ComposedSchema);
+        Assert.assertSame(composedCopy.getAllOf().get(0), nodeCopy);
+    }
+
+    @Test
+    public void testUnsupportedValuesAreNotSnapshotted() {
+        ObjectSchema custom = new ObjectSchema();
+        custom.addExtension("x-custom", new StringBuilder("mutable"));
+        OpenAPI openAPI = new OpenAPI().components(new Components().addSchemas("Custom", custom));
+
+        Assert.expectThrows(IOException.class, () -> roundTrip(openAPI));
+    }
+
+    @Test
+    public void testCorruptSnapshotsAreNotRead() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OpenAPISnapshot.write(new Object[]{"value"}, new DataOutputStream(bytes));
+        byte[] snapshot = bytes.toByteArray();
+        // the length of the array follows the name of its component type
+        byte[] componentType = Object.class.getName().getBytes(StandardCharsets.UTF_8);
+        int length = indexOf(snapshot, componentType) + componentType.length;
+        for (int corrupt : new int[]{-1, Integer.MAX_VALUE, snapshot.length}) {
+            ByteBuffer.wrap(snapshot).putInt(length, corrupt);
+            Assert.expectThrows(IOException.class,
+                    () -> OpenAPISnapshot.read(new ByteArrayInputStream(snapshot), snapshot.length));
+        }
+
+        Path directory = Files.createTempDirectory("spec-snapshot-corrupt");
+        try {
+            SpecSnapshotStore store = new SpecSnapshotStore(directory);
+            OpenAPI openAPI = new OpenAPI().components(new Components().addSchemas("Pet", new ObjectSchema()));
+            store.writeNormalized("content", "settings", openAPI);
+            Assert.assertNotNull(store.readNormalized("content", "settings"));
+
+            Path file;
+            try (Stream<Path> files = Files.list(directory.resolve("content"))) {
+                file = files.findFirst().get();
+            }
+            byte[] written = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(written, written.length / 2));
+            Assert.assertNull(store.readNormalized("content", "settings"));
+            // a snapshot of the parsed spec read as the normalized one
+            SwaggerParseResult parsed = new SwaggerParseResult();
+            parsed.setOpenAPI(openAPI);
+            store.writeParsed("content", parsed);
+            Assert.assertNull(store.readNormalized("content", "parsed"));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void testContentKeyCoversReferencedFiles() throws IOException {
+        Path directory = Files.createTempDirectory("spec-snapshot-key");
+        try {
+            Path spec = directory.resolve("openapi.yaml");
+            Path pet = Files.createDirectories(directory.resolve("schemas")).resolve("pet.yaml");
+            Files.write(spec, Arrays.asList(
+                    "openapi: 3.0.1",
+                    "info: {title: Pets, version: '1'}",
+                    "paths: {}",
+                    "components:",
+                    "  schemas:",
+                    "    Pet:",
+                    "      $ref: 'schemas/pet.yaml#/Pet'"), StandardCharsets.UTF_8);
+            Files.write(pet, Arrays.asList("Pet:", "  type: object"), StandardCharsets.UTF_8);
+            SpecSnapshotStore store = new SpecSnapshotStore(directory.resolve("snapshots"));
+
+            String key = store.contentKey(spec.toString());
+            Assert.assertNotNull(key);
+            Assert.assertEquals(store.contentKey(spec.toString()), key);
+
+            Files.write(pet, Arrays.asList("Pet:", "  type: string"), StandardCharsets.UTF_8);
+            Assert.assertNotEquals(store.contentKey(spec.toString()), key);
+
+            Files.write(pet, Arrays.asList("Pet:", "  $ref: 'https://example.com/pet.yaml'"), StandardCharsets.UTF_8);
+            Assert.assertNull(store.contentKey(spec.toString()));
+            Assert.assertNull(store.contentKey("https://example.com/openapi.yaml"));
+            Assert.assertNull(store.contentKey(directory.resolve("missing.yaml").toString()));
+        } finally {
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    @Test
+    public void testGenerateFromSnapshots() throws IOException {
+        String inputSpec = "src/test/resources/3_0/petstore-with-fake-endpoints-models-for-testing.yaml";
+        Path output = Files.createTempDirectory("spec-snapshot");
+        try {
+            Path snapshots = output.resolve("snapshots");
+            generate(inputSpec, output.resolve("first"), snapshots);
+            String key = new SpecSnapshotStore(snapshots).contentKey(inputSpec);
+            try (Stream<Path> files = Files.list(snapshots.resolve(key))) {
+                Assert.assertEquals(files.filter(file -> file.toString().endsWith(".snapshot")).count(), 2);
+            }
+
+            generate(inputSpec, output.resolve("snapshot"), snapshots);
+            generate(inputSpec, output.resolve("parsed"), null);
+            Map<String, String> fromSnapshot = contents(output.resolve("snapshot"));
+            Assert.assertTrue(fromSnapshot.containsKey("src/main/java/org/openapitools/client/model/Pet.java"));
+            Assert.assertEquals(fromSnapshot, contents(output.resolve("parsed")));
+
+            // the normalized snapshot is used: a model removed from it is not generated
+            SpecSnapshotStore store = new SpecSnapshotStore(snapshots);
+            Path normalized;
+            try (Stream<Path> files = Files.list(snapshots.resolve(key))) {
+                normalized = files.filter(file -> !file.getFileName().toString().startsWith("parsed")).findFirst().get();
+            }
+            String settingsKey = normalized.getFileName().toString().replace(".snapshot", "");
+            OpenAPI openAPI = store.readNormalized(key, settingsKey);
+            openAPI.getComponents().getSchemas().remove("Pet");
+            store.writeNormalized(key, settingsKey, openAPI);
+            generate(inputSpec, output.resolve("modified"), snapshots);
+            Assert.assertFalse(contents(output.resolve("modified")).containsKey("src/main/java/org/openapitools/client/model/Pet.java"));
+        } finally {
+            FileUtils.deleteDirectory(output.toFile());
+        }
+    }
+
+    private static Object roundTrip(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OpenAPISnapshot.write(value, new DataOutputStream(bytes));
+        return OpenAPISnapshot.read(new ByteArrayInputStream(bytes.toByteArray()), bytes.size());
+    }
+
+    private static int indexOf(byte[] bytes, byte[] value) {
+        for (int i = 0; i + value.length <= bytes.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + value.length), value)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Not found");
+    }
+
+    private static void generate(String inputSpec, Path outputDir, Path snapshots) {
+        CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("java")
+                .setInputSpec(inputSpec)
+                .setOutputDir(outputDir.toString())
+                .addAdditionalProperty(CodegenConstants.HIDE_GENERATION_TIMESTAMP, true);
+        if (snapshots != null) {
+            configurator.addGlobalProperty(CodegenConstants.SPEC_SNAPSHOT_DIR, snapshots.toString());
+        }
+        ClientOptInput input = configurator.toClientOptInput();
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.setGenerateMetadata(false);
+        generator.opts(input).generate();
+        GlobalSettings.reset();
+    }
+
+    private static Map<String, String> contents(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<Path> regularFiles = files.filter(Files::isRegularFile).collect(Collectors.toList());
+            Map<String, String> contents = new TreeMap<>();
+            for (Path file : regularFiles) {
+                contents.put(directory.relativize(file).toString().replace(File.separatorChar, '/'),
+                        new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1));
+            }
+            return contents;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.openapitools.codegen.ignore;
+
+import org.openapitools.codegen.ignore.rules.DirectoryRule;
+import org.openapitools.codegen.ignore.rules.Rule;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CodegenIgnoreProcessorTest {
+    private File directory;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("codegen-ignore").toFile();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        directory.delete();
+    }
+
+    @DataProvider(name = "rules")
+    public Object[][] rules() {
+        return new Object[][]{
+                // file rules
+                {"README.md", "README.md", false},
+                {"README.md", "docs/README.md", true},
+                {"*.md", "README.md", false},
+                {"*.md", "docs/README.md", true},
+                {"**/*.md", "docs/README.md", false},
+                {"**/*.md", "README.md", true},
+                {"docs/*.md", "docs/README.md", false},
+                {"docs/*.md", "docs/api/README.md", true},
+                {"docs/**/*.md", "docs/api/v1/README.md", false},
+                {"src/main/java/Api.java", "src/main/java/Api.java", false},
+                {"src/main/java/Api.java", "src/main/java/ApiTest.java", true},
+                {"src/**", "src/main/java/Api.java", false},
+                {"src/{main,test}/Api.java", "src/test/Api.java", false},
+                {"src/Ap?.java", "src/Api.java", false},
+                {"src/[A-Z]pi.java", "src/api.java", true},
+                // rooted file rules
+                {"/README.md", "README.md", false},
+                {"/README.md", "docs/README.md", true},
+                {"/*.md", "README.md", false},
+                {"/*.md", "docs/README.md", true},
+                {"/READ*", "README", false},
+                {"/READ*.md", "README.md", false},
+                {"/READ*.md", "README.txt", true},
+                {"*", "README", false},
+                {"*", "README.md", true},
+                {"*", "docs/README", true},
+                // directory rules
+                {"docs/", "docs/README.md", false},
+                {"docs/", "docs/api/README.md", false},
+                {"docs/", "src/docs/README.md", true},
+                {"docs/", "docs", true},
+                {"docs/api/", "docs/api/v1/README.md", false},
+                {"docs/api/", "docs/README.md", true},
+                {"**/api/", "src/api/Api.java", false},
+                {"**/api/", "api/Api.java", true},
+                {"*/api/", "src/api/Api.java", false},
+                {"*/api/", "src/main/api/Api.java", true},
+                {"src/*/", "src/main/Api.java", false},
+                {"src/*/", "src/Api.java", true},
+                {"**/", "src/Api.java", false},
+                {"**/", "Api.java", true},
+                // inclusion rules
+                {"*.md\n!README.md", "README.md", true},
+                {"*.md\n!README.md", "CHANGES.md", false},
+                {"**/*.md\n!docs/api/*.md", "docs/api/README.md", true},
+                {"**/*.md\n!docs/api/*.md", "docs/README.md", false},
+                {"docs/\n!docs/README.md", "docs/README.md", false},
+                {"docs/\n!docs/api/", "docs/api/README.md", true},
+                {"docs/\n!docs/api/", "docs/README.md", false},
+                {"api/\n!docs/api/", "docs/api/README.md", true},
+                {"docs/api/\n!docs/", "docs/api/README.md", true},
+                {"docs/\n*.md\n!README.md", "docs/README.md", false},
+                {"*.md\n!docs/", "docs/README.md", true},
+                {"!README.md", "README.md", true},
+                // comments, blank lines and invalid rules
+                {"# README.md\n\n*.txt", "README.md", true},
+                {"\\#README.md", "#README.md", false},
+                {".\n..\nREADME.md", "README.md", false},
+                {"a***\nREADME.md", "README.md", false},
+        };
+    }
+
+    @Test(dataProvider = "rules")
+    public void testAllowsFile(String contents, String path, boolean allowed) {
+        CodegenIgnoreProcessor processor = new CodegenIgnoreProcessor(new File(directory, ".openapi-generator-ignore"), contents);
+
+        Assert.assertEquals(processor.allowsFile(new File(directory, path)), allowed, contents + " -> " + path);
+        // evaluated again, once the directories of the file are known
+        Assert.assertEquals(processor.allowsFile(new File(directory, path)), allowed, contents + " -> " + path);
+    }
+
+    @Test
+    public void testAllowsFilesOfManyRules() {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            contents.append("generated/dir").append(i).append("/\n");
+            contents.append("generated/file").append(i).append(".txt\n");
+            contents.append("**/*.ext").append(i).append('\n');
+        }
+        contents.append("!generated/dir7/Keep.java\n");
+        contents.append("!generated/file8.txt\n");
+        CodegenIgnoreProcessor processor = new CodegenIgnoreProcessor(new File(directory, ".openapi-generator-ignore"), contents.toString());
+
+        List<String> excluded = Arrays.asList("generated/dir0/A.java", "generated/dir299/sub/A.java",
+                "generated/dir7/Keep.java", "generated/file299.txt", "src/a/b/c.ext42");
+        List<String> allowed = Arrays.asList("generated/dir300/A.java", "generated/file300.txt",
+                "generated/file8.txt", "src/a/b/c.ext300", "generated/A.java");
+        for (String path : excluded) {
+            Assert.assertFalse(processor.allowsFile(new File(directory, path)), path);
+        }
+        for (String path : allowed) {
+            Assert.assertTrue(processor.allowsFile(new File(directory, path)), path);
+        }
+    }
+
+    @Test
+    public void testAllowsFileAsRulesEvaluatedOneByOne() {
+        List<String> definitions = Arrays.asList("README.md", "*.md", "**/*.md", "docs/", "docs/api/", "**/api/",
+                "*/api/", "src/*/", "src/**", "**/", "/*.md", "*", "src/{main,test}/", "src/[a-m]*/", "docs\\/");
+        List<String> paths = Arrays.asList("README", "README.md", "docs/README.md", "docs/api/README.md",
+                "docs/api/v1/README", "src/api/Api.java", "src/main/api/Api.java", "src/test/Api.java",
+                "src/zeta/Api.java", "api/Api.java", "docs/api");
+        for (String exclusion : definitions) {
+            for (String inclusion : definitions) {
+                String contents = exclusion + "\n!" + inclusion;
+                CodegenIgnoreProcessor processor = new CodegenIgnoreProcessor(new File(directory, ".openapi-generator-ignore"), contents);
+                for (String path : paths) {
+                    File file = new File(directory, path);
+                    String relativePath = new File(directory.toURI().relativize(file.toURI()).getPath()).getPath();
+                    Assert.assertEquals(processor.allowsFile(file), allowsByRules(processor, relativePath), contents + " -> " + path);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAllowsEverythingWithoutIgnoreFile() {
+        CodegenIgnoreProcessor processor = new CodegenIgnoreProcessor(new File(directory, "missing-ignore-file"));
+
+        Assert.assertTrue(processor.allowsFile(new File(directory, "README.md")));
+    }
+
+    /**
+     * Evaluates the rules one by one.
+     */
+    private static boolean allowsByRules(CodegenIgnoreProcessor processor, String path) {
+        boolean exclude = false;
+        boolean directoryExcluded = false;
+        for (Rule rule : processor.getExclusionRules()) {
+            if (rule.evaluate(path) == Rule.Operation.EXCLUDE) {
+                exclude = true;
+                directoryExcluded |= rule instanceof DirectoryRule;
+            }
+        }
+        List<Rule> inclusionRules = new ArrayList<>(processor.getInclusionRules());
+        for (int i = 0; exclude && i < inclusionRules.size(); i++) {
+            Rule rule = inclusionRules.get(i);
+            if (rule.evaluate(path) == Rule.Operation.INCLUDE
+                    && (!directoryExcluded || rule instanceof DirectoryRule)) {
+                exclude = false;
+            }
+        }
+        return !exclude;
+    }
+}
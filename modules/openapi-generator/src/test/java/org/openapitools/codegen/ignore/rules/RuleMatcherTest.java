@@ -0,0 +1,25 @@
+package org.openapitools.codegen.ignore.rules;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class RuleMatcherTest {
+
+    @Test
+    public void testAllowsPathWithSystemSeparators() {
+        List<Rule> exclusions = Arrays.asList(Rule.create("docs/"), Rule.create("src/*/Api.java"), Rule.create("**/*.md"));
+        List<Rule> inclusions = Arrays.asList(Rule.create("docs/api/"));
+        RuleMatcher matcher = new RuleMatcher(exclusions, inclusions, '\\');
+
+        Assert.assertFalse(matcher.allows("docs\\README"));
+        Assert.assertTrue(matcher.allows("docs\\api\\README"));
+        Assert.assertFalse(matcher.allows("src\\main\\Api.java"));
+        Assert.assertTrue(matcher.allows("src\\main\\Model.java"));
+        Assert.assertFalse(matcher.allows("a\\b\\README.md"));
+        // paths with '/' separators are still accepted
+        Assert.assertFalse(matcher.allows("src/main/Api.java"));
+    }
+}
@@ -1,11 +1,16 @@
 package org.openapitools.codegen.templating;
 
+import com.github.jknack.handlebars.ValueResolver;
 import org.mockito.Mockito;
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenProperty;
 import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.templating.handlebars.CodegenValueResolver;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import static org.testng.Assert.assertEquals;
@@ -77,6 +82,54 @@ public class HandlebarsEngineAdapterTest {
                 "  private property: raw_data3");
     }
 
+    @Test(description = "compiled templates are reused until their contents change")
+    public void testCompiledTemplateCache() throws IOException {
+        // Given
+        HandlebarsEngineAdapter adapter = new HandlebarsEngineAdapter();
+        TemplatingExecutor executorMock = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(executorMock.getFullTemplateContents("outerTemplate.hbs")).thenReturn("Contents: {{>innerTemplate}}");
+        Mockito.when(executorMock.getFullTemplateContents("innerTemplate.hbs")).thenReturn("{{name}}", "{{name}}", "changed {{name}}");
+
+        // When
+        String first = adapter.compileTemplate(executorMock, Map.of("name", "first"), "outerTemplate.hbs");
+        String second = adapter.compileTemplate(executorMock, Map.of("name", "second"), "outerTemplate.hbs");
+        String third = adapter.compileTemplate(executorMock, Map.of("name", "third"), "outerTemplate.hbs");
+
+        // Then
+        assertEquals(first, "Contents: first");
+        assertEquals(second, "Contents: second");
+        assertEquals(third, "Contents: changed third");
+        assertEquals(adapter.getTemplateCache().getMissCount(), 3);
+        assertEquals(adapter.getTemplateCache().getHitCount(), 3);
+    }
+
+    @Test(description = "codegen objects resolve as through the reflective resolvers")
+    public void testCodegenValueResolver() throws IOException {
+        // Given
+        HandlebarsEngineAdapter adapter = new HandlebarsEngineAdapter();
+        TemplatingExecutor executorMock = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(executorMock.getFullTemplateContents("model.hbs")).thenReturn(
+                "{{#model}}{{classname}} {{#vars}}{{name}}:{{dataType}}{{#isString}} (string){{/isString}}{{/vars}} {{hasVars}}{{/model}}");
+        CodegenProperty property = new CodegenProperty();
+        property.name = "id";
+        property.dataType = "String";
+        property.isString = true;
+        CodegenModel model = new CodegenModel();
+        model.classname = "Pet";
+        model.vars = List.of(property);
+        model.setHasVars(true);
+
+        // When
+        String generatedFile = adapter.compileTemplate(executorMock, Map.of("model", model), "model.hbs");
+
+        // Then
+        assertEquals(generatedFile, "Pet id:String (string) true");
+        assertEquals(CodegenValueResolver.INSTANCE.resolve(property, "name"), "id");
+        assertEquals(CodegenValueResolver.INSTANCE.resolve(model, "hasVars"), true);
+        assertEquals(CodegenValueResolver.INSTANCE.resolve(new PropertyObject(), "valueOnly"), ValueResolver.UNRESOLVED);
+        assertEquals(CodegenValueResolver.INSTANCE.resolve(model, "unknown"), ValueResolver.UNRESOLVED);
+    }
+
     static class PropertyObject {
         /**
          * getter-exposed
@@ -0,0 +1,72 @@
+package org.openapitools.codegen.templating;
+
+import org.mockito.Mockito;
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+public class MustacheTemplateCacheTest {
+    private static final Map<String, Object> BUNDLE = Map.of("name", "Pet", CodegenConstants.MUSTACHE_PARENT_CONTEXT, new Object());
+
+    @Test
+    public void reusesCompiledTemplatesWithinRun() throws IOException {
+        MustacheEngineAdapter adapter = new MustacheEngineAdapter();
+        adapter.setTemplateCache(new MustacheTemplateCache(10));
+        TemplatingExecutor executor = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(executor.getFullTemplateContents("model.mustache")).thenReturn("model {{>name}}");
+        Mockito.when(executor.getFullTemplateContents("name.mustache")).thenReturn("{{name}}");
+
+        assertEquals(adapter.compileTemplate(executor, BUNDLE, "model.mustache"), "model Pet");
+        assertEquals(adapter.compileTemplate(executor, BUNDLE, "model.mustache"), "model Pet");
+
+        assertEquals(adapter.getTemplateCache().getMissCount(), 1);
+        assertEquals(adapter.getTemplateCache().getHitCount(), 1);
+        // the partial is loaded once and memoized inside the cached template
+        Mockito.verify(executor, Mockito.times(1)).getFullTemplateContents("name.mustache");
+    }
+
+    @Test
+    public void recompilesWhenTemplateContentsChange() throws IOException {
+        MustacheEngineAdapter adapter = new MustacheEngineAdapter();
+        adapter.setTemplateCache(new MustacheTemplateCache(10));
+        TemplatingExecutor executor = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(executor.getFullTemplateContents("model.mustache")).thenReturn("first {{name}}", "second {{name}}");
+
+        assertEquals(adapter.compileTemplate(executor, BUNDLE, "model.mustache"), "first Pet");
+        assertEquals(adapter.compileTemplate(executor, BUNDLE, "model.mustache"), "second Pet");
+        assertEquals(adapter.getTemplateCache().getMissCount(), 2);
+    }
+
+    @Test
+    public void revalidatesPartialsForAnotherExecutor() throws IOException {
+        MustacheTemplateCache cache = new MustacheTemplateCache(10);
+
+        MustacheEngineAdapter first = new MustacheEngineAdapter();
+        first.setTemplateCache(cache);
+        TemplatingExecutor firstExecutor = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(firstExecutor.getFullTemplateContents("model.mustache")).thenReturn("model {{>name}}");
+        Mockito.when(firstExecutor.getFullTemplateContents("name.mustache")).thenReturn("{{name}}");
+        assertEquals(first.compileTemplate(firstExecutor, BUNDLE, "model.mustache"), "model Pet");
+
+        MustacheEngineAdapter unchanged = new MustacheEngineAdapter();
+        unchanged.setTemplateCache(cache);
+        TemplatingExecutor unchangedExecutor = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(unchangedExecutor.getFullTemplateContents("model.mustache")).thenReturn("model {{>name}}");
+        Mockito.when(unchangedExecutor.getFullTemplateContents("name.mustache")).thenReturn("{{name}}");
+        assertEquals(unchanged.compileTemplate(unchangedExecutor, BUNDLE, "model.mustache"), "model Pet");
+        assertEquals(cache.getHitCount(), 1);
+
+        MustacheEngineAdapter customized = new MustacheEngineAdapter();
+        customized.setTemplateCache(cache);
+        TemplatingExecutor customizedExecutor = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(customizedExecutor.getFullTemplateContents("model.mustache")).thenReturn("model {{>name}}");
+        Mockito.when(customizedExecutor.getFullTemplateContents("name.mustache")).thenReturn("custom {{name}}");
+        assertEquals(customized.compileTemplate(customizedExecutor, BUNDLE, "model.mustache"), "model custom Pet");
+        assertEquals(cache.getMissCount(), 2);
+    }
+}
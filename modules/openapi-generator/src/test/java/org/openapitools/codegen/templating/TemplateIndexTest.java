@@ -0,0 +1,73 @@
+package org.openapitools.codegen.templating;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TemplateIndexTest {
+    @Test
+    public void indexesFilesForTheRun() throws IOException {
+        Path dir = Files.createTempDirectory("templates");
+        Path model = Files.writeString(dir.resolve("model.mustache"), "model");
+        Path api = dir.resolve("api.mustache");
+        TemplateIndex index = new TemplateIndex();
+
+        assertTrue(index.exists(model.toString()));
+        assertEquals(index.read(model.toString()), "model");
+        assertFalse(index.exists(api.toString()));
+        assertNull(index.read(api.toString()));
+
+        Files.writeString(model, "changed");
+        Files.writeString(api, "api");
+
+        assertEquals(index.read(model.toString()), "model");
+        assertFalse(index.exists(api.toString()));
+        assertNull(index.read(api.toString()));
+    }
+
+    @Test
+    public void readsEmbeddedTemplates() throws IOException {
+        TemplateIndex index = new TemplateIndex();
+
+        assertTrue(TemplateIndex.resourceExists("Java/model.mustache"));
+        assertTrue(index.exists("Java/model.mustache"));
+        assertEquals(index.read("Java/model.mustache"), new String(
+                getClass().getClassLoader().getResourceAsStream("Java/model.mustache").readAllBytes(), StandardCharsets.UTF_8));
+        assertFalse(index.exists("Java/unknown.mustache"));
+    }
+
+    @Test
+    public void checksIndexedFilesForChangesInEachRun() throws IOException {
+        Path dir = Files.createTempDirectory("templates");
+        Path model = Files.writeString(dir.resolve("model.mustache"), "model");
+        Path api = dir.resolve("api.mustache");
+        Path unwatched = Files.writeString(Files.createTempDirectory("unwatched").resolve("api.mustache"), "api");
+        TemplateIndex index = new TemplateIndex(true);
+        index.watch(dir);
+        index.startRun();
+
+        assertEquals(index.read(model.toString()), "model");
+        assertFalse(index.exists(api.toString()));
+        assertEquals(index.read(unwatched.toString()), "api");
+
+        Files.writeString(model, "changed");
+        Files.writeString(api, "api");
+        Files.delete(unwatched);
+        Files.writeString(Files.createFile(unwatched), "replaced api");
+        index.startRun();
+
+        // checked on first access, whether or not the watcher reported the changes yet
+        assertEquals(index.read(model.toString()), "changed");
+        assertTrue(index.exists(api.toString()));
+        assertEquals(index.read(api.toString()), "api");
+        assertEquals(index.read(unwatched.toString()), "replaced api");
+    }
+}
@@ -0,0 +1,58 @@
+package org.openapitools.codegen.templating.mustache;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.testng.annotations.Test;
+
+public class CopyLambdaTest extends LambdaTest {
+
+    private static Map<String, Object> context(CopyLambda copyLambda) {
+        return context("name", "Pet", "copy", copyLambda, "paste", new PasteLambda(copyLambda, true, true, false, false));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void copyThenPaste() {
+        CopyLambda copyLambda = new CopyLambda();
+
+        test("class Pet", "{{#copy}}class {{name}}{{/copy}}{{#paste}}{{/paste}}", context(copyLambda));
+        assertEquals(copyLambda.savedContent, "class Pet");
+        assertEquals(copyLambda.getSavedContent(), "class Pet");
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void copyWithinRenderTask() throws Exception {
+        CopyLambda copyLambda = new CopyLambda();
+        copyLambda.savedContent = "sequential";
+
+        CopyLambda.beginRenderTask();
+        try {
+            test("class Pet", "{{#copy}}class {{name}}{{/copy}}{{#paste}}{{/paste}}", context(copyLambda));
+            // other threads don't see the content copied by the task
+            assertNull(CompletableFuture.supplyAsync(() -> {
+                CopyLambda.beginRenderTask();
+                try {
+                    return copyLambda.getSavedContent();
+                } finally {
+                    CopyLambda.endRenderTask();
+                }
+            }).get());
+        } finally {
+            CopyLambda.endRenderTask();
+        }
+
+        assertEquals(copyLambda.savedContent, "sequential");
+        assertEquals(copyLambda.getSavedContent(), "sequential");
+        CopyLambda.beginRenderTask();
+        try {
+            test("", "{{#paste}}{{/paste}}", context(copyLambda));
+        } finally {
+            CopyLambda.endRenderTask();
+        }
+    }
+}
@@ -118,6 +118,110 @@ public class ModelUtilsTest {
         Assert.assertTrue(unusedSchemas.contains("SomeObj7"), "contains 'SomeObj7'");
     }
 
+    @Test
+    public void testSchemaReferenceIndex() {
+        final OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/unusedSchemas.yaml");
+        SchemaReferenceIndex index = ModelUtils.getSchemaReferenceIndex(openAPI);
+
+        Assert.assertEquals(index.getOutgoingReferences("AChild30"), Set.of("Parent30"));
+        Assert.assertEquals(index.getIncomingReferences("Parent30"), Set.of("AChild30", "BChild30"));
+        Assert.assertEquals(index.getParent("BChild30"), "Parent30");
+        Assert.assertEquals(new HashSet<>(index.getChildren("Parent30")), Set.of("AChild30", "BChild30"));
+        Assert.assertEquals(index.getMediaTypes("SomeObj2"), Set.of("application/x-www-form-urlencoded"));
+        Assert.assertTrue(index.getMediaTypes("UnusedObj1").isEmpty());
+        Assert.assertEquals(index.getAllUsedSchemas(), ModelUtils.getAllUsedSchemas(openAPI));
+        Assert.assertEquals(index.getUnusedSchemas(), ModelUtils.getUnusedSchemas(openAPI));
+    }
+
+    @Test
+    public void testHasSelfReference() {
+        Schema node = new ObjectSchema()
+                .addProperty("value", new StringSchema())
+                .addProperty("next", new Schema<>().$ref("#/components/schemas/Node"));
+        Schema leaf = new ObjectSchema().addProperty("value", new StringSchema());
+        Schema tree = new ObjectSchema()
+                .addProperty("left", new Schema<>().$ref("#/components/schemas/Leaf"))
+                .addProperty("right", new ArraySchema().items(new Schema<>().$ref("#/components/schemas/Node")));
+        OpenAPI openAPI = new OpenAPI().components(new io.swagger.v3.oas.models.Components()
+                .addSchemas("Node", node)
+                .addSchemas("Leaf", leaf)
+                .addSchemas("Tree", tree));
+
+        Assert.assertTrue(ModelUtils.hasSelfReference(openAPI, node));
+        Assert.assertTrue(ModelUtils.hasSelfReference(openAPI, tree));
+        Assert.assertFalse(ModelUtils.hasSelfReference(openAPI, leaf));
+        Assert.assertTrue(ModelUtils.getSchemaReferenceIndex(openAPI).hasSelfReference("Node"));
+        Assert.assertFalse(ModelUtils.getSchemaReferenceIndex(openAPI).hasSelfReference("Leaf"));
+        Assert.assertEquals(ModelUtils.getSchemaReferenceIndex(openAPI).getIncomingReferences("Node"), Set.of("Node", "Tree"));
+    }
+
+    @Test
+    public void testHasSelfReferenceOfDiamond() {
+        // Top -> Left -> Bottom and Top -> Right -> Bottom, Bottom being referenced twice by Left
+        Schema bottom = new ObjectSchema().addProperty("value", new StringSchema());
+        Schema left = new ObjectSchema()
+                .addProperty("first", new Schema<>().$ref("#/components/schemas/Bottom"))
+                .addProperty("second", new Schema<>().$ref("#/components/schemas/Bottom"));
+        Schema right = new ComposedSchema().addAllOfItem(new Schema<>().$ref("#/components/schemas/Bottom"));
+        Schema top = new ObjectSchema()
+                .addProperty("left", new Schema<>().$ref("#/components/schemas/Left"))
+                .addProperty("right", new Schema<>().$ref("#/components/schemas/Right"));
+        OpenAPI openAPI = new OpenAPI().components(new io.swagger.v3.oas.models.Components()
+                .addSchemas("Top", top)
+                .addSchemas("Left", left)
+                .addSchemas("Right", right)
+                .addSchemas("Bottom", bottom));
+
+        for (Schema schema : Arrays.asList(top, left, right, bottom)) {
+            Assert.assertFalse(ModelUtils.hasSelfReference(openAPI, schema));
+            Assert.assertFalse(ModelUtils.hasSelfReference(openAPI, schema, new HashSet<>()));
+        }
+        Assert.assertFalse(ModelUtils.getSchemaReferenceIndex(openAPI).hasSelfReference("Top"));
+        // a schema reaching one of the schemas referencing it
+        Assert.assertTrue(ModelUtils.hasSelfReference(openAPI, left, Set.of("Bottom")));
+
+        // closing a cycle through the properties of a composed schema
+        right.addProperty("top", new Schema<>().$ref("#/components/schemas/Top"));
+        Assert.assertTrue(ModelUtils.hasSelfReference(openAPI, top));
+        Assert.assertTrue(ModelUtils.hasSelfReference(openAPI, top, null));
+        Assert.assertFalse(ModelUtils.hasSelfReference(openAPI, left));
+    }
+
+    @Test
+    public void testSchemaReferenceCache() {
+        Schema name = new StringSchema();
+        Schema pet = new ObjectSchema().addProperty("name", name);
+        Schema petRef = new Schema<>().$ref("#/components/schemas/Pet");
+        Schema nameRef = new Schema<>().$ref("#/components/schemas/Pet/properties/name");
+        OpenAPI openAPI = new OpenAPI().components(new io.swagger.v3.oas.models.Components().addSchemas("Pet", pet));
+
+        ModelUtils.enableSchemaReferenceCache(openAPI);
+        try {
+            Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, petRef), pet);
+            Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, nameRef), name);
+
+            // replacing a schema of the document, or one of its properties, is detected
+            Schema newName = new StringSchema();
+            pet.getProperties().put("name", newName);
+            Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, nameRef), newName);
+            Schema newPet = new ObjectSchema();
+            openAPI.getComponents().addSchemas("Pet", newPet);
+            Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, petRef), newPet);
+            openAPI.getComponents().setSchemas(new LinkedHashMap<>(Map.of("Pet", pet)));
+            Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, petRef), pet);
+
+            // so is a schema pointing elsewhere
+            petRef.set$ref("#/components/schemas/Missing");
+            Assert.assertSame(ModelUtils.getReferencedSchema(openAPI, petRef), petRef);
+
+            // other documents are not affected
+            OpenAPI other = new OpenAPI().components(new io.swagger.v3.oas.models.Components().addSchemas("Pet", newPet));
+            Assert.assertSame(ModelUtils.getReferencedSchema(other, new Schema<>().$ref("#/components/schemas/Pet")), newPet);
+        } finally {
+            ModelUtils.disableSchemaReferenceCache();
+        }
+    }
+
     @Test
     public void testNestedFormParameter() {
         final OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/2_0/nestedFormParameter.yaml");
@@ -0,0 +1,73 @@
+package org.openapitools.codegen.utils;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.codegen.TestUtils;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class NameCachesTest {
+    @Test
+    public void testSizeFromDocument() {
+        Assert.assertEquals(NameCaches.sizeFor(new OpenAPI()), 256);
+
+        OpenAPI small = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+        OpenAPI large = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore-with-fake-endpoints-models-for-testing.yaml");
+        Assert.assertTrue(NameCaches.sizeFor(small) > 256);
+        Assert.assertTrue(NameCaches.sizeFor(large) > NameCaches.sizeFor(small));
+    }
+
+    @Test
+    public void testSizeProperty() {
+        OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+        GlobalSettings.setProperty(StringUtils.NAME_CACHE_SIZE_PROPERTY, "1");
+        NameCaches caches = NameCaches.open(openAPI);
+        try {
+            caches.getSanitizedNames().put("a", "a");
+            caches.getSanitizedNames().put("b", "b");
+            caches.getSanitizedNames().cleanUp();
+            Assert.assertEquals(caches.getSanitizedNames().estimatedSize(), 1);
+        } finally {
+            caches.close();
+            GlobalSettings.reset();
+        }
+    }
+
+    @Test
+    public void testRunScope() throws InterruptedException {
+        OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+        NameCaches global = NameCaches.current();
+        NameCaches caches = NameCaches.open(openAPI);
+        try {
+            Assert.assertSame(NameCaches.current(), caches);
+
+            StringUtils.camelize("with\\backslash");
+            StringUtils.camelize("with\\backslash");
+            Assert.assertEquals(caches.stats().get("camelize").missCount(), 1);
+            Assert.assertEquals(caches.stats().get("camelize").hitCount(), 1);
+
+            // threads created within the run share its caches, other runs use their own
+            AtomicReference<NameCaches> inherited = new AtomicReference<>();
+            AtomicReference<NameCaches> other = new AtomicReference<>();
+            Thread child = new Thread(() -> {
+                inherited.set(NameCaches.current());
+                NameCaches otherCaches = NameCaches.open(openAPI);
+                other.set(NameCaches.current());
+                otherCaches.close();
+            });
+            child.start();
+            child.join();
+            Assert.assertSame(inherited.get(), caches);
+            Assert.assertNotSame(other.get(), caches);
+            Assert.assertSame(NameCaches.current(), caches);
+        } finally {
+            caches.close();
+        }
+
+        Assert.assertSame(NameCaches.current(), global);
+        Assert.assertEquals(caches.getCamelizedWords().estimatedSize(), 0);
+        Assert.assertEquals(caches.stats().get("camelize").hitCount(), 1);
+    }
+}
@@ -0,0 +1,65 @@
+package org.openapitools.codegen.utils;
+
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SchemaStructureTest {
+    @Test
+    public void testSameStructureSameHash() {
+        SchemaStructure structure = new SchemaStructure();
+        Schema<?> left = pet(new StringSchema());
+        Schema<?> right = pet(new StringSchema());
+
+        Assert.assertEquals(structure.hash(left), structure.hash(right));
+        Assert.assertTrue(SchemaStructure.structurallyEqual(left, right));
+    }
+
+    @Test
+    public void testNestedDifferenceChangesHash() {
+        SchemaStructure structure = new SchemaStructure();
+        Schema<?> left = pet(new StringSchema());
+        Schema<?> right = pet(new IntegerSchema());
+
+        Assert.assertNotEquals(structure.hash(left), structure.hash(right));
+        Assert.assertFalse(SchemaStructure.structurallyEqual(left, right));
+        Assert.assertNotEquals(structure.hash(left.getProperties().get("tags")), structure.hash(right.getProperties().get("tags")));
+    }
+
+    @Test
+    public void testSharedNestedSchema() {
+        SchemaStructure structure = new SchemaStructure();
+        Schema<?> name = new StringSchema().maxLength(20);
+        Schema<?> left = new ObjectSchema().addProperty("first", name).addProperty("last", name);
+        Schema<?> right = new ObjectSchema().addProperty("first", new StringSchema().maxLength(20))
+                .addProperty("last", new StringSchema().maxLength(20));
+
+        Assert.assertEquals(structure.hash(left), structure.hash(right));
+        Assert.assertEquals(structure.hash(left), new SchemaStructure().hash(right));
+    }
+
+    @Test
+    public void testHashMemoizedByIdentity() {
+        SchemaStructure structure = new SchemaStructure();
+        Schema<?> schema = pet(new StringSchema());
+        Schema<?> unchanged = pet(new StringSchema());
+        structure.hash(schema);
+
+        schema.setDescription("changed once hashed");
+
+        Assert.assertEquals(structure.hash(schema), structure.hash(unchanged));
+        Assert.assertNotEquals(new SchemaStructure().hash(schema), structure.hash(unchanged));
+        Assert.assertFalse(SchemaStructure.structurallyEqual(schema, unchanged));
+    }
+
+    private static Schema<?> pet(Schema<?> tag) {
+        return new ObjectSchema()
+                .addProperty("name", new StringSchema())
+                .addProperty("tags", new ArraySchema().items(new ObjectSchema().addProperty("value", tag)))
+                .addRequiredItem("name");
+    }
+}
@@ -3,6 +3,11 @@ package org.openapitools.codegen.utils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
 import static org.openapitools.codegen.utils.CamelizeOption.LOWERCASE_FIRST_CHAR;
 import static org.openapitools.codegen.utils.CamelizeOption.LOWERCASE_FIRST_LETTER;
 import static org.openapitools.codegen.utils.StringUtils.*;
@@ -45,4 +50,48 @@ public class StringUtilsTest {
         Assert.assertEquals(dashize("Foo_Response__links"), "foo-response-links");
         Assert.assertEquals(dashize("Foo Response _links"), "foo-response-links");
     }
+
+    @Test
+    public void testCasingMatchesRegexImplementation() {
+        List<String> words = new ArrayList<>(Arrays.asList(
+                "", "abcd", "Abcd", "ABCD", "abCd", "ListABCs", "XMLHttpRequest", "some-value", "some_value",
+                "some value", "$type", "_type", "__type", "type_", "type-", "-type", "--type", "123", "1st_place",
+                "org.openapitools.Pet", "org/openapitools/Pet", "/pets/{petId}", "pets/", "a..b", ".", "/", "_", "-",
+                "Outer$Inner", "with\\backslash", "new\nline", "caf\u00e9", "\u00fcber_cool", "snake_case-and-kebab",
+                "HTTP2Client", "v1.2.3", "a-$", "a/$b", "PET_STATUS_AVAILABLE", "UPPER-case", "mixed_Case-String"));
+        // every word of up to 4 chars over an alphabet of the chars the casing rules handle specially
+        char[] alphabet = "aZb_-./ $1\\".toCharArray();
+        List<String> current = Arrays.asList("");
+        for (int length = 1; length <= 4; length++) {
+            List<String> next = new ArrayList<>();
+            for (String prefix : current) {
+                for (char c : alphabet) {
+                    next.add(prefix + c);
+                }
+            }
+            words.addAll(next);
+            current = next;
+        }
+
+        for (String word : words) {
+            for (CamelizeOption option : CamelizeOption.values()) {
+                assertSameResult(word + " " + option,
+                        () -> camelize(word, option), () -> StringUtils.camelizeWithRegex(word, option));
+            }
+            assertSameResult(word, () -> underscore(word), () -> StringUtils.underscoreWithRegex(word));
+            assertSameResult(word, () -> dashize(word),
+                    () -> StringUtils.underscoreWithRegex(word).replaceAll("[_ ]+", "-"));
+        }
+    }
+
+    private static void assertSameResult(String description, Supplier<String> actual, Supplier<String> expected) {
+        String expectedResult;
+        try {
+            expectedResult = expected.get();
+        } catch (RuntimeException e) {
+            Assert.assertThrows(e.getClass(), actual::get);
+            return;
+        }
+        Assert.assertEquals(actual.get(), expectedResult, "'" + description + "'");
+    }
 }